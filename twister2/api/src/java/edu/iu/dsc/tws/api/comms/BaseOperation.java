@@ -48,6 +48,17 @@ public abstract class BaseOperation {
     return op.isComplete();
   }
 
+  /**
+   * Whether all the messages of the operation are sent through the channel. Unlike
+   * {@link #isComplete()} this doesn't depend on the receivers, so it can be used with the
+   * streaming operations.
+   *
+   * @return true if there are no messages to send
+   */
+  public boolean isDelegateComplete() {
+    return op.isDelegateComplete();
+  }
+
   /**
    * Indicate the end of the communication
    *
@@ -94,6 +105,19 @@ public abstract class BaseOperation {
     return this.op.send(src, barrierId, MessageFlags.SYNC_BARRIER);
   }
 
+  /**
+   * Send a message to the given target, without selecting the destination
+   *
+   * @param src the source
+   * @param message the message
+   * @param flags message flags
+   * @param target the target
+   * @return true if the message is accepted
+   */
+  public boolean send(int src, Object message, int flags, int target) {
+    return this.op.send(src, message, flags, target);
+  }
+
   /**
    * Wait for the operation to complete
    */
@@ -45,6 +45,20 @@ public class CommunicationContext extends Context {
   public static final String ALLTOALL_ALGO_SIMPLE = "simple";
   public static final String ALLTOALL_ALGO_RING = "ring";
 
+  public static final String ALLREDUCE_ALGO_KEY = "twister2.network.allreduce.algorithm";
+  public static final String ALLREDUCE_ALGO_TREE = "tree";
+  public static final String ALLREDUCE_ALGO_RING = "ring";
+  public static final String ALLREDUCE_ALGO_DOUBLING = "doubling";
+  public static final String ALLREDUCE_ALGO_AUTO = "auto";
+  public static final String ALLREDUCE_RING_MIN_BYTES =
+      "twister2.network.allreduce.ring.bytes.min";
+  public static final String ALLREDUCE_ELEMENT_WISE = "twister2.network.allreduce.elementwise";
+
+  public static final String BARRIER_ALGO_KEY = "twister2.network.barrier.algorithm";
+  public static final String BARRIER_ALGO_MASTER = "master";
+  public static final String BARRIER_ALGO_TREE = "tree";
+  public static final String BARRIER_ALGO_DOUBLING = "doubling";
+
   public static final String BUFFER_SIZE = "twister2.network.buffer.size";
 
   public static final String SEND_BUFFERS_COUNT = "twister2.network.sendBuffer.count";
@@ -68,9 +82,29 @@ public class CommunicationContext extends Context {
       "twister2.network.shuffle.file.bytes.max";
   public static final String SHUFFLE_PARALLEL_IO =
       "twister2.network.shuffle.parallel.io";
+  public static final String SHUFFLE_BLOCK_SIZE =
+      "twister2.network.shuffle.block.bytes";
+  public static final String SHUFFLE_COMPRESSION =
+      "twister2.network.shuffle.compression";
+  public static final String SHUFFLE_PREFETCH_BLOCKS =
+      "twister2.network.shuffle.prefetch.blocks";
+  public static final String JOIN_HASH_MAX_BYTES_IN_MEMORY =
+      "twister2.network.join.hash.memory.bytes.max";
+  public static final String JOIN_HASH_PARTITIONS =
+      "twister2.network.join.hash.partitions";
+  public static final String JOIN_HASH_BLOOM_KEYS =
+      "twister2.network.join.hash.bloom.keys";
   public static final String RING_GROUPING_WORKER_PER_GROUPS =
       "twister2.network.partition.ring.group.workers";
 
+  public static final String BUFFER_POOL_DIRECT = "twister2.network.buffer.pool.direct";
+  public static final String BUFFER_POOL_MAX_BYTES = "twister2.network.buffer.pool.bytes.max";
+  public static final String BUFFER_POOL_LEAK_DETECTION =
+      "twister2.network.buffer.pool.leak.detection";
+
+  public static final String SHARED_MEMORY_DIRECTORY = "twister2.network.shm.directory";
+  public static final String SHARED_MEMORY_RING_SIZE = "twister2.network.shm.ring.size";
+
   public static final int DEFAULT_DESTINATION = 0;
 
   public static final List<Object> EMPTY_OBJECT = new ArrayList<>();
@@ -138,6 +172,22 @@ public class CommunicationContext extends Context {
     return getStringPropertyValue(cfg, ALLTOALL_ALGO_KEY, ALLTOALL_ALGO_RING);
   }
 
+  public static String allReduceAlgorithm(Config cfg) {
+    return getStringPropertyValue(cfg, ALLREDUCE_ALGO_KEY, ALLREDUCE_ALGO_TREE);
+  }
+
+  public static String barrierAlgorithm(Config cfg) {
+    return getStringPropertyValue(cfg, BARRIER_ALGO_KEY, BARRIER_ALGO_TREE);
+  }
+
+  public static long allReduceRingMinBytes(Config cfg) {
+    return getLongPropertyValue(cfg, ALLREDUCE_RING_MIN_BYTES, 512L * 1024);
+  }
+
+  public static boolean allReduceElementWise(Config cfg) {
+    return cfg.getBooleanValue(ALLREDUCE_ELEMENT_WISE, false);
+  }
+
   public static int bufferSize(Config cfg) {
     return getIntPropertyValue(cfg, BUFFER_SIZE, 2048000);
   }
@@ -186,7 +236,51 @@ public class CommunicationContext extends Context {
     return getIntPropertyValue(cfg, SHUFFLE_PARALLEL_IO, 1);
   }
 
+  public static int getShuffleBlockSize(Config cfg) {
+    return getIntPropertyValue(cfg, SHUFFLE_BLOCK_SIZE, 64 * 1024);
+  }
+
+  public static String getShuffleCompression(Config cfg) {
+    return getStringPropertyValue(cfg, SHUFFLE_COMPRESSION, "none");
+  }
+
+  public static int getShufflePrefetchBlocks(Config cfg) {
+    return getIntPropertyValue(cfg, SHUFFLE_PREFETCH_BLOCKS, 1);
+  }
+
+  public static long getJoinHashMaxBytesInMemory(Config cfg) {
+    return getLongPropertyValue(cfg, JOIN_HASH_MAX_BYTES_IN_MEMORY, 128L * 1024 * 1024);
+  }
+
+  public static int getJoinHashPartitions(Config cfg) {
+    return getIntPropertyValue(cfg, JOIN_HASH_PARTITIONS, 32);
+  }
+
+  public static long getJoinHashBloomKeys(Config cfg) {
+    return getLongPropertyValue(cfg, JOIN_HASH_BLOOM_KEYS, 1000000L);
+  }
+
   public static int getRingWorkersPerGroup(Config cfg) {
     return getIntPropertyValue(cfg, RING_GROUPING_WORKER_PER_GROUPS, 128);
   }
+
+  public static boolean useDirectBuffers(Config cfg) {
+    return cfg.getBooleanValue(BUFFER_POOL_DIRECT, true);
+  }
+
+  public static long bufferPoolMaxBytes(Config cfg) {
+    return getLongPropertyValue(cfg, BUFFER_POOL_MAX_BYTES, 1024L * 1024 * 1024);
+  }
+
+  public static boolean bufferPoolLeakDetection(Config cfg) {
+    return cfg.getBooleanValue(BUFFER_POOL_LEAK_DETECTION, false);
+  }
+
+  public static String sharedMemoryDirectory(Config cfg) {
+    return getStringPropertyValue(cfg, SHARED_MEMORY_DIRECTORY, "/dev/shm");
+  }
+
+  public static int sharedMemoryRingSize(Config cfg) {
+    return getIntPropertyValue(cfg, SHARED_MEMORY_RING_SIZE, 16 * 1024 * 1024);
+  }
 }
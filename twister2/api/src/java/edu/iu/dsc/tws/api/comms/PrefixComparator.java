@@ -0,0 +1,35 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms;
+
+import java.util.Comparator;
+
+/**
+ * A key comparator that can summarize a key to a long prefix. The disk based sorted shuffles
+ * sort an array of prefixes and only compare the keys when the prefixes are equal, so a key
+ * comparator implementing this interface sorts much faster than a plain {@link Comparator}.
+ * <p>
+ * The prefix must be consistent with the comparator, if the prefix of a key is less than the
+ * prefix of another key (as signed longs), the key must be less than the other key.
+ *
+ * @param <T> key type
+ */
+public interface PrefixComparator<T> extends Comparator<T> {
+
+  /**
+   * Compute the prefix of the key
+   *
+   * @param key the key
+   * @return the prefix
+   */
+  long prefix(T key);
+}
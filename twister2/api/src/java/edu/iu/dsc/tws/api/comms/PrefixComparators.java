@@ -0,0 +1,118 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms;
+
+/**
+ * {@link PrefixComparator} implementations for the common key types
+ */
+public final class PrefixComparators {
+
+  /**
+   * Natural order of integer keys
+   */
+  public static final PrefixComparator<Integer> INTEGER = new PrefixComparator<Integer>() {
+    @Override
+    public long prefix(Integer key) {
+      return key;
+    }
+
+    @Override
+    public int compare(Integer o1, Integer o2) {
+      return Integer.compare(o1, o2);
+    }
+  };
+
+  /**
+   * Natural order of long keys
+   */
+  public static final PrefixComparator<Long> LONG = new PrefixComparator<Long>() {
+    @Override
+    public long prefix(Long key) {
+      return key;
+    }
+
+    @Override
+    public int compare(Long o1, Long o2) {
+      return Long.compare(o1, o2);
+    }
+  };
+
+  /**
+   * Natural order of double keys, same as {@link Double#compare(double, double)}
+   */
+  public static final PrefixComparator<Double> DOUBLE = new PrefixComparator<Double>() {
+    @Override
+    public long prefix(Double key) {
+      long bits = Double.doubleToLongBits(key);
+      // flip the value bits of the negative numbers, so that the bits sort as signed longs
+      return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    @Override
+    public int compare(Double o1, Double o2) {
+      return Double.compare(o1, o2);
+    }
+  };
+
+  /**
+   * Lexicographic order of byte array keys, bytes are compared as unsigned values
+   */
+  public static final PrefixComparator<byte[]> UNSIGNED_BYTES = new PrefixComparator<byte[]>() {
+    @Override
+    public long prefix(byte[] key) {
+      return unsignedBytesPrefix(key);
+    }
+
+    @Override
+    public int compare(byte[] o1, byte[] o2) {
+      return compareUnsignedBytes(o1, o2);
+    }
+  };
+
+  private PrefixComparators() {
+  }
+
+  /**
+   * The first 8 bytes of the array as a prefix consistent with the unsigned lexicographic order
+   *
+   * @param key the key
+   * @return the prefix
+   */
+  public static long unsignedBytesPrefix(byte[] key) {
+    long prefix = 0;
+    int length = Math.min(key.length, Long.BYTES);
+    for (int i = 0; i < length; i++) {
+      prefix |= (key[i] & 0xFFL) << (56 - i * 8);
+    }
+    // the prefix is compared as a signed long
+    return prefix ^ Long.MIN_VALUE;
+  }
+
+  /**
+   * Compare two byte arrays in the unsigned lexicographic order
+   *
+   * @param left left array
+   * @param right right array
+   * @return comparison
+   */
+  public static int compareUnsignedBytes(byte[] left, byte[] right) {
+    int length = Math.min(left.length, right.length);
+    for (int i = 0; i < length; i++) {
+      int a = left[i] & 0xff;
+      int b = right[i] & 0xff;
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return left.length - right.length;
+  }
+}
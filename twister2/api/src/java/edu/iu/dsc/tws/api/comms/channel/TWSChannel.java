@@ -104,6 +104,14 @@ public interface TWSChannel {
    */
   ByteBuffer createBuffer(int capacity);
 
+  /**
+   * Return a buffer created by {@link #createBuffer(int)} when it is no longer used, so that
+   * the channel can reuse it
+   * @param buffer the byte buffer
+   */
+  default void releaseBuffer(ByteBuffer buffer) {
+  }
+
   /**
    * Close the channel
    */
@@ -0,0 +1,64 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms.messaging.types;
+
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.DenseArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.PrimitiveArrayPacker;
+
+/**
+ * Message type of a rectangular multi dimensional primitive array, for example double[][]
+ *
+ * @param <A> the array type
+ */
+public final class DenseArrayMessageType<A> implements MessageType<A, DenseArrayPacker.Partial> {
+
+  private final DenseArrayPacker<A, ?> dataPacker;
+
+  private final int unitSize;
+
+  public <R> DenseArrayMessageType(Class<A> clazz, int unitSize,
+                                   PrimitiveArrayPacker<R> rowPacker) {
+    this.unitSize = unitSize;
+    this.dataPacker = new DenseArrayPacker<>(clazz, rowPacker);
+  }
+
+  @Override
+  public boolean isPrimitive() {
+    return true;
+  }
+
+  @Override
+  public int getUnitSizeInBytes() {
+    return unitSize;
+  }
+
+  @Override
+  public int getDataSizeInBytes(A data) {
+    return dataPacker.determineLength(data, null);
+  }
+
+  @Override
+  public Class<A> getClazz() {
+    return dataPacker.getClazz();
+  }
+
+  @Override
+  public DataPacker<A, DenseArrayPacker.Partial> getDataPacker() {
+    return dataPacker;
+  }
+
+  @Override
+  public boolean isArray() {
+    return true;
+  }
+}
@@ -116,6 +116,27 @@ public final class MessageTypes {
       true, Short.BYTES, short[].class, ShortArrayPacker.getInstance(), true
   );
 
+  public static final DenseArrayMessageType<int[][]> INTEGER_ARRAY_2D =
+      new DenseArrayMessageType<>(int[][].class, Integer.BYTES, IntegerArrayPacker.getInstance());
+
+  public static final DenseArrayMessageType<long[][]> LONG_ARRAY_2D =
+      new DenseArrayMessageType<>(long[][].class, Long.BYTES, LongArrayPacker.getInstance());
+
+  public static final DenseArrayMessageType<double[][]> DOUBLE_ARRAY_2D =
+      new DenseArrayMessageType<>(double[][].class, Double.BYTES, DoubleArrayPacker.getInstance());
+
+  public static final DenseArrayMessageType<float[][]> FLOAT_ARRAY_2D =
+      new DenseArrayMessageType<>(float[][].class, Float.BYTES, FloatArrayPacker.getInstance());
+
+  public static final DenseArrayMessageType<double[][][]> DOUBLE_ARRAY_3D =
+      new DenseArrayMessageType<>(double[][][].class, Double.BYTES,
+          DoubleArrayPacker.getInstance());
+
+  public static final DenseArrayMessageType<float[][][]> FLOAT_ARRAY_3D =
+      new DenseArrayMessageType<>(float[][][].class, Float.BYTES, FloatArrayPacker.getInstance());
+
+  public static final RecordBatchType RECORD_BATCH = new RecordBatchType();
+
   public static final StringType STRING = new StringType();
 
   public static final ObjectType OBJECT = new ObjectType();
@@ -72,18 +72,15 @@ public class DataBuffer {
                                  byte[] value,
                                  int startIndex,
                                  int byteLength) {
-    int bytesRead = 0;
-    int currentBufferLocation = bufferLocation;
-    for (int i = startIndex; i < byteLength; i++) {
-      int remaining = size - currentBufferLocation;
-      if (remaining >= 1) {
-        value[i] = byteBuffer.get(currentBufferLocation);
-        bytesRead += 1;
-        currentBufferLocation += 1;
-      } else {
-        break;
-      }
+    int bytesRead = Math.min(byteLength - startIndex, size - bufferLocation);
+    if (bytesRead <= 0) {
+      return 0;
     }
+    // bulk copy through a duplicate, so that the position of the buffer is not changed
+    ByteBuffer source = byteBuffer.duplicate();
+    source.clear();
+    source.position(bufferLocation);
+    source.get(value, startIndex, bytesRead);
     return bytesRead;
   }
 }
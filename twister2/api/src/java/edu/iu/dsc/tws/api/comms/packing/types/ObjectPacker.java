@@ -40,6 +40,11 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
   @Override
   public int determineLength(Object data, PackerStore store) {
     if (store.retrieve() == null) {
+      int codecLength = serializer.get().getCodecLength(data);
+      if (codecLength >= 0) {
+        // written directly to the buffer if possible, see writeDataToBuffer
+        return codecLength;
+      }
       byte[] serialize = serializer.get().serialize(data);
       store.store(serialize);
     }
@@ -52,7 +57,14 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
                                 ByteBuffer targetBuffer) {
     byte[] datBytes = packerStore.retrieve();
     if (datBytes == null) { // could be due to fixed schema
-      datBytes = serializer.get().serialize(data);
+      KryoSerializer kryoSerializer = serializer.get();
+      int codecLength = kryoSerializer.getCodecLength(data);
+      if (codecLength >= 0 && alreadyCopied == 0 && codecLength <= spaceLeft) {
+        // the object fits to this buffer, the codec can write it without a temporary array
+        kryoSerializer.serializeWithCodec(data, targetBuffer);
+        return;
+      }
+      datBytes = kryoSerializer.serialize(data);
       // storing since this will be useful for next iteration
       packerStore.store(datBytes);
     }
@@ -65,6 +77,13 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
                                 int currentBufferLocation, DataBuffer dataBuffer) {
     int totalObjectLength = objectBuilder.getTotalSize();
     int startIndex = objectBuilder.getCompletedSize();
+    if (startIndex == 0 && dataBuffer.getSize() - currentBufferLocation >= totalObjectLength) {
+      // the whole object is in this buffer, we can read it without copying
+      objectBuilder.setFinalObject(serializer.get().deserialize(dataBuffer.getByteBuffer(),
+          currentBufferLocation, totalObjectLength));
+      return totalObjectLength;
+    }
+
     byte[] objectVal = (byte[]) objectBuilder.getPartialDataHolder();
     int value = dataBuffer.copyPartToByteArray(currentBufferLocation, objectVal,
         startIndex, totalObjectLength);
@@ -84,15 +103,21 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
 
   @Override
   public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, Object data) {
-    return byteBuffer.put(this.packToByteArray(data));
+    KryoSerializer kryoSerializer = serializer.get();
+    int codecLength = kryoSerializer.getCodecLength(data);
+    if (codecLength >= 0 && codecLength <= byteBuffer.remaining()) {
+      kryoSerializer.serializeWithCodec(data, byteBuffer);
+      return byteBuffer;
+    }
+    return byteBuffer.put(kryoSerializer.serialize(data));
   }
 
   @Override
   public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, int offset, Object data) {
-    byte[] packedData = this.packToByteArray(data);
-    for (int i = 0; i < packedData.length; i++) {
-      byteBuffer.put(offset + i, packedData[i]);
-    }
+    // write through a duplicate, so that the position of the buffer is not changed
+    ByteBuffer target = byteBuffer.duplicate();
+    target.position(offset);
+    packToByteBuffer(target, data);
     return byteBuffer;
   }
 
@@ -108,19 +133,15 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
 
   @Override
   public Object unpackFromBuffer(ByteBuffer byteBuffer, int bufferOffset, int byteLength) {
-    byte[] bytes = new byte[byteLength];
-    // intentionally not using byteBuffer.get(byte[]). The contract of this method is not to update
-    // buffer position
-    for (int i = 0; i < byteLength; i++) {
-      bytes[i] = byteBuffer.get(bufferOffset + i);
-    }
-    return this.serializer.get().deserialize(bytes);
+    // the contract of this method is not to update buffer position
+    return this.serializer.get().deserialize(byteBuffer, bufferOffset, byteLength);
   }
 
   @Override
   public Object unpackFromBuffer(ByteBuffer byteBuffer, int byteLength) {
-    byte[] bytes = new byte[byteLength];
-    byteBuffer.get(bytes, 0, byteLength);
-    return serializer.get().deserialize(bytes);
+    int position = byteBuffer.position();
+    Object object = serializer.get().deserialize(byteBuffer, position, byteLength);
+    byteBuffer.position(position + byteLength);
+    return object;
   }
 }
@@ -0,0 +1,270 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms.packing.types;
+
+import java.nio.ByteBuffer;
+
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.ObjectBuilder;
+import edu.iu.dsc.tws.api.comms.packing.PackerStore;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.DoubleArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.FloatArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.IntegerArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.LongArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.PrimitiveArrayPacker;
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * Packs a {@link RecordBatch} as the number of rows, the number of columns and the type of each
+ * column followed by the columns one after the other. The columns are bulk copied to and from
+ * the buffers by the packers of the primitive arrays.
+ */
+public final class RecordBatchPacker
+    implements DataPacker<RecordBatch, RecordBatchPacker.Partial> {
+
+  private static volatile RecordBatchPacker instance;
+
+  private static final RecordBatch.ColumnType[] COLUMN_TYPES = RecordBatch.ColumnType.values();
+
+  /**
+   * Holds a batch while it is read from multiple buffers
+   */
+  public static final class Partial {
+    private int rows = -1;
+
+    private RecordBatch.ColumnType[] types;
+
+    private RecordBatch batch;
+  }
+
+  private RecordBatchPacker() {
+  }
+
+  public static RecordBatchPacker getInstance() {
+    if (instance == null) {
+      instance = new RecordBatchPacker();
+    }
+    return instance;
+  }
+
+  private static int headerBytes(int columns) {
+    return (2 + columns) * Integer.BYTES;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static PrimitiveArrayPacker packerOf(RecordBatch.ColumnType type) {
+    switch (type) {
+      case INT:
+        return IntegerArrayPacker.getInstance();
+      case LONG:
+        return LongArrayPacker.getInstance();
+      case FLOAT:
+        return FloatArrayPacker.getInstance();
+      default:
+        return DoubleArrayPacker.getInstance();
+    }
+  }
+
+  @Override
+  public int determineLength(RecordBatch data, PackerStore store) {
+    long length = headerBytes(data.getColumnCount());
+    for (RecordBatch.ColumnType type : data.getTypes()) {
+      length += (long) type.getUnitSize() * data.getSize();
+    }
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Record batch is too large to pack: " + length
+          + " bytes");
+    }
+    return (int) length;
+  }
+
+  @Override
+  public void writeDataToBuffer(RecordBatch data, PackerStore packerStore, int alreadyCopied,
+                                int leftToCopy, int spaceLeft, ByteBuffer targetBuffer) {
+    int headerBytes = headerBytes(data.getColumnCount());
+    int copied = alreadyCopied;
+    int space = spaceLeft;
+    // the header is copied as whole integers
+    while (copied < headerBytes && space >= Integer.BYTES) {
+      targetBuffer.putInt(headerValue(data, copied / Integer.BYTES));
+      copied += Integer.BYTES;
+      space -= Integer.BYTES;
+    }
+    if (copied < headerBytes) {
+      return;
+    }
+
+    copyColumns(data, copied - headerBytes, Math.min(space, alreadyCopied + leftToCopy - copied),
+        targetBuffer, true);
+  }
+
+  private static int headerValue(RecordBatch data, int index) {
+    if (index == 0) {
+      return data.getSize();
+    } else if (index == 1) {
+      return data.getColumnCount();
+    }
+    return data.getType(index - 2).ordinal();
+  }
+
+  /**
+   * Copy the values between a batch and a buffer, only whole values are copied
+   *
+   * @param batch the batch
+   * @param offset number of bytes of the columns already copied
+   * @param bytes maximum number of bytes to copy
+   * @param buffer the buffer, its position is updated
+   * @param write true to write to the buffer, false to read from it
+   */
+  @SuppressWarnings("unchecked")
+  private static void copyColumns(RecordBatch batch, int offset, int bytes, ByteBuffer buffer,
+                                  boolean write) {
+    int rows = batch.getSize();
+    int start = 0;
+    int copied = offset;
+    int left = bytes;
+    for (int c = 0; c < batch.getColumnCount() && left > 0; c++) {
+      RecordBatch.ColumnType type = batch.getType(c);
+      int unitSize = type.getUnitSize();
+      int columnBytes = rows * unitSize;
+      if (copied < start + columnBytes) {
+        int first = (copied - start) / unitSize;
+        int count = Math.min(rows - first, left / unitSize);
+        if (count == 0) {
+          return;
+        }
+
+        PrimitiveArrayPacker packer = packerOf(type);
+        Object column = batch.getColumn(c);
+        boolean bulk = write ? packer.bulkCopyToBuffer(column, buffer, first, count)
+            : packer.bulkReadFromBuffer(buffer, column, first, count);
+        if (bulk) {
+          buffer.position(buffer.position() + count * unitSize);
+        } else {
+          for (int i = 0; i < count; i++) {
+            if (write) {
+              packer.addToBuffer(buffer, column, first + i);
+            } else {
+              packer.readFromBufferAndSet(buffer, column, first + i);
+            }
+          }
+        }
+        copied += count * unitSize;
+        left -= count * unitSize;
+        if (copied < start + columnBytes) {
+          // no space for the rest of this column
+          return;
+        }
+      }
+      start += columnBytes;
+    }
+  }
+
+  @Override
+  public int readDataFromBuffer(ObjectBuilder<RecordBatch, Partial> objectBuilder,
+                                int currentBufferLocation, DataBuffer dataBuffer) {
+    int totalSize = objectBuilder.getTotalSize();
+    int completed = objectBuilder.getCompletedSize();
+    ByteBuffer byteBuffer = dataBuffer.getByteBuffer();
+    int size = dataBuffer.getSize();
+    Partial partial = objectBuilder.getPartialDataHolder();
+
+    int position = currentBufferLocation;
+    while ((partial.types == null || completed < headerBytes(partial.types.length))
+        && size - position >= Integer.BYTES) {
+      int value = byteBuffer.getInt(position);
+      int index = completed / Integer.BYTES;
+      if (index == 0) {
+        partial.rows = value;
+      } else if (index == 1) {
+        partial.types = new RecordBatch.ColumnType[value];
+      } else {
+        partial.types[index - 2] = COLUMN_TYPES[value];
+      }
+      completed += Integer.BYTES;
+      position += Integer.BYTES;
+    }
+    if (partial.types == null || completed < headerBytes(partial.types.length)) {
+      return position - currentBufferLocation;
+    }
+    if (partial.batch == null) {
+      partial.batch = new RecordBatch(partial.types, partial.rows);
+      partial.batch.setSize(partial.rows);
+    }
+
+    byteBuffer.position(position);
+    copyColumns(partial.batch, completed - headerBytes(partial.types.length),
+        Math.min(size - position, totalSize - completed), byteBuffer, false);
+    completed += byteBuffer.position() - position;
+
+    if (completed == totalSize) {
+      objectBuilder.setFinalObject(partial.batch);
+    }
+    return byteBuffer.position() - currentBufferLocation;
+  }
+
+  @Override
+  public byte[] packToByteArray(RecordBatch data) {
+    byte[] bytes = new byte[determineLength(data, null)];
+    packToByteBuffer(ByteBuffer.wrap(bytes), data);
+    return bytes;
+  }
+
+  @Override
+  public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, RecordBatch data) {
+    int headerInts = 2 + data.getColumnCount();
+    for (int i = 0; i < headerInts; i++) {
+      byteBuffer.putInt(headerValue(data, i));
+    }
+    copyColumns(data, 0, Integer.MAX_VALUE, byteBuffer, true);
+    return byteBuffer;
+  }
+
+  @Override
+  public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, int offset, RecordBatch data) {
+    ByteBuffer target = byteBuffer.duplicate();
+    target.position(offset);
+    packToByteBuffer(target, data);
+    return byteBuffer;
+  }
+
+  @Override
+  public Partial wrapperForByteLength(int byteLength) {
+    return new Partial();
+  }
+
+  @Override
+  public boolean isHeaderRequired() {
+    return true;
+  }
+
+  @Override
+  public RecordBatch unpackFromBuffer(ByteBuffer byteBuffer, int bufferOffset, int byteLength) {
+    ByteBuffer source = byteBuffer.duplicate();
+    source.position(bufferOffset);
+    return unpackFromBuffer(source, byteLength);
+  }
+
+  @Override
+  public RecordBatch unpackFromBuffer(ByteBuffer byteBuffer, int byteLength) {
+    int rows = byteBuffer.getInt();
+    RecordBatch.ColumnType[] types = new RecordBatch.ColumnType[byteBuffer.getInt()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = COLUMN_TYPES[byteBuffer.getInt()];
+    }
+    RecordBatch batch = new RecordBatch(types, rows);
+    batch.setSize(rows);
+    copyColumns(batch, 0, Integer.MAX_VALUE, byteBuffer, false);
+    return batch;
+  }
+}
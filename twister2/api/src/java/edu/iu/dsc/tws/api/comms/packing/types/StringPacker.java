@@ -62,9 +62,9 @@ public final class StringPacker implements DataPacker<String, char[]> {
   public int readDataFromBuffer(ObjectBuilder<String, char[]> objectBuilder,
                                 int currentBufferLocation, DataBuffer dataBuffer) {
     int totalDataLength = objectBuilder.getTotalSize();
-    int startIndex = objectBuilder.getCompletedSize();
+    int completedSize = objectBuilder.getCompletedSize();
     int unitSize = Character.BYTES;
-    startIndex = startIndex / unitSize;
+    int startIndex = completedSize / unitSize;
     char[] val = objectBuilder.getPartialDataHolder();
 
     //deserializing
@@ -82,7 +82,7 @@ public final class StringPacker implements DataPacker<String, char[]> {
         break;
       }
     }
-    if (totalDataLength == bytesRead + startIndex) {
+    if (totalDataLength == bytesRead + completedSize) {
       objectBuilder.setFinalObject(new String(val));
     }
     return bytesRead;
@@ -0,0 +1,350 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms.packing.types.primitive;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.ObjectBuilder;
+import edu.iu.dsc.tws.api.comms.packing.PackerStore;
+
+/**
+ * Packs rectangular multi dimensional primitive arrays such as double[][] or float[][][]. The
+ * array is written as its shape (one int per dimension) followed by the elements in row major
+ * order. The rows (the innermost arrays) are bulk copied to and from the buffers by the packer
+ * of the one dimensional array, so there is no intermediate byte array as with the object packer.
+ *
+ * @param <A> the array type
+ * @param <R> type of a row, a one dimensional primitive array
+ */
+public final class DenseArrayPacker<A, R> implements DataPacker<A, DenseArrayPacker.Partial> {
+
+  /**
+   * Holds an array while it is read from multiple buffers
+   */
+  public static final class Partial {
+    private final int[] shape;
+
+    private Object array;
+
+    private Partial(int dimensions) {
+      this.shape = new int[dimensions];
+    }
+  }
+
+  private final Class<A> clazz;
+
+  private final PrimitiveArrayPacker<R> rowPacker;
+
+  private final Class<?> elementType;
+
+  /**
+   * Number of dimensions
+   */
+  private final int dimensions;
+
+  private final int headerBytes;
+
+  public DenseArrayPacker(Class<A> clazz, PrimitiveArrayPacker<R> rowPacker) {
+    this.clazz = clazz;
+    this.rowPacker = rowPacker;
+    int d = 0;
+    Class<?> type = clazz;
+    while (type.isArray()) {
+      type = type.getComponentType();
+      d++;
+    }
+    if (d < 2 || !type.isPrimitive()) {
+      throw new IllegalArgumentException("Expected a multi dimensional primitive array: "
+          + clazz);
+    }
+    this.elementType = type;
+    this.dimensions = d;
+    this.headerBytes = d * Integer.BYTES;
+  }
+
+  public Class<A> getClazz() {
+    return clazz;
+  }
+
+  public int getDimensions() {
+    return dimensions;
+  }
+
+  private int unitSize() {
+    return rowPacker.getMessageType().getUnitSizeInBytes();
+  }
+
+  /**
+   * Get the shape of the array, checking that it is rectangular
+   *
+   * @throws IllegalArgumentException if a sub array is null or its length is different from
+   * the first sub array of the same dimension
+   */
+  public int[] shape(A data) {
+    if (data == null) {
+      throw new IllegalArgumentException("Can not pack a null array");
+    }
+    int[] shape = dimensionsOf(data);
+    checkShape(data, 0, shape, new StringBuilder("array"));
+    return shape;
+  }
+
+  /**
+   * Check the lengths of a sub array and all the sub arrays in it against the shape
+   */
+  private void checkShape(Object level, int dimension, int[] shape, StringBuilder path) {
+    if (level == null) {
+      throw new IllegalArgumentException("Only rectangular arrays can be packed, " + path
+          + " is null");
+    }
+    int length = Array.getLength(level);
+    if (length != shape[dimension]) {
+      throw new IllegalArgumentException("Only rectangular arrays can be packed, " + path
+          + " has length " + length + " instead of " + shape[dimension]);
+    }
+    if (dimension == dimensions - 1) {
+      return;
+    }
+    Object[] children = (Object[]) level;
+    int pathLength = path.length();
+    for (int i = 0; i < children.length; i++) {
+      path.append('[').append(i).append(']');
+      checkShape(children[i], dimension + 1, shape, path);
+      path.setLength(pathLength);
+    }
+  }
+
+  /**
+   * Get the shape of the array from the first element of each dimension
+   */
+  private int[] dimensionsOf(Object data) {
+    int[] shape = new int[dimensions];
+    Object level = data;
+    for (int i = 0; i < dimensions; i++) {
+      shape[i] = Array.getLength(level);
+      if (shape[i] == 0) {
+        break;
+      }
+      if (i < dimensions - 1) {
+        level = ((Object[]) level)[0];
+        if (level == null) {
+          break;
+        }
+      }
+    }
+    return shape;
+  }
+
+  private int rowCount(int[] shape) {
+    int rows = 1;
+    for (int i = 0; i < dimensions - 1; i++) {
+      rows *= shape[i];
+    }
+    return rows;
+  }
+
+  private long elementCount(int[] shape) {
+    return (long) rowCount(shape) * shape[dimensions - 1];
+  }
+
+  /**
+   * Get a row by its index in row major order
+   */
+  @SuppressWarnings("unchecked")
+  private R row(Object array, int index, int[] shape) {
+    Object level = array;
+    int stride = rowCount(shape);
+    int remaining = index;
+    for (int i = 0; i < dimensions - 1; i++) {
+      stride /= shape[i];
+      level = ((Object[]) level)[remaining / stride];
+      remaining = remaining % stride;
+    }
+    return (R) level;
+  }
+
+  @Override
+  public int determineLength(A data, PackerStore store) {
+    long length = headerBytes + elementCount(shape(data)) * unitSize();
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Array is too large to pack: " + length + " bytes");
+    }
+    return (int) length;
+  }
+
+  @Override
+  public void writeDataToBuffer(A data, PackerStore packerStore, int alreadyCopied,
+                                int leftToCopy, int spaceLeft, ByteBuffer targetBuffer) {
+    // the shape is checked by determineLength
+    int[] shape = dimensionsOf(data);
+    int copied = alreadyCopied;
+    int space = spaceLeft;
+    // the shape is copied as whole integers
+    while (copied < headerBytes && space >= Integer.BYTES) {
+      targetBuffer.putInt(shape[copied / Integer.BYTES]);
+      copied += Integer.BYTES;
+      space -= Integer.BYTES;
+    }
+    if (copied < headerBytes) {
+      return;
+    }
+
+    int unitSize = unitSize();
+    int elements = Math.min(space, alreadyCopied + leftToCopy - copied) / unitSize;
+    writeElements(data, shape, (copied - headerBytes) / unitSize, elements, targetBuffer);
+  }
+
+  /**
+   * Write the elements starting from the given element, the buffer position is updated
+   */
+  private void writeElements(A data, int[] shape, int start, int count, ByteBuffer buffer) {
+    int rowLength = shape[dimensions - 1];
+    int unitSize = unitSize();
+    int element = start;
+    int left = count;
+    while (left > 0) {
+      R row = row(data, element / rowLength, shape);
+      int column = element % rowLength;
+      int copy = Math.min(left, rowLength - column);
+      if (rowPacker.bulkCopyToBuffer(row, buffer, column, copy)) {
+        buffer.position(buffer.position() + copy * unitSize);
+      } else {
+        for (int i = 0; i < copy; i++) {
+          rowPacker.addToBuffer(buffer, row, column + i);
+        }
+      }
+      element += copy;
+      left -= copy;
+    }
+  }
+
+  /**
+   * Read the elements starting from the given element, the buffer position is updated
+   */
+  private void readElements(Object array, int[] shape, int start, int count, ByteBuffer buffer) {
+    int rowLength = shape[dimensions - 1];
+    int unitSize = unitSize();
+    int element = start;
+    int left = count;
+    while (left > 0) {
+      R row = row(array, element / rowLength, shape);
+      int column = element % rowLength;
+      int copy = Math.min(left, rowLength - column);
+      if (rowPacker.bulkReadFromBuffer(buffer, row, column, copy)) {
+        buffer.position(buffer.position() + copy * unitSize);
+      } else {
+        for (int i = 0; i < copy; i++) {
+          rowPacker.readFromBufferAndSet(buffer, row, column + i);
+        }
+      }
+      element += copy;
+      left -= copy;
+    }
+  }
+
+  private Object allocate(int[] shape) {
+    return Array.newInstance(elementType, shape);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public int readDataFromBuffer(ObjectBuilder<A, Partial> objectBuilder,
+                                int currentBufferLocation, DataBuffer dataBuffer) {
+    int totalSize = objectBuilder.getTotalSize();
+    int completed = objectBuilder.getCompletedSize();
+    ByteBuffer byteBuffer = dataBuffer.getByteBuffer();
+    int size = dataBuffer.getSize();
+    Partial partial = objectBuilder.getPartialDataHolder();
+
+    int position = currentBufferLocation;
+    while (completed < headerBytes && size - position >= Integer.BYTES) {
+      partial.shape[completed / Integer.BYTES] = byteBuffer.getInt(position);
+      completed += Integer.BYTES;
+      position += Integer.BYTES;
+    }
+    if (completed < headerBytes) {
+      return position - currentBufferLocation;
+    }
+    if (partial.array == null) {
+      partial.array = allocate(partial.shape);
+    }
+
+    int unitSize = unitSize();
+    int elements = Math.min(size - position, totalSize - completed) / unitSize;
+    byteBuffer.position(position);
+    readElements(partial.array, partial.shape, (completed - headerBytes) / unitSize, elements,
+        byteBuffer);
+    completed += elements * unitSize;
+
+    if (completed == totalSize) {
+      objectBuilder.setFinalObject((A) partial.array);
+    }
+    return byteBuffer.position() - currentBufferLocation;
+  }
+
+  @Override
+  public byte[] packToByteArray(A data) {
+    byte[] bytes = new byte[determineLength(data, null)];
+    packToByteBuffer(ByteBuffer.wrap(bytes), data);
+    return bytes;
+  }
+
+  @Override
+  public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, A data) {
+    int[] shape = shape(data);
+    for (int s : shape) {
+      byteBuffer.putInt(s);
+    }
+    writeElements(data, shape, 0, (int) elementCount(shape), byteBuffer);
+    return byteBuffer;
+  }
+
+  @Override
+  public ByteBuffer packToByteBuffer(ByteBuffer byteBuffer, int offset, A data) {
+    ByteBuffer target = byteBuffer.duplicate();
+    target.position(offset);
+    packToByteBuffer(target, data);
+    return byteBuffer;
+  }
+
+  @Override
+  public Partial wrapperForByteLength(int byteLength) {
+    return new Partial(dimensions);
+  }
+
+  @Override
+  public boolean isHeaderRequired() {
+    return true;
+  }
+
+  @Override
+  public A unpackFromBuffer(ByteBuffer byteBuffer, int bufferOffset, int byteLength) {
+    ByteBuffer source = byteBuffer.duplicate();
+    source.position(bufferOffset);
+    return unpackFromBuffer(source, byteLength);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public A unpackFromBuffer(ByteBuffer byteBuffer, int byteLength) {
+    int[] shape = new int[dimensions];
+    for (int i = 0; i < dimensions; i++) {
+      shape[i] = byteBuffer.getInt();
+    }
+    Object array = allocate(shape);
+    readElements(array, shape, 0, (int) elementCount(shape), byteBuffer);
+    return (A) array;
+  }
+}
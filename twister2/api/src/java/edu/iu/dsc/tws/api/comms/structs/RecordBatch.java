@@ -0,0 +1,260 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.comms.structs;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * A batch of records stored by column. Each column is a primitive array, so a function can
+ * process all the values of a column in a simple loop instead of one record object at a time.
+ * The arrays can be larger than the number of rows, only the first {@link #getSize()} values
+ * of each column are valid.
+ */
+public final class RecordBatch {
+
+  /**
+   * Type of a column
+   */
+  public enum ColumnType {
+    INT(Integer.BYTES, int[].class),
+    LONG(Long.BYTES, long[].class),
+    FLOAT(Float.BYTES, float[].class),
+    DOUBLE(Double.BYTES, double[].class);
+
+    private final int unitSize;
+
+    private final Class<?> arrayClass;
+
+    ColumnType(int unitSize, Class<?> arrayClass) {
+      this.unitSize = unitSize;
+      this.arrayClass = arrayClass;
+    }
+
+    public int getUnitSize() {
+      return unitSize;
+    }
+
+    public Class<?> getArrayClass() {
+      return arrayClass;
+    }
+
+    Object allocate(int capacity) {
+      switch (this) {
+        case INT:
+          return new int[capacity];
+        case LONG:
+          return new long[capacity];
+        case FLOAT:
+          return new float[capacity];
+        default:
+          return new double[capacity];
+      }
+    }
+  }
+
+  private final ColumnType[] types;
+
+  private final Object[] columns;
+
+  /**
+   * Number of rows
+   */
+  private int size;
+
+  /**
+   * Create an empty batch
+   *
+   * @param types    types of the columns
+   * @param capacity maximum number of rows
+   */
+  public RecordBatch(ColumnType[] types, int capacity) {
+    this.types = types;
+    this.columns = new Object[types.length];
+    for (int i = 0; i < types.length; i++) {
+      columns[i] = types[i].allocate(capacity);
+    }
+  }
+
+  /**
+   * Create a batch from existing columns
+   *
+   * @param types   types of the columns
+   * @param columns the columns, int[], long[], float[] or double[] matching the types
+   * @param size    number of rows
+   */
+  public RecordBatch(ColumnType[] types, Object[] columns, int size) {
+    if (types.length != columns.length) {
+      throw new IllegalArgumentException("Expected " + types.length + " columns, found "
+          + columns.length);
+    }
+    for (int i = 0; i < types.length; i++) {
+      if (columns[i] == null || columns[i].getClass() != types[i].getArrayClass()) {
+        throw new IllegalArgumentException("Column " + i + " should be of type " + types[i]);
+      }
+    }
+    this.types = types;
+    this.columns = columns;
+    this.size = size;
+    if (size > getCapacity()) {
+      throw new IllegalArgumentException("Size " + size + " is larger than the columns");
+    }
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Set the number of rows, after writing values to the columns directly
+   *
+   * @param size number of rows
+   */
+  public void setSize(int size) {
+    if (size < 0 || size > getCapacity()) {
+      throw new IllegalArgumentException("Invalid size " + size + ", capacity is "
+          + getCapacity());
+    }
+    this.size = size;
+  }
+
+  public int getCapacity() {
+    if (columns.length == 0) {
+      return Integer.MAX_VALUE;
+    }
+    return Array.getLength(columns[0]);
+  }
+
+  public boolean isFull() {
+    return size >= getCapacity();
+  }
+
+  /**
+   * Add a row at the end of the batch, the values should be set in the columns after this
+   *
+   * @return index of the row
+   */
+  public int addRow() {
+    if (isFull()) {
+      throw new IllegalStateException("Record batch is full: " + size);
+    }
+    return size++;
+  }
+
+  public void clear() {
+    this.size = 0;
+  }
+
+  public int getColumnCount() {
+    return types.length;
+  }
+
+  public ColumnType getType(int column) {
+    return types[column];
+  }
+
+  public ColumnType[] getTypes() {
+    return types;
+  }
+
+  /**
+   * Get a column without checking the type
+   *
+   * @param column index
+   * @return the array holding the values
+   */
+  public Object getColumn(int column) {
+    return columns[column];
+  }
+
+  public int[] getIntColumn(int column) {
+    return (int[]) checkType(column, ColumnType.INT);
+  }
+
+  public long[] getLongColumn(int column) {
+    return (long[]) checkType(column, ColumnType.LONG);
+  }
+
+  public float[] getFloatColumn(int column) {
+    return (float[]) checkType(column, ColumnType.FLOAT);
+  }
+
+  public double[] getDoubleColumn(int column) {
+    return (double[]) checkType(column, ColumnType.DOUBLE);
+  }
+
+  private Object checkType(int column, ColumnType type) {
+    if (types[column] != type) {
+      throw new IllegalArgumentException("Column " + column + " is of type " + types[column]
+          + ", not " + type);
+    }
+    return columns[column];
+  }
+
+  /**
+   * Create a new batch with the selected rows
+   *
+   * @param selection true for the rows to keep, at least {@link #getSize()} long
+   * @return a batch with the selected rows in the same order
+   */
+  public RecordBatch select(boolean[] selection) {
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (selection[i]) {
+        count++;
+      }
+    }
+
+    RecordBatch selected = new RecordBatch(types, count);
+    for (int c = 0; c < types.length; c++) {
+      Object from = columns[c];
+      Object to = selected.columns[c];
+      int j = 0;
+      switch (types[c]) {
+        case INT:
+          for (int i = 0; i < size; i++) {
+            if (selection[i]) {
+              ((int[]) to)[j++] = ((int[]) from)[i];
+            }
+          }
+          break;
+        case LONG:
+          for (int i = 0; i < size; i++) {
+            if (selection[i]) {
+              ((long[]) to)[j++] = ((long[]) from)[i];
+            }
+          }
+          break;
+        case FLOAT:
+          for (int i = 0; i < size; i++) {
+            if (selection[i]) {
+              ((float[]) to)[j++] = ((float[]) from)[i];
+            }
+          }
+          break;
+        default:
+          for (int i = 0; i < size; i++) {
+            if (selection[i]) {
+              ((double[]) to)[j++] = ((double[]) from)[i];
+            }
+          }
+      }
+    }
+    selected.size = count;
+    return selected;
+  }
+
+  @Override
+  public String toString() {
+    return "RecordBatch{types=" + Arrays.toString(types) + ", size=" + size + '}';
+  }
+}
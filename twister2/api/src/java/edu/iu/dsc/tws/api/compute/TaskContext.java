@@ -125,6 +125,17 @@ public interface TaskContext {
    */
   boolean writeBarrier(String edge, Object message);
 
+  /**
+   * Write an event time watermark to the destination. The streaming partition, keyed
+   * partition, direct and broadcast operations with object messages give it to all of their
+   * targets, the other operations drop it.
+   *
+   * @param edge edge
+   * @param timestamp event time of the watermark
+   * @return true if the watermark is accepted
+   */
+  boolean writeWatermark(String edge, long timestamp);
+
   /**
    * Write the last message
    *
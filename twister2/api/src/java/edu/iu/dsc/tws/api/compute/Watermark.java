@@ -0,0 +1,70 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.compute;
+
+import java.io.Serializable;
+
+/**
+ * An event time watermark. A task sending a watermark promises that it will not send messages
+ * with an event time less than or equal to the timestamp of the watermark. Watermarks are
+ * carried through the streaming operations with the messages, so a receiver sees the messages
+ * of a source sent before the watermark first.
+ * <p>
+ * An idle watermark tells the receivers that the source doesn't send messages, so they should
+ * not wait for its watermarks. The next watermark of the source makes it active again.
+ */
+public final class Watermark implements Serializable {
+
+  private static final long serialVersionUID = -7034162290133406421L;
+
+  /**
+   * The event time
+   */
+  private long timestamp;
+
+  /**
+   * The global task id of the task sending the watermark
+   */
+  private int source;
+
+  private boolean idle;
+
+  private Watermark() {
+  }
+
+  public Watermark(long timestamp, int source, boolean idle) {
+    this.timestamp = timestamp;
+    this.source = source;
+    this.idle = idle;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public int getSource() {
+    return source;
+  }
+
+  public boolean isIdle() {
+    return idle;
+  }
+
+  @Override
+  public String toString() {
+    return "Watermark{"
+        + "timestamp=" + timestamp
+        + ", source=" + source
+        + ", idle=" + idle
+        + '}';
+  }
+}
@@ -35,6 +35,11 @@ public class ExecutionPlan {
 
   private List<IParallelOperation> parallelOperations = new ArrayList<>();
 
+  /**
+   * Run when the plan is closed to release what was registered for it
+   */
+  private List<Runnable> closeHooks = new ArrayList<>();
+
   /**
    * Keep track of the execution state of this plan
    */
@@ -75,6 +80,25 @@ public class ExecutionPlan {
     return parallelOperations;
   }
 
+  /**
+   * Add a hook to run when the plan is closed
+   *
+   * @param hook the hook
+   */
+  public void addCloseHook(Runnable hook) {
+    closeHooks.add(hook);
+  }
+
+  /**
+   * Run the close hooks, the executors call this after closing the instances and operations
+   */
+  public void close() {
+    for (Runnable hook : closeHooks) {
+      hook.run();
+    }
+    closeHooks.clear();
+  }
+
   public boolean isNodeAvailable(String taskName) {
     return nodesByName.containsKey(taskName);
   }
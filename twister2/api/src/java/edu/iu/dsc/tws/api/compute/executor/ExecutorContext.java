@@ -21,6 +21,11 @@ public class ExecutorContext extends Context {
       "twister2.exector.instance.queue.low.watermark";
   public static final String INSTANCE_QUEUE_HIGH_WATERMARK =
       "twister2.exector.instance.queue.high.watermark";
+  public static final String INSTANCE_QUEUE_TYPE = "twister2.exector.instance.queue.type";
+  public static final String INSTANCE_QUEUE_TYPE_RING = "ring";
+  public static final String INSTANCE_QUEUE_TYPE_BLOCKING = "blocking";
+  public static final String INSTANCE_QUEUE_CAPACITY =
+      "twister2.exector.instance.queue.capacity";
   public static final String BATCH_EXECUTOR = "twister2.executor.batch.name";
   public static final String STREAM_EXECUTOR = "twister2.executor.stream.name";
   public static final String BATCH_EXECUTOR_SHARING_SEP_COMM
@@ -33,6 +38,14 @@ public class ExecutorContext extends Context {
   public static final String STREAM_EXECUTOR_DEDICATED_COMM =
       "edu.iu.dsc.tws.executor.threading.StreamingSharingExecutor";
 
+  public static final String IDLE_STRATEGY = "twister2.executor.idle.strategy";
+  public static final String IDLE_STRATEGY_SPIN = "spin";
+  public static final String IDLE_STRATEGY_BACKOFF = "backoff";
+  public static final String IDLE_SPINS = "twister2.executor.idle.spins";
+  public static final String IDLE_YIELDS = "twister2.executor.idle.yields";
+  public static final String IDLE_MAX_PARK_NANOS = "twister2.executor.idle.park.max.nanos";
+  public static final String WATERMARK_IDLE_TIMEOUT =
+      "twister2.executor.watermark.idle.timeout";
 
   public static final String TWISTER2_RUNTIME_OBJECT = "_twister2.runtime_";
 
@@ -48,6 +61,14 @@ public class ExecutorContext extends Context {
     return cfg.getIntegerValue(INSTANCE_QUEUE_HIGH_WATERMARK, 128);
   }
 
+  public static String instanceQueueType(Config cfg) {
+    return cfg.getStringValue(INSTANCE_QUEUE_TYPE, INSTANCE_QUEUE_TYPE_RING);
+  }
+
+  public static int instanceQueueCapacity(Config cfg) {
+    return cfg.getIntegerValue(INSTANCE_QUEUE_CAPACITY, 1024);
+  }
+
   public static String getBatchExecutor(Config cfg) {
     return cfg.getStringValue(BATCH_EXECUTOR, BATCH_EXECUTOR_SHARING_SEP_COMM);
   }
@@ -55,4 +76,28 @@ public class ExecutorContext extends Context {
   public static String getStreamExecutor(Config cfg) {
     return cfg.getStringValue(STREAM_EXECUTOR, STREAM_EXECUTOR_DEDICATED_COMM);
   }
+
+  public static String idleStrategy(Config cfg) {
+    return cfg.getStringValue(IDLE_STRATEGY, IDLE_STRATEGY_SPIN);
+  }
+
+  public static int idleSpins(Config cfg) {
+    return cfg.getIntegerValue(IDLE_SPINS, 100);
+  }
+
+  public static int idleYields(Config cfg) {
+    return cfg.getIntegerValue(IDLE_YIELDS, 100);
+  }
+
+  public static long idleMaxParkNanos(Config cfg) {
+    return cfg.getLongValue(IDLE_MAX_PARK_NANOS, 1000000L);
+  }
+
+  /**
+   * Milliseconds without output after which a source sending watermarks is marked idle, so
+   * that the downstream tasks don't wait for its watermarks. 0 disables it.
+   */
+  public static long watermarkIdleTimeout(Config cfg) {
+    return cfg.getLongValue(WATERMARK_IDLE_TIMEOUT, 0L);
+  }
 }
@@ -53,6 +53,16 @@ public interface INodeInstance {
     return false;
   }
 
+  /**
+   * A counter that changes every time the instance does some work, such as executing or sending
+   * a message. Executors compare it across executions to find out weather they are idling.
+   *
+   * @return the work counter, or -1 if the instance doesn't keep one
+   */
+  default long getWorkCount() {
+    return -1;
+  }
+
   /**
    * Get the node of this instance
    * @return the graph node
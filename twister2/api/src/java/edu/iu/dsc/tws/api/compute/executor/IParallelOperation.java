@@ -11,10 +11,13 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.api.compute.executor;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 
 /**
  * Represents a parallel communication operation
@@ -31,7 +34,7 @@ public interface IParallelOperation {
   /**
    * Register a queue for receiving message
    */
-  void register(int targetTask, BlockingQueue<IMessage> queue);
+  void register(int targetTask, Queue<IMessage> queue);
 
   /**
    * Register a callback to notify when a sync happens
@@ -80,5 +83,27 @@ public interface IParallelOperation {
     return this.getOp().sendBarrier(src, barrierId);
   }
 
+  /**
+   * Send a watermark to all the targets of the source. An operation which can't carry
+   * watermarks drops them.
+   *
+   * @param src the source
+   * @param watermark the watermark
+   * @return true if the watermark is accepted
+   */
+  default boolean sendWatermark(int src, Watermark watermark) {
+    return true;
+  }
+
+  /**
+   * The sources sending watermarks to a target of this operation
+   *
+   * @param target the target
+   * @return the sources, empty if the operation doesn't carry watermarks
+   */
+  default Set<Integer> getWatermarkSources(int target) {
+    return Collections.emptySet();
+  }
+
   BaseOperation getOp();
 }
@@ -0,0 +1,27 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.compute.modifiers;
+
+/**
+ * A streaming task which needs the event time watermark of its inputs should implement this
+ * interface. The watermark is the minimum of the watermarks of the sources of all the inputs
+ * carrying watermarks, ignoring the idle sources.
+ */
+public interface WatermarkReceptor {
+  /**
+   * Called when the watermark of the inputs advances, before the messages received after the
+   * watermark are given to the task
+   *
+   * @param timestamp the event time of the watermark
+   */
+  void onWatermark(long timestamp);
+}
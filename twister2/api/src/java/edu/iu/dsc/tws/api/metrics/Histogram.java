@@ -0,0 +1,139 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non negative long values with a bounded relative error, in the same way as an
+ * HDR histogram. Each power of two range is split in to {@link #SUB_BUCKETS} linear buckets, so
+ * a value is recorded with an error less than 1 / {@link #SUB_BUCKETS} of the value, while the
+ * whole range of long values fits in to a fixed array of counts.
+ * <p>
+ * Recording a value doesn't allocate or lock, it is safe to record from multiple threads.
+ */
+public final class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+
+  /**
+   * Number of buckets in each power of two range
+   */
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * Values less than SUB_BUCKETS have a bucket each, after that a range for each remaining bit
+   */
+  private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  Histogram() {
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * The largest value recorded in a bucket
+   */
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+    long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+    return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+
+  /**
+   * Record a value, negative values are recorded as 0
+   *
+   * @param value the value
+   */
+  public void record(long value) {
+    long v = Math.max(value, 0);
+    buckets.incrementAndGet(bucketOf(v));
+    count.increment();
+    sum.add(v);
+    max.accumulate(v);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Get the value at a percentile
+   *
+   * @param percentile the percentile between 0 and 100
+   * @return upper bound of the bucket with the value at the percentile, 0 if nothing is recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    return getValuesAtPercentiles(percentile)[0];
+  }
+
+  /**
+   * Get the values at multiple percentiles from the same snapshot of the counts
+   *
+   * @param percentiles the percentiles between 0 and 100 in increasing order
+   * @return the value at each percentile
+   */
+  public long[] getValuesAtPercentiles(double... percentiles) {
+    long total = 0;
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+
+    long[] values = new long[percentiles.length];
+    if (total == 0) {
+      return values;
+    }
+
+    long maxValue = getMax();
+    int bucket = 0;
+    long seen = counts[0];
+    for (int p = 0; p < percentiles.length; p++) {
+      double fraction = Math.min(percentiles[p], 100.0) / 100.0;
+      long rank = Math.max(1, (long) Math.ceil(total * fraction));
+      while (seen < rank && bucket < BUCKETS - 1) {
+        seen += counts[++bucket];
+      }
+      values[p] = Math.min(upperBoundOf(bucket), maxValue);
+    }
+    return values;
+  }
+}
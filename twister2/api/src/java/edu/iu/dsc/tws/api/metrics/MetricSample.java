@@ -0,0 +1,93 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+/**
+ * A value read from a metric. A histogram gives multiple samples of the same family, one for each
+ * quantile, the sum and the count.
+ */
+public final class MetricSample {
+
+  /**
+   * Type of the metric a sample is read from
+   */
+  public enum Type {
+    COUNTER,
+    GAUGE,
+    SUMMARY
+  }
+
+  /**
+   * Name of the metric
+   */
+  private final String family;
+
+  /**
+   * Name of the sample, the family name with a suffix for some of the samples of a histogram
+   */
+  private final String name;
+
+  /**
+   * Labels in the text format, key="value" pairs separated by commas
+   */
+  private final String labels;
+
+  private final double value;
+
+  private final Type type;
+
+  public MetricSample(String family, String name, String labels, double value, Type type) {
+    this.family = family;
+    this.name = name;
+    this.labels = labels;
+    this.value = value;
+    this.type = type;
+  }
+
+  public String getFamily() {
+    return family;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getLabels() {
+    return labels;
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Create a copy of this sample with an additional label in front of the existing labels
+   *
+   * @param key label key
+   * @param labelValue label value
+   * @return the new sample
+   */
+  public MetricSample withLabel(String key, String labelValue) {
+    String label = MetricsRegistry.labels(key, labelValue);
+    return new MetricSample(family, name, labels.isEmpty() ? label : label + "," + labels,
+        value, type);
+  }
+
+  @Override
+  public String toString() {
+    return name + "{" + labels + "} " + value;
+  }
+}
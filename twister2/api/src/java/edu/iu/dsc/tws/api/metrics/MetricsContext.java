@@ -0,0 +1,51 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import edu.iu.dsc.tws.api.config.Config;
+
+public final class MetricsContext {
+
+  private MetricsContext() {
+  }
+
+  public static final String METRICS_ENABLED = "twister2.metrics.enabled";
+  public static final boolean METRICS_ENABLED_DEFAULT = true;
+
+  // port of the http endpoint of a worker, worker id is added to it. 0 disables the endpoint
+  public static final String WORKER_HTTP_PORT = "twister2.metrics.worker.http.port";
+  public static final int WORKER_HTTP_PORT_DEFAULT = 0;
+
+  // port of the http endpoint of the job master. 0 disables the endpoint
+  public static final String JOB_MASTER_HTTP_PORT = "twister2.metrics.job.master.http.port";
+  public static final int JOB_MASTER_HTTP_PORT_DEFAULT = 0;
+
+  // how often the workers send their metrics to the job master in milliseconds, 0 disables it
+  public static final String REPORT_INTERVAL = "twister2.metrics.report.interval";
+  public static final long REPORT_INTERVAL_DEFAULT = 10000;
+
+  public static boolean isEnabled(Config cfg) {
+    return cfg.getBooleanValue(METRICS_ENABLED, METRICS_ENABLED_DEFAULT);
+  }
+
+  public static int workerHttpPort(Config cfg) {
+    return cfg.getIntegerValue(WORKER_HTTP_PORT, WORKER_HTTP_PORT_DEFAULT);
+  }
+
+  public static int jobMasterHttpPort(Config cfg) {
+    return cfg.getIntegerValue(JOB_MASTER_HTTP_PORT, JOB_MASTER_HTTP_PORT_DEFAULT);
+  }
+
+  public static long reportInterval(Config cfg) {
+    return cfg.getLongValue(REPORT_INTERVAL, REPORT_INTERVAL_DEFAULT);
+  }
+}
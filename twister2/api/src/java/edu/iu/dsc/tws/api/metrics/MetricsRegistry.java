@@ -0,0 +1,221 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * The metrics of a process. Metrics are identified by a name and a set of labels, for example
+ * the edge of an operation. Getting a counter or a histogram looks up a map, so the hot paths
+ * should get them once and keep the reference.
+ * <p>
+ * The names follow the prometheus conventions, lower case words separated by underscores
+ * starting with twister2_ and ending with the unit.
+ */
+public final class MetricsRegistry {
+
+  /**
+   * The percentiles reported for a histogram
+   */
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  /**
+   * name{labels} --> metric, sorted so the samples of a family are together
+   */
+  private final ConcurrentNavigableMap<String, Entry> metrics = new ConcurrentSkipListMap<>();
+
+  private volatile boolean enabled = MetricsContext.METRICS_ENABLED_DEFAULT;
+
+  private MetricsRegistry() {
+  }
+
+  public static MetricsRegistry get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Read the configuration of the metrics
+   *
+   * @param cfg configuration
+   */
+  public static void init(Config cfg) {
+    INSTANCE.enabled = MetricsContext.isEnabled(cfg);
+  }
+
+  /**
+   * If false the metrics are not reported and measurements that are not free, such as timing
+   * every execution, should be skipped
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Counter counter(String name, String... labels) {
+    return (Counter) register(name, labels(labels), Counter.class, null).metric;
+  }
+
+  public Histogram histogram(String name, String... labels) {
+    return (Histogram) register(name, labels(labels), Histogram.class, null).metric;
+  }
+
+  /**
+   * Register a gauge, replacing any gauge with the same name and labels
+   *
+   * @param name name of the gauge
+   * @param value reads the current value, called every time the metrics are reported
+   * @param labels label keys and values
+   */
+  public void gauge(String name, LongSupplier value, String... labels) {
+    register(name, labels(labels), LongSupplier.class, value);
+  }
+
+  /**
+   * Remove a metric
+   *
+   * @param name name of the metric
+   * @param labels label keys and values
+   */
+  public void remove(String name, String... labels) {
+    metrics.remove(key(name, labels(labels)));
+  }
+
+  /**
+   * Remove a gauge if it is still the one registered with the name and labels, so a gauge
+   * registered again for a newer object is kept
+   *
+   * @param name name of the gauge
+   * @param value the value given when registering the gauge
+   * @param labels label keys and values
+   */
+  public void removeGauge(String name, LongSupplier value, String... labels) {
+    metrics.computeIfPresent(key(name, labels(labels)),
+        (k, entry) -> entry.metric == value ? null : entry);
+  }
+
+  private Entry register(String name, String labels, Class<?> type, LongSupplier gauge) {
+    String key = key(name, labels);
+    Entry entry;
+    if (gauge != null) {
+      entry = new Entry(name, labels, gauge);
+      Entry previous = metrics.put(key, entry);
+      if (previous != null && !(previous.metric instanceof LongSupplier)) {
+        metrics.put(key, previous);
+        throw new IllegalArgumentException("Metric " + key + " is not a gauge");
+      }
+      return entry;
+    }
+
+    entry = metrics.computeIfAbsent(key, k -> new Entry(name, labels,
+        type == Counter.class ? new Counter() : new Histogram()));
+    if (!type.isInstance(entry.metric)) {
+      throw new IllegalArgumentException("Metric " + key + " is not a " + type.getSimpleName());
+    }
+    return entry;
+  }
+
+  private static String key(String name, String labels) {
+    return name + "{" + labels + "}";
+  }
+
+  /**
+   * Render label keys and values
+   *
+   * @param keyValues keys and values one after the other
+   * @return the labels in the text format
+   */
+  static String labels(String... keyValues) {
+    if (keyValues.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels should be key value pairs");
+    }
+
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(keyValues[i]).append("=\"");
+      String value = keyValues[i + 1];
+      for (int j = 0; j < value.length(); j++) {
+        char c = value.charAt(j);
+        if (c == '\\' || c == '"') {
+          builder.append('\\').append(c);
+        } else if (c == '\n') {
+          builder.append("\\n");
+        } else {
+          builder.append(c);
+        }
+      }
+      builder.append('"');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Read the current values of the metrics
+   *
+   * @return the samples, the samples of a family are next to each other
+   */
+  public List<MetricSample> snapshot() {
+    List<MetricSample> samples = new ArrayList<>();
+    for (Entry entry : metrics.values()) {
+      entry.sample(samples);
+    }
+    return samples;
+  }
+
+  private static final class Entry {
+    private final String name;
+
+    private final String labels;
+
+    private final Object metric;
+
+    private Entry(String name, String labels, Object metric) {
+      this.name = name;
+      this.labels = labels;
+      this.metric = metric;
+    }
+
+    private void sample(List<MetricSample> samples) {
+      if (metric instanceof Counter) {
+        samples.add(new MetricSample(name, name, labels, ((Counter) metric).get(),
+            MetricSample.Type.COUNTER));
+      } else if (metric instanceof LongSupplier) {
+        samples.add(new MetricSample(name, name, labels, ((LongSupplier) metric).getAsLong(),
+            MetricSample.Type.GAUGE));
+      } else {
+        Histogram histogram = (Histogram) metric;
+        long[] values = histogram.getValuesAtPercentiles(PERCENTILES);
+        String separator = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < values.length; i++) {
+          samples.add(new MetricSample(name, name,
+              separator + "quantile=\"" + QUANTILES[i] + "\"", values[i],
+              MetricSample.Type.SUMMARY));
+        }
+        samples.add(new MetricSample(name, name + "_sum", labels, histogram.getSum(),
+            MetricSample.Type.SUMMARY));
+        samples.add(new MetricSample(name, name + "_count", labels, histogram.getCount(),
+            MetricSample.Type.SUMMARY));
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A small http server giving the metrics at /metrics in the prometheus text format, so they can
+ * be scraped by prometheus or read with curl.
+ */
+public final class MetricsServer {
+  private static final Logger LOG = Logger.getLogger(MetricsServer.class.getName());
+
+  public static final String PATH = "/metrics";
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  private MetricsServer(HttpServer server, ExecutorService executor) {
+    this.server = server;
+    this.executor = executor;
+  }
+
+  /**
+   * Start a server
+   *
+   * @param port the port
+   * @param samples reads the samples for a request
+   * @return the server or null if it can't be started
+   */
+  public static MetricsServer start(int port, Supplier<List<MetricSample>> samples) {
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+      server.createContext(PATH, exchange -> respond(exchange, samples));
+      ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "metrics-http-" + port);
+        thread.setDaemon(true);
+        return thread;
+      });
+      server.setExecutor(executor);
+      server.start();
+      LOG.info("Serving metrics at port " + server.getAddress().getPort() + PATH);
+      return new MetricsServer(server, executor);
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Failed to start the metrics server at port " + port, e);
+      return null;
+    }
+  }
+
+  private static void respond(HttpExchange exchange,
+                              Supplier<List<MetricSample>> samples) throws IOException {
+    try {
+      byte[] body = PrometheusFormat.write(samples.get()).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,58 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes samples in the prometheus text exposition format
+ */
+public final class PrometheusFormat {
+
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private PrometheusFormat() {
+  }
+
+  /**
+   * Write the samples, the samples of a family should be next to each other
+   *
+   * @param samples the samples
+   * @return the text
+   */
+  public static String write(List<MetricSample> samples) {
+    StringBuilder builder = new StringBuilder();
+    String family = null;
+    for (MetricSample sample : samples) {
+      if (!sample.getFamily().equals(family)) {
+        family = sample.getFamily();
+        builder.append("# TYPE ").append(family).append(' ')
+            .append(sample.getType().name().toLowerCase(Locale.ROOT)).append('\n');
+      }
+
+      builder.append(sample.getName());
+      if (!sample.getLabels().isEmpty()) {
+        builder.append('{').append(sample.getLabels()).append('}');
+      }
+      builder.append(' ');
+      double value = sample.getValue();
+      if (value == Math.rint(value) && !Double.isInfinite(value)) {
+        builder.append((long) value);
+      } else {
+        builder.append(value);
+      }
+      builder.append('\n');
+    }
+    return builder.toString();
+  }
+}
@@ -23,7 +23,11 @@ import edu.iu.dsc.tws.api.comms.Communicator;
 import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.TimeoutException;
+import edu.iu.dsc.tws.api.metrics.MetricsContext;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
+import edu.iu.dsc.tws.api.metrics.MetricsServer;
 import edu.iu.dsc.tws.api.util.CommonThreadPool;
+import edu.iu.dsc.tws.api.util.SerializerRegistry;
 import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
 
 /**
@@ -67,6 +71,11 @@ public final class WorkerEnvironment {
    */
   private TWSChannel channel;
 
+  /**
+   * Http endpoint of the metrics of this worker, null if it is not enabled
+   */
+  private MetricsServer metricsServer;
+
   /**
    * The worker list we got from discovery
    */
@@ -94,6 +103,17 @@ public final class WorkerEnvironment {
     //initialize common thread pool
     CommonThreadPool.init(config);
 
+    // register the classes and codecs of the job before anything is serialized
+    SerializerRegistry.init(config);
+
+    MetricsRegistry.init(config);
+    int metricsPort = MetricsContext.workerHttpPort(config);
+    if (MetricsContext.isEnabled(config) && metricsPort > 0) {
+      // workers on the same node need different ports
+      this.metricsServer = MetricsServer.start(metricsPort + workerId,
+          MetricsRegistry.get()::snapshot);
+    }
+
     //wait for the workers to join
     try {
       this.workerList = workerController.getAllWorkers();
@@ -151,6 +171,9 @@ public final class WorkerEnvironment {
     this.communicator.close();
     this.channel.close();
     CommonThreadPool.close();
+    if (metricsServer != null) {
+      metricsServer.stop();
+    }
     this.workerEnv = null;
   }
 
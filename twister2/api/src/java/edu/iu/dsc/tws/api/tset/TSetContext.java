@@ -76,6 +76,11 @@ public class TSetContext implements Serializable {
 
   private transient Schema outSchema;
 
+  /**
+   * The context of the task running the tSet instance
+   */
+  private transient TaskContext taskContext;
+
   /**
    * Creates and empty TSet Context
    */
@@ -281,6 +286,19 @@ public class TSetContext implements Serializable {
     setWorkerId(taskCtx.getWorkerId());
     setInSchema((Schema) taskCtx.getConfig(TSetConstants.INPUT_SCHEMA_KEY));
     setOutputSchema((Schema) taskCtx.getConfig(TSetConstants.OUTPUT_SCHEMA_KEY));
+    this.taskContext = taskCtx;
+  }
+
+  /**
+   * Write an event time watermark to all the outputs of a streaming tSet, after the records
+   * already written
+   *
+   * @param timestamp event time of the watermark
+   */
+  public void writeWatermark(long timestamp) {
+    for (String edge : taskContext.getOutEdges().keySet()) {
+      taskContext.writeWatermark(edge, timestamp);
+    }
   }
 
   private void setWorkerId(int workerId) {
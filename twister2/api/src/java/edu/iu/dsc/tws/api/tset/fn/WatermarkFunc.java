@@ -0,0 +1,29 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.tset.fn;
+
+/**
+ * A streaming function that is notified of the event time watermarks of its inputs. The
+ * records collected when a watermark arrives are sent before the watermark is forwarded.
+ *
+ * @param <O> output type
+ */
+public interface WatermarkFunc<O> {
+
+  /**
+   * The watermark of the inputs advanced
+   *
+   * @param timestamp the event time of the watermark
+   * @param output collector for the records produced by the watermark
+   */
+  void onWatermark(long timestamp, RecordCollector<O> output);
+}
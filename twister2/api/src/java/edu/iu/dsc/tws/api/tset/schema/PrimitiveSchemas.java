@@ -23,8 +23,18 @@ public final class PrimitiveSchemas {
 
   public static final Schema OBJECT = () -> MessageTypes.OBJECT;
 
+  public static final Schema RECORD_BATCH = () -> MessageTypes.RECORD_BATCH;
+
   public static final Schema EMPTY = () -> MessageTypes.EMPTY;
 
+  public static final Schema INTEGER_ARRAY_2D = () -> MessageTypes.INTEGER_ARRAY_2D;
+
+  public static final Schema LONG_ARRAY_2D = () -> MessageTypes.LONG_ARRAY_2D;
+
+  public static final Schema DOUBLE_ARRAY_2D = () -> MessageTypes.DOUBLE_ARRAY_2D;
+
+  public static final Schema FLOAT_ARRAY_2D = () -> MessageTypes.FLOAT_ARRAY_2D;
+
   public static final Schema NULL = () -> null;
 
   public static final KeyedSchema OBJECT_TUPLE2 = new KeyedSchema(MessageTypes.OBJECT,
@@ -12,14 +12,21 @@
 package edu.iu.dsc.tws.api.util;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
 /**
  * Kryo serializer for serializing objects
+ * <p>
+ * The classes registered in {@link SerializerRegistry} are registered with Kryo. The top level
+ * objects with a registered {@link ObjectCodec} are written as the Kryo registration id followed
+ * by the bytes written by the codec, the same way Kryo writes the class of an object.
  */
 public class KryoSerializer {
   /**
@@ -34,6 +41,14 @@ public class KryoSerializer {
    * Kryo input
    */
   private Input kryoIn;
+  /**
+   * Kryo input for direct buffers
+   */
+  private ByteBufferInput kryoBufferIn;
+  /**
+   * Number of classes from the registry, registered with this kryo
+   */
+  private int registered;
 
   public KryoSerializer() {
     kryo = new Kryo();
@@ -41,24 +56,156 @@ public class KryoSerializer {
     kryo.setRegistrationRequired(false);
     kryoOut = new Output(2000, 2000000000);
     kryoIn = new Input(1);
+    kryoBufferIn = new ByteBufferInput();
+    updateRegistrations();
   }
 
   public void init(Map<String, Object> config) {
   }
 
   public byte[] serialize(Object object) {
+    updateRegistrations();
+    int codecId = codecId(object);
+    if (codecId >= 0) {
+      byte[] bytes = new byte[getCodecLength(object, codecId)];
+      writeCodec(object, codecId, ByteBuffer.wrap(bytes));
+      return bytes;
+    }
     kryoOut.clear();
     kryo.writeClassAndObject(kryoOut, object);
     return kryoOut.toBytes();
   }
 
   public Object deserialize(byte[] input) {
-    kryoIn.setBuffer(input);
-    return kryo.readClassAndObject(kryoIn);
+    return deserialize(ByteBuffer.wrap(input), 0, input.length);
+  }
+
+  /**
+   * Deserialize an object from a part of the buffer, the position of the buffer is not changed
+   *
+   * @param buffer the buffer
+   * @param offset start of the object
+   * @param length number of bytes of the object
+   * @return the object
+   */
+  public Object deserialize(ByteBuffer buffer, int offset, int length) {
+    updateRegistrations();
+    ObjectCodec<?> codec = registeredCodec(buffer, offset);
+    if (codec != null) {
+      ByteBuffer source = buffer.duplicate();
+      source.limit(offset + length);
+      source.position(offset + varIntLength(readVarInt(buffer, offset)));
+      return codec.decode(source);
+    }
+
+    if (buffer.hasArray()) {
+      kryoIn.setBuffer(buffer.array(), buffer.arrayOffset() + offset, length);
+      return kryo.readClassAndObject(kryoIn);
+    }
+    // duplicate is in big endian, the same byte order used by the kryo output
+    ByteBuffer source = buffer.duplicate();
+    source.limit(offset + length);
+    source.position(offset);
+    kryoBufferIn.setBuffer(source.slice());
+    return kryo.readClassAndObject(kryoBufferIn);
   }
 
   public Object deserialize(InputStream inputStream) {
     Input input = new Input(inputStream);
     return kryo.readClassAndObject(input);
   }
+
+  /**
+   * The number of bytes needed to serialize the object with a codec
+   *
+   * @param object the object
+   * @return number of bytes or -1 if there is no codec for the object
+   */
+  public int getCodecLength(Object object) {
+    updateRegistrations();
+    int codecId = codecId(object);
+    return codecId >= 0 ? getCodecLength(object, codecId) : -1;
+  }
+
+  /**
+   * Serialize an object with a codec directly to the buffer, starting at the current position.
+   * The buffer must have {@link #getCodecLength(Object)} bytes remaining.
+   *
+   * @param object the object
+   * @param buffer the buffer
+   */
+  public void serializeWithCodec(Object object, ByteBuffer buffer) {
+    int codecId = codecId(object);
+    if (codecId < 0) {
+      throw new IllegalArgumentException("No codec registered for " + object.getClass());
+    }
+    writeCodec(object, codecId, buffer);
+  }
+
+  @SuppressWarnings("unchecked")
+  private int getCodecLength(Object object, int codecId) {
+    ObjectCodec<Object> codec = (ObjectCodec<Object>) SerializerRegistry.getCodec(codecId);
+    return varIntLength(codecId + 2) + codec.getSerializedLength(object);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeCodec(Object object, int codecId, ByteBuffer buffer) {
+    ObjectCodec<Object> codec = (ObjectCodec<Object>) SerializerRegistry.getCodec(codecId);
+    // same as kryo, registration id is written as id + 2, 0 is null and 1 is a class name
+    int value = codecId + 2;
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+    codec.encode(object, buffer);
+  }
+
+  private static int codecId(Object object) {
+    return object == null ? -1 : SerializerRegistry.getCodecId(object.getClass());
+  }
+
+  private static ObjectCodec<?> registeredCodec(ByteBuffer buffer, int offset) {
+    if (SerializerRegistry.getClasses().isEmpty()) {
+      return null;
+    }
+    return SerializerRegistry.getCodec(readVarInt(buffer, offset) - 2);
+  }
+
+  private static int readVarInt(ByteBuffer buffer, int offset) {
+    int result = 0;
+    for (int shift = 0, i = offset; shift < 32 && i < buffer.limit(); shift += 7, i++) {
+      byte b = buffer.get(i);
+      result |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private static int varIntLength(int value) {
+    int length = 1;
+    int v = value;
+    while ((v & ~0x7F) != 0) {
+      length++;
+      v >>>= 7;
+    }
+    return length;
+  }
+
+  /**
+   * Register the classes that are added to the registry after the last call
+   */
+  private void updateRegistrations() {
+    List<Class<?>> classes = SerializerRegistry.getClasses();
+    if (classes.size() < registered) {
+      // the registry was cleared, the classes added again take the ids from the start
+      registered = 0;
+    }
+    for (int i = registered; i < classes.size(); i++) {
+      kryo.register(classes.get(i), SerializerRegistry.FIRST_ID + i);
+    }
+    registered = classes.size();
+  }
 }
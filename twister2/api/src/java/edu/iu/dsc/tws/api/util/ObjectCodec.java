@@ -0,0 +1,61 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A hand written codec for a user type. When a codec is registered for a type through
+ * {@link SerializerRegistry}, the object packer writes the objects of that type directly to the
+ * network buffers and reads them directly from the network buffers, without creating an
+ * intermediate byte array.
+ * <p>
+ * Codecs are used for the top level objects given to the communication operations. If the type
+ * appears as a field of another object, it is serialized by Kryo.
+ *
+ * @param <T> the type
+ */
+public interface ObjectCodec<T> {
+
+  /**
+   * The type handled by this codec
+   *
+   * @return the class
+   */
+  Class<T> getType();
+
+  /**
+   * The exact number of bytes {@link #encode(Object, ByteBuffer)} writes for the value
+   *
+   * @param value the value
+   * @return number of bytes
+   */
+  int getSerializedLength(T value);
+
+  /**
+   * Write the value to the buffer starting at the current position of the buffer. The buffer
+   * has at least {@link #getSerializedLength(Object)} bytes remaining.
+   *
+   * @param value the value
+   * @param buffer the buffer
+   */
+  void encode(T value, ByteBuffer buffer);
+
+  /**
+   * Read a value from the buffer starting at the current position of the buffer. The remaining
+   * bytes of the buffer are the bytes written by {@link #encode(Object, ByteBuffer)}.
+   *
+   * @param buffer the buffer
+   * @return the value
+   */
+  T decode(ByteBuffer buffer);
+}
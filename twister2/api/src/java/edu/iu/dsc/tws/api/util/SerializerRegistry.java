@@ -0,0 +1,197 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * Classes registered with Kryo and the hand written codecs of a job. Every worker of a job
+ * should register the same classes in the same order, because Kryo writes the registration id
+ * instead of the class name.
+ * <p>
+ * The registrations are read from the job configuration when the worker starts, and the
+ * {@link KryoSerializer} instances pick up the registrations before they serialize or
+ * deserialize an object.
+ */
+public final class SerializerRegistry {
+  private static final Logger LOG = Logger.getLogger(SerializerRegistry.class.getName());
+
+  /**
+   * List of classes to register with Kryo
+   */
+  public static final String KRYO_CLASSES = "twister2.serializer.kryo.classes";
+
+  /**
+   * List of {@link ObjectCodec} implementations
+   */
+  public static final String CODECS = "twister2.serializer.codecs";
+
+  /**
+   * Kryo uses the small ids for the primitive types, we start registering from this id
+   */
+  public static final int FIRST_ID = 100;
+
+  /**
+   * The registered classes, the index of a class plus the first id is the registration id
+   */
+  private static volatile List<Class<?>> classes = Collections.emptyList();
+
+  /**
+   * Codecs indexed by the registration id minus the first id, null for classes without a codec
+   */
+  private static volatile List<ObjectCodec<?>> codecs = Collections.emptyList();
+
+  /**
+   * Registration ids of the classes with a codec
+   */
+  private static volatile Map<Class<?>, Integer> codecIds = Collections.emptyMap();
+
+  private SerializerRegistry() {
+  }
+
+  /**
+   * Register the classes and codecs given in the configuration
+   *
+   * @param config configuration
+   */
+  public static synchronized void init(Config config) {
+    List<String> classNames = config.getStringList(KRYO_CLASSES);
+    if (classNames != null) {
+      for (String className : classNames) {
+        register(loadClass(className));
+      }
+    }
+
+    List<String> codecNames = config.getStringList(CODECS);
+    if (codecNames != null) {
+      for (String codecName : codecNames) {
+        try {
+          register((ObjectCodec<?>) loadClass(codecName).newInstance());
+        } catch (InstantiationException | IllegalAccessException e) {
+          throw new RuntimeException("Failed to create the codec: " + codecName, e);
+        }
+      }
+    }
+    LOG.fine("Registered " + classes.size() + " classes for serialization");
+  }
+
+  /**
+   * Remove all the registrations, so the tests registering classes don't change the ids seen by
+   * the other tests. The classes registered again get the same ids as before.
+   */
+  public static synchronized void clear() {
+    codecIds = Collections.emptyMap();
+    codecs = Collections.emptyList();
+    classes = Collections.emptyList();
+  }
+
+  /**
+   * Register a class with Kryo
+   *
+   * @param clazz the class
+   * @return the registration id
+   */
+  public static synchronized int register(Class<?> clazz) {
+    return add(clazz, null);
+  }
+
+  /**
+   * Register a codec, the type of the codec is registered with Kryo as well
+   *
+   * @param codec the codec
+   * @return the registration id
+   */
+  public static synchronized int register(ObjectCodec<?> codec) {
+    return add(codec.getType(), codec);
+  }
+
+  private static int add(Class<?> clazz, ObjectCodec<?> codec) {
+    int index = classes.indexOf(clazz);
+    if (index >= 0) {
+      if (codec != null && codecs.get(index) == null) {
+        throw new RuntimeException("Class is already registered without a codec: " + clazz);
+      }
+      return index + FIRST_ID;
+    }
+
+    // copy on write, the serializers read these without locking
+    List<Class<?>> newClasses = new ArrayList<>(classes);
+    List<ObjectCodec<?>> newCodecs = new ArrayList<>(codecs);
+    newClasses.add(clazz);
+    newCodecs.add(codec);
+    int id = newClasses.size() - 1 + FIRST_ID;
+    if (codec != null) {
+      Map<Class<?>, Integer> newCodecIds = new HashMap<>(codecIds);
+      newCodecIds.put(clazz, id);
+      codecIds = newCodecIds;
+    }
+    codecs = newCodecs;
+    classes = newClasses;
+    return id;
+  }
+
+  /**
+   * The registered classes in the registration order
+   *
+   * @return list of classes
+   */
+  public static List<Class<?>> getClasses() {
+    return classes;
+  }
+
+  /**
+   * Get the registration id of the codec for the given class
+   *
+   * @param clazz the class
+   * @return the registration id or -1 if there is no codec for the class
+   */
+  public static int getCodecId(Class<?> clazz) {
+    Map<Class<?>, Integer> ids = codecIds;
+    if (ids.isEmpty()) {
+      return -1;
+    }
+    Integer id = ids.get(clazz);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * Get the codec with the given registration id
+   *
+   * @param id registration id
+   * @return the codec or null if there is no codec with that id
+   */
+  public static ObjectCodec<?> getCodec(int id) {
+    List<ObjectCodec<?>> registered = codecs;
+    int index = id - FIRST_ID;
+    if (index < 0 || index >= registered.size()) {
+      return null;
+    }
+    return registered.get(index);
+  }
+
+  private static Class<?> loadClass(String className) {
+    try {
+      ClassLoader loader = Thread.currentThread().getContextClassLoader();
+      return Class.forName(className.trim(), true,
+          loader != null ? loader : SerializerRegistry.class.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      throw new RuntimeException("Failed to load the class for serialization: " + className, e);
+    }
+  }
+}
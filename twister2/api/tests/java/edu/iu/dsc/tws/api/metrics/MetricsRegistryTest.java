@@ -0,0 +1,98 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.metrics;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+  @Test
+  public void testHistogramPercentiles() {
+    Histogram histogram = MetricsRegistry.get().histogram("test_histogram_values");
+    for (int i = 1; i <= 10000; i++) {
+      histogram.record(i);
+    }
+    Assert.assertEquals(10000, histogram.getCount());
+    Assert.assertEquals(10000L * 10001 / 2, histogram.getSum());
+    Assert.assertEquals(10000, histogram.getMax());
+
+    long[] values = histogram.getValuesAtPercentiles(50, 99, 100);
+    // a value is within 1/32 of the actual value
+    Assert.assertEquals(5000, values[0], 5000 / 32.0);
+    Assert.assertEquals(9900, values[1], 9900 / 32.0);
+    Assert.assertEquals(10000, values[2]);
+
+    // small values are exact
+    Histogram small = MetricsRegistry.get().histogram("test_histogram_small");
+    small.record(3);
+    small.record(-1);
+    Assert.assertEquals(0, small.getValueAtPercentile(50));
+    Assert.assertEquals(3, small.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testSameMetric() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    Counter counter = registry.counter("test_counter_total", "edge", "1");
+    Assert.assertSame(counter, registry.counter("test_counter_total", "edge", "1"));
+    Assert.assertNotSame(counter, registry.counter("test_counter_total", "edge", "2"));
+
+    try {
+      registry.histogram("test_counter_total", "edge", "1");
+      Assert.fail("A counter is not a histogram");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRemoveGauge() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    LongSupplier old = () -> 1;
+    LongSupplier current = () -> 2;
+    registry.gauge("test_remove_depth", old, "queue", "in");
+    registry.gauge("test_remove_depth", current, "queue", "in");
+
+    // removing a replaced gauge keeps the current one
+    registry.removeGauge("test_remove_depth", old, "queue", "in");
+    Assert.assertTrue(PrometheusFormat.write(registry.snapshot())
+        .contains("test_remove_depth{queue=\"in\"} 2\n"));
+
+    registry.removeGauge("test_remove_depth", current, "queue", "in");
+    Assert.assertFalse(PrometheusFormat.write(registry.snapshot())
+        .contains("test_remove_depth"));
+  }
+
+  @Test
+  public void testPrometheusFormat() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    registry.counter("test_format_bytes_total", "edge", "7").add(42);
+    registry.gauge("test_format_depth", () -> 5, "task", "a\"b");
+    registry.histogram("test_format_millis").record(10);
+
+    String text = PrometheusFormat.write(registry.snapshot());
+    Assert.assertTrue(text.contains("# TYPE test_format_bytes_total counter\n"
+        + "test_format_bytes_total{edge=\"7\"} 42\n"));
+    Assert.assertTrue(text.contains("test_format_depth{task=\"a\\\"b\"} 5\n"));
+    Assert.assertTrue(text.contains("# TYPE test_format_millis summary\n"
+        + "test_format_millis{quantile=\"0.5\"} 10\n"));
+    Assert.assertTrue(text.contains("test_format_millis_count 1\n"));
+
+    List<MetricSample> samples = registry.snapshot();
+    MetricSample labelled = samples.get(0).withLabel("worker", "3");
+    Assert.assertTrue(labelled.getLabels().startsWith("worker=\"3\""));
+  }
+}
@@ -0,0 +1,109 @@
+import argparse
+import json
+import sys
+
+# Compares the JSON results of a JMH run (-rf json) with a baseline and fails if any
+# benchmark got slower than the allowed threshold. With --record the results become the
+# new baseline.
+
+
+def benchmark_id(result):
+    params = result.get("params", {})
+    keys = sorted(params.keys())
+    return result["benchmark"] + "".join(
+        [":" + key + "=" + str(params[key]) for key in keys])
+
+
+def load_scores(path):
+    with open(path) as f:
+        content = json.load(f)
+
+    # a baseline keeps the results of a run under the results key
+    if isinstance(content, dict):
+        content = content.get("results", [])
+
+    scores = {}
+    for result in content:
+        metric = result["primaryMetric"]
+        scores[benchmark_id(result)] = {
+            "score": metric["score"],
+            "error": metric.get("scoreError", 0.0),
+            "unit": metric["scoreUnit"],
+            "mode": result["mode"],
+        }
+    return scores
+
+
+def change(baseline, current):
+    if baseline["score"] == 0:
+        return 0.0
+    difference = (current["score"] - baseline["score"]) / baseline["score"]
+    # for throughput higher is better, for the time modes lower is better
+    if baseline["mode"] == "thrpt":
+        return -difference
+    return difference
+
+
+def compare(baseline, current, threshold):
+    regressions = []
+    for key in sorted(current.keys()):
+        if key not in baseline:
+            print("NEW        %s %.3f %s" % (key, current[key]["score"], current[key]["unit"]))
+            continue
+
+        slowdown = change(baseline[key], current[key])
+        status = "OK"
+        if slowdown > threshold:
+            status = "REGRESSION"
+            regressions.append(key)
+        elif slowdown < -threshold:
+            status = "FASTER"
+        print("%-10s %s %.3f -> %.3f %s (%+.1f%%)" % (
+            status, key, baseline[key]["score"], current[key]["score"],
+            current[key]["unit"], slowdown * 100))
+
+    for key in sorted(baseline.keys()):
+        if key not in current:
+            print("MISSING    %s" % key)
+    return regressions
+
+
+def record(results_path, baseline_path):
+    with open(results_path) as f:
+        results = json.load(f)
+    with open(baseline_path, "w") as f:
+        json.dump({"results": results}, f, indent=2, sort_keys=True)
+    print("Recorded %d results to %s" % (len(results), baseline_path))
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare JMH results with a baseline")
+    parser.add_argument("results", help="JSON results of a JMH run")
+    parser.add_argument("--baseline", default="baseline.json", help="the baseline file")
+    parser.add_argument("--threshold", type=float, default=0.10,
+                        help="allowed slowdown as a fraction, 0.10 is 10%%")
+    parser.add_argument("--record", action="store_true",
+                        help="save the results as the new baseline")
+    args = parser.parse_args()
+
+    if args.record:
+        record(args.results, args.baseline)
+        return 0
+
+    baseline = load_scores(args.baseline)
+    if not baseline:
+        # an empty baseline would pass every run, record one on the reference machine first
+        print("The baseline %s has no results, record it with --record on the reference "
+              "machine" % args.baseline)
+        return 2
+
+    regressions = compare(baseline, load_scores(args.results), args.threshold)
+    if regressions:
+        print("%d benchmarks are more than %.0f%% slower than the baseline" % (
+            len(regressions), args.threshold * 100))
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,254 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.comms;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.BaseOperation;
+import edu.iu.dsc.tws.api.comms.BulkReceiver;
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.batch.BGather;
+import edu.iu.dsc.tws.comms.batch.BPartition;
+import edu.iu.dsc.tws.comms.batch.BReduce;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+import edu.iu.dsc.tws.comms.selectors.LoadBalanceSelector;
+
+/**
+ * Batch communication operations between workers in the same process over a
+ * {@link LoopbackNetwork}. Every source sends the given number of integer arrays and the time
+ * is measured until all the targets receive the results, so this covers the routing,
+ * serialization, buffer management and the receivers of an operation, but not the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class CommsBenchmark {
+
+  @Param({"reduce", "gather", "partition"})
+  private String operation;
+
+  @Param({"2", "4"})
+  private int workers;
+
+  @Param({"2"})
+  private int tasksPerWorker;
+
+  @Param({"1000"})
+  private int messages;
+
+  /**
+   * Number of integers in a message
+   */
+  @Param({"16", "1024"})
+  private int size;
+
+  /**
+   * The algorithm used by partition, ring can be selected with -p partitionAlgorithm=ring
+   */
+  @Param({CommunicationContext.ALLTOALL_ALGO_SIMPLE})
+  private String partitionAlgorithm;
+
+  private Config config;
+
+  private LoopbackNetwork network;
+
+  private Communicator[] communicators;
+
+  private BaseOperation[] operations;
+
+  private int[] data;
+
+  private long received;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    config = Config.newBuilder()
+        .put(CommunicationContext.ALLTOALL_ALGO_KEY, partitionAlgorithm)
+        .build();
+    network = new LoopbackNetwork(config, workers);
+    communicators = new Communicator[workers];
+    for (int w = 0; w < workers; w++) {
+      communicators[w] = new Communicator(config, network.getChannel(w));
+    }
+    data = new int[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = i;
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpOperations() {
+    int sourceCount = workers * tasksPerWorker;
+    Set<Integer> sources = new HashSet<>();
+    Set<Integer> targets = new HashSet<>();
+    Map<Integer, Set<Integer>> workerToTasks = new HashMap<>();
+    for (int w = 0; w < workers; w++) {
+      Set<Integer> tasks = new HashSet<>();
+      for (int t = 0; t < tasksPerWorker; t++) {
+        sources.add(w * tasksPerWorker + t);
+        tasks.add(w * tasksPerWorker + t);
+        if ("partition".equals(operation)) {
+          targets.add(sourceCount + w * tasksPerWorker + t);
+          tasks.add(sourceCount + w * tasksPerWorker + t);
+        }
+      }
+      workerToTasks.put(w, tasks);
+    }
+    if (!"partition".equals(operation)) {
+      // a single target on the first worker
+      targets.add(sourceCount);
+      workerToTasks.get(0).add(sourceCount);
+    }
+    Map<Integer, Set<Integer>> groups = new HashMap<>();
+    groups.put(0, new HashSet<>(workerToTasks.keySet()));
+
+    received = 0;
+    operations = new BaseOperation[workers];
+    for (int w = 0; w < workers; w++) {
+      // the communicators create the same edges in every worker, a new edge for every
+      // invocation the same as the operations of a job
+      Communicator comm = communicators[w];
+      LogicalPlan plan = new LogicalPlan(workerToTasks, groups, Collections.emptyMap(), w);
+      switch (operation) {
+        case "reduce":
+          operations[w] = new BReduce(comm, plan, sources, sourceCount,
+              new ReduceOperationFunction(Op.SUM, MessageTypes.INTEGER_ARRAY),
+              new CountingReceiver(), MessageTypes.INTEGER_ARRAY);
+          break;
+        case "gather":
+          operations[w] = new BGather(comm, plan, sources, sourceCount,
+              MessageTypes.INTEGER_ARRAY, new CountingReceiver(), false);
+          break;
+        case "partition":
+          operations[w] = new BPartition(comm, plan, sources, targets,
+              MessageTypes.INTEGER_ARRAY, new CountingReceiver(), new LoadBalanceSelector(),
+              false);
+          break;
+        default:
+          throw new IllegalArgumentException("Un-known operation: " + operation);
+      }
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownOperations() {
+    for (BaseOperation op : operations) {
+      op.close();
+    }
+  }
+
+  @Benchmark
+  public long operation() {
+    for (int m = 0; m < messages; m++) {
+      for (int w = 0; w < workers; w++) {
+        for (int t = 0; t < tasksPerWorker; t++) {
+          int source = w * tasksPerWorker + t;
+          while (!send(operations[w], source)) {
+            progress();
+          }
+        }
+      }
+    }
+
+    for (int w = 0; w < workers; w++) {
+      for (int t = 0; t < tasksPerWorker; t++) {
+        operations[w].finish(w * tasksPerWorker + t);
+      }
+    }
+
+    while (!isComplete()) {
+      progress();
+    }
+    return received;
+  }
+
+  private boolean send(BaseOperation op, int source) {
+    if (op instanceof BReduce) {
+      return ((BReduce) op).reduce(source, data, 0);
+    } else if (op instanceof BGather) {
+      return ((BGather) op).gather(source, data, 0);
+    } else {
+      return ((BPartition) op).partition(source, data, 0);
+    }
+  }
+
+  private void progress() {
+    network.progress();
+    for (BaseOperation op : operations) {
+      op.progress();
+    }
+  }
+
+  private boolean isComplete() {
+    for (BaseOperation op : operations) {
+      if (!op.isComplete()) {
+        return false;
+      }
+    }
+    return network.isComplete();
+  }
+
+  private class CountingReceiver implements SingularReceiver, BulkReceiver {
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+    }
+
+    @Override
+    public boolean receive(int target, Object object) {
+      received++;
+      return true;
+    }
+
+    @Override
+    public boolean receive(int target, Iterator<Object> it) {
+      while (it.hasNext()) {
+        it.next();
+        received++;
+      }
+      return true;
+    }
+
+    @Override
+    public boolean sync(int target, byte[] message) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,256 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.comms;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.channel.ChannelListener;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+
+/**
+ * The channel of a worker in a {@link LoopbackNetwork}. A send copies the buffers of the message
+ * directly in to the buffers posted by the receiving worker, and the receive callbacks are
+ * called when the receiving worker progresses, the same as with a network channel.
+ * <p>
+ * The channels of a network should be progressed by a single thread.
+ */
+public class LoopbackChannel implements TWSChannel {
+
+  @SuppressWarnings("VisibilityModifier")
+  private static class LoopbackSendRequest {
+    int rank;
+    int edge;
+    ChannelMessage message;
+    ChannelListener callback;
+    int nextBuffer;
+
+    LoopbackSendRequest(int rank, int edge, ChannelMessage message, ChannelListener callback) {
+      this.rank = rank;
+      this.edge = edge;
+      this.message = message;
+      this.callback = callback;
+    }
+  }
+
+  @SuppressWarnings("VisibilityModifier")
+  private static class LoopbackReceiveRequest {
+    int rank;
+    int edge;
+    ChannelListener callback;
+    Queue<DataBuffer> availableBuffers;
+    Queue<DataBuffer> completedBuffers = new ArrayDeque<>();
+
+    LoopbackReceiveRequest(int rank, int edge, ChannelListener callback,
+                           Queue<DataBuffer> buffers) {
+      this.rank = rank;
+      this.edge = edge;
+      this.callback = callback;
+      this.availableBuffers = buffers;
+    }
+  }
+
+  private final LoopbackNetwork network;
+
+  private final int workerId;
+
+  private final int maxPendingSends;
+
+  /**
+   * Pending sends, indexed by the receiving worker
+   */
+  private Int2ObjectArrayMap<Queue<LoopbackSendRequest>> pendingSends =
+      new Int2ObjectArrayMap<>();
+
+  private int pendingSendCount = 0;
+
+  /**
+   * Registered receives, indexed by sending worker and edge
+   */
+  private Int2ObjectArrayMap<Int2ObjectArrayMap<LoopbackReceiveRequest>> registeredReceives =
+      new Int2ObjectArrayMap<>();
+
+  /**
+   * The receives of each group
+   */
+  private Int2ObjectArrayMap<List<LoopbackReceiveRequest>> groupedRegisteredReceives =
+      new Int2ObjectArrayMap<>();
+
+  /**
+   * Number of buffers copied to this worker and not yet given to the receive callbacks
+   */
+  private int completedReceiveCount = 0;
+
+  LoopbackChannel(LoopbackNetwork network, int workerId, int maxPendingSends) {
+    this.network = network;
+    this.workerId = workerId;
+    this.maxPendingSends = maxPendingSends;
+  }
+
+  public int getWorkerId() {
+    return workerId;
+  }
+
+  @Override
+  public boolean sendMessage(int id, ChannelMessage message, ChannelListener callback) {
+    if (pendingSendCount >= maxPendingSends) {
+      return false;
+    }
+    Queue<LoopbackSendRequest> queue = pendingSends.get(id);
+    if (queue == null) {
+      queue = new ArrayDeque<>();
+      pendingSends.put(id, queue);
+    }
+    queue.offer(new LoopbackSendRequest(id, message.getHeader().getEdge(), message, callback));
+    pendingSendCount++;
+    return true;
+  }
+
+  @Override
+  public boolean receiveMessage(int group, int id, int edge,
+                                ChannelListener callback, Queue<DataBuffer> receiveBuffers) {
+    LoopbackReceiveRequest request = new LoopbackReceiveRequest(id, edge, callback,
+        receiveBuffers);
+    Int2ObjectArrayMap<LoopbackReceiveRequest> edges = registeredReceives.get(id);
+    if (edges == null) {
+      edges = new Int2ObjectArrayMap<>();
+      registeredReceives.put(id, edges);
+    }
+    edges.put(edge, request);
+
+    List<LoopbackReceiveRequest> list = groupedRegisteredReceives.get(group);
+    if (list == null) {
+      list = new ArrayList<>();
+      groupedRegisteredReceives.put(group, list);
+    }
+    list.add(request);
+    return true;
+  }
+
+  @Override
+  public void progress() {
+    progressSends();
+    for (List<LoopbackReceiveRequest> requests : groupedRegisteredReceives.values()) {
+      completeReceives(requests);
+    }
+  }
+
+  @Override
+  public void progressSends() {
+    for (Queue<LoopbackSendRequest> queue : pendingSends.values()) {
+      while (!queue.isEmpty()) {
+        LoopbackSendRequest request = queue.peek();
+        LoopbackReceiveRequest receive = network.getChannel(request.rank)
+            .getReceive(workerId, request.edge);
+        if (receive == null) {
+          // the receiver hasn't registered the edge yet
+          break;
+        }
+
+        List<DataBuffer> buffers = request.message.getNormalBuffers();
+        while (request.nextBuffer < buffers.size()) {
+          DataBuffer target = receive.availableBuffers.poll();
+          if (target == null) {
+            break;
+          }
+          DataBuffer source = buffers.get(request.nextBuffer);
+          copy(source, target);
+          receive.completedBuffers.offer(target);
+          network.getChannel(request.rank).completedReceiveCount++;
+          request.nextBuffer++;
+        }
+
+        if (request.nextBuffer < buffers.size()) {
+          // no receive buffers left, lets try again after the receiver releases them
+          break;
+        }
+        queue.poll();
+        pendingSendCount--;
+        request.callback.onSendComplete(request.rank, request.edge, request.message);
+      }
+    }
+  }
+
+  @Override
+  public void progressReceives(int group) {
+    List<LoopbackReceiveRequest> requests = groupedRegisteredReceives.get(group);
+    if (requests != null) {
+      completeReceives(requests);
+    }
+  }
+
+  private void completeReceives(List<LoopbackReceiveRequest> requests) {
+    for (int i = 0; i < requests.size(); i++) {
+      LoopbackReceiveRequest request = requests.get(i);
+      DataBuffer buffer;
+      while ((buffer = request.completedBuffers.poll()) != null) {
+        completedReceiveCount--;
+        request.callback.onReceiveComplete(request.rank, request.edge, buffer);
+      }
+    }
+  }
+
+  private LoopbackReceiveRequest getReceive(int sender, int edge) {
+    Int2ObjectArrayMap<LoopbackReceiveRequest> edges = registeredReceives.get(sender);
+    return edges == null ? null : edges.get(edge);
+  }
+
+  private static void copy(DataBuffer source, DataBuffer target) {
+    ByteBuffer data = source.getByteBuffer().duplicate();
+    data.limit(source.getSize());
+    data.position(0);
+    ByteBuffer targetBuffer = target.getByteBuffer();
+    targetBuffer.clear();
+    targetBuffer.put(data);
+    targetBuffer.flip();
+    target.setSize(source.getSize());
+  }
+
+  @Override
+  public boolean isComplete() {
+    return pendingSendCount == 0 && completedReceiveCount == 0;
+  }
+
+  @Override
+  public ByteBuffer createBuffer(int capacity) {
+    return ByteBuffer.allocateDirect(capacity);
+  }
+
+  @Override
+  public void close() {
+    while (pendingSendCount > 0) {
+      network.progress();
+    }
+  }
+
+  @Override
+  public void releaseBuffers(int wId, int e) {
+    Int2ObjectArrayMap<LoopbackReceiveRequest> edges = registeredReceives.get(wId);
+    if (edges == null) {
+      return;
+    }
+    LoopbackReceiveRequest request = edges.remove(e);
+    if (request != null) {
+      completedReceiveCount -= request.completedBuffers.size();
+      for (List<LoopbackReceiveRequest> list : groupedRegisteredReceives.values()) {
+        list.remove(request);
+      }
+    }
+  }
+}
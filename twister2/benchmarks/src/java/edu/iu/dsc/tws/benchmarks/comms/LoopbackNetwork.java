@@ -0,0 +1,58 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.comms;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * A number of workers running in the same process connected through {@link LoopbackChannel}s,
+ * so the communication operations can be measured without the cost of the network.
+ */
+public class LoopbackNetwork {
+
+  private final LoopbackChannel[] channels;
+
+  public LoopbackNetwork(Config config, int workers) {
+    this.channels = new LoopbackChannel[workers];
+    int maxPendingSends = CommunicationContext.networkChannelPendingSize(config);
+    for (int i = 0; i < workers; i++) {
+      channels[i] = new LoopbackChannel(this, i, maxPendingSends);
+    }
+  }
+
+  public LoopbackChannel getChannel(int worker) {
+    return channels[worker];
+  }
+
+  public int getWorkers() {
+    return channels.length;
+  }
+
+  /**
+   * Progress the channels of all the workers
+   */
+  public void progress() {
+    for (LoopbackChannel channel : channels) {
+      channel.progress();
+    }
+  }
+
+  public boolean isComplete() {
+    for (LoopbackChannel channel : channels) {
+      if (!channel.isComplete()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,242 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.comms;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.messaging.MessageHeader;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.InMessage;
+import edu.iu.dsc.tws.comms.dfw.OutMessage;
+import edu.iu.dsc.tws.comms.dfw.io.DataDeserializer;
+import edu.iu.dsc.tws.comms.dfw.io.DataSerializer;
+import edu.iu.dsc.tws.comms.dfw.io.KeyedDataDeSerializer;
+import edu.iu.dsc.tws.comms.dfw.io.KeyedDataSerializer;
+
+/**
+ * Packing and unpacking a value of each {@link MessageType}, both with the packer alone and
+ * through the serializers used by the operations, where the value is split in to buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+  /**
+   * Name of a field in {@link MessageTypes}
+   */
+  @Param({"INTEGER", "LONG", "DOUBLE", "BYTE_ARRAY", "SHORT_ARRAY", "INTEGER_ARRAY",
+      "LONG_ARRAY", "FLOAT_ARRAY", "DOUBLE_ARRAY", "DOUBLE_ARRAY_2D", "STRING", "OBJECT"})
+  private String type;
+
+  /**
+   * Number of elements in an array value
+   */
+  @Param({"16", "4096"})
+  private int elements;
+
+  @Param({"8192"})
+  private int bufferSize;
+
+  private MessageType dataType;
+
+  private Object data;
+
+  private Tuple keyedData;
+
+  private BlockingQueue<DataBuffer> buffers;
+
+  private DataSerializer serializer;
+
+  private DataDeserializer deserializer;
+
+  private KeyedDataSerializer keyedSerializer;
+
+  private KeyedDataDeSerializer keyedDeserializer;
+
+  private List<ChannelMessage> messages = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setUp() throws ReflectiveOperationException {
+    dataType = (MessageType) MessageTypes.class.getField(type).get(null);
+    data = createData(dataType, elements);
+    keyedData = new Tuple<>(elements, data);
+
+    buffers = new LinkedBlockingQueue<>();
+    // enough buffers for the largest value
+    int count = elements * Long.BYTES * 2 / bufferSize + 4;
+    for (int i = 0; i < count; i++) {
+      buffers.offer(new DataBuffer(ByteBuffer.allocate(bufferSize)));
+    }
+
+    Config config = Config.newBuilder().build();
+    serializer = new DataSerializer();
+    serializer.init(config, buffers);
+    deserializer = new DataDeserializer();
+    deserializer.init(config);
+    keyedSerializer = new KeyedDataSerializer();
+    keyedSerializer.init(config, buffers);
+    keyedDeserializer = new KeyedDataDeSerializer();
+    keyedDeserializer.init(config);
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public Object packer() {
+    DataPacker packer = dataType.getDataPacker();
+    return packer.unpackFromByteArray(packer.packToByteArray(data));
+  }
+
+  @Benchmark
+  public Object serializer() {
+    OutMessage outMessage = new OutMessage(0, 1, -1, 10, 0, null,
+        null, dataType, null, null, data);
+    while (outMessage.getSendState() != OutMessage.SendState.SERIALIZED) {
+      messages.add(serializer.build(data, outMessage));
+    }
+
+    MessageHeader header = deserializer.buildHeader(messages.get(0).getBuffers().get(0), 1);
+    InMessage inMessage = new InMessage(0, dataType, null, header);
+    addBuffers(inMessage);
+    deserializer.build(inMessage, 1);
+    releaseBuffers();
+    return inMessage.getDeserializedData();
+  }
+
+  @Benchmark
+  public Object keyedSerializer() {
+    OutMessage outMessage = new OutMessage(0, 1, -1, 10, 0, null,
+        null, dataType, MessageTypes.INTEGER, null, keyedData);
+    while (outMessage.getSendState() != OutMessage.SendState.SERIALIZED) {
+      messages.add(keyedSerializer.build(keyedData, outMessage));
+    }
+
+    MessageHeader header = keyedDeserializer.buildHeader(
+        messages.get(0).getBuffers().get(0), 1);
+    InMessage inMessage = new InMessage(0, dataType, null, header);
+    inMessage.setKeyType(MessageTypes.INTEGER);
+    addBuffers(inMessage);
+    keyedDeserializer.build(inMessage, 1);
+    releaseBuffers();
+    return inMessage.getDeserializedData();
+  }
+
+  private void addBuffers(InMessage inMessage) {
+    for (ChannelMessage message : messages) {
+      for (DataBuffer buffer : message.getBuffers()) {
+        inMessage.addBufferAndCalculate(buffer);
+      }
+    }
+  }
+
+  /**
+   * Release the buffers of the serialized messages for the next invocation
+   */
+  private void releaseBuffers() {
+    for (ChannelMessage message : messages) {
+      for (DataBuffer buffer : message.getBuffers()) {
+        buffer.getByteBuffer().clear();
+        buffers.offer(buffer);
+      }
+    }
+    messages.clear();
+  }
+
+  static Object createData(MessageType type, int elements) {
+    if (type == MessageTypes.INTEGER) {
+      return elements;
+    } else if (type == MessageTypes.LONG) {
+      return (long) elements;
+    } else if (type == MessageTypes.DOUBLE) {
+      return elements * 0.5;
+    } else if (type == MessageTypes.BYTE_ARRAY) {
+      byte[] values = new byte[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = (byte) i;
+      }
+      return values;
+    } else if (type == MessageTypes.SHORT_ARRAY) {
+      short[] values = new short[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = (short) i;
+      }
+      return values;
+    } else if (type == MessageTypes.INTEGER_ARRAY || type == MessageTypes.OBJECT) {
+      // an object is serialized with kryo, so we can compare it with the primitive packer
+      int[] values = new int[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = i;
+      }
+      return values;
+    } else if (type == MessageTypes.LONG_ARRAY) {
+      long[] values = new long[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = i;
+      }
+      return values;
+    } else if (type == MessageTypes.FLOAT_ARRAY) {
+      float[] values = new float[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = i * 0.5f;
+      }
+      return values;
+    } else if (type == MessageTypes.DOUBLE_ARRAY) {
+      double[] values = new double[elements];
+      for (int i = 0; i < elements; i++) {
+        values[i] = i * 0.5;
+      }
+      return values;
+    } else if (type == MessageTypes.DOUBLE_ARRAY_2D) {
+      double[][] values = new double[Math.max(1, elements / 16)][16];
+      for (int i = 0; i < values.length; i++) {
+        for (int j = 0; j < values[i].length; j++) {
+          values[i][j] = i * 16 + j;
+        }
+      }
+      return values;
+    } else if (type == MessageTypes.STRING) {
+      StringBuilder builder = new StringBuilder(elements);
+      for (int i = 0; i < elements; i++) {
+        builder.append((char) ('a' + i % 26));
+      }
+      return builder.toString();
+    }
+    throw new IllegalArgumentException("Un-supported type: " + type);
+  }
+}
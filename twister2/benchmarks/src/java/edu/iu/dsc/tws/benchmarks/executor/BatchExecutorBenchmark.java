@@ -0,0 +1,172 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.iu.dsc.tws.api.compute.executor.ExecutionPlan;
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.compute.executor.IExecutionHook;
+import edu.iu.dsc.tws.api.compute.executor.IExecutor;
+import edu.iu.dsc.tws.api.compute.executor.INodeInstance;
+import edu.iu.dsc.tws.api.compute.nodes.INode;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.benchmarks.comms.LoopbackNetwork;
+import edu.iu.dsc.tws.executor.threading.BatchSharingExecutor2;
+
+/**
+ * Scheduling overhead of {@link BatchSharingExecutor2}. The instances don't communicate, each
+ * one does a fixed amount of work per execution, so with a small amount of work this measures
+ * how fast the threads go through the instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class BatchExecutorBenchmark {
+
+  @Param({"1", "4"})
+  private int threads;
+
+  @Param({ExecutorContext.IDLE_STRATEGY_SPIN, ExecutorContext.IDLE_STRATEGY_BACKOFF})
+  private String idleStrategy;
+
+  @Param({"16"})
+  private int instances;
+
+  /**
+   * Number of times an instance is executed before it is done
+   */
+  @Param({"1000"})
+  private int executions;
+
+  /**
+   * Work done in an execution, in {@link Blackhole#consumeCPU(long)} tokens
+   */
+  @Param({"0", "1000"})
+  private long work;
+
+  private IExecutor executor;
+
+  @Setup
+  public void setUp() {
+    Config config = Config.newBuilder()
+        .put(ExecutorContext.THREADS_PER_WORKER, threads)
+        .put(ExecutorContext.IDLE_STRATEGY, idleStrategy)
+        .build();
+
+    ExecutionPlan plan = new ExecutionPlan();
+    for (int i = 0; i < instances; i++) {
+      plan.addNodes("work", i, new WorkInstance(i, executions, work));
+    }
+    LoopbackNetwork network = new LoopbackNetwork(config, 1);
+    executor = new BatchSharingExecutor2(config, 0, network.getChannel(0), plan,
+        new IExecutionHook() {
+          @Override
+          public void beforeExecution() {
+          }
+
+          @Override
+          public void afterExecution() {
+          }
+
+          @Override
+          public void onClose(IExecutor ex) {
+          }
+        });
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.close();
+  }
+
+  @Benchmark
+  public boolean execute() {
+    return executor.execute();
+  }
+
+  private static final class WorkInstance implements INodeInstance {
+    private final int index;
+
+    private final int executions;
+
+    private final long work;
+
+    private int remaining;
+
+    private long workCount;
+
+    private WorkInstance(int index, int executions, long work) {
+      this.index = index;
+      this.executions = executions;
+      this.work = work;
+    }
+
+    @Override
+    public int getId() {
+      return index;
+    }
+
+    @Override
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public void prepare(Config cfg) {
+      remaining = executions;
+    }
+
+    @Override
+    public boolean execute() {
+      Blackhole.consumeCPU(work);
+      workCount++;
+      return --remaining > 0;
+    }
+
+    @Override
+    public long getWorkCount() {
+      return workCount;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+
+    @Override
+    public INode getNode() {
+      return null;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
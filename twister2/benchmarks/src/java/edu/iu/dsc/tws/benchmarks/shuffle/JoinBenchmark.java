@@ -0,0 +1,143 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.shuffle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.utils.HybridHashJoin;
+import edu.iu.dsc.tws.comms.utils.KeyComparatorWrapper;
+import edu.iu.dsc.tws.comms.utils.SortJoinUtils;
+
+/**
+ * The join algorithms of the runtime, with the same join type for both. The sort join gets
+ * relations sorted by the key, the same as after the sorted shuffle of a join, so only the
+ * merge is measured. The relations fit in the default memory budget of the hybrid hash join,
+ * so it does not spill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class JoinBenchmark {
+
+  /**
+   * Number of tuples in each relation
+   */
+  @Param({"100000"})
+  private int tuples;
+
+  /**
+   * Number of distinct keys, fewer keys give more matches for a key
+   */
+  @Param({"100000", "10000"})
+  private int keys;
+
+  @Param({"INNER", "LEFT", "FULL_OUTER"})
+  private CommunicationContext.JoinType joinType;
+
+  private List<Tuple> left;
+
+  private List<Tuple> right;
+
+  private List<Tuple> sortedLeft;
+
+  private List<Tuple> sortedRight;
+
+  private KeyComparatorWrapper comparator;
+
+  private File directory;
+
+  private Config config;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("twister2-join-benchmark").toFile();
+    config = Config.newBuilder()
+        .put(CommunicationContext.PERSISTENT_DIRECTORIES,
+            Collections.singletonList(directory.getAbsolutePath()))
+        .build();
+
+    Random random = new Random(0);
+    left = createRelation(random);
+    right = createRelation(random);
+
+    comparator = new KeyComparatorWrapper(Comparator.comparingInt(k -> (Integer) k));
+    sortedLeft = new ArrayList<>(left);
+    sortedLeft.sort(comparator);
+    sortedRight = new ArrayList<>(right);
+    sortedRight.sort(comparator);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  private List<Tuple> createRelation(Random random) {
+    List<Tuple> relation = new ArrayList<>(tuples);
+    for (int i = 0; i < tuples; i++) {
+      relation.add(new Tuple<>(random.nextInt(keys), i));
+    }
+    return relation;
+  }
+
+  @Benchmark
+  public long hashJoin() {
+    return count(HybridHashJoin.join(left.iterator(), right.iterator(), joinType,
+        MessageTypes.INTEGER, config));
+  }
+
+  @Benchmark
+  public long sortJoin() {
+    return count(SortJoinUtils.join(sortedLeft, sortedRight, comparator, joinType));
+  }
+
+  private static long count(Iterator<JoinedTuple> joined) {
+    long count = 0;
+    while (joined.hasNext()) {
+      joined.next();
+      count++;
+    }
+    return count;
+  }
+}
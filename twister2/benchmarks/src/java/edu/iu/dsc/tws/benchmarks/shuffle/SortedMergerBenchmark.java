@@ -0,0 +1,139 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks.shuffle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.IntegerArrayPacker;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.CommonThreadPool;
+import edu.iu.dsc.tws.comms.shuffle.FSKeyedSortedMerger2;
+
+/**
+ * Adding, sorting and reading the records of a keyed sorted shuffle with
+ * {@link FSKeyedSortedMerger2}, either keeping everything in memory or spilling most of the
+ * records to disk and merging the files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedMergerBenchmark {
+
+  @Param({"100000"})
+  private int records;
+
+  /**
+   * Number of integers in a value
+   */
+  @Param({"16", "256"})
+  private int valueSize;
+
+  /**
+   * Memory kept before spilling in bytes, a small value spills most of the records
+   */
+  @Param({"1073741824", "4194304"})
+  private long memory;
+
+  /**
+   * Maximum size of a spill file in bytes
+   */
+  @Param({"1048576"})
+  private long fileSize;
+
+  private int[] keys;
+
+  private byte[] value;
+
+  private File directory;
+
+  private FSKeyedSortedMerger2 merger;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws IOException {
+    CommonThreadPool.init(Config.newBuilder().build());
+    directory = Files.createTempDirectory("twister2-merger-benchmark").toFile();
+
+    Random random = new Random(0);
+    keys = new int[records];
+    for (int i = 0; i < records; i++) {
+      keys[i] = random.nextInt();
+    }
+    int[] values = new int[valueSize];
+    for (int i = 0; i < valueSize; i++) {
+      values[i] = i;
+    }
+    value = IntegerArrayPacker.getInstance().packToByteArray(values);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpMerger() {
+    merger = new FSKeyedSortedMerger2(memory, fileSize, directory.getAbsolutePath(),
+        "benchmark", MessageTypes.INTEGER, MessageTypes.INTEGER_ARRAY,
+        Comparator.comparingInt(k -> (Integer) k), 0, false, 2);
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDownMerger() {
+    merger.clean();
+  }
+
+  @Benchmark
+  public long sortAndMerge() {
+    for (int i = 0; i < records; i++) {
+      merger.add(keys[i], value, value.length);
+      // the receivers call run as they add, to write the records that go to disk
+      if ((i & 1023) == 0) {
+        merger.run();
+      }
+    }
+    merger.run();
+    merger.switchToReading();
+
+    long count = 0;
+    Iterator<Object> it = merger.readIterator();
+    while (it.hasNext()) {
+      it.next();
+      count++;
+    }
+    return count;
+  }
+}
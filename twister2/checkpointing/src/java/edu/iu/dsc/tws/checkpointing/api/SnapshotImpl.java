@@ -35,6 +35,11 @@ public class SnapshotImpl implements Snapshot {
 
   private String prefix;
 
+  /**
+   * A read only snapshot keeps the values of a version after the task takes the next snapshot
+   */
+  private boolean readOnly;
+
   public SnapshotImpl() {
 /*
     this("");
@@ -53,6 +58,7 @@ public class SnapshotImpl implements Snapshot {
 
   @Override
   public void setPacker(String key, DataPacker dataPacker) {
+    this.checkWritable();
     this.packers.put(key, dataPacker);
 /*
     this.packers.put(appendPrefix(key), dataPacker);
@@ -61,6 +67,7 @@ public class SnapshotImpl implements Snapshot {
 
   @Override
   public void setValue(String key, Object value) {
+    this.checkWritable();
     this.values.put(key, value);
 /*
     this.values.put(appendPrefix(key), value);
@@ -78,9 +85,16 @@ public class SnapshotImpl implements Snapshot {
   }
 
   public void setVersion(long version) {
+    this.checkWritable();
     this.version = version;
   }
 
+  private void checkWritable() {
+    if (this.readOnly) {
+      throw new UnsupportedOperationException("Snapshot " + this.version + " is read only");
+    }
+  }
+
   @Override
   public Object getOrDefault(String key, Object defaultValue) {
     return this.values.getOrDefault(key, defaultValue);
@@ -92,25 +106,52 @@ public class SnapshotImpl implements Snapshot {
   }
 
   public byte[] pack() {
+    return pack(this.version, this.packValues());
+  }
+
+  /**
+   * Pack the value of each key separately. The packed values don't change when the values are
+   * updated later, so they can be written while the task continues.
+   *
+   * @return packed value of each key
+   */
+  public Map<String, byte[]> packValues() {
     Map<String, byte[]> packedValues = new HashMap<>();
+    for (Map.Entry<String, Object> e : values.entrySet()) {
+      DataPacker packer = packers.getOrDefault(e.getKey(), ObjectPacker.getInstance());
+      byte[] packed = packer.packToByteArray(e.getValue());
+      // some packers return the value itself, which the task may update later
+      if (packed == e.getValue()) {
+        packed = packed.clone();
+      }
+      packedValues.put(e.getKey(), packed);
+    }
+    return packedValues;
+  }
+
+  /**
+   * Pack the values of a snapshot in to a single array
+   *
+   * @param version version of the snapshot
+   * @param packedValues packed value of each key
+   * @return the packed snapshot
+   */
+  public static byte[] pack(long version, Map<String, byte[]> packedValues) {
     Map<String, byte[]> packedKeys = new HashMap<>();
     int totalLength = 0;
-    for (String key : values.keySet()) {
-      DataPacker packer = packers.getOrDefault(key, ObjectPacker.getInstance());
-      byte[] dataBytes = packer.packToByteArray(values.get(key));
-      byte[] keyBytes = StringPacker.getInstance().packToByteArray(key);
-      packedValues.put(key, dataBytes);
-      packedKeys.put(key, keyBytes);
-      totalLength += dataBytes.length + keyBytes.length + (2 * Integer.BYTES);
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      byte[] keyBytes = StringPacker.getInstance().packToByteArray(e.getKey());
+      packedKeys.put(e.getKey(), keyBytes);
+      totalLength += e.getValue().length + keyBytes.length + (2 * Integer.BYTES);
     }
     ByteBuffer byteBuffer = ByteBuffer.allocate(totalLength + Long.BYTES);
-    byteBuffer.putLong(this.version);
-    for (String key : values.keySet()) {
-      byte[] keyBytes = packedKeys.get(key);
+    byteBuffer.putLong(version);
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      byte[] keyBytes = packedKeys.get(e.getKey());
       byteBuffer.putInt(keyBytes.length);
       byteBuffer.put(keyBytes);
 
-      byte[] dataBytes = packedValues.get(key);
+      byte[] dataBytes = e.getValue();
       byteBuffer.putInt(dataBytes.length);
       byteBuffer.put(dataBytes);
     }
@@ -130,12 +171,29 @@ public class SnapshotImpl implements Snapshot {
       wrapped.get(valueBytes);
 
       String key = StringPacker.getInstance().unpackFromByteArray(keyBytes);
-      Object value = this.packers.getOrDefault(key,
-          ObjectPacker.getInstance()).unpackFromByteArray(valueBytes);
-      this.values.put(key, value);
+      this.unpackValue(key, valueBytes);
     }
   }
 
+  /**
+   * Unpack the values packed with {@link #packValues()}
+   *
+   * @param snapshotVersion version of the snapshot
+   * @param packedValues packed value of each key
+   */
+  public void unpackValues(long snapshotVersion, Map<String, byte[]> packedValues) {
+    this.setVersion(snapshotVersion);
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      this.unpackValue(e.getKey(), e.getValue());
+    }
+  }
+
+  private void unpackValue(String key, byte[] valueBytes) {
+    Object value = this.packers.getOrDefault(key,
+        ObjectPacker.getInstance()).unpackFromByteArray(valueBytes);
+    this.values.put(key, value);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -162,4 +220,23 @@ public class SnapshotImpl implements Snapshot {
     this.values.clear();
     return copy;
   }
+
+  /**
+   * A read only copy of this snapshot. The copy has the values set for the current version, so
+   * it can be given to the task after it starts updating this snapshot for the next version.
+   * <p>
+   * Only the maps are copied, the values are the same objects given to {@link #setValue}, so
+   * they must not be mutated through the copy. A task that reuses its state objects between
+   * versions should set a new object for each version, otherwise the copy sees the later state.
+   *
+   * @return the copy
+   */
+  public SnapshotImpl readOnlyCopy() {
+    SnapshotImpl copy = new SnapshotImpl();
+    copy.packers = new HashMap<>(this.packers);
+    copy.values = new HashMap<>(this.values);
+    copy.version = this.version;
+    copy.readOnly = true;
+    return copy;
+  }
 }
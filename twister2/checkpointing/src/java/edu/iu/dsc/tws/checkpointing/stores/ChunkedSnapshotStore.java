@@ -0,0 +1,276 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.stores;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.checkpointing.StateStore;
+
+/**
+ * A content addressed store of snapshots on top of a {@link StateStore}. The packed value of
+ * each key is split in to chunks and every chunk is saved under the hash of its content, so
+ * a chunk that didn't change since a previous version is not written again. A version is a
+ * manifest listing the chunks of each key, which is written after all the chunks.
+ * <p>
+ * The chunks are shared between the versions, so they are never deleted by this store.
+ */
+public class ChunkedSnapshotStore {
+
+  private static final Logger LOG = Logger.getLogger(ChunkedSnapshotStore.class.getName());
+
+  private static final String MANIFEST_PREFIX = "MANIFEST_";
+  private static final String CHUNK_PREFIX = "CHUNK_";
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final StateStore store;
+
+  /**
+   * Size of the chunks written, 0 if this store is only used to restore
+   */
+  private final int chunkSize;
+
+  /**
+   * Used to read the chunks in parallel, null to read them in the calling thread
+   */
+  private final ExecutorService ioPool;
+
+  /**
+   * Chunks known to be in the store
+   */
+  private final Set<String> knownChunks = ConcurrentHashMap.newKeySet();
+
+  public ChunkedSnapshotStore(StateStore store, int chunkSize, ExecutorService ioPool) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("The chunk size should be positive: " + chunkSize);
+    }
+    this.store = store;
+    this.chunkSize = chunkSize;
+    this.ioPool = ioPool;
+  }
+
+  /**
+   * Create a store only used to restore, the chunk size of a version is read from its manifest
+   *
+   * @param store the store
+   * @param ioPool executor to read the chunks in parallel, null to read them in this thread
+   */
+  public ChunkedSnapshotStore(StateStore store, ExecutorService ioPool) {
+    this.store = store;
+    this.chunkSize = 0;
+    this.ioPool = ioPool;
+  }
+
+  private static String manifestKey(long version) {
+    return MANIFEST_PREFIX + version;
+  }
+
+  private static String chunkKey(String hash) {
+    return CHUNK_PREFIX + hash;
+  }
+
+  /**
+   * Check whether a version is saved in this store
+   *
+   * @param version version
+   * @return true if the manifest of the version is in the store
+   * @throws IOException if an error occurs
+   */
+  public boolean contains(long version) throws IOException {
+    return store.contains(manifestKey(version));
+  }
+
+  /**
+   * Save a version
+   *
+   * @param version version
+   * @param packedValues packed value of each key
+   * @return number of bytes written for the new chunks
+   * @throws IOException if an error occurs
+   */
+  public long save(long version, Map<String, byte[]> packedValues) throws IOException {
+    if (chunkSize <= 0) {
+      throw new IllegalStateException("This store is only used to restore");
+    }
+    MessageDigest digest = newDigest();
+    ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+    DataOutputStream manifest = new DataOutputStream(manifestBytes);
+    manifest.writeLong(version);
+    manifest.writeInt(chunkSize);
+    manifest.writeInt(packedValues.size());
+
+    long written = 0;
+    int chunks = 0;
+    int newChunks = 0;
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      byte[] value = e.getValue();
+      manifest.writeUTF(e.getKey());
+      manifest.writeInt(value.length);
+      for (int offset = 0; offset < value.length; offset += chunkSize) {
+        int length = Math.min(chunkSize, value.length - offset);
+        digest.update(value, offset, length);
+        String hash = toHex(digest.digest());
+        manifest.writeUTF(hash);
+        chunks++;
+
+        if (!knownChunks.contains(hash)) {
+          String key = chunkKey(hash);
+          if (!store.contains(key)) {
+            store.put(key, Arrays.copyOfRange(value, offset, offset + length));
+            written += length;
+            newChunks++;
+          }
+          knownChunks.add(hash);
+        }
+      }
+    }
+    manifest.flush();
+    // the manifest is written last, so a version in the store always has all of its chunks
+    store.put(manifestKey(version), manifestBytes.toByteArray());
+
+    final int totalChunks = chunks;
+    final int writtenChunks = newChunks;
+    LOG.fine(() -> "Saved version " + version + " with " + writtenChunks + " new chunks of "
+        + totalChunks);
+    return written;
+  }
+
+  /**
+   * Read a version, the chunks are read in parallel if an executor is given
+   *
+   * @param version version
+   * @return packed value of each key, or null if the version is not in the store
+   * @throws IOException if an error occurs or a chunk doesn't match its hash
+   */
+  public Map<String, byte[]> restore(long version) throws IOException {
+    byte[] manifestBytes = store.get(manifestKey(version));
+    if (manifestBytes == null) {
+      return null;
+    }
+
+    DataInputStream manifest = new DataInputStream(new ByteArrayInputStream(manifestBytes));
+    long manifestVersion = manifest.readLong();
+    if (manifestVersion != version) {
+      throw new IOException("Expected version " + version + ", found " + manifestVersion);
+    }
+    // the chunk size of the version, it can be different from the current chunk size
+    int savedChunkSize = manifest.readInt();
+    if (savedChunkSize <= 0) {
+      throw new IOException("Invalid chunk size " + savedChunkSize + " for version " + version);
+    }
+    int keys = manifest.readInt();
+
+    Map<String, byte[]> packedValues = new HashMap<>();
+    List<ChunkRef> refs = new ArrayList<>();
+    Map<String, Future<byte[]>> reads = new HashMap<>();
+    for (int k = 0; k < keys; k++) {
+      String key = manifest.readUTF();
+      byte[] value = new byte[manifest.readInt()];
+      packedValues.put(key, value);
+      for (int offset = 0; offset < value.length; offset += savedChunkSize) {
+        String hash = manifest.readUTF();
+        refs.add(new ChunkRef(hash, value, offset));
+        if (ioPool != null && !reads.containsKey(hash)) {
+          reads.put(hash, ioPool.submit(() -> readChunk(hash)));
+        }
+      }
+    }
+
+    Map<String, byte[]> chunks = new HashMap<>();
+    for (ChunkRef ref : refs) {
+      byte[] chunk = chunks.get(ref.hash);
+      if (chunk == null) {
+        chunk = ioPool == null ? readChunk(ref.hash) : waitFor(reads.get(ref.hash));
+        chunks.put(ref.hash, chunk);
+      }
+      if (ref.offset + chunk.length > ref.value.length) {
+        throw new IOException("Chunk " + ref.hash + " doesn't fit in the value");
+      }
+      System.arraycopy(chunk, 0, ref.value, ref.offset, chunk.length);
+    }
+    return packedValues;
+  }
+
+  private byte[] readChunk(String hash) throws IOException {
+    byte[] chunk = store.get(chunkKey(hash));
+    if (chunk == null) {
+      throw new IOException("Couldn't find chunk " + hash + " in store");
+    }
+    if (!hash.equals(toHex(newDigest().digest(chunk)))) {
+      throw new IOException("Chunk " + hash + " is corrupted");
+    }
+    knownChunks.add(hash);
+    return chunk;
+  }
+
+  private static byte[] waitFor(Future<byte[]> read) throws IOException {
+    try {
+      return read.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading a chunk", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read a chunk", e.getCause());
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException("Couldn't find the digest " + DIGEST_ALGORITHM, e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+    }
+    return new String(chars);
+  }
+
+  private static final class ChunkRef {
+    private final String hash;
+    private final byte[] value;
+    private final int offset;
+
+    private ChunkRef(String hash, byte[] value, int offset) {
+      this.hash = hash;
+      this.value = value;
+      this.offset = offset;
+    }
+  }
+}
@@ -63,9 +63,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.logging.Logger;
 
@@ -78,6 +80,8 @@ public class LocalFileStateStore implements StateStore {
 
   public static final String CHECKPOINTING_STORE_FS_DIR = "twister2.checkpointing.store.fs.dir";
 
+  private static final String TEMP_SUFFIX = ".tmp";
+
   private File rootFolder;
 
   @Override
@@ -101,19 +105,29 @@ public class LocalFileStateStore implements StateStore {
 
   @Override
   public void put(String key, byte[] data) throws IOException {
-    FileChannel fileChannel = this.getChannelForKey(key,
-        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
-    fileChannel.write(ByteBuffer.wrap(data));
-    fileChannel.close();
+    // write to a temporary file and move it, so a key is never seen partially written
+    try (FileChannel fileChannel = this.getChannelForKey(key + TEMP_SUFFIX,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      while (buffer.hasRemaining()) {
+        fileChannel.write(buffer);
+      }
+    }
+    Files.move(Paths.get(rootFolder.getAbsolutePath(), key + TEMP_SUFFIX),
+        Paths.get(rootFolder.getAbsolutePath(), key),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
   }
 
   @Override
   public byte[] get(String key) throws IOException {
-    try {
-      FileChannel fileChannel = this.getChannelForKey(key, StandardOpenOption.READ);
+    try (FileChannel fileChannel = this.getChannelForKey(key, StandardOpenOption.READ)) {
       int size = (int) fileChannel.size(); // assume < 2GB
       ByteBuffer allocate = ByteBuffer.allocate(size);
-      fileChannel.read(allocate);
+      int read = 0;
+      while (allocate.hasRemaining() && read >= 0) {
+        read = fileChannel.read(allocate);
+      }
       return allocate.array();
     } catch (NoSuchFileException nex) {
       return null;
@@ -12,12 +12,15 @@
 package edu.iu.dsc.tws.checkpointing.util;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
 import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.net.request.MessageHandler;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
+import edu.iu.dsc.tws.checkpointing.stores.ChunkedSnapshotStore;
 
 public final class CheckpointUtils {
 
@@ -49,9 +52,31 @@ public final class CheckpointUtils {
   public static void restoreSnapshot(StateStore stateStore,
                                      Long version,
                                      SnapshotImpl snapshot) throws IOException {
+    restoreSnapshot(stateStore, version, snapshot, null);
+  }
+
+  /**
+   * Restore a snapshot saved as a whole or in chunks
+   *
+   * @param stateStore the store
+   * @param version version to restore
+   * @param snapshot snapshot to restore the values
+   * @param ioPool executor to read the chunks in parallel, null to read them in this thread
+   * @throws IOException if an error occurs
+   */
+  public static void restoreSnapshot(StateStore stateStore,
+                                     Long version,
+                                     SnapshotImpl snapshot,
+                                     ExecutorService ioPool) throws IOException {
     if (version == 0) {
       return;
     }
+    ChunkedSnapshotStore chunkedStore = new ChunkedSnapshotStore(stateStore, ioPool);
+    if (chunkedStore.contains(version)) {
+      Map<String, byte[]> packedValues = chunkedStore.restore(version);
+      snapshot.unpackValues(version, packedValues);
+      return;
+    }
     byte[] stateBytes = stateStore.get(version.toString());
     if (stateBytes == null) {
       throw new RuntimeException("Couldn't find version " + version + " in store");
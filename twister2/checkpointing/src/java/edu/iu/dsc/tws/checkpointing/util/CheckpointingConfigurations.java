@@ -22,6 +22,13 @@ public final class CheckpointingConfigurations {
   public static final String CHECKPOINTING_SOURCE_FREQUNCY
       = "twister2.checkpointing.source.frequency";
 
+  public static final String CHECKPOINTING_ASYNC = "twister2.checkpointing.async";
+  public static final String CHECKPOINTING_ASYNC_MAX_PENDING
+      = "twister2.checkpointing.async.max.pending";
+  public static final String CHECKPOINTING_INCREMENTAL = "twister2.checkpointing.incremental";
+  public static final String CHECKPOINTING_CHUNK_SIZE = "twister2.checkpointing.chunk.size";
+  public static final String CHECKPOINTING_IO_THREADS = "twister2.checkpointing.io.threads";
+
   public static final String RESTORING_CHECKPOINTED_JOB = "RESTORING_CHECKPOINTED_JOB";
 
   private CheckpointingConfigurations() {
@@ -44,4 +51,37 @@ public final class CheckpointingConfigurations {
   public static long getCheckPointingFrequency(Config config) {
     return config.getLongValue(CHECKPOINTING_SOURCE_FREQUNCY, 1000);
   }
+
+  /**
+   * Write the snapshots of the tasks in the background
+   */
+  public static boolean isAsyncCheckpointing(Config config) {
+    return config.getBooleanValue(CHECKPOINTING_ASYNC, false);
+  }
+
+  /**
+   * Maximum number of snapshots of a task being written in the background, a task waits for
+   * the oldest one when it takes another snapshot
+   */
+  public static int getAsyncMaxPending(Config config) {
+    return config.getIntegerValue(CHECKPOINTING_ASYNC_MAX_PENDING, 2);
+  }
+
+  /**
+   * Write only the chunks of the snapshots that are not already in the store
+   */
+  public static boolean isIncrementalCheckpointing(Config config) {
+    return config.getBooleanValue(CHECKPOINTING_INCREMENTAL, false);
+  }
+
+  public static int getChunkSize(Config config) {
+    return config.getIntegerValue(CHECKPOINTING_CHUNK_SIZE, 1024 * 1024);
+  }
+
+  /**
+   * Number of threads writing and restoring snapshots in a worker
+   */
+  public static int getIOThreads(Config config) {
+    return config.getIntegerValue(CHECKPOINTING_IO_THREADS, 4);
+  }
 }
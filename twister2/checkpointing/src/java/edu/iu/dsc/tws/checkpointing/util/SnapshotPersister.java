@@ -0,0 +1,196 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.checkpointing.StateStore;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
+import edu.iu.dsc.tws.checkpointing.stores.ChunkedSnapshotStore;
+
+/**
+ * Writes the snapshots of a task to a {@link StateStore}.
+ * <p>
+ * The values of a snapshot are always packed in the thread taking the snapshot, so the task can
+ * update its state as soon as {@link #persist(SnapshotImpl)} returns. With asynchronous
+ * checkpointing the packed values are written by a pool of threads shared by the tasks of the
+ * worker, in the order of the versions. With incremental checkpointing the values are saved
+ * through a {@link ChunkedSnapshotStore}, which writes only the chunks that changed.
+ * <p>
+ * The versions are returned by {@link #pollPersisted()} after they are written, so the task
+ * reports a version to the checkpoint master only after it is in the store.
+ */
+public class SnapshotPersister {
+
+  private static final Logger LOG = Logger.getLogger(SnapshotPersister.class.getName());
+
+  private static ExecutorService ioPool;
+
+  private final StateStore stateStore;
+
+  /**
+   * Store for incremental snapshots, null if the snapshots are written as a whole
+   */
+  private final ChunkedSnapshotStore chunkedStore;
+
+  private final boolean async;
+
+  private final int maxPending;
+
+  private final ExecutorService pool;
+
+  /**
+   * Versions being written, in the order of the versions
+   */
+  private final Deque<PendingWrite> pending = new ArrayDeque<>();
+
+  /**
+   * The last write, the next write starts after it completes, successfully or not
+   */
+  private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+  public SnapshotPersister(StateStore stateStore, Config config) {
+    this.stateStore = stateStore;
+    this.async = CheckpointingConfigurations.isAsyncCheckpointing(config);
+    this.maxPending = Math.max(1, CheckpointingConfigurations.getAsyncMaxPending(config));
+    this.pool = getIOPool(config);
+    if (CheckpointingConfigurations.isIncrementalCheckpointing(config)) {
+      this.chunkedStore = new ChunkedSnapshotStore(stateStore,
+          CheckpointingConfigurations.getChunkSize(config), pool);
+    } else {
+      this.chunkedStore = null;
+    }
+  }
+
+  /**
+   * The threads writing and restoring the snapshots of the tasks of this worker
+   */
+  private static synchronized ExecutorService getIOPool(Config config) {
+    if (ioPool == null) {
+      AtomicInteger count = new AtomicInteger();
+      ioPool = Executors.newFixedThreadPool(CheckpointingConfigurations.getIOThreads(config),
+          r -> {
+            Thread thread = new Thread(r, "checkpoint-io-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+          });
+    }
+    return ioPool;
+  }
+
+  /**
+   * Persist a snapshot. The values are packed in this thread, and written in the background
+   * with asynchronous checkpointing.
+   *
+   * @param snapshot the snapshot with the version set
+   * @throws IOException if the snapshot is written in this thread and the write fails
+   */
+  public void persist(SnapshotImpl snapshot) throws IOException {
+    long version = snapshot.getVersion();
+    Map<String, byte[]> packedValues = snapshot.packValues();
+    if (!async) {
+      write(version, packedValues);
+      pending.add(new PendingWrite(version, CompletableFuture.completedFuture(null)));
+      return;
+    }
+
+    // don't let the task get too far ahead of the store
+    while (pending.size() >= maxPending && !pending.peekFirst().future.isDone()) {
+      LOG.fine(() -> "Waiting for version " + pending.peekFirst().version + " to be written");
+      pending.peekFirst().future.exceptionally(t -> null).join();
+    }
+
+    // a write starts after the previous one completes, even if it failed. Otherwise a failed
+    // write fails all the later ones with the same cause, and each version should report its
+    // own error
+    lastWrite = lastWrite.<Void>handle((r, t) -> null).thenRunAsync(() -> {
+      try {
+        write(version, packedValues);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
+    }, pool);
+    pending.add(new PendingWrite(version, lastWrite));
+  }
+
+  private void write(long version, Map<String, byte[]> packedValues) throws IOException {
+    if (chunkedStore != null) {
+      chunkedStore.save(version, packedValues);
+    } else {
+      stateStore.put(Long.toString(version), SnapshotImpl.pack(version, packedValues));
+    }
+  }
+
+  /**
+   * Returns the oldest version written to the store since the last call
+   *
+   * @return the version or -1 if no version is written
+   * @throws RuntimeException if the write of the version failed
+   */
+  public long pollPersisted() {
+    PendingWrite write = pending.peekFirst();
+    if (write == null || !write.future.isDone()) {
+      return -1;
+    }
+    pending.pollFirst();
+    try {
+      write.future.join();
+    } catch (CompletionException e) {
+      throw new RuntimeException("Failed to write the checkpoint " + write.version,
+          e.getCause());
+    }
+    return write.version;
+  }
+
+  /**
+   * Whether there are versions not returned by {@link #pollPersisted()}
+   */
+  public boolean hasPending() {
+    return !pending.isEmpty();
+  }
+
+  /**
+   * Restore a version, the chunks of an incremental snapshot are read in parallel
+   *
+   * @param version the version
+   * @param snapshot snapshot to restore the values
+   * @throws IOException if an error occurs
+   */
+  public void restore(long version, SnapshotImpl snapshot) throws IOException {
+    if (chunkedStore != null && version > 0 && chunkedStore.contains(version)) {
+      // restore through the store of this task, so it knows the chunks already in the store
+      snapshot.unpackValues(version, chunkedStore.restore(version));
+    } else {
+      CheckpointUtils.restoreSnapshot(stateStore, version, snapshot, pool);
+    }
+  }
+
+  private static final class PendingWrite {
+    private final long version;
+    private final CompletableFuture<Void> future;
+
+    private PendingWrite(long version, CompletableFuture<Void> future) {
+      this.version = version;
+      this.future = future;
+    }
+  }
+}
@@ -0,0 +1,235 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.stores;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkedSnapshotStoreTest {
+
+  private static byte[] bytes(int size, int seed) {
+    byte[] b = new byte[size];
+    for (int i = 0; i < size; i++) {
+      b[i] = (byte) (i * 31 + seed);
+    }
+    return b;
+  }
+
+  private static String sha256(byte[] value) {
+    try {
+      StringBuilder hex = new StringBuilder();
+      for (byte b : MessageDigest.getInstance("SHA-256").digest(value)) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void assertValues(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+    Assert.assertEquals(expected.keySet(), actual.keySet());
+    for (Map.Entry<String, byte[]> e : expected.entrySet()) {
+      Assert.assertArrayEquals(e.getValue(), actual.get(e.getKey()));
+    }
+  }
+
+  private static int chunksIn(MemoryStateStore store) {
+    int chunks = 0;
+    for (String key : store.getValues().keySet()) {
+      if (key.startsWith("CHUNK_")) {
+        chunks++;
+      }
+    }
+    return chunks;
+  }
+
+  @Test
+  public void testSaveAndRestore() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 16, null);
+
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", bytes(100, 1));
+    values.put("b", bytes(16, 2));
+    values.put("empty", new byte[0]);
+    Assert.assertFalse(store.contains(1));
+    Assert.assertEquals(116, store.save(1, values));
+    Assert.assertTrue(store.contains(1));
+
+    assertValues(values, store.restore(1));
+    Assert.assertNull(store.restore(2));
+  }
+
+  @Test
+  public void testDeduplication() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 10, null);
+
+    // the same content repeated in a value is stored once
+    byte[] repeated = new byte[40];
+    for (int i = 0; i < repeated.length; i++) {
+      repeated[i] = (byte) (i % 10);
+    }
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", repeated);
+    Assert.assertEquals(10, store.save(1, values));
+    Assert.assertEquals(1, chunksIn(backing));
+
+    // only the chunk that changed is written for the next version
+    byte[] changed = repeated.clone();
+    changed[25] = 100;
+    values.put("a", changed);
+    Assert.assertEquals(10, store.save(2, values));
+    Assert.assertEquals(2, chunksIn(backing));
+
+    // nothing new is written for the same values
+    Assert.assertEquals(0, store.save(3, values));
+    Assert.assertEquals(2, chunksIn(backing));
+
+    // a new store instance finds the chunks already in the backing store
+    ChunkedSnapshotStore other = new ChunkedSnapshotStore(backing, 10, null);
+    Assert.assertEquals(0, other.save(4, values));
+
+    Assert.assertArrayEquals(repeated, store.restore(1).get("a"));
+    Assert.assertArrayEquals(changed, other.restore(2).get("a"));
+  }
+
+  @Test
+  public void testManifestWrittenLast() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 8, null);
+
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", bytes(50, 3));
+    values.put("b", bytes(20, 4));
+    store.save(1, values);
+    List<String> puts = backing.getPuts();
+    Assert.assertEquals("MANIFEST_1", puts.get(puts.size() - 1));
+    for (int i = 0; i < puts.size() - 1; i++) {
+      Assert.assertTrue(puts.get(i).startsWith("CHUNK_"));
+    }
+
+    // a version with a chunk that couldn't be written doesn't appear in the store
+    byte[] newValue = bytes(8, 5);
+    values.put("c", newValue);
+    String newChunk = "CHUNK_" + sha256(newValue);
+    backing.fail(newChunk);
+    try {
+      store.save(2, values);
+      Assert.fail("The save should fail");
+    } catch (IOException e) {
+      // expected
+    }
+    Assert.assertFalse(store.contains(2));
+
+    // the version is saved once the chunk can be written
+    backing.clearFailures();
+    store.save(2, values);
+    assertValues(values, store.restore(2));
+  }
+
+  @Test
+  public void testCorruptedChunk() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 16, null);
+
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", bytes(64, 6));
+    store.save(1, values);
+
+    for (Map.Entry<String, byte[]> e : backing.getValues().entrySet()) {
+      if (e.getKey().startsWith("CHUNK_")) {
+        e.getValue()[3]++;
+        break;
+      }
+    }
+    try {
+      new ChunkedSnapshotStore(backing, 16, null).restore(1);
+      Assert.fail("A corrupted chunk should not be restored");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("corrupted"));
+    }
+  }
+
+  @Test
+  public void testMissingChunk() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 16, null);
+
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", bytes(20, 7));
+    store.save(1, values);
+    backing.getValues().keySet().removeIf(k -> k.startsWith("CHUNK_"));
+    try {
+      store.restore(1);
+      Assert.fail("A version with a missing chunk should not be restored");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRestoreWithDifferentChunkSize() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    Map<String, byte[]> values = new HashMap<>();
+    values.put("a", bytes(1000, 8));
+    values.put("b", bytes(7, 9));
+    new ChunkedSnapshotStore(backing, 64, null).save(1, values);
+
+    // the chunk size of a version is read from its manifest
+    ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 100, null);
+    assertValues(values, store.restore(1));
+
+    values.put("a", bytes(1000, 10));
+    store.save(2, values);
+    assertValues(values, new ChunkedSnapshotStore(backing, 3, null).restore(2));
+  }
+
+  @Test
+  public void testParallelRestore() throws IOException {
+    MemoryStateStore backing = new MemoryStateStore();
+    ExecutorService pool = Executors.newFixedThreadPool(3);
+    try {
+      ChunkedSnapshotStore store = new ChunkedSnapshotStore(backing, 32, pool);
+      Map<String, byte[]> values = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+        values.put("k" + i, bytes(100 + i * 13, i));
+      }
+      store.save(1, values);
+      assertValues(values, new ChunkedSnapshotStore(backing, 32, pool).restore(1));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testInvalidChunkSize() {
+    for (int size : new int[]{0, -1}) {
+      try {
+        new ChunkedSnapshotStore(new MemoryStateStore(), size, null);
+        Assert.fail("The chunk size " + size + " should not be accepted");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+}
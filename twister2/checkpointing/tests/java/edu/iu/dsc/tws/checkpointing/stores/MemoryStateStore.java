@@ -0,0 +1,82 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.stores;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.iu.dsc.tws.api.checkpointing.StateStore;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * A state store keeping the values in memory, it records the order of the puts and can be made
+ * to fail the puts of some keys
+ */
+public class MemoryStateStore implements StateStore {
+
+  private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+  private final List<String> puts = Collections.synchronizedList(new ArrayList<>());
+
+  private final Set<String> failingKeys = Collections.synchronizedSet(new HashSet<>());
+
+  @Override
+  public void init(Config config, String... path) {
+  }
+
+  @Override
+  public void put(String key, byte[] data) throws IOException {
+    if (failingKeys.contains(key)) {
+      throw new IOException("Failed to put " + key);
+    }
+    values.put(key, data.clone());
+    puts.add(key);
+  }
+
+  @Override
+  public byte[] get(String key) {
+    byte[] value = values.get(key);
+    return value != null ? value.clone() : null;
+  }
+
+  @Override
+  public boolean contains(String key) {
+    return values.containsKey(key);
+  }
+
+  public Map<String, byte[]> getValues() {
+    return values;
+  }
+
+  /**
+   * Keys in the order they were put
+   */
+  public List<String> getPuts() {
+    synchronized (puts) {
+      return new ArrayList<>(puts);
+    }
+  }
+
+  public void fail(String key) {
+    failingKeys.add(key);
+  }
+
+  public void clearFailures() {
+    failingKeys.clear();
+  }
+}
@@ -0,0 +1,236 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.ByteArrayPacker;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
+import edu.iu.dsc.tws.checkpointing.stores.MemoryStateStore;
+
+public class SnapshotPersisterTest {
+
+  private static Config config(boolean async, int maxPending, boolean incremental) {
+    return Config.newBuilder()
+        .put(CheckpointingConfigurations.CHECKPOINTING_ASYNC, async)
+        .put(CheckpointingConfigurations.CHECKPOINTING_ASYNC_MAX_PENDING, maxPending)
+        .put(CheckpointingConfigurations.CHECKPOINTING_INCREMENTAL, incremental)
+        .put(CheckpointingConfigurations.CHECKPOINTING_CHUNK_SIZE, 16)
+        .build();
+  }
+
+  private static SnapshotImpl snapshot(long version, byte[] value) {
+    SnapshotImpl snapshot = new SnapshotImpl();
+    snapshot.setPacker("state", ByteArrayPacker.getInstance());
+    snapshot.setValue("state", value);
+    snapshot.setVersion(version);
+    return snapshot;
+  }
+
+  private static long waitForPersisted(SnapshotPersister persister) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (System.currentTimeMillis() < deadline) {
+      long version = persister.pollPersisted();
+      if (version >= 0) {
+        return version;
+      }
+      Thread.sleep(1);
+    }
+    Assert.fail("No version was persisted");
+    return -1;
+  }
+
+  @Test
+  public void testSyncPersist() throws Exception {
+    MemoryStateStore store = new MemoryStateStore();
+    SnapshotPersister persister = new SnapshotPersister(store, config(false, 2, false));
+    persister.persist(snapshot(1, new byte[]{1, 2, 3}));
+    Assert.assertTrue(store.contains("1"));
+    Assert.assertTrue(persister.hasPending());
+    Assert.assertEquals(1, persister.pollPersisted());
+    Assert.assertFalse(persister.hasPending());
+    Assert.assertEquals(-1, persister.pollPersisted());
+
+    SnapshotImpl restored = snapshot(0, null);
+    persister.restore(1, restored);
+    Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) restored.get("state"));
+  }
+
+  @Test
+  public void testAsyncOrdering() throws Exception {
+    BlockingStore store = new BlockingStore();
+    store.block("1");
+    SnapshotPersister persister = new SnapshotPersister(store, config(true, 10, false));
+
+    byte[] value = new byte[]{1};
+    for (long v = 1; v <= 5; v++) {
+      persister.persist(snapshot(v, value));
+    }
+    // the values are packed when persisting, later updates are not written
+    value[0] = 9;
+
+    // the later versions wait for the first one
+    Thread.sleep(100);
+    Assert.assertEquals(-1, persister.pollPersisted());
+    Assert.assertTrue(store.getPuts().isEmpty());
+
+    store.release("1");
+    for (long v = 1; v <= 5; v++) {
+      Assert.assertEquals(v, waitForPersisted(persister));
+    }
+    Assert.assertFalse(persister.hasPending());
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5"), store.getPuts());
+
+    SnapshotImpl restored = snapshot(0, null);
+    persister.restore(5, restored);
+    Assert.assertArrayEquals(new byte[]{1}, (byte[]) restored.get("state"));
+  }
+
+  @Test
+  public void testMaxPending() throws Exception {
+    BlockingStore store = new BlockingStore();
+    store.block("1");
+    SnapshotPersister persister = new SnapshotPersister(store, config(true, 2, false));
+
+    persister.persist(snapshot(1, new byte[]{1}));
+    persister.persist(snapshot(2, new byte[]{2}));
+
+    // a third version waits until the oldest one is written
+    CountDownLatch persisted = new CountDownLatch(1);
+    Thread task = new Thread(() -> {
+      try {
+        persister.persist(snapshot(3, new byte[]{3}));
+        persisted.countDown();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    task.start();
+    Assert.assertFalse(persisted.await(200, TimeUnit.MILLISECONDS));
+
+    store.release("1");
+    Assert.assertTrue(persisted.await(10, TimeUnit.SECONDS));
+    task.join();
+    for (long v = 1; v <= 3; v++) {
+      Assert.assertEquals(v, waitForPersisted(persister));
+    }
+  }
+
+  @Test
+  public void testFailedWrite() throws Exception {
+    MemoryStateStore store = new MemoryStateStore();
+    store.fail("2");
+    SnapshotPersister persister = new SnapshotPersister(store, config(true, 10, false));
+    for (long v = 1; v <= 3; v++) {
+      persister.persist(snapshot(v, new byte[]{(byte) v}));
+    }
+
+    Assert.assertEquals(1, waitForPersisted(persister));
+    // the failure is reported for the version that failed
+    long deadline = System.currentTimeMillis() + 10000;
+    RuntimeException failure = null;
+    while (failure == null && System.currentTimeMillis() < deadline) {
+      try {
+        Assert.assertEquals(-1, persister.pollPersisted());
+        Thread.sleep(1);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+    Assert.assertNotNull(failure);
+    Assert.assertTrue(failure.getMessage().contains("checkpoint 2"));
+    Assert.assertTrue(failure.getCause() instanceof IOException);
+
+    // the next version is still written
+    Assert.assertEquals(3, waitForPersisted(persister));
+    Assert.assertTrue(store.contains("3"));
+    Assert.assertFalse(store.contains("2"));
+  }
+
+  @Test
+  public void testIncremental() throws Exception {
+    MemoryStateStore store = new MemoryStateStore();
+    SnapshotPersister persister = new SnapshotPersister(store, config(true, 2, true));
+    byte[] value = new byte[100];
+    persister.persist(snapshot(1, value.clone()));
+    value[50] = 1;
+    persister.persist(snapshot(2, value.clone()));
+    Assert.assertEquals(1, waitForPersisted(persister));
+    Assert.assertEquals(2, waitForPersisted(persister));
+
+    SnapshotPersister restoring = new SnapshotPersister(store, config(true, 2, true));
+    SnapshotImpl restored = snapshot(0, null);
+    restoring.restore(2, restored);
+    Assert.assertArrayEquals(value, (byte[]) restored.get("state"));
+  }
+
+  /**
+   * A store blocking the puts of some keys until they are released
+   */
+  private static class BlockingStore extends MemoryStateStore {
+    private final Map<String, CountDownLatch> gates = new ConcurrentHashMap<>();
+
+    void block(String key) {
+      gates.put(key, new CountDownLatch(1));
+    }
+
+    void release(String key) {
+      gates.get(key).countDown();
+    }
+
+    @Override
+    public void put(String key, byte[] data) throws IOException {
+      CountDownLatch gate = gates.get(key);
+      if (gate != null) {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          throw new IOException("Interrupted", e);
+        }
+      }
+      super.put(key, data);
+    }
+  }
+
+  @Test
+  public void testReadOnlyCopy() throws Exception {
+    SnapshotPersister persister = new SnapshotPersister(new MemoryStateStore(),
+        config(true, 2, false));
+    SnapshotImpl snapshot = snapshot(1, new byte[]{1});
+    persister.persist(snapshot);
+    SnapshotImpl copy = snapshot.readOnlyCopy();
+
+    // the task takes the next snapshot before the first one is reported
+    snapshot.setValue("state", new byte[]{2});
+    snapshot.setVersion(2);
+    persister.persist(snapshot);
+
+    Assert.assertEquals(1, waitForPersisted(persister));
+    Assert.assertEquals(1, copy.getVersion());
+    Assert.assertArrayEquals(new byte[]{1}, (byte[]) copy.get("state"));
+    try {
+      copy.setValue("state", new byte[]{3});
+      Assert.fail("A read only snapshot should not be updated");
+    } catch (UnsupportedOperationException e) {
+      Assert.assertArrayEquals(new byte[]{1}, (byte[]) copy.get("state"));
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SocketChannel;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -42,8 +43,6 @@ public abstract class BaseNetworkChannel {
 
   protected ByteBuffer readHeader;
 
-  protected ByteBuffer writeHeader;
-
   protected TCPMessage readingRequest;
 
   protected int readEdge;
@@ -52,13 +51,41 @@ public abstract class BaseNetworkChannel {
 
   protected DataStatus readStatus;
 
-  protected DataStatus writeStatus;
-
   protected ChannelHandler channelHandler;
 
   // header size of each message, we use edge and length as the header
   private static final int HEADER_SIZE = 8;
 
+  /**
+   * Maximum number of messages written with a single gathering write
+   */
+  private final int maxWriteBatch;
+
+  /**
+   * Headers of the messages in the current write batch
+   */
+  private final ByteBuffer[] writeHeaders;
+
+  /**
+   * Header and body pairs of the messages in the current write batch
+   */
+  private final ByteBuffer[] writeBuffers;
+
+  /**
+   * Number of messages in the current write batch
+   */
+  private int writeBatchCount = 0;
+
+  /**
+   * Number of messages in the current write batch that are fully written
+   */
+  private int writeCompleted = 0;
+
+  /**
+   * Body of the current message and header of the next message used for scattering reads
+   */
+  private final ByteBuffer[] readBuffers = new ByteBuffer[2];
+
   BaseNetworkChannel(Config cfg, Progress progress, SelectHandler handler,
                      SocketChannel channel, ChannelHandler msgHandler) {
     this.socketChannel = channel;
@@ -69,11 +96,21 @@ public abstract class BaseNetworkChannel {
     pendingSends = new ArrayBlockingQueue<>(1024);
     pendingReceives = new HashMap<>();
 
-    readHeader = ByteBuffer.allocate(HEADER_SIZE);
-    writeHeader = ByteBuffer.allocate(HEADER_SIZE);
+    // direct buffers avoid a copy through a temporary direct buffer in socket read and write
+    readHeader = ByteBuffer.allocateDirect(HEADER_SIZE);
+
+    maxWriteBatch = TCPContext.getNetworkWriteBatchMessages(cfg, 64);
+    writeHeaders = new ByteBuffer[maxWriteBatch];
+    writeBuffers = new ByteBuffer[maxWriteBatch * 2];
+    // all the headers are slices of a single direct buffer
+    ByteBuffer headers = ByteBuffer.allocateDirect(HEADER_SIZE * maxWriteBatch);
+    for (int i = 0; i < maxWriteBatch; i++) {
+      headers.limit((i + 1) * HEADER_SIZE);
+      headers.position(i * HEADER_SIZE);
+      writeHeaders[i] = headers.slice();
+    }
 
     this.readStatus = DataStatus.INIT;
-    this.writeStatus = DataStatus.INIT;
   }
 
   public void read() {
@@ -94,6 +131,8 @@ public abstract class BaseNetworkChannel {
   public void clear() {
     pendingReceives.clear();
     pendingSends.clear();
+    writeBatchCount = 0;
+    writeCompleted = 0;
   }
 
   public boolean addReadRequest(TCPMessage request) {
@@ -115,80 +154,75 @@ public abstract class BaseNetworkChannel {
 
   public void write() {
     while (pendingSends.size() > 0) {
-      TCPMessage writeRequest = pendingSends.peek();
-      if (writeRequest == null) {
-        break;
-      }
-
-      int writeState = writeRequest(socketChannel, writeRequest);
+      int writeState = writeBatch(socketChannel);
       if (writeState > 0) {
         break;
       } else if (writeState < 0) {
         LOG.severe("Something bad happened while writing to channel");
         selectHandler.handleError(socketChannel);
         return;
-      } else {
-        // remove the request
-        pendingSends.poll();
-        writeRequest.setComplete(true);
-        // notify the handler
-        channelHandler.onSendComplete(socketChannel, writeRequest);
-        if (pendingSends.size() == 0) {
-          disableWriting();
-        }
       }
     }
 
-  }
-
-  private int writeRequest(SocketChannel channel, TCPMessage message) {
-    ByteBuffer buffer = message.getByteBuffer();
-    int written = 0;
-    if (writeStatus == DataStatus.INIT) {
-      // lets flip the buffer
-      writeHeader.clear();
-      writeStatus = DataStatus.HEADER;
-
-      writeHeader.putInt(message.getLength());
-      writeHeader.putInt(message.getEdge());
-      writeHeader.flip();
-    }
-
-    if (writeStatus == DataStatus.HEADER) {
-      written = writeToChannel(channel, writeHeader);
-      if (written < 0) {
-        return written;
-      } else if (written == 0) {
-        writeStatus = DataStatus.BODY;
-      }
+    if (pendingSends.size() == 0) {
+      disableWriting();
     }
+  }
 
-    if (writeStatus == DataStatus.BODY) {
-      written = writeToChannel(channel, buffer);
-      if (written < 0) {
-        return written;
-      } else if (written == 0) {
-        LOG.finest(String.format("WRITE BODY %d", buffer.limit()));
-        writeStatus = DataStatus.INIT;
-        return written;
+  /**
+   * Write the headers and bodies of a batch of pending messages with a single gathering write.
+   * The messages stay in the pending queue until they are fully written.
+   *
+   * @param channel the channel
+   * @return 0 if the batch is fully written, 1 if the channel cannot accept more, -1 for errors
+   */
+  private int writeBatch(SocketChannel channel) {
+    if (writeBatchCount == 0) {
+      Iterator<TCPMessage> itr = pendingSends.iterator();
+      while (itr.hasNext() && writeBatchCount < maxWriteBatch) {
+        TCPMessage message = itr.next();
+        ByteBuffer header = writeHeaders[writeBatchCount];
+        header.clear();
+        header.putInt(message.getLength());
+        header.putInt(message.getEdge());
+        header.flip();
+
+        writeBuffers[writeBatchCount * 2] = header;
+        writeBuffers[writeBatchCount * 2 + 1] = message.getByteBuffer();
+        writeBatchCount++;
       }
+      writeCompleted = 0;
     }
 
-    return written;
-  }
-
-  private int writeToChannel(SocketChannel channel, ByteBuffer buffer) {
-    int remaining = buffer.remaining();
-    assert remaining > 0;
-    int wrote;
+    int offset = writeCompleted * 2;
     try {
-      wrote = channel.write(buffer);
+      long wrote = channel.write(writeBuffers, offset, writeBatchCount * 2 - offset);
       LOG.finest("Wrote " + wrote);
     } catch (IOException e) {
       LOG.log(Level.SEVERE, "Error writing to channel ", e);
       return -1;
     }
-    return remaining - wrote;
+
+    // a message is done when both its header and its body are written, checking only the body
+    // is not enough as an empty body has nothing remaining before its header is written
+    while (writeCompleted < writeBatchCount
+        && !writeBuffers[writeCompleted * 2].hasRemaining()
+        && !writeBuffers[writeCompleted * 2 + 1].hasRemaining()) {
+      TCPMessage writeRequest = pendingSends.poll();
+      writeBuffers[writeCompleted * 2] = null;
+      writeBuffers[writeCompleted * 2 + 1] = null;
+      writeCompleted++;
+
+      writeRequest.setComplete(true);
+      // notify the handler
+      channelHandler.onSendComplete(channel, writeRequest);
+    }
+
+    if (writeCompleted == writeBatchCount) {
+      writeBatchCount = 0;
+      return 0;
+    }
+    return 1;
   }
 
   int readFromChannel(SocketChannel channel, ByteBuffer buffer) {
@@ -211,9 +245,56 @@ public abstract class BaseNetworkChannel {
     }
   }
 
+  /**
+   * Read the rest of the body of the current message. The bytes after the body are read in to
+   * the read header with the same scattering read, so the header of the next message does not
+   * need another read. The read header is cleared before reading.
+   *
+   * @param channel the channel
+   * @param body the body buffer, limited to the size of the message
+   * @return remaining bytes of the body, or -1 for errors
+   */
+  int readBodyAndNextHeader(SocketChannel channel, ByteBuffer body) {
+    readHeader.clear();
+    readBuffers[0] = body;
+    readBuffers[1] = readHeader;
+    long read;
+    try {
+      read = channel.read(readBuffers);
+    } catch (java.nio.channels.ClosedByInterruptException e) {
+      LOG.warning("ClosedByInterruptException thrown. "
+          + "Probably the Channel is closed by the user program intentionally.");
+      return -1;
+    } catch (IOException e) {
+      LOG.log(Level.SEVERE, "Error in channel.read ", e);
+      return -1;
+    } finally {
+      readBuffers[0] = null;
+      readBuffers[1] = null;
+    }
+    if (read < 0) {
+      return -1;
+    }
+    return body.remaining();
+  }
+
+  /**
+   * Read the header of the next message, part of it may already be read with the body of the
+   * previous message
+   *
+   * @param channel the channel
+   * @return remaining bytes of the header, or -1 for errors
+   */
+  int readHeader(SocketChannel channel) {
+    if (!readHeader.hasRemaining()) {
+      return 0;
+    }
+    return readFromChannel(channel, readHeader);
+  }
+
   public void forceFlush() {
     while (!pendingSends.isEmpty()) {
-      int writeState = writeRequest(socketChannel, pendingSends.poll());
+      int writeState = writeBatch(socketChannel);
       if (writeState != 0) {
         return;
       }
@@ -52,7 +52,7 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
     }
 
     if (readStatus == DataStatus.HEADER) {
-      int retval = readFromChannel(channel, readHeader);
+      int retval = readHeader(channel);
       if (retval != 0) {
         // we had an error
         if (retval < 0) {
@@ -80,7 +80,7 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
         buffer = readingRequest.getByteBuffer();
       }
 
-      int retVal = readFromChannel(channel, buffer);
+      int retVal = readBodyAndNextHeader(channel, buffer);
       if (retVal < 0) {
         readMessageSize = 0;
         readEdge = 0;
@@ -100,7 +100,8 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
 
         TCPMessage ret = readingRequest;
         readingRequest = null;
-        readStatus = DataStatus.INIT;
+        // the read header may already have the next header
+        readStatus = DataStatus.HEADER;
         LOG.finest(String.format("READ Body %d", buffer.limit()));
         return ret;
       }
@@ -67,7 +67,7 @@ public class FixedBufferChannel extends BaseNetworkChannel {
     }
 
     if (readStatus == DataStatus.HEADER) {
-      int retval = readFromChannel(channel, readHeader);
+      int retval = readHeader(channel);
       if (retval != 0) {
         // either we didnt read fully or we had an error
         // we had an error
@@ -99,7 +99,7 @@ public class FixedBufferChannel extends BaseNetworkChannel {
         buffer = readingRequest.getByteBuffer();
       }
 
-      int retVal = readFromChannel(channel, buffer);
+      int retVal = readBodyAndNextHeader(channel, buffer);
       if (retVal < 0) {
         readMessageSize = 0;
         readEdge = 0;
@@ -118,7 +118,8 @@ public class FixedBufferChannel extends BaseNetworkChannel {
 
         TCPMessage ret = readingRequest;
         readingRequest = null;
-        readStatus = DataStatus.INIT;
+        // the read header may already have the next header
+        readStatus = DataStatus.HEADER;
         LOG.finest(String.format("READ Body %d", buffer.limit()));
         return ret;
       } else {
@@ -150,11 +150,11 @@ public class TCPChannel {
 
     for (NetworkInfo ni : workerInfo) {
       networkInfoMap.put(ni.getProcId(), ni);
-      helloSendByteBuffers.add(ByteBuffer.allocate(4));
-      helloReceiveByteBuffers.add(ByteBuffer.allocate(4));
+      helloSendByteBuffers.add(ByteBuffer.allocateDirect(4));
+      helloReceiveByteBuffers.add(ByteBuffer.allocateDirect(4));
 
-      helloSendByteBuffers.add(ByteBuffer.allocate(4));
-      helloReceiveByteBuffers.add(ByteBuffer.allocate(4));
+      helloSendByteBuffers.add(ByteBuffer.allocateDirect(4));
+      helloReceiveByteBuffers.add(ByteBuffer.allocateDirect(4));
     }
 
     // after sync we need to connect to all the servers
@@ -20,6 +20,8 @@ public class TCPContext extends Context {
 
   public static final String TWISTER2_WRITE_TIME = "twister2.tcp.write.time";
 
+  public static final String TWISTER2_WRITE_BATCH_MESSAGES = "twister2.tcp.write.batch.messages";
+
   public static final String TWISTER2_READ_SIZE = "twister2.tcp.read.size";
 
   public static final String TWISTER2_READ_TIME = "twister2.tcp.read.time";
@@ -40,6 +42,10 @@ public class TCPContext extends Context {
     return cfg.getIntegerValue(TWISTER2_WRITE_TIME, def);
   }
 
+  public static int getNetworkWriteBatchMessages(Config cfg, int def) {
+    return cfg.getIntegerValue(TWISTER2_WRITE_BATCH_MESSAGES, def);
+  }
+
   public static int getNetworkReadBatchSize(Config cfg, int def) {
     return cfg.getIntegerValue(TWISTER2_READ_SIZE, def);
   }
@@ -0,0 +1,291 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.net.tcp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.net.StatusCode;
+
+/**
+ * Tests the gathering writes of the network channel with a channel that accepts only a few
+ * bytes with each write
+ */
+public class BatchWriteTest {
+
+  private static final int HEADER_SIZE = 8;
+
+  @Test
+  public void testEmptyBodyPartialHeader() {
+    LimitedChannel channel = new LimitedChannel(3);
+    List<Integer> completedAt = new ArrayList<>();
+    BaseNetworkChannel networkChannel = createChannel(channel, completedAt);
+
+    // the body has nothing to write, only the header goes to the channel
+    networkChannel.pendingSends.offer(new TCPMessage(ByteBuffer.allocate(0), 1, 0));
+
+    networkChannel.forceFlush();
+    Assert.assertEquals(3, channel.written());
+    Assert.assertTrue(completedAt.isEmpty());
+    Assert.assertEquals(1, networkChannel.pendingSends.size());
+
+    networkChannel.forceFlush();
+    Assert.assertTrue(completedAt.isEmpty());
+
+    networkChannel.forceFlush();
+    Assert.assertEquals(HEADER_SIZE, channel.written());
+    Assert.assertEquals(1, completedAt.size());
+    Assert.assertEquals(HEADER_SIZE, (int) completedAt.get(0));
+    Assert.assertTrue(networkChannel.pendingSends.isEmpty());
+
+    ByteBuffer header = ByteBuffer.wrap(channel.bytes());
+    Assert.assertEquals(0, header.getInt());
+    Assert.assertEquals(1, header.getInt());
+  }
+
+  @Test
+  public void testPartialBatchWrites() {
+    LimitedChannel channel = new LimitedChannel(5);
+    List<Integer> completedAt = new ArrayList<>();
+    BaseNetworkChannel networkChannel = createChannel(channel, completedAt);
+
+    int[] sizes = {4, 0, 11, 0, 7};
+    int[] ends = new int[sizes.length];
+    int end = 0;
+    for (int i = 0; i < sizes.length; i++) {
+      ByteBuffer body = ByteBuffer.allocate(sizes[i]);
+      for (int j = 0; j < sizes[i]; j++) {
+        body.put((byte) (i * 16 + j));
+      }
+      body.flip();
+      networkChannel.pendingSends.offer(new TCPMessage(body, i, sizes[i]));
+      end += HEADER_SIZE + sizes[i];
+      ends[i] = end;
+    }
+
+    int flushes = 0;
+    while (!networkChannel.pendingSends.isEmpty()) {
+      networkChannel.forceFlush();
+      Assert.assertTrue(++flushes < 100);
+    }
+
+    // every message completes in order, and only after all of its bytes are written
+    Assert.assertEquals(sizes.length, completedAt.size());
+    for (int i = 0; i < sizes.length; i++) {
+      Assert.assertTrue(completedAt.get(i) >= ends[i]);
+      if (i + 1 < sizes.length) {
+        Assert.assertTrue(completedAt.get(i) < ends[i + 1]);
+      }
+    }
+
+    ByteBuffer written = ByteBuffer.wrap(channel.bytes());
+    Assert.assertEquals(end, written.remaining());
+    for (int i = 0; i < sizes.length; i++) {
+      Assert.assertEquals(sizes[i], written.getInt());
+      Assert.assertEquals(i, written.getInt());
+      for (int j = 0; j < sizes[i]; j++) {
+        Assert.assertEquals((byte) (i * 16 + j), written.get());
+      }
+    }
+  }
+
+  private BaseNetworkChannel createChannel(LimitedChannel channel, List<Integer> completedAt) {
+    ChannelHandler handler = new ChannelHandler() {
+      @Override
+      public void onError(SocketChannel ch) {
+        Assert.fail("Unexpected error");
+      }
+
+      @Override
+      public void onConnect(SocketChannel ch, StatusCode status) {
+      }
+
+      @Override
+      public void onClose(SocketChannel ch) {
+      }
+
+      @Override
+      public void onReceiveComplete(SocketChannel ch, TCPMessage readRequest) {
+      }
+
+      @Override
+      public void onSendComplete(SocketChannel ch, TCPMessage writeRequest) {
+        completedAt.add(channel.written());
+      }
+    };
+    return new DynamicBufferChannel(Config.newBuilder().build(), null, new NoOpSelectHandler(),
+        channel, handler);
+  }
+
+  private static class NoOpSelectHandler implements SelectHandler {
+    @Override
+    public void handleRead(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleWrite(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleAccept(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleConnect(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleError(SelectableChannel channel) {
+      Assert.fail("Unexpected error");
+    }
+  }
+
+  /**
+   * A socket channel that accepts at most a given number of bytes with each write
+   */
+  private static class LimitedChannel extends SocketChannel {
+    private final int limit;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    LimitedChannel(int limit) {
+      super(SelectorProvider.provider());
+      this.limit = limit;
+    }
+
+    int written() {
+      return out.size();
+    }
+
+    byte[] bytes() {
+      return out.toByteArray();
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int count = Math.min(limit, src.remaining());
+      for (int i = 0; i < count; i++) {
+        out.write(src.get());
+      }
+      return count;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      int count = 0;
+      for (int i = offset; i < offset + length && count < limit; i++) {
+        while (srcs[i].hasRemaining() && count < limit) {
+          out.write(srcs[i].get());
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      return 0;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) {
+      return 0;
+    }
+
+    @Override
+    public SocketChannel bind(SocketAddress local) {
+      return this;
+    }
+
+    @Override
+    public <T> SocketChannel setOption(SocketOption<T> name, T value) {
+      return this;
+    }
+
+    @Override
+    public <T> T getOption(SocketOption<T> name) {
+      return null;
+    }
+
+    @Override
+    public Set<SocketOption<?>> supportedOptions() {
+      return null;
+    }
+
+    @Override
+    public SocketChannel shutdownInput() {
+      return this;
+    }
+
+    @Override
+    public SocketChannel shutdownOutput() {
+      return this;
+    }
+
+    @Override
+    public Socket socket() {
+      return null;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return true;
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+      return false;
+    }
+
+    @Override
+    public boolean connect(SocketAddress remote) {
+      return true;
+    }
+
+    @Override
+    public boolean finishConnect() {
+      return true;
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return null;
+    }
+
+    @Override
+    protected void implCloseSelectableChannel() throws IOException {
+    }
+
+    @Override
+    protected void implConfigureBlocking(boolean block) throws IOException {
+    }
+  }
+}
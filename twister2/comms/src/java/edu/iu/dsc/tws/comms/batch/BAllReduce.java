@@ -22,6 +22,7 @@ import edu.iu.dsc.tws.api.comms.SingularReceiver;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
 import edu.iu.dsc.tws.comms.dfw.AllReduce;
+import edu.iu.dsc.tws.comms.dfw.ExchangeAllReduce;
 import edu.iu.dsc.tws.comms.utils.LogicalPlanBuilder;
 
 /**
@@ -41,13 +42,18 @@ public class BAllReduce extends BaseOperation {
       throw new IllegalArgumentException("The destination cannot be empty");
     }
 
-    int middleTask = comm.nextId();
-    int firstSource = sources.iterator().next();
-    plan.addLogicalIdToWorker(plan.getWorkerForForLogicalId(firstSource), middleTask);
+    if (ExchangeAllReduce.isSupported(comm.getConfig(), plan, sources, targets)) {
+      op = new ExchangeAllReduce(comm.getConfig(), comm.getChannel(), plan, sources, targets,
+          comm::nextId, fnc, rcvr, reduceEdgeId, false, messageSchema);
+    } else {
+      int middleTask = comm.nextId();
+      int firstSource = sources.iterator().next();
+      plan.addLogicalIdToWorker(plan.getWorkerForForLogicalId(firstSource), middleTask);
 
-    op = new AllReduce(comm.getConfig(), comm.getChannel(), plan, sources,
-        targets, middleTask, fnc, rcvr, dataType, reduceEdgeId, broadEdgeId,
-        false, messageSchema);
+      op = new AllReduce(comm.getConfig(), comm.getChannel(), plan, sources,
+          targets, middleTask, fnc, rcvr, dataType, reduceEdgeId, broadEdgeId,
+          false, messageSchema);
+    }
   }
 
   /**
@@ -173,6 +173,11 @@ public class AllReduce implements DataFlowOperation {
     return reduce.isComplete() && broadcast.isComplete();
   }
 
+  @Override
+  public boolean isDelegateComplete() {
+    return reduce.isDelegateComplete() && broadcast.isDelegateComplete();
+  }
+
   @Override
   public void close() {
     reduce.close();
@@ -44,6 +44,8 @@ import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
 import edu.iu.dsc.tws.api.comms.packing.MessageDeSerializer;
 import edu.iu.dsc.tws.api.comms.packing.MessageSerializer;
 import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.metrics.Counter;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
 
 public class ChannelDataFlowOperation implements ChannelListener, ChannelMessageReleaseCallback {
   private static final Logger LOG = Logger.getLogger(ChannelDataFlowOperation.class.getName());
@@ -162,6 +164,17 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
 
   private AtomicInteger externalSendsPending = new AtomicInteger(0);
 
+  /**
+   * Metrics of this edge
+   */
+  private Counter messagesSent;
+
+  private Counter bytesSent;
+
+  private Counter messagesReceived;
+
+  private Counter bytesReceived;
+
   ChannelDataFlowOperation(TWSChannel channel) {
     this.channel = channel;
   }
@@ -194,6 +207,15 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     this.messageSerializer = serializer;
     this.messageDeSerializer = deSerializer;
 
+    MetricsRegistry metrics = MetricsRegistry.get();
+    String edgeLabel = Integer.toString(edge);
+    this.messagesSent = metrics.counter("twister2_comms_messages_sent_total", "edge", edgeLabel);
+    this.bytesSent = metrics.counter("twister2_comms_bytes_sent_total", "edge", edgeLabel);
+    this.messagesReceived = metrics.counter("twister2_comms_messages_received_total",
+        "edge", edgeLabel);
+    this.bytesReceived = metrics.counter("twister2_comms_bytes_received_total",
+        "edge", edgeLabel);
+
     int noOfSendBuffers = CommunicationContext.sendBuffersCount(config);
     int sendBufferSize = CommunicationContext.bufferSize(config);
 
@@ -281,14 +303,6 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
       channel.receiveMessage(0, recv, edge, this, recvList);
       receiveBuffers.put(recv, recvList);
     }
-
-    // configure the send sendBuffers
-    int sendBufferSize = CommunicationContext.bufferSize(config);
-    int sendBufferCount = CommunicationContext.sendBuffersCount(config);
-    for (int i = 0; i < sendBufferCount; i++) {
-      DataBuffer buffer = new DataBuffer(channel.createBuffer(sendBufferSize));
-      sendBuffers.offer(buffer);
-    }
   }
 
   /**
@@ -336,11 +350,13 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     ByteBuffer byteBuffer = buffer.getByteBuffer();
     byteBuffer.position(buffer.getSize());
     byteBuffer.flip();
+    bytesReceived.add(buffer.getSize());
 
     // we have the source of the message at 0th position as an integer
     int source = byteBuffer.getInt(0);
     InMessage currentMessage = currentMessages.get(source);
     if (currentMessage == null) {
+      messagesReceived.inc();
       MessageHeader header = messageDeSerializer.get(source).buildHeader(buffer, e);
 
       MessageType recvDType = receiveDataType;
@@ -454,7 +470,11 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
           routingParameters.getExternalRoutes(), dataType, keyType, this, message);
 
       // now try to put this into pending
-      return pendingSendMessages.offer(sendMessage);
+      boolean offered = pendingSendMessages.offer(sendMessage);
+      if (offered) {
+        messagesSent.inc();
+      }
+      return offered;
     }
     return false;
   }
@@ -663,7 +683,14 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
 
   private boolean sendMessageToTarget(ChannelMessage channelMessage, int i) {
     int e = instancePlan.getWorkerForForLogicalId(i);
-    return channel.sendMessage(e, channelMessage, this);
+    boolean sent = channel.sendMessage(e, channelMessage, this);
+    if (sent) {
+      List<DataBuffer> buffers = channelMessage.getNormalBuffers();
+      for (int b = 0; b < buffers.size(); b++) {
+        bytesSent.add(buffers.get(b).getSize());
+      }
+    }
+    return sent;
   }
 
   @Override
@@ -731,5 +758,17 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     for (int exec : receivingExecutors) {
       channel.releaseBuffers(exec, edge);
     }
+
+    // return the buffers we are not using to the channel, the buffers still held by the
+    // channel or messages are not returned
+    DataBuffer buffer;
+    while ((buffer = sendBuffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+    for (Queue<DataBuffer> buffers : receiveBuffers.values()) {
+      while ((buffer = buffers.poll()) != null) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
+    }
   }
 }
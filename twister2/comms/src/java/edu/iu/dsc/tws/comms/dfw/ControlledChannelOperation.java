@@ -303,14 +303,6 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
         receiveBuffers.put(recv, recvList);
       }
     }
-
-    // configure the send sendBuffers
-    int sendBufferSize = CommunicationContext.bufferSize(config);
-    int sendBufferCount = CommunicationContext.sendBuffersCount(config);
-    for (int i = 0; i < sendBufferCount; i++) {
-      DataBuffer buffer = new DataBuffer(channel.createBuffer(sendBufferSize));
-      sendBuffers.offer(buffer);
-    }
   }
 
   /**
@@ -815,5 +807,20 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
     for (int exec : receivingExecutors) {
       channel.releaseBuffers(exec, edge);
     }
+
+    // return the buffers we are not using to the channel, the buffers still held by the
+    // channel or messages are not returned
+    DataBuffer buffer;
+    while ((buffer = sendBuffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+    while ((buffer = freeReceiveBuffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+    for (Queue<DataBuffer> buffers : receiveBuffers.values()) {
+      while ((buffer = buffers.poll()) != null) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
+    }
   }
 }
@@ -0,0 +1,509 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.io.TargetPartialReceiver;
+import edu.iu.dsc.tws.comms.dfw.io.allreduce.AllReduceExchange;
+import edu.iu.dsc.tws.comms.functions.reduction.DenseArrayReduceFunction;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+import edu.iu.dsc.tws.comms.utils.TaskPlanUtils;
+
+/**
+ * An allreduce where the workers exchange partial values directly with each other, instead of
+ * reducing to a root and broadcasting from it. The values of the sources in a worker are first
+ * reduced locally, then the workers run either a ring reduce-scatter + allgather or a recursive
+ * doubling exchange (see {@link AllReduceExchange}) and give the result to the local targets.
+ *
+ * Every worker that has a target must have a source, see {@link #isSupported}.
+ *
+ * With the auto algorithm, the ring is used when the reduce function works element by element,
+ * there are at least three workers and the previous result was larger than the configured size.
+ * All the workers got the same previous result, so they pick the same algorithm without talking
+ * to each other. The first round uses recursive doubling.
+ */
+public class ExchangeAllReduce implements DataFlowOperation {
+  private static final Logger LOG = Logger.getLogger(ExchangeAllReduce.class.getName());
+
+  /**
+   * Receives the exchange messages
+   */
+  private class ExchangeReceiver implements MessageReceiver {
+    @Override
+    public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
+    }
+
+    @Override
+    public boolean onMessage(int source, int path, int target, int flags, Object object) {
+      if (object instanceof List) {
+        for (Object o : (List<?>) object) {
+          addMessage((AllReduceExchange.Message) o);
+        }
+      } else {
+        addMessage((AllReduceExchange.Message) object);
+      }
+      return true;
+    }
+
+    @Override
+    public boolean progress() {
+      return false;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+  }
+
+  private final Set<Integer> sources;
+
+  private final Set<Integer> destinations;
+
+  private final LogicalPlan logicalPlan;
+
+  private final ReduceFunction reduceFunction;
+
+  private final SingularReceiver finalReceiver;
+
+  private final boolean streaming;
+
+  private final int edge;
+
+  /**
+   * The transport used to exchange messages between the workers
+   */
+  private MToNSimple transport;
+
+  /**
+   * The send and receive ids of each rank
+   */
+  private int[] sendIds;
+
+  private int[] receiveIds;
+
+  /**
+   * The rank of this worker
+   */
+  private int rank;
+
+  private String algorithm;
+
+  private boolean elementWise;
+
+  private long ringMinBytes;
+
+  /**
+   * Local sources and targets
+   */
+  private Set<Integer> thisSources;
+
+  private List<Integer> thisTargets;
+
+  /**
+   * Batch: the reduced value of the local sources and the sources that finished
+   */
+  private Object localValue;
+
+  private Set<Integer> finishedSources = new HashSet<>();
+
+  /**
+   * Streaming: the values from the local sources, waiting for a round
+   */
+  private Map<Integer, Queue<Object>> pendingValues = new TreeMap<>();
+
+  private int maxPendingValues;
+
+  /**
+   * The round in progress and its number
+   */
+  private AllReduceExchange exchange;
+
+  private int round;
+
+  /**
+   * The message of the current step, if the transport didn't accept it yet
+   */
+  private AllReduceExchange.Message outgoing;
+
+  private boolean stepSent;
+
+  /**
+   * Messages received, by round and step
+   */
+  private Map<Long, AllReduceExchange.Message> received = new HashMap<>();
+
+  /**
+   * The result being delivered and the targets that got it
+   */
+  private Object result;
+
+  private boolean delivering;
+
+  private Set<Integer> delivered = new HashSet<>();
+
+  /**
+   * The size of the last result in bytes, all workers agree on this
+   */
+  private long lastResultBytes = -1;
+
+  /**
+   * Batch: the result is given to all the local targets
+   */
+  private boolean batchDone;
+
+  public ExchangeAllReduce(Config cfg, TWSChannel channel, LogicalPlan plan,
+                           Set<Integer> sources, Set<Integer> destinations,
+                           IntSupplier idGenerator, ReduceFunction reduceFn,
+                           SingularReceiver finalRecv, int edge, boolean streaming,
+                           MessageSchema messageSchema) {
+    this.sources = sources;
+    this.destinations = destinations;
+    this.logicalPlan = plan;
+    this.reduceFunction = reduceFn;
+    this.finalReceiver = finalRecv;
+    this.edge = edge;
+    this.streaming = streaming;
+    init(cfg, channel, idGenerator, messageSchema);
+  }
+
+  private void init(Config cfg, TWSChannel channel, IntSupplier idGenerator,
+                    MessageSchema messageSchema) {
+    this.algorithm = CommunicationContext.allReduceAlgorithm(cfg);
+    this.elementWise = reduceFunction instanceof ReduceOperationFunction
+        || reduceFunction instanceof DenseArrayReduceFunction
+        || CommunicationContext.allReduceElementWise(cfg);
+    this.ringMinBytes = CommunicationContext.allReduceRingMinBytes(cfg);
+    this.maxPendingValues = CommunicationContext.sendPendingMax(cfg);
+    if (CommunicationContext.ALLREDUCE_ALGO_RING.equals(algorithm) && !elementWise) {
+      LOG.warning("The ring allreduce needs an element wise reduce function, using "
+          + CommunicationContext.ALLREDUCE_ALGO_DOUBLING);
+      this.algorithm = CommunicationContext.ALLREDUCE_ALGO_DOUBLING;
+    }
+
+    List<Integer> workers = getWorkers(logicalPlan, sources);
+    this.rank = workers.indexOf(logicalPlan.getThisWorker());
+    this.sendIds = new int[workers.size()];
+    this.receiveIds = new int[workers.size()];
+    Set<Integer> sendIdSet = new HashSet<>();
+    Set<Integer> receiveIdSet = new HashSet<>();
+    for (int i = 0; i < workers.size(); i++) {
+      sendIds[i] = idGenerator.getAsInt();
+      receiveIds[i] = idGenerator.getAsInt();
+      logicalPlan.addLogicalIdToWorker(workers.get(i), sendIds[i]);
+      logicalPlan.addLogicalIdToWorker(workers.get(i), receiveIds[i]);
+      sendIdSet.add(sendIds[i]);
+      receiveIdSet.add(receiveIds[i]);
+    }
+
+    this.thisSources = TaskPlanUtils.getTasksOfThisWorker(logicalPlan, sources);
+    this.thisTargets = new ArrayList<>(new TreeSet<>(
+        TaskPlanUtils.getTasksOfThisWorker(logicalPlan, destinations)));
+    for (int s : thisSources) {
+      pendingValues.put(s, new ArrayDeque<>());
+    }
+    finalReceiver.init(cfg, new HashSet<>(thisTargets));
+
+    transport = new MToNSimple(channel, sendIdSet, receiveIdSet, new ExchangeReceiver(),
+        new TargetPartialReceiver(), MessageTypes.OBJECT, messageSchema);
+    transport.init(cfg, MessageTypes.OBJECT, logicalPlan, edge);
+  }
+
+  /**
+   * Weather this operation can be used for the given sources and targets
+   *
+   * @param cfg the configuration
+   * @param plan the logical plan
+   * @param sources sources
+   * @param destinations targets
+   * @return true if an algorithm other than the tree is configured and every worker with a
+   * target has a source
+   */
+  public static boolean isSupported(Config cfg, LogicalPlan plan, Set<Integer> sources,
+                                    Set<Integer> destinations) {
+    if (CommunicationContext.ALLREDUCE_ALGO_TREE.equals(
+        CommunicationContext.allReduceAlgorithm(cfg))) {
+      return false;
+    }
+
+    List<Integer> workers = getWorkers(plan, sources);
+    for (int d : destinations) {
+      if (!workers.contains(plan.getWorkerForForLogicalId(d))) {
+        LOG.warning(String.format("Target %d is on a worker without sources, using the tree "
+            + "allreduce", d));
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<Integer> getWorkers(LogicalPlan plan, Set<Integer> sources) {
+    Set<Integer> workers = new TreeSet<>();
+    for (int s : sources) {
+      workers.add(plan.getWorkerForForLogicalId(s));
+    }
+    return new ArrayList<>(workers);
+  }
+
+  @Override
+  public boolean send(int source, Object message, int flags) {
+    synchronized (pendingValues) {
+      if (streaming) {
+        Queue<Object> values = pendingValues.get(source);
+        if (values.size() >= maxPendingValues) {
+          return false;
+        }
+        values.offer(message);
+      } else if (localValue == null) {
+        localValue = message;
+      } else {
+        localValue = reduceFunction.reduce(localValue, message);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags) {
+    return send(source, message, flags);
+  }
+
+  @Override
+  public boolean send(int source, Object message, int flags, int target) {
+    throw new RuntimeException("Not-implemented");
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags, int target) {
+    throw new RuntimeException("Not-implemented");
+  }
+
+  @Override
+  public void finish(int source) {
+    synchronized (pendingValues) {
+      finishedSources.add(source);
+    }
+  }
+
+  @Override
+  public synchronized boolean progress() {
+    try {
+      boolean needsProgress = transport.progress();
+      if (delivering) {
+        deliver();
+      }
+
+      if (exchange == null && !delivering) {
+        startRound();
+      }
+
+      if (exchange != null) {
+        runSteps();
+        if (exchange.isDone()) {
+          result = exchange.getResult();
+          lastResultBytes = AllReduceExchange.sizeOf(result);
+          exchange = null;
+          round++;
+          delivering = true;
+          deliver();
+        }
+      }
+      return needsProgress || exchange != null || delivering;
+    } catch (Throwable t) {
+      LOG.log(Level.SEVERE, "un-expected error", t);
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Start a new round if the local value is ready
+   */
+  private void startRound() {
+    if (rank < 0) {
+      return;
+    }
+
+    Object value;
+    synchronized (pendingValues) {
+      if (streaming) {
+        for (Queue<Object> values : pendingValues.values()) {
+          if (values.isEmpty()) {
+            return;
+          }
+        }
+        value = null;
+        for (Queue<Object> values : pendingValues.values()) {
+          Object v = values.poll();
+          value = value == null ? v : reduceFunction.reduce(value, v);
+        }
+      } else {
+        if (batchDone || finishedSources.size() < thisSources.size()) {
+          return;
+        }
+        value = localValue;
+        localValue = null;
+      }
+    }
+
+    exchange = new AllReduceExchange(round, rank, sendIds.length, useRing(), reduceFunction,
+        value);
+    stepSent = false;
+  }
+
+  private boolean useRing() {
+    if (CommunicationContext.ALLREDUCE_ALGO_RING.equals(algorithm)) {
+      return true;
+    } else if (CommunicationContext.ALLREDUCE_ALGO_AUTO.equals(algorithm)) {
+      return elementWise && lastResultBytes >= ringMinBytes;
+    }
+    return false;
+  }
+
+  /**
+   * Go through the steps of the current round until we need to wait for a message
+   */
+  private void runSteps() {
+    while (!exchange.isDone()) {
+      if (!stepSent) {
+        int target = exchange.sendTarget();
+        if (target >= 0) {
+          if (outgoing == null) {
+            outgoing = exchange.createMessage();
+          }
+          if (!transport.sendPartial(sendIds[rank], outgoing, 0, receiveIds[target])) {
+            return;
+          }
+          outgoing = null;
+        }
+        stepSent = true;
+      }
+
+      if (exchange.receiveSource() >= 0) {
+        long key = key(exchange.getRound(), exchange.getStep());
+        AllReduceExchange.Message message = received.get(key);
+        if (message == null) {
+          return;
+        }
+        // a reduce function working in place would change the value we are sending
+        if (exchange.reducesIntoSentValue() && !transport.isDelegateComplete()) {
+          return;
+        }
+        received.remove(key);
+        exchange.receive(message);
+      }
+      exchange.nextStep();
+      stepSent = false;
+    }
+  }
+
+  /**
+   * Give the result to the local targets
+   */
+  private void deliver() {
+    for (int target : thisTargets) {
+      if (delivered.contains(target)) {
+        continue;
+      }
+      if (result != null && !finalReceiver.receive(target, result)) {
+        return;
+      }
+      if (!streaming) {
+        finalReceiver.sync(target, null);
+      }
+      delivered.add(target);
+    }
+
+    delivering = false;
+    delivered.clear();
+    result = null;
+    if (!streaming) {
+      batchDone = true;
+    }
+  }
+
+  private void addMessage(AllReduceExchange.Message message) {
+    received.put(key(message.getRound(), message.getStep()), message);
+  }
+
+  private static long key(int r, int step) {
+    return ((long) r << 32) | step;
+  }
+
+  @Override
+  public synchronized boolean isComplete() {
+    // a worker without sources doesn't take part in the exchange
+    return (rank < 0 || batchDone) && outgoing == null && transport.isDelegateComplete();
+  }
+
+  @Override
+  public boolean isDelegateComplete() {
+    return transport.isDelegateComplete();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+
+  @Override
+  public synchronized void reset() {
+    synchronized (pendingValues) {
+      localValue = null;
+      finishedSources.clear();
+      batchDone = false;
+    }
+    transport.reset();
+  }
+
+  @Override
+  public LogicalPlan getLogicalPlan() {
+    return logicalPlan;
+  }
+
+  @Override
+  public String getUniqueId() {
+    return String.valueOf(edge);
+  }
+
+  @Override
+  public Set<Integer> getSources() {
+    return sources;
+  }
+
+  @Override
+  public Set<Integer> getTargets() {
+    return destinations;
+  }
+}
@@ -31,6 +31,7 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
   private boolean built;
 
   private W partialDataHolder;
+  private DataPacker<D, W> dataPacker;
   private D finalObject;
 
   private int totalSize;
@@ -38,7 +39,9 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
 
   void init(DataPacker<D, W> dataPacker, int totSize) {
     this.reset();
-    this.partialDataHolder = dataPacker.wrapperForByteLength(totSize);
+    // the holder is created when the packer asks for it, packers reading the whole object from
+    // a single buffer don't need it
+    this.dataPacker = dataPacker;
     this.totalSize = totSize;
   }
 
@@ -63,6 +66,9 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
   }
 
   public W getPartialDataHolder() {
+    if (partialDataHolder == null && dataPacker != null) {
+      partialDataHolder = dataPacker.wrapperForByteLength(totalSize);
+    }
     return partialDataHolder;
   }
 
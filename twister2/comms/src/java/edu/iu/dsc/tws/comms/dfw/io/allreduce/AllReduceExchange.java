@@ -0,0 +1,356 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.allreduce;
+
+import java.lang.reflect.Array;
+
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+
+/**
+ * The steps of a single allreduce round between a set of ranks, independent of how the messages
+ * are transferred. Two schedules are supported.
+ *
+ * Ring: the value is split in to one chunk per rank. In the first p - 1 steps (reduce-scatter)
+ * every rank sends a chunk to the next rank and reduces the chunk it gets from the previous one,
+ * after which each rank owns one fully reduced chunk. In the next p - 1 steps (allgather) the
+ * reduced chunks are passed around the ring. Every rank sends 2 (p - 1) / p of the value, so this
+ * is used for large arrays reduced element by element.
+ *
+ * Recursive doubling: ranks exchange the whole value with a partner at distance 1, 2, 4 ..,
+ * taking log(p) steps. If p is not a power of two, the first 2r ranks fold in to r ranks before
+ * the exchange and get the result back at the end. This works with any reduce function.
+ *
+ * Values are always reduced as reduce(lower rank, higher rank) so every rank gets exactly the
+ * same result. A null value means the rank doesn't have anything to contribute.
+ */
+public class AllReduceExchange {
+  /**
+   * A message exchanged between ranks
+   */
+  public static class Message {
+    private int round;
+
+    private int step;
+
+    private int source;
+
+    private int chunk;
+
+    private Object value;
+
+    public Message() {
+    }
+
+    public Message(int round, int step, int source, int chunk, Object value) {
+      this.round = round;
+      this.step = step;
+      this.source = source;
+      this.chunk = chunk;
+      this.value = value;
+    }
+
+    public int getRound() {
+      return round;
+    }
+
+    public int getStep() {
+      return step;
+    }
+
+    public int getSource() {
+      return source;
+    }
+
+    public int getChunk() {
+      return chunk;
+    }
+
+    public Object getValue() {
+      return value;
+    }
+  }
+
+  private final int round;
+
+  private final int rank;
+
+  private final int ranks;
+
+  private final boolean ring;
+
+  private final ReduceFunction reduceFunction;
+
+  private final int totalSteps;
+
+  private int step;
+
+  /**
+   * The value, used by recursive doubling
+   */
+  private Object value;
+
+  /**
+   * The chunks, used by ring
+   */
+  private Object[] chunks;
+
+  /**
+   * Recursive doubling: number of ranks folded before the exchange and log of the power of two
+   */
+  private int remainder;
+
+  public AllReduceExchange(int round, int rank, int ranks, boolean ring,
+                           ReduceFunction reduceFunction, Object value) {
+    this.round = round;
+    this.rank = rank;
+    this.ranks = ranks;
+    this.reduceFunction = reduceFunction;
+    // with two ranks the ring sends the same amount of data in two steps instead of one
+    this.ring = ring && ranks > 2;
+
+    if (ranks == 1) {
+      this.totalSteps = 0;
+      this.value = value;
+    } else if (this.ring) {
+      this.totalSteps = 2 * (ranks - 1);
+      this.chunks = split(value, ranks);
+    } else {
+      int log = 31 - Integer.numberOfLeadingZeros(ranks);
+      this.remainder = ranks - (1 << log);
+      this.totalSteps = log + 2;
+      this.value = value;
+    }
+  }
+
+  public int getRound() {
+    return round;
+  }
+
+  public int getStep() {
+    return step;
+  }
+
+  public boolean isDone() {
+    return step >= totalSteps;
+  }
+
+  /**
+   * Move to the next step, after sending and receiving the messages of the current step
+   */
+  public void nextStep() {
+    step++;
+  }
+
+  /**
+   * The rank to send to in this step
+   *
+   * @return the rank or -1 if nothing to send
+   */
+  public int sendTarget() {
+    if (ring) {
+      return (rank + 1) % ranks;
+    }
+
+    if (step == 0) {
+      return rank < 2 * remainder && rank % 2 == 0 ? rank + 1 : -1;
+    } else if (step == totalSteps - 1) {
+      return rank < 2 * remainder && rank % 2 == 1 ? rank - 1 : -1;
+    }
+    return partner();
+  }
+
+  /**
+   * The rank to receive from in this step
+   *
+   * @return the rank or -1 if nothing to receive
+   */
+  public int receiveSource() {
+    if (ring) {
+      return (rank - 1 + ranks) % ranks;
+    }
+
+    if (step == 0) {
+      return rank < 2 * remainder && rank % 2 == 1 ? rank - 1 : -1;
+    } else if (step == totalSteps - 1) {
+      return rank < 2 * remainder && rank % 2 == 0 ? rank + 1 : -1;
+    }
+    return partner();
+  }
+
+  /**
+   * Weather the message received in this step is reduced in to the value sent in this step. A
+   * reduce function working in place would change the sent value, so the sent message should be
+   * serialized before calling {@link #receive(Message)}.
+   */
+  public boolean reducesIntoSentValue() {
+    return !ring && step > 0 && step < totalSteps - 1 && partner() > rank;
+  }
+
+  /**
+   * Create the message to send in this step
+   */
+  public Message createMessage() {
+    if (ring) {
+      int chunk;
+      if (step < ranks - 1) {
+        chunk = mod(rank - step);
+      } else {
+        chunk = mod(rank + 1 - (step - ranks + 1));
+      }
+      return new Message(round, step, rank, chunk, chunks[chunk]);
+    }
+    return new Message(round, step, rank, -1, value);
+  }
+
+  /**
+   * Apply the message received in this step
+   */
+  public void receive(Message message) {
+    if (ring) {
+      int chunk = message.getChunk();
+      if (step < ranks - 1) {
+        chunks[chunk] = combine(message.getValue(), chunks[chunk]);
+      } else {
+        chunks[chunk] = message.getValue();
+      }
+    } else if (step == 0) {
+      value = combine(message.getValue(), value);
+    } else if (step == totalSteps - 1) {
+      value = message.getValue();
+    } else if (message.getSource() < rank) {
+      value = combine(message.getValue(), value);
+    } else {
+      value = combine(value, message.getValue());
+    }
+  }
+
+  /**
+   * The reduced value, valid after all the steps are done
+   */
+  public Object getResult() {
+    if (ring) {
+      return concat(chunks);
+    }
+    return value;
+  }
+
+  /**
+   * The partner of a recursive doubling exchange step, -1 if this rank was folded
+   */
+  private int partner() {
+    if (rank < 2 * remainder && rank % 2 == 0) {
+      return -1;
+    }
+    int newRank = rank < 2 * remainder ? rank / 2 : rank - remainder;
+    int newPartner = newRank ^ (1 << (step - 1));
+    return newPartner < remainder ? newPartner * 2 + 1 : newPartner + remainder;
+  }
+
+  private int mod(int r) {
+    return ((r % ranks) + ranks) % ranks;
+  }
+
+  private Object combine(Object lower, Object higher) {
+    if (lower == null) {
+      return higher;
+    } else if (higher == null) {
+      return lower;
+    }
+    return reduceFunction.reduce(lower, higher);
+  }
+
+  /**
+   * Split an array in to parts of nearly equal size
+   *
+   * @param array the array, if null all the parts are null
+   * @param parts number of parts
+   * @return the parts
+   */
+  public static Object[] split(Object array, int parts) {
+    Object[] chunks = new Object[parts];
+    if (array == null) {
+      return chunks;
+    }
+    if (!array.getClass().isArray()) {
+      throw new IllegalArgumentException("Ring allreduce needs an array, found "
+          + array.getClass());
+    }
+
+    int length = Array.getLength(array);
+    Class<?> type = array.getClass().getComponentType();
+    for (int i = 0; i < parts; i++) {
+      int start = (int) ((long) length * i / parts);
+      int end = (int) ((long) length * (i + 1) / parts);
+      chunks[i] = Array.newInstance(type, end - start);
+      System.arraycopy(array, start, chunks[i], 0, end - start);
+    }
+    return chunks;
+  }
+
+  /**
+   * Join the parts created by {@link #split(Object, int)}
+   *
+   * @param chunks the parts
+   * @return the array or null if all the parts are null
+   */
+  public static Object concat(Object[] chunks) {
+    Class<?> type = null;
+    int length = 0;
+    for (Object c : chunks) {
+      if (c != null) {
+        type = c.getClass().getComponentType();
+        length += Array.getLength(c);
+      }
+    }
+    if (type == null) {
+      return null;
+    }
+
+    Object array = Array.newInstance(type, length);
+    int position = 0;
+    for (Object c : chunks) {
+      if (c != null) {
+        int l = Array.getLength(c);
+        System.arraycopy(c, 0, array, position, l);
+        position += l;
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Estimate the size of a value in bytes, counting only the primitive arrays in it
+   */
+  public static long sizeOf(Object value) {
+    if (value == null || !value.getClass().isArray()) {
+      return 0;
+    }
+
+    Class<?> type = value.getClass().getComponentType();
+    int length = Array.getLength(value);
+    if (type == double.class || type == long.class) {
+      return 8L * length;
+    } else if (type == int.class || type == float.class) {
+      return 4L * length;
+    } else if (type == short.class || type == char.class) {
+      return 2L * length;
+    } else if (type.isPrimitive()) {
+      return length;
+    }
+
+    long size = 0;
+    for (int i = 0; i < length; i++) {
+      size += sizeOf(Array.get(value, i));
+    }
+    return size;
+  }
+}
@@ -13,6 +13,7 @@ package edu.iu.dsc.tws.comms.dfw.io.gather;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -62,6 +63,10 @@ public class DGatherBatchFinalReceiver implements MessageReceiver {
    * Sort mergers for each target
    */
   private Map<Integer, FSMerger> sortedMergers = new HashMap<>();
+  /**
+   * Read iterators of the targets the bulk receiver did not accept yet
+   */
+  private Map<Integer, Iterator<Object>> pendingReads = new HashMap<>();
   /**
    * Shuffler directory
    */
@@ -194,9 +199,18 @@ public class DGatherBatchFinalReceiver implements MessageReceiver {
       }
 
       if (allFinished) {
-        batchDone.put(t, true);
-        fsMerger.switchToReading();
-        bulkReceiver.receive(t, fsMerger.readIterator());
+        Iterator<Object> itr = pendingReads.remove(t);
+        if (itr == null) {
+          fsMerger.switchToReading();
+          itr = fsMerger.readIterator();
+        }
+        // the receiver may be full, in that case we try again in the next progress
+        if (bulkReceiver.receive(t, itr)) {
+          batchDone.put(t, true);
+        } else {
+          pendingReads.put(t, itr);
+          needsFurtherProgress = true;
+        }
       }
     }
 
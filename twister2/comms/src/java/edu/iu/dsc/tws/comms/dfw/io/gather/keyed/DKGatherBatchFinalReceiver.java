@@ -29,6 +29,7 @@ import edu.iu.dsc.tws.comms.dfw.io.KeyedReceiver;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedMerger;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedSortedMerger2;
 import edu.iu.dsc.tws.comms.shuffle.Shuffle;
+import edu.iu.dsc.tws.comms.shuffle.SpillOptions;
 
 /**
  * Disk based Final receiver for keyed gather
@@ -67,6 +68,10 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
   private boolean sorted;
   private boolean groupByKey;
 
+  /**
+   * Read iterators of the targets the bulk receiver did not accept yet
+   */
+  private Map<Integer, Iterator<Object>> pendingReads = new HashMap<>();
 
   public DKGatherBatchFinalReceiver(BulkReceiver receiver, boolean srt, int limitPerKey,
                                     String shuffleDir, Comparator com, boolean groupByKey) {
@@ -89,6 +94,7 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
     long maxRecordsInMemory = CommunicationContext.getShuffleMaxRecordsInMemory(cfg);
     long maxBytesToFile = CommunicationContext.getShuffleFileSize(cfg);
     int parallelIOAllowance = CommunicationContext.getParallelIOAllowance(cfg);
+    SpillOptions spillOptions = SpillOptions.fromConfig(cfg);
 
     for (Integer target : expectedIds.keySet()) {
 
@@ -97,7 +103,7 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
         sortedMerger = new FSKeyedSortedMerger2(maxBytesInMemory,
             maxBytesToFile, shuffleDirectory, getOperationName(target),
             dataFlowOperation.getKeyType(), dataFlowOperation.getDataType(), comparator, target,
-            this.groupByKey, parallelIOAllowance);
+            this.groupByKey, parallelIOAllowance, spillOptions);
       } else {
         sortedMerger = new FSKeyedMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
             getOperationName(target), dataFlowOperation.getKeyType(),
@@ -127,6 +133,10 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
   @Override
   protected boolean sendToTarget(boolean needsFurtherProgress, boolean sourcesFinished, int target,
                                  Queue<Object> targetSendQueue) {
+    // the merger is already reading, we are only waiting for the receiver to accept it
+    if (pendingReads.containsKey(target)) {
+      return true;
+    }
     Shuffle sortedMerger = sortedMergers.get(target);
     while (!targetSendQueue.isEmpty()) {
       Tuple kc = (Tuple) targetSendQueue.poll();
@@ -150,12 +160,18 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
    * @return true if further progress is needed or false otherwise
    */
   protected boolean finishProgress(boolean needsFurtherProgress, int target) {
-
+    Iterator<Object> itr = pendingReads.remove(target);
+    if (itr == null) {
+      Shuffle sortedMerger = sortedMergers.get(target);
+      sortedMerger.switchToReading();
+      itr = sortedMerger.readIterator();
+    }
+    // the receiver may be full, in that case we try again in the next progress
+    if (!bulkReceiver.receive(target, itr)) {
+      pendingReads.put(target, itr);
+      return true;
+    }
     batchDone.put(target, true);
-    Shuffle sortedMerger = sortedMergers.get(target);
-    sortedMerger.switchToReading();
-    Iterator<Object> itr = sortedMerger.readIterator();
-    bulkReceiver.receive(target, itr);
 
     return needsFurtherProgress;
   }
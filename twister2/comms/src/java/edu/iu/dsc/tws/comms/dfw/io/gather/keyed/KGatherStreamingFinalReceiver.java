@@ -11,6 +11,7 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.comms.dfw.io.gather.keyed;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -44,6 +45,10 @@ public class KGatherStreamingFinalReceiver extends KGatherStreamingReceiver {
    */
   protected int localWindowCount;
 
+  /**
+   * Results taken from the send queue that the bulk receiver did not accept yet, per target
+   */
+  private Map<Integer, List<Object>> pendingResults = new HashMap<>();
 
   public KGatherStreamingFinalReceiver(BulkReceiver receiver,
                                        int window) {
@@ -77,13 +82,20 @@ public class KGatherStreamingFinalReceiver extends KGatherStreamingReceiver {
         needsFurtherProgress = true;
       }
 
-      if (!targetSendQueue.isEmpty()) {
-        List<Object> results = new AggregatedObjects<>();
+      List<Object> results = pendingResults.remove(target);
+      if (results == null && !targetSendQueue.isEmpty()) {
+        results = new AggregatedObjects<>();
         Object current;
         while ((current = targetSendQueue.poll()) != null) {
           results.add(current);
         }
-        bulkReceiver.receive(target, results.iterator());
+      }
+
+      // the receiver may be full, in that case we keep the results and try again
+      if (results != null && !bulkReceiver.receive(target, results.iterator())) {
+        pendingResults.put(target, results);
+        needsFurtherProgress = true;
+        continue;
       }
 
       if (sourcesFinished && dataFlowOperation.isDelegateComplete()
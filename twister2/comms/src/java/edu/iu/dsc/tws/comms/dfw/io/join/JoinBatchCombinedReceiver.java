@@ -28,7 +28,7 @@ import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
 import edu.iu.dsc.tws.comms.shuffle.ResettableIterator;
 import edu.iu.dsc.tws.comms.shuffle.RestorableIterator;
-import edu.iu.dsc.tws.comms.utils.HashJoinUtils;
+import edu.iu.dsc.tws.comms.utils.HybridHashJoin;
 import edu.iu.dsc.tws.comms.utils.JoinRelation;
 import edu.iu.dsc.tws.comms.utils.KeyComparatorWrapper;
 import edu.iu.dsc.tws.comms.utils.SortJoinUtils;
@@ -47,6 +47,11 @@ public class JoinBatchCombinedReceiver {
 
   private Map<Integer, boolean[]> syncCounts = new HashMap<>();
   private Map<Integer, Object[]> joinRelations = new HashMap<>();
+
+  /**
+   * Joined results the receiver did not accept yet
+   */
+  private Map<Integer, Iterator> pendingJoins = new HashMap<>();
   private BulkReceiver rcvr;
   private final CommunicationContext.JoinAlgorithm algorithm;
   private final CommunicationContext.JoinType joinType;
@@ -103,18 +108,20 @@ public class JoinBatchCombinedReceiver {
       }
     } else {
       if (left instanceof ResettableIterator) {
-        return HashJoinUtils.join(
+        return HybridHashJoin.join(
             (ResettableIterator) left,
             (ResettableIterator) right,
             joinType,
-            keyType
+            keyType,
+            config
         );
       } else if (left instanceof List) {
-        return HashJoinUtils.join(
-            (List<Tuple>) left,
-            (List<Tuple>) right,
+        return HybridHashJoin.join(
+            ((List<Tuple>) left).iterator(),
+            ((List<Tuple>) right).iterator(),
             joinType,
-            keyType
+            keyType,
+            config
         );
       } else {
         throw new Twister2RuntimeException("Unsupported data formats received from sources");
@@ -122,7 +129,24 @@ public class JoinBatchCombinedReceiver {
     }
   }
 
+  /**
+   * Receive a relation of a target, the join is done when all the relations are received.
+   * If the receiver does not accept the joined result, this returns false and the result is
+   * kept. The final receiver of the relation calls this again with the same relation from its
+   * progress, and the kept result is offered again instead of joining again.
+   *
+   * @return true if the relation is accepted
+   */
   public boolean receive(int target, Object object, JoinRelation joinRelation) {
+    Iterator pending = pendingJoins.get(target);
+    if (pending != null) {
+      if (!this.rcvr.receive(target, pending)) {
+        return false;
+      }
+      pendingJoins.remove(target);
+      return true;
+    }
+
     Object[] values = joinRelations.get(target);
     values[joinRelation.ordinal()] = object;
     long count = Arrays.stream(values).filter(Objects::nonNull).count();
@@ -130,11 +154,15 @@ public class JoinBatchCombinedReceiver {
     if (count == JoinRelation.values().length) {
       // ready to do join
       long t1 = System.currentTimeMillis();
-      this.rcvr.receive(target, doJoin(values[JoinRelation.LEFT.ordinal()],
-          values[JoinRelation.RIGHT.ordinal()]));
+      Iterator joined = doJoin(values[JoinRelation.LEFT.ordinal()],
+          values[JoinRelation.RIGHT.ordinal()]);
       LOG.info("Join time : " + (System.currentTimeMillis() - t1));
 
       Arrays.fill(values, null);
+      if (!this.rcvr.receive(target, joined)) {
+        pendingJoins.put(target, joined);
+        return false;
+      }
     }
     return true;
   }
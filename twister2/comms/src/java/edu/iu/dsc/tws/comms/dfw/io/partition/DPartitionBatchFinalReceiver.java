@@ -37,6 +37,7 @@ import edu.iu.dsc.tws.comms.shuffle.FSKeyedMerger;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedSortedMerger2;
 import edu.iu.dsc.tws.comms.shuffle.FSMerger;
 import edu.iu.dsc.tws.comms.shuffle.Shuffle;
+import edu.iu.dsc.tws.comms.shuffle.SpillOptions;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
@@ -117,6 +118,11 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
    */
   protected Int2ObjectOpenHashMap<ReceiverState> targetStates = new Int2ObjectOpenHashMap<>();
 
+  /**
+   * Read iterators of the targets the bulk receiver did not accept yet
+   */
+  private Int2ObjectOpenHashMap<Iterator<Object>> pendingReads = new Int2ObjectOpenHashMap<>();
+
   /**
    * We use a target array to iterator
    */
@@ -144,6 +150,7 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
     long maxRecordsInMemory = CommunicationContext.getShuffleMaxRecordsInMemory(cfg);
     long maxFileSize = CommunicationContext.getShuffleFileSize(cfg);
     int parallelIOAllowance = CommunicationContext.getParallelIOAllowance(cfg);
+    SpillOptions spillOptions = SpillOptions.fromConfig(cfg);
 
     expIds = expectedIds;
     thisWorker = op.getLogicalPlan().getThisWorker();
@@ -151,7 +158,8 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
     partition = op;
     keyed = partition.getKeyType() != null;
     targets = new HashSet<>(expectedIds.keySet());
-    initMergers(maxBytesInMemory, maxRecordsInMemory, maxFileSize, parallelIOAllowance);
+    initMergers(maxBytesInMemory, maxRecordsInMemory, maxFileSize, parallelIOAllowance,
+        spillOptions);
     this.bulkReceiver.init(cfg, expectedIds.keySet());
 
     int index = 0;
@@ -166,7 +174,7 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
    * Initialize the mergers, this happens after each refresh
    */
   private void initMergers(long maxBytesInMemory, long maxRecordsInMemory, long maxFileSize,
-                           int parallelIOAllowance) {
+                           int parallelIOAllowance, SpillOptions spillOptions) {
     for (Integer target : expIds.keySet()) {
       String shuffleDirectory = this.shuffleDirectories.get(
           partition.getLogicalPlan().getIndexOfTaskInNode(target) % this.shuffleDirectories.size());
@@ -179,7 +187,7 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
           sortedMerger = new FSKeyedSortedMerger2(maxBytesInMemory, maxFileSize,
               shuffleDirectory, DFWIOUtils.getOperationName(target, partition, refresh),
               partition.getKeyType(), partition.getDataType(), comparator, target,
-              groupByKey, parallelIOAllowance);
+              groupByKey, parallelIOAllowance, spillOptions);
         } else {
           sortedMerger = new FSKeyedMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
               DFWIOUtils.getOperationName(target, partition, refresh), partition.getKeyType(),
@@ -291,7 +299,10 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
         for (int i = 0; i < finishedTargets.size(); i++) {
           int target = finishedTargets.get(i);
           if (!finishedTargetsCompleted.contains(target) && partition.isDelegateComplete()) {
-            finishTarget(target);
+            // the receiver may be full, in that case we try again in the next progress
+            if (!finishTarget(target)) {
+              continue;
+            }
             targetStates.put(target, ReceiverState.SYNCED);
             onSyncEvent(target, null);
             finishedTargetsCompleted.add(target);
@@ -310,11 +321,18 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
     return complete;
   }
 
-  private void finishTarget(int target) {
-    Shuffle sortedMerger = sortedMergers.get(target);
-    sortedMerger.switchToReading();
-    Iterator<Object> itr = sortedMerger.readIterator();
-    bulkReceiver.receive(target, itr);
+  private boolean finishTarget(int target) {
+    Iterator<Object> itr = pendingReads.remove(target);
+    if (itr == null) {
+      Shuffle sortedMerger = sortedMergers.get(target);
+      sortedMerger.switchToReading();
+      itr = sortedMerger.readIterator();
+    }
+    if (!bulkReceiver.receive(target, itr)) {
+      pendingReads.put(target, itr);
+      return false;
+    }
+    return true;
   }
 
   private void onSyncEvent(int target, byte[] value) {
@@ -335,6 +353,7 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
     }
     finishedTargetsCompleted.clear();
     finishedTargets.clear();
+    pendingReads.clear();
     finishedSources.forEach((k, v) -> v.clear());
 
     for (int taraget : targetStates.keySet()) {
@@ -0,0 +1,200 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.functions.reduction;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+/**
+ * Element wise SUM, MIN or MAX of int, long, float and double arrays of any number of
+ * dimensions (for example double[][]). Unlike {@link ReduceOperationFunction} the result is
+ * not a new array for every call. The first array is copied once, when it is reduced for the
+ * first time, and the following values are reduced in to the copy returned. So reducing a
+ * stream of arrays allocates one array per result, and the arrays given to the function are
+ * never changed.
+ */
+public class DenseArrayReduceFunction implements ReduceFunction {
+
+  private final Op operation;
+
+  /**
+   * The results created by this function, which can be updated in place. Arrays are equal
+   * only to themselves, so this is an identity set, and the results are dropped with the
+   * receivers holding them.
+   */
+  private final Set<Object> results = Collections.synchronizedSet(
+      Collections.newSetFromMap(new WeakHashMap<>()));
+
+  public DenseArrayReduceFunction(Op operation) {
+    if (operation != Op.SUM && operation != Op.MIN && operation != Op.MAX) {
+      throw new Twister2RuntimeException("Operation is not supported: " + operation);
+    }
+    this.operation = operation;
+  }
+
+  @Override
+  public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
+  }
+
+  @Override
+  public Object reduce(Object t1, Object t2) {
+    Object result = t1;
+    if (!results.contains(t1)) {
+      result = copy(t1);
+      reduceInto(result, t2);
+      results.add(result);
+    } else {
+      reduceInto(result, t2);
+    }
+    return result;
+  }
+
+  /**
+   * Copy all the dimensions of an array, other objects are returned as they are
+   */
+  private static Object copy(Object array) {
+    if (array instanceof double[]) {
+      return ((double[]) array).clone();
+    } else if (array instanceof float[]) {
+      return ((float[]) array).clone();
+    } else if (array instanceof long[]) {
+      return ((long[]) array).clone();
+    } else if (array instanceof int[]) {
+      return ((int[]) array).clone();
+    } else if (array instanceof Object[]) {
+      Object[] copy = ((Object[]) array).clone();
+      for (int i = 0; i < copy.length; i++) {
+        copy[i] = copy(copy[i]);
+      }
+      return copy;
+    }
+    return array;
+  }
+
+  private void reduceInto(Object t1, Object t2) {
+    if (t1 instanceof double[] && t2 instanceof double[]) {
+      reduce((double[]) t1, (double[]) t2);
+    } else if (t1 instanceof float[] && t2 instanceof float[]) {
+      reduce((float[]) t1, (float[]) t2);
+    } else if (t1 instanceof long[] && t2 instanceof long[]) {
+      reduce((long[]) t1, (long[]) t2);
+    } else if (t1 instanceof int[] && t2 instanceof int[]) {
+      reduce((int[]) t1, (int[]) t2);
+    } else if (t1 instanceof Object[] && t2 instanceof Object[]) {
+      Object[] a1 = (Object[]) t1;
+      Object[] a2 = (Object[]) t2;
+      validateLength(a1.length, a2.length);
+      for (int i = 0; i < a1.length; i++) {
+        reduceInto(a1[i], a2[i]);
+      }
+    } else {
+      throw new Twister2RuntimeException(String.format("Cannot reduce %s and %s",
+          t1 == null ? null : t1.getClass(), t2 == null ? null : t2.getClass()));
+    }
+  }
+
+  private static void validateLength(int l1, int l2) {
+    if (l1 != l2) {
+      throw new Twister2RuntimeException(
+          String.format("Arrays should be of equal length. Found : %d and %d", l1, l2));
+    }
+  }
+
+  private void reduce(double[] a1, double[] a2) {
+    validateLength(a1.length, a2.length);
+    switch (operation) {
+      case SUM:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] += a2[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.min(a1[i], a2[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.max(a1[i], a2[i]);
+        }
+    }
+  }
+
+  private void reduce(float[] a1, float[] a2) {
+    validateLength(a1.length, a2.length);
+    switch (operation) {
+      case SUM:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] += a2[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.min(a1[i], a2[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.max(a1[i], a2[i]);
+        }
+    }
+  }
+
+  private void reduce(long[] a1, long[] a2) {
+    validateLength(a1.length, a2.length);
+    switch (operation) {
+      case SUM:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] += a2[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.min(a1[i], a2[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.max(a1[i], a2[i]);
+        }
+    }
+  }
+
+  private void reduce(int[] a1, int[] a2) {
+    validateLength(a1.length, a2.length);
+    switch (operation) {
+      case SUM:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] += a2[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.min(a1[i], a2[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < a1.length; i++) {
+          a1[i] = Math.max(a1[i], a2[i]);
+        }
+    }
+  }
+}
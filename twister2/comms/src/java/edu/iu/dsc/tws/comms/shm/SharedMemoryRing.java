@@ -0,0 +1,352 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.comms.shuffle.MemoryMapUtils;
+
+/**
+ * A single producer, single consumer ring buffer backed by a memory mapped file. The producer
+ * and the consumer are expected to be in two different processes on the same host, mapping the
+ * same file (usually under /dev/shm).
+ * <p>
+ * Layout of the file
+ * <pre>
+ * [0, 8)      write sequence, total bytes published by the producer
+ * [64, 72)    read sequence, total bytes consumed by the consumer
+ * [128, ...)  the data region
+ * </pre>
+ * Each record in the data region is [length(int)][edge(int)][payload] aligned to 8 bytes.
+ * A record never wraps around the end of the data region, instead a padding record with
+ * length -1 is written and the record starts again at the beginning.
+ */
+public class SharedMemoryRing {
+  private static final Logger LOG = Logger.getLogger(SharedMemoryRing.class.getName());
+
+  /**
+   * Offset of the write sequence, we keep read and write sequences in different cache lines
+   */
+  private static final int WRITE_SEQUENCE_OFFSET = 0;
+
+  /**
+   * Offset of the read sequence
+   */
+  private static final int READ_SEQUENCE_OFFSET = 64;
+
+  /**
+   * Start of the data region
+   */
+  private static final int DATA_OFFSET = 128;
+
+  /**
+   * Record header, length and edge
+   */
+  static final int RECORD_HEADER_SIZE = 8;
+
+  /**
+   * Length used to mark the padding at the end of the data region
+   */
+  private static final int PADDING = -1;
+
+  /**
+   * Unsafe.storeFence and Unsafe.loadFence bound to the unsafe instance. These are used as the
+   * memory fences around the plain accesses to the mapped buffer, so that the payload is visible
+   * before the sequence that publishes it. A volatile access to a field is not enough here, as it
+   * only orders the accesses relative to other accesses of the same field.
+   */
+  private static final MethodHandle STORE_FENCE;
+
+  private static final MethodHandle LOAD_FENCE;
+
+  static {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafeField = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafeField.setAccessible(true);
+      Object theUnsafe = theUnsafeField.get(null);
+
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodType fenceType = MethodType.methodType(void.class);
+      STORE_FENCE = lookup.findVirtual(unsafeClass, "storeFence", fenceType).bindTo(theUnsafe);
+      LOAD_FENCE = lookup.findVirtual(unsafeClass, "loadFence", fenceType).bindTo(theUnsafe);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * The mapped file
+   */
+  private final MappedByteBuffer buffer;
+
+  /**
+   * A view of the mapped buffer used for bulk copies
+   */
+  private final ByteBuffer view;
+
+  /**
+   * The file
+   */
+  private final File file;
+
+  /**
+   * Capacity of the data region
+   */
+  private final int capacity;
+
+  /**
+   * Local copy of the write sequence, only valid at the producer
+   */
+  private long writeSequence;
+
+  /**
+   * Local copy of the read sequence, only valid at the consumer
+   */
+  private long readSequence;
+
+  /**
+   * The length of the record at the head, only valid at the consumer
+   */
+  private int headLength;
+
+  /**
+   * The edge of the record at the head, only valid at the consumer
+   */
+  private int headEdge;
+
+  private SharedMemoryRing(File file, MappedByteBuffer buffer, int capacity) {
+    this.file = file;
+    this.buffer = buffer;
+    this.capacity = capacity;
+    this.buffer.order(CommunicationContext.DEFAULT_BYTEORDER);
+    this.view = buffer.duplicate();
+    this.writeSequence = buffer.getLong(WRITE_SEQUENCE_OFFSET);
+    this.readSequence = buffer.getLong(READ_SEQUENCE_OFFSET);
+  }
+
+  /**
+   * Create a new ring, any existing file with the same name is truncated. This should be
+   * called by the consumer before the producer tries to open the ring.
+   *
+   * @param file the file
+   * @param capacity capacity of the data region in bytes
+   * @return the ring
+   */
+  public static SharedMemoryRing create(File file, int capacity) {
+    int alignedCapacity = align(capacity);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(0);
+      raf.setLength(DATA_OFFSET + alignedCapacity);
+      MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+          DATA_OFFSET + alignedCapacity);
+      mapped.putLong(WRITE_SEQUENCE_OFFSET, 0);
+      mapped.putLong(READ_SEQUENCE_OFFSET, 0);
+      return new SharedMemoryRing(file, mapped, alignedCapacity);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to create shared memory ring: " + file, e);
+    }
+  }
+
+  /**
+   * Open a ring created by the consumer
+   *
+   * @param file the file
+   * @return the ring
+   */
+  public static SharedMemoryRing open(File file) {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      long length = raf.length();
+      if (length <= DATA_OFFSET) {
+        throw new RuntimeException("Invalid shared memory ring: " + file);
+      }
+      MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+          length);
+      return new SharedMemoryRing(file, mapped, (int) (length - DATA_OFFSET));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open shared memory ring: " + file, e);
+    }
+  }
+
+  /**
+   * The maximum payload we can write as a single record
+   *
+   * @return maximum payload size
+   */
+  public int maxPayloadSize() {
+    return capacity / 2 - RECORD_HEADER_SIZE;
+  }
+
+  /**
+   * Write a record to the ring. The bytes from 0 to size of the given buffer are copied.
+   *
+   * @param edge the edge
+   * @param data the data
+   * @param size number of bytes to copy
+   * @return true if the record is written, false if there is not enough space
+   */
+  public boolean write(int edge, ByteBuffer data, int size) {
+    int recordSize = align(RECORD_HEADER_SIZE + size);
+    long consumed = buffer.getLong(READ_SEQUENCE_OFFSET);
+    long free = capacity - (writeSequence - consumed);
+    int position = (int) (writeSequence % capacity);
+    int tail = capacity - position;
+
+    int required = tail < recordSize ? tail + recordSize : recordSize;
+    if (free < required) {
+      return false;
+    }
+    // make sure we don't read the space before the consumer is done with it
+    loadFence();
+
+    if (tail < recordSize) {
+      buffer.putInt(DATA_OFFSET + position, PADDING);
+      writeSequence += tail;
+      position = 0;
+    }
+
+    int dataStart = DATA_OFFSET + position + RECORD_HEADER_SIZE;
+    ByteBuffer source = data.duplicate();
+    source.limit(size);
+    source.position(0);
+    view.limit(dataStart + size);
+    view.position(dataStart);
+    view.put(source);
+    buffer.putInt(DATA_OFFSET + position, size);
+    buffer.putInt(DATA_OFFSET + position + 4, edge);
+    writeSequence += recordSize;
+
+    // publish the record
+    storeFence();
+    buffer.putLong(WRITE_SEQUENCE_OFFSET, writeSequence);
+    return true;
+  }
+
+  /**
+   * Check weather a record is available at the head of the ring, if so the length and edge
+   * of the record can be accessed through {@link #headLength()} and {@link #headEdge()}
+   *
+   * @return true if a record is available
+   */
+  public boolean peek() {
+    long published = buffer.getLong(WRITE_SEQUENCE_OFFSET);
+    if (published == readSequence) {
+      return false;
+    }
+    loadFence();
+
+    int position = (int) (readSequence % capacity);
+    int length = buffer.getInt(DATA_OFFSET + position);
+    if (length == PADDING) {
+      readSequence += capacity - position;
+      position = 0;
+      length = buffer.getInt(DATA_OFFSET);
+    }
+    headLength = length;
+    headEdge = buffer.getInt(DATA_OFFSET + position + 4);
+    return true;
+  }
+
+  public int headLength() {
+    return headLength;
+  }
+
+  public int headEdge() {
+    return headEdge;
+  }
+
+  /**
+   * Copy the record at the head to the given buffer and remove it from the ring. Must be
+   * called after a successful {@link #peek()}. The buffer is prepared for reading from 0 to
+   * the length of the record.
+   *
+   * @param target the target buffer
+   */
+  public void poll(ByteBuffer target) {
+    int position = (int) (readSequence % capacity);
+    int dataStart = DATA_OFFSET + position + RECORD_HEADER_SIZE;
+    target.clear();
+    view.limit(dataStart + headLength);
+    view.position(dataStart);
+    target.put(view);
+    target.flip();
+
+    readSequence += align(RECORD_HEADER_SIZE + headLength);
+    // release the space to the producer
+    storeFence();
+    buffer.putLong(READ_SEQUENCE_OFFSET, readSequence);
+  }
+
+  /**
+   * Weather the producer has records that are not yet consumed
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return buffer.getLong(WRITE_SEQUENCE_OFFSET) == buffer.getLong(READ_SEQUENCE_OFFSET);
+  }
+
+  /**
+   * Un-map the buffer
+   *
+   * @param delete delete the backing file
+   */
+  public void close(boolean delete) {
+    try {
+      MemoryMapUtils.unMapBuffer(buffer);
+    } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
+      LOG.log(Level.WARNING, "Failed to un-map the shared memory ring: " + file, e);
+    }
+    if (delete && file.exists() && !file.delete()) {
+      LOG.warning("Failed to delete the shared memory ring: " + file);
+    }
+  }
+
+  private static int align(int size) {
+    return (size + 7) & ~7;
+  }
+
+  /**
+   * Stores before the fence are not reordered with loads and stores after it
+   */
+  private static void storeFence() {
+    try {
+      STORE_FENCE.invokeExact();
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to issue a store fence", t);
+    }
+  }
+
+  /**
+   * Loads before the fence are not reordered with loads and stores after it
+   */
+  private static void loadFence() {
+    try {
+      LOAD_FENCE.invokeExact();
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to issue a load fence", t);
+    }
+  }
+}
@@ -0,0 +1,393 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shm;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.channel.ChannelListener;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.config.Context;
+import edu.iu.dsc.tws.api.exceptions.TimeoutException;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.resource.IWorkerController;
+import edu.iu.dsc.tws.comms.tcp.TWSTCPChannel;
+import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+
+/**
+ * A channel that moves the buffers between workers running on the same host through memory
+ * mapped ring buffers and uses a {@link TWSTCPChannel} for the workers on other hosts.
+ * <p>
+ * For every pair of co-located workers (sender, receiver) there is a ring file created by the
+ * receiver in the shared memory directory. The rings are created before the TCP channel waits
+ * on the barrier, so every ring is available once the TCP channel is created.
+ * <p>
+ * The ring of a sender preserves the order of the buffers, the same as a TCP connection. If
+ * there are no receive buffers available for the edge of the record at the head of the ring,
+ * we stop reading from that ring until the buffers are released.
+ */
+public class TWSSharedMemoryChannel implements TWSChannel {
+  private static final Logger LOG = Logger.getLogger(TWSSharedMemoryChannel.class.getName());
+
+  /**
+   * Used to deliver the records of a ring to the receives of every group
+   */
+  private static final int ANY_GROUP = Integer.MIN_VALUE;
+
+  @SuppressWarnings("VisibilityModifier")
+  private class SharedMemorySendRequest {
+    int rank;
+    int edge;
+    ChannelMessage message;
+    ChannelListener callback;
+    int nextBuffer;
+
+    SharedMemorySendRequest(int rank, int e, ChannelMessage message,
+                            ChannelListener callback) {
+      this.rank = rank;
+      this.edge = e;
+      this.message = message;
+      this.callback = callback;
+      this.nextBuffer = 0;
+    }
+  }
+
+  @SuppressWarnings("VisibilityModifier")
+  private class SharedMemoryReceiveRequest {
+    int group;
+    int rank;
+    int edge;
+    ChannelListener callback;
+    Queue<DataBuffer> availableBuffers;
+
+    SharedMemoryReceiveRequest(int group, int rank, int e, ChannelListener callback,
+                               Queue<DataBuffer> buffers) {
+      this.group = group;
+      this.rank = rank;
+      this.edge = e;
+      this.callback = callback;
+      this.availableBuffers = buffers;
+    }
+  }
+
+  /**
+   * The channel used for the workers in other hosts
+   */
+  private TWSTCPChannel tcpChannel;
+
+  /**
+   * This worker
+   */
+  private int workerId;
+
+  /**
+   * Rings we write to, indexed by the receiving worker
+   */
+  private Int2ObjectArrayMap<SharedMemoryRing> outRings = new Int2ObjectArrayMap<>();
+
+  /**
+   * Rings we read from, indexed by the sending worker
+   */
+  private Int2ObjectArrayMap<SharedMemoryRing> inRings = new Int2ObjectArrayMap<>();
+
+  /**
+   * Pending sends to the local workers, indexed by the receiving worker
+   */
+  private Int2ObjectArrayMap<Queue<SharedMemorySendRequest>> pendingSends =
+      new Int2ObjectArrayMap<>();
+
+  /**
+   * Number of messages waiting in the pending sends
+   */
+  private int pendingSendCount = 0;
+
+  /**
+   * Maximum number of pending send messages
+   */
+  private int maxPendingSends;
+
+  /**
+   * Registered receives from local workers, indexed by sending worker and edge
+   */
+  private Int2ObjectArrayMap<Int2ObjectArrayMap<SharedMemoryReceiveRequest>> registeredReceives
+      = new Int2ObjectArrayMap<>();
+
+  /**
+   * The local workers we receive from in each group
+   */
+  private Int2ObjectArrayMap<List<SharedMemoryReceiveRequest>> groupedRegisteredReceives =
+      new Int2ObjectArrayMap<>();
+
+  /**
+   * Holds requests that are pending for close
+   */
+  private List<Pair<Integer, Integer>> pendingCloseRequests = new ArrayList<>();
+
+  /**
+   * Create the channel
+   *
+   * @param config configuration
+   * @param wController worker controller
+   */
+  public TWSSharedMemoryChannel(Config config, IWorkerController wController) {
+    JobMasterAPI.WorkerInfo thisWorker = wController.getWorkerInfo();
+    this.workerId = thisWorker.getWorkerID();
+    this.maxPendingSends = CommunicationContext.networkChannelPendingSize(config);
+
+    List<JobMasterAPI.WorkerInfo> allWorkers;
+    try {
+      allWorkers = wController.getAllWorkers();
+    } catch (TimeoutException timeoutException) {
+      LOG.log(Level.SEVERE, timeoutException.getMessage(), timeoutException);
+      throw new Twister2RuntimeException(timeoutException);
+    }
+
+    List<Integer> localWorkers = new ArrayList<>();
+    for (JobMasterAPI.WorkerInfo w : allWorkers) {
+      if (w.getWorkerID() != workerId && w.getWorkerIP().equals(thisWorker.getWorkerIP())) {
+        localWorkers.add(w.getWorkerID());
+      }
+    }
+
+    // we create the rings we receive from, before the tcp channel waits on the barrier
+    File directory = new File(CommunicationContext.sharedMemoryDirectory(config));
+    int ringSize = CommunicationContext.sharedMemoryRingSize(config);
+    String jobId = Context.jobId(config);
+    for (int sender : localWorkers) {
+      File file = new File(directory, ringFileName(jobId, sender, workerId));
+      inRings.put(sender, SharedMemoryRing.create(file, ringSize));
+    }
+
+    // this will wait on the barrier, after that every ring is created
+    this.tcpChannel = new TWSTCPChannel(config, wController);
+
+    for (int receiver : localWorkers) {
+      File file = new File(directory, ringFileName(jobId, workerId, receiver));
+      outRings.put(receiver, SharedMemoryRing.open(file));
+      pendingSends.put(receiver, new ArrayDeque<>());
+    }
+    LOG.fine(String.format("%d using shared memory for workers %s", workerId, localWorkers));
+  }
+
+  private static String ringFileName(String jobId, int sender, int receiver) {
+    return String.format("twister2-%s-%d-%d.ring", jobId, sender, receiver);
+  }
+
+  @Override
+  public boolean sendMessage(int id, ChannelMessage message, ChannelListener callback) {
+    Queue<SharedMemorySendRequest> queue = pendingSends.get(id);
+    if (queue == null) {
+      return tcpChannel.sendMessage(id, message, callback);
+    }
+
+    if (pendingSendCount >= maxPendingSends) {
+      return false;
+    }
+    queue.offer(new SharedMemorySendRequest(id, message.getHeader().getEdge(),
+        message, callback));
+    pendingSendCount++;
+    return true;
+  }
+
+  @Override
+  public boolean receiveMessage(int group, int id, int edge,
+                                ChannelListener callback, Queue<DataBuffer> receiveBuffers) {
+    if (!inRings.containsKey(id)) {
+      return tcpChannel.receiveMessage(group, id, edge, callback, receiveBuffers);
+    }
+
+    SharedMemoryReceiveRequest request = new SharedMemoryReceiveRequest(group, id, edge,
+        callback, receiveBuffers);
+    Int2ObjectArrayMap<SharedMemoryReceiveRequest> edges = registeredReceives.get(id);
+    if (edges == null) {
+      edges = new Int2ObjectArrayMap<>();
+      registeredReceives.put(id, edges);
+    }
+    edges.put(edge, request);
+
+    List<SharedMemoryReceiveRequest> list = groupedRegisteredReceives.get(group);
+    if (list == null) {
+      list = new ArrayList<>();
+      groupedRegisteredReceives.put(group, list);
+    }
+    list.add(request);
+    return true;
+  }
+
+  @Override
+  public void progress() {
+    progressSends();
+
+    for (Int2ObjectMap.Entry<SharedMemoryRing> e : inRings.int2ObjectEntrySet()) {
+      progressRing(e.getIntKey(), e.getValue(), ANY_GROUP);
+    }
+    handlePendingCloseRequests();
+
+    tcpChannel.progress();
+  }
+
+  @Override
+  public void progressSends() {
+    for (Int2ObjectMap.Entry<Queue<SharedMemorySendRequest>> e
+        : pendingSends.int2ObjectEntrySet()) {
+      Queue<SharedMemorySendRequest> queue = e.getValue();
+      SharedMemoryRing ring = outRings.get(e.getIntKey());
+
+      while (!queue.isEmpty()) {
+        SharedMemorySendRequest request = queue.peek();
+        List<DataBuffer> buffers = request.message.getNormalBuffers();
+        while (request.nextBuffer < buffers.size()) {
+          DataBuffer buffer = buffers.get(request.nextBuffer);
+          if (buffer.getSize() > ring.maxPayloadSize()) {
+            throw new Twister2RuntimeException(String.format("Buffer of size %d doesn't fit in "
+                    + "the shared memory ring, increase %s", buffer.getSize(),
+                CommunicationContext.SHARED_MEMORY_RING_SIZE));
+          }
+          if (!ring.write(request.edge, buffer.getByteBuffer(), buffer.getSize())) {
+            break;
+          }
+          request.nextBuffer++;
+        }
+
+        if (request.nextBuffer < buffers.size()) {
+          // the ring is full, lets try again later
+          break;
+        }
+        queue.poll();
+        pendingSendCount--;
+        request.callback.onSendComplete(request.rank, request.edge, request.message);
+      }
+    }
+
+    tcpChannel.progressSends();
+  }
+
+  @Override
+  public void progressReceives(int group) {
+    List<SharedMemoryReceiveRequest> requests = groupedRegisteredReceives.get(group);
+    if (requests != null) {
+      for (int i = 0; i < requests.size(); i++) {
+        int sender = requests.get(i).rank;
+        progressRing(sender, inRings.get(sender), group);
+      }
+    }
+    handlePendingCloseRequests();
+
+    tcpChannel.progressReceives(group);
+  }
+
+  /**
+   * Deliver the records available in a ring
+   *
+   * @param sender the worker writing to the ring
+   * @param ring the ring
+   * @param group only deliver to the receive requests of this group, or any group
+   */
+  private void progressRing(int sender, SharedMemoryRing ring, int group) {
+    Int2ObjectArrayMap<SharedMemoryReceiveRequest> edges = registeredReceives.get(sender);
+    if (edges == null) {
+      return;
+    }
+
+    while (ring.peek()) {
+      SharedMemoryReceiveRequest request = edges.get(ring.headEdge());
+      if (request == null || (group != ANY_GROUP && request.group != group)) {
+        // the receive is not yet registered or belongs to another group
+        break;
+      }
+
+      DataBuffer buffer = request.availableBuffers.poll();
+      if (buffer == null) {
+        // no buffers to receive, we will try again after the buffers are released
+        break;
+      }
+      ring.poll(buffer.getByteBuffer());
+      buffer.setSize(ring.headLength());
+      request.callback.onReceiveComplete(sender, request.edge, buffer);
+    }
+  }
+
+  @Override
+  public boolean isComplete() {
+    return pendingSendCount == 0 && pendingCloseRequests.isEmpty() && tcpChannel.isComplete();
+  }
+
+  @Override
+  public ByteBuffer createBuffer(int capacity) {
+    return tcpChannel.createBuffer(capacity);
+  }
+
+  @Override
+  public void releaseBuffer(ByteBuffer buffer) {
+    tcpChannel.releaseBuffer(buffer);
+  }
+
+  @Override
+  public void close() {
+    while (pendingSendCount > 0 || !pendingCloseRequests.isEmpty()) {
+      progress();
+    }
+    tcpChannel.close();
+
+    for (SharedMemoryRing ring : outRings.values()) {
+      ring.close(false);
+    }
+    for (SharedMemoryRing ring : inRings.values()) {
+      ring.close(true);
+    }
+  }
+
+  @Override
+  public void releaseBuffers(int wId, int e) {
+    if (inRings.containsKey(wId)) {
+      pendingCloseRequests.add(new ImmutablePair<>(wId, e));
+    } else {
+      tcpChannel.releaseBuffers(wId, e);
+    }
+  }
+
+  /**
+   * Remove the receives that are closed
+   */
+  private void handlePendingCloseRequests() {
+    while (pendingCloseRequests.size() > 0) {
+      Pair<Integer, Integer> closeRequest = pendingCloseRequests.remove(0);
+      Int2ObjectArrayMap<SharedMemoryReceiveRequest> edges =
+          registeredReceives.get((int) closeRequest.getLeft());
+      if (edges == null) {
+        continue;
+      }
+      SharedMemoryReceiveRequest request = edges.remove((int) closeRequest.getRight());
+      if (request != null) {
+        for (List<SharedMemoryReceiveRequest> list : groupedRegisteredReceives.values()) {
+          list.remove(request);
+        }
+      }
+    }
+  }
+}
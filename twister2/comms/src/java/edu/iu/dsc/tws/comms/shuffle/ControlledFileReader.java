@@ -11,30 +11,27 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.comms.shuffle;
 
-import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.Queue;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 
-
+/**
+ * Reads a spill file written by {@link FileLoader#spillKeyValues}. The blocks of the file are
+ * read ahead of the merge cursor by a {@link SpillFileReader}, so only the current block and
+ * the blocks being prefetched are kept in memory.
+ */
 public class ControlledFileReader implements ControlledReader<Tuple> {
 
-  private static final Logger LOG = Logger.getLogger(ControlledFileReader.class.getName());
-
   private final String filePath;
-  private RandomAccessFile raf;
+  private final int prefetchBlocks;
+  private SpillFileReader reader;
   private ControlledFileReaderFlags meta;
-  private MappedByteBuffer buffer;
-  private FileChannel channel;
+  private ByteBuffer buffer;
 
   private MessageType keyType;
   private MessageType dataType;
@@ -44,7 +41,11 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
   private Queue<Object> valuesQ = new LinkedList<>();
   private Queue<Integer> valueSizeQ = new LinkedList<>();
 
-  private long mappedTill = 0;
+  /**
+   * The block and the position in the block to continue from, when the file is opened again
+   */
+  private int blockIndex = 0;
+  private int blockPosition = 0;
 
   private RestorePoint restorePoint;
 
@@ -53,11 +54,21 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
                               MessageType keyType,
                               MessageType dataType,
                               Comparator keyComparator) {
+    this(meta, filePath, keyType, dataType, keyComparator, SpillOptions.DEFAULT_PREFETCH_BLOCKS);
+  }
+
+  public ControlledFileReader(ControlledFileReaderFlags meta,
+                              String filePath,
+                              MessageType keyType,
+                              MessageType dataType,
+                              Comparator keyComparator,
+                              int prefetchBlocks) {
     this.filePath = filePath;
     this.meta = meta;
     this.keyComparator = keyComparator;
     this.keyType = keyType;
     this.dataType = dataType;
+    this.prefetchBlocks = prefetchBlocks;
 
     if (filePath != null) {
       this.open();
@@ -66,62 +77,44 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
   }
 
   public void open() {
-    try {
-      if (buffer == null) {
-        this.raf = new RandomAccessFile(filePath, "r");
-        this.channel = raf.getChannel();
-        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, this.mappedTill,
-            this.channel.size() - this.mappedTill);
-        this.meta.increaseMemMapLoad(this);
+    if (reader == null) {
+      this.reader = new SpillFileReader(filePath, prefetchBlocks);
+      this.buffer = reader.seek(blockIndex);
+      if (this.buffer != null) {
+        this.buffer.position(blockPosition);
       }
-    } catch (IOException e) {
-      LOG.log(Level.SEVERE, "Couldn't memory map file for reading", e);
-      throw new RuntimeException(e);
+      this.meta.increaseMemMapLoad(this);
     }
   }
 
   /**
-   * This method tries to do following things in order,
-   * <ol>
-   * <li>Try to unmamp, release memoery mapped buffer</li>
-   * <li>Close file channels</li>
-   * <li>Make this.buffer garbage collectible</li>
-   * </ol>
-   * <p>
-   * If unmapping fails, we expect GC to take care of releasing resources.
-   * But this could fail when we have a large heap space(mmap limit could hit before GC runs).
-   * For those cases, only option is to increase max_map_count of OS.
-   * </p>
+   * Close the file and release the blocks read into memory. The reader remembers the position,
+   * and continues from there when opened again.
    */
   public void releaseResources() {
-    if (this.buffer != null) {
-      this.mappedTill = this.mappedTill + this.buffer.position();
-      boolean unmapped = false;
-      try {
-        unmapped = MemoryMapUtils.unMapBuffer(this.buffer);
-      } catch (Exception e) {
-        //do nothing
-      }
-
-      if (!unmapped) {
-        LOG.log(Level.WARNING, () -> "Couldn't unmap buffer forcefully. "
-            + "But there is a chance of happening this automatically with next GC cycle.");
-      }
+    if (this.reader != null) {
+      this.blockIndex = this.reader.getBlockIndex();
+      this.blockPosition = this.buffer != null ? this.buffer.position() : 0;
+      this.reader.close();
+      this.reader = null;
+      this.buffer = null;
+    }
+  }
 
-      try {
-        this.buffer = null;
-        this.channel.close();
-        this.raf.close();
-        this.raf = null;
-        this.channel = null;
-      } catch (IOException e) {
-        LOG.log(Level.SEVERE, "Error in releasing resources", e);
-      }
+  /**
+   * Move to the next block if the current block is fully read
+   *
+   * @return true if there are more bytes to read
+   */
+  private boolean hasRemaining() {
+    while (this.buffer != null && !this.buffer.hasRemaining()) {
+      this.buffer = this.reader.nextBlock();
     }
+    return this.buffer != null;
   }
 
   private Object readNextKey() {
-    if (this.buffer.hasRemaining()) {
+    if (this.hasRemaining()) {
       int nextKeySize = this.getNextKeySize();
       Object nextKey = this.keyType.getDataPacker().unpackFromBuffer(this.buffer, nextKeySize);
       this.keysQ.add(nextKey);
@@ -134,7 +127,8 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
    * This method reads the next value from file and increases the memory load
    */
   private Object readNextValue() {
-    if (this.buffer.hasRemaining()) {
+    // a record never spans two blocks, so the value is in the block of the key
+    if (this.buffer != null && this.buffer.hasRemaining()) {
       int dataSize = this.buffer.getInt();
       Object nextValue = dataType.getDataPacker().unpackFromBuffer(this.buffer, dataSize);
 
@@ -206,7 +200,8 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
   private static final String RP_KEYED_Q = "KEYED_Q";
   private static final String RP_VALUES_Q = "VALUES_Q";
   private static final String RP_VALUE_SIZE_Q = "VALUE_SIZE_Q";
-  private static final String RP_MAPPED_TILL = "MAPPED_TILL";
+  private static final String RP_BLOCK_INDEX = "BLOCK_INDEX";
+  private static final String RP_BLOCK_POSITION = "BLOCK_POSITION";
   private static final String RP_KEEP_OPEN = "KEEP_OPEN";
 
   @Override
@@ -215,12 +210,14 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
     this.restorePoint.put(RP_KEYED_Q, new LinkedList<>(this.keysQ));
     this.restorePoint.put(RP_VALUES_Q, new LinkedList<>(this.valuesQ));
     this.restorePoint.put(RP_VALUE_SIZE_Q, new LinkedList<>(this.valueSizeQ));
-    int bufferPosition = 0;
-    if (this.buffer != null) {
-      bufferPosition = this.buffer.position();
+    if (this.reader != null) {
+      this.restorePoint.put(RP_BLOCK_INDEX, this.reader.getBlockIndex());
+      this.restorePoint.put(RP_BLOCK_POSITION, this.buffer != null ? this.buffer.position() : 0);
+    } else {
+      this.restorePoint.put(RP_BLOCK_INDEX, this.blockIndex);
+      this.restorePoint.put(RP_BLOCK_POSITION, this.blockPosition);
     }
-    this.restorePoint.put(RP_MAPPED_TILL, this.mappedTill + bufferPosition);
-    this.restorePoint.put(RP_KEEP_OPEN, this.buffer != null);
+    this.restorePoint.put(RP_KEEP_OPEN, this.reader != null);
   }
 
   @Override
@@ -237,7 +234,8 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
     this.keysQ = (Queue<Object>) this.restorePoint.get(RP_KEYED_Q);
     this.valuesQ = (Queue<Object>) this.restorePoint.get(RP_VALUES_Q);
     this.valueSizeQ = (Queue<Integer>) this.restorePoint.get(RP_VALUE_SIZE_Q);
-    this.mappedTill = (long) this.restorePoint.get(RP_MAPPED_TILL);
+    this.blockIndex = (int) this.restorePoint.get(RP_BLOCK_INDEX);
+    this.blockPosition = (int) this.restorePoint.get(RP_BLOCK_POSITION);
 
     if (shouldKeepOpen) {
       this.open();
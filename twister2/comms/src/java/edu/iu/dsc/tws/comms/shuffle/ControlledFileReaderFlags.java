@@ -15,8 +15,9 @@ import java.util.Comparator;
 import java.util.PriorityQueue;
 
 /**
- * Memory mappable limit can be increased in linux with following command.
- * sysctl -w vm.max_map_count=files_count
+ * Keeps track of the memory used by the file readers of a merge and limits the number of files
+ * kept open at the same time. When the limit is reached, the readers that are furthest from the
+ * merge cursor are closed, they are opened again when they are needed.
  */
 public class ControlledFileReaderFlags {
 
@@ -21,12 +21,16 @@ import java.util.PriorityQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.metrics.Counter;
+import edu.iu.dsc.tws.api.metrics.Histogram;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
 import edu.iu.dsc.tws.api.util.CommonThreadPool;
 
 /**
@@ -37,6 +41,25 @@ import edu.iu.dsc.tws.api.util.CommonThreadPool;
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class FSKeyedSortedMerger2 implements Shuffle {
   private static final Logger LOG = Logger.getLogger(FSKeyedSortedMerger2.class.getName());
+
+  /**
+   * Bytes saved to the disk by all the mergers
+   */
+  private static final Counter SPILLED_BYTES = MetricsRegistry.get().counter(
+      "twister2_shuffle_spilled_bytes_total");
+
+  /**
+   * Time to sort the records of a spill or the in memory records before merging, milliseconds
+   */
+  private static final Histogram SORT_TIME = MetricsRegistry.get().histogram(
+      "twister2_shuffle_sort_millis");
+
+  /**
+   * Time to merge the spilled files and the in memory records while reading, milliseconds
+   */
+  private static final Histogram MERGE_TIME = MetricsRegistry.get().histogram(
+      "twister2_shuffle_merge_millis");
+
   /**
    * Maximum bytes to keep in memory
    */
@@ -99,8 +122,6 @@ public class FSKeyedSortedMerger2 implements Shuffle {
    */
   private Comparator keyComparator;
 
-  private ComparatorWrapper comparatorWrapper;
-
   private int parallelIOAllowance;
   private volatile Semaphore concurrentIOs;
   private final Object exclusiveAccess = new Object();
@@ -111,6 +132,11 @@ public class FSKeyedSortedMerger2 implements Shuffle {
    */
   private int target;
 
+  /**
+   * Block size and compression of the spill files
+   */
+  private SpillOptions spillOptions;
+
   private enum FSStatus {
     WRITING_MEMORY,
     WRITING_DISK,
@@ -127,6 +153,18 @@ public class FSKeyedSortedMerger2 implements Shuffle {
                               String dir, String opName, MessageType kType,
                               MessageType dType, Comparator kComparator,
                               int tar, boolean groupByKey, int parallelIOAllowance) {
+    this(maxBytesInMemory, maxBytesToAFile, dir, opName, kType, dType, kComparator, tar,
+        groupByKey, parallelIOAllowance, SpillOptions.DEFAULT);
+  }
+
+  /**
+   * Create a key based sorted merger
+   */
+  public FSKeyedSortedMerger2(long maxBytesInMemory, long maxBytesToAFile,
+                              String dir, String opName, MessageType kType,
+                              MessageType dType, Comparator kComparator,
+                              int tar, boolean groupByKey, int parallelIOAllowance,
+                              SpillOptions spillOptions) {
     this.maxBytesToKeepInMemory = maxBytesInMemory;
     this.maxBytesFile = maxBytesToAFile;
     this.groupByKey = groupByKey;
@@ -140,12 +178,12 @@ public class FSKeyedSortedMerger2 implements Shuffle {
     this.keyType = kType;
     this.dataType = dType;
     this.keyComparator = kComparator;
-    this.comparatorWrapper = new ComparatorWrapper(keyComparator);
     this.parallelIOAllowance = parallelIOAllowance;
 
     this.concurrentIOs = new Semaphore(parallelIOAllowance);
 
     this.target = tar;
+    this.spillOptions = spillOptions;
     LOG.info("Disk merger configured. Folder : " + folder
         + ", Bytes in memory :" + maxBytesInMemory + ", File size: " + maxBytesFile);
   }
@@ -215,8 +253,10 @@ public class FSKeyedSortedMerger2 implements Shuffle {
       deserializeObjects();
       // lets sort the in-memory objects
       long start = System.currentTimeMillis();
-      recordsInMemory.sort(this.comparatorWrapper);
-      LOG.info("Memory sorting time: " + (System.currentTimeMillis() - start));
+      PrefixSorter.sort(recordsInMemory, keyComparator);
+      long sortTime = System.currentTimeMillis() - start;
+      SORT_TIME.record(sortTime);
+      LOG.info("Memory sorting time: " + sortTime);
     } catch (InterruptedException iex) {
       LOG.log(Level.SEVERE, "Couldn't switch to reading", iex);
       throw new RuntimeException(iex);
@@ -225,22 +265,6 @@ public class FSKeyedSortedMerger2 implements Shuffle {
     }
   }
 
-  /**
-   * Wrapper for comparing KeyValue with the user defined comparator
-   */
-  private class ComparatorWrapper implements Comparator<Tuple> {
-    private Comparator comparator;
-
-    ComparatorWrapper(Comparator com) {
-      this.comparator = com;
-    }
-
-    @Override
-    public int compare(Tuple o1, Tuple o2) {
-      return comparator.compare(o1.getKey(), o2.getKey());
-    }
-  }
-
   private void deserializeObjects() {
     int threads = CommonThreadPool.getThreadCount() + 1; //this thread is also counted
     List<Future<Boolean>> deserializeFutures = new ArrayList<>();
@@ -360,10 +384,13 @@ public class FSKeyedSortedMerger2 implements Shuffle {
       LOG.info(String.format("Shuffle saving to temporary file bytes %d, file %s",
           bytesInMemory, fileName));
       // do the sort
-      referenceToRecordsInMemory.sort(comparatorWrapper);
+      long start = System.currentTimeMillis();
+      PrefixSorter.sort(referenceToRecordsInMemory, keyComparator);
+      SORT_TIME.record(System.currentTimeMillis() - start);
 
-      long largestTupleWritten = FileLoader.saveKeyValues(
-          referenceToRecordsInMemory, bytesInMemory, fileName, keyType);
+      long largestTupleWritten = FileLoader.spillKeyValues(
+          referenceToRecordsInMemory, fileName, keyType, spillOptions);
+      SPILLED_BYTES.add(bytesInMemory);
       //todo get inside set?
       largestTupleSizeRecorded.set(Math.max(largestTupleSizeRecorded.get(), largestTupleWritten));
 
@@ -503,7 +530,20 @@ public class FSKeyedSortedMerger2 implements Shuffle {
 
     private ControlledFileReaderFlags meta;
 
+    /**
+     * Timing every record is not free, so the merge is timed only if the metrics are enabled
+     */
+    private boolean timed = MetricsRegistry.get().isEnabled();
+
+    /**
+     * Nanoseconds spent opening the readers and merging them so far
+     */
+    private long mergeNanos;
+
+    private boolean mergeRecorded;
+
     FSIterator() {
+      long start = timed ? System.nanoTime() : 0;
       this.meta = new ControlledFileReaderFlags(
           Math.max(numOfBytesInMemory, largestTupleSizeRecorded.get()),
           keyComparator
@@ -522,7 +562,8 @@ public class FSKeyedSortedMerger2 implements Shuffle {
             getSaveFileName(i),
             keyType,
             dataType,
-            keyComparator
+            keyComparator,
+            spillOptions.getPrefetchBlocks()
         );
         if (fr.hasNext()) {
           controlledFileReaders.add(fr);
@@ -532,6 +573,9 @@ public class FSKeyedSortedMerger2 implements Shuffle {
           LOG.warning("Found a controlled file reader without any data");
         }
       }
+      if (timed) {
+        mergeNanos += System.nanoTime() - start;
+      }
     }
 
     @Override
@@ -541,6 +585,7 @@ public class FSKeyedSortedMerger2 implements Shuffle {
 
     @Override
     public Tuple next() {
+      long start = timed ? System.nanoTime() : 0;
       ControlledReader<Tuple> fr = this.sameKeyReader;
       if (fr == null || !fr.hasNext()) {
         fr = this.controlledFileReaders.poll();
@@ -557,6 +602,13 @@ public class FSKeyedSortedMerger2 implements Shuffle {
         this.sameKeyReader = null;
         fr.releaseResources();
       }
+      if (timed) {
+        mergeNanos += System.nanoTime() - start;
+        if (!mergeRecorded && !hasNext()) {
+          MERGE_TIME.record(TimeUnit.NANOSECONDS.toMillis(mergeNanos));
+          mergeRecorded = true;
+        }
+      }
       return nextTuple;
     }
 
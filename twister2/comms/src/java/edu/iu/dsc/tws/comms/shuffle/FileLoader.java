@@ -224,6 +224,74 @@ public final class FileLoader {
     }
   }
 
+  /**
+   * Save the sorted records to a block file, the file can be read with a
+   * {@link ControlledFileReader}. Unlike {@link #saveKeyValues(List, long, String, MessageType)}
+   * this doesn't map the whole file to memory, the records are written through a pair of
+   * fixed size block buffers.
+   *
+   * @param records records, values are serialized
+   * @param outFileName name of the file
+   * @param keyType key type
+   * @param options block size and compression
+   * @return size of the largest record written
+   */
+  public static long spillKeyValues(List<Tuple> records, String outFileName,
+                                    MessageType keyType, SpillOptions options) {
+    long maxRecord = Long.MIN_VALUE; //max size of a tuple saved to this file
+    SpillFileWriter writer = new SpillFileWriter(outFileName, options.getBlockSize(),
+        options.getCompression());
+    try {
+      for (Tuple keyValue : records) {
+        //value has been already serialized
+        int recordSize = writeRecord(writer, keyValue.getKey(), (byte[]) keyValue.getValue(),
+            keyType);
+        maxRecord = Math.max(maxRecord, recordSize);
+      }
+    } finally {
+      writer.close();
+    }
+    return maxRecord;
+  }
+
+  /**
+   * Write a record to a block file in the format read by {@link ControlledFileReader}
+   *
+   * @param writer the block file
+   * @param key the key
+   * @param value serialized value
+   * @param keyType key type
+   * @return size of the record in bytes
+   */
+  public static int writeRecord(SpillFileWriter writer, Object key, byte[] value,
+                                MessageType keyType) {
+    boolean primitiveKey = keyType.isPrimitive() && !keyType.isArray();
+    byte[] keyBytes = null;
+    int recordSize = Integer.BYTES + value.length;
+    if (primitiveKey) {
+      recordSize += keyType.getUnitSizeInBytes();
+    } else {
+      keyBytes = keyType.getDataPacker().packToByteArray(key);
+      recordSize += keyBytes.length;
+      if (keyType.getDataPacker().isHeaderRequired()) {
+        recordSize += Integer.BYTES;
+      }
+    }
+
+    ByteBuffer os = writer.reserve(recordSize);
+    if (primitiveKey) {
+      keyType.getDataPacker().packToByteBuffer(os, key);
+    } else {
+      if (keyType.getDataPacker().isHeaderRequired()) {
+        os.putInt(keyBytes.length);
+      }
+      os.put(keyBytes);
+    }
+    os.putInt(value.length);
+    os.put(value, 0, value.length);
+    return recordSize;
+  }
+
   public static List<Tuple> readFile(String fileName, MessageType keyType,
                                      MessageType dataType, KryoSerializer deserializer) {
     String outFileName = Paths.get(fileName).toString();
@@ -0,0 +1,142 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.util.Comparator;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.comms.PrefixComparator;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+/**
+ * Sorts tuples by key. When the key comparator is a {@link PrefixComparator}, we sort a compact
+ * array of (prefix, index) pairs instead of the tuples, most of the comparisons are done on the
+ * prefixes in the array and the keys are compared only when the prefixes are equal.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class PrefixSorter {
+
+  /**
+   * Runs smaller than this are sorted with insertion sort
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private PrefixSorter() {
+  }
+
+  /**
+   * Sort the tuples in place
+   *
+   * @param records the tuples
+   * @param keyComparator key comparator
+   */
+  public static void sort(List<Tuple> records, Comparator keyComparator) {
+    if (!(keyComparator instanceof PrefixComparator)) {
+      records.sort((o1, o2) -> keyComparator.compare(o1.getKey(), o2.getKey()));
+      return;
+    }
+
+    int size = records.size();
+    if (size < 2) {
+      return;
+    }
+    PrefixComparator comparator = (PrefixComparator) keyComparator;
+    Tuple[] tuples = records.toArray(new Tuple[size]);
+    // prefix and index of each record are kept next to each other
+    long[] entries = new long[size * 2];
+    for (int i = 0; i < size; i++) {
+      entries[i * 2] = comparator.prefix(tuples[i].getKey());
+      entries[i * 2 + 1] = i;
+    }
+
+    long[] sorted = mergeSort(entries, new long[size * 2], size, tuples, comparator);
+    for (int i = 0; i < size; i++) {
+      records.set(i, tuples[(int) sorted[i * 2 + 1]]);
+    }
+  }
+
+  /**
+   * Bottom up merge sort of the entries
+   *
+   * @return the array holding the sorted entries
+   */
+  private static long[] mergeSort(long[] entries, long[] buffer, int size, Tuple[] tuples,
+                                  PrefixComparator comparator) {
+    for (int start = 0; start < size; start += INSERTION_SORT_THRESHOLD) {
+      insertionSort(entries, start, Math.min(start + INSERTION_SORT_THRESHOLD, size),
+          tuples, comparator);
+    }
+
+    long[] src = entries;
+    long[] dst = buffer;
+    for (int width = INSERTION_SORT_THRESHOLD; width < size; width *= 2) {
+      for (int left = 0; left < size; left += width * 2) {
+        int mid = Math.min(left + width, size);
+        int right = Math.min(left + width * 2, size);
+        merge(src, dst, left, mid, right, tuples, comparator);
+      }
+      long[] temp = src;
+      src = dst;
+      dst = temp;
+    }
+    return src;
+  }
+
+  private static void insertionSort(long[] entries, int from, int to, Tuple[] tuples,
+                                    PrefixComparator comparator) {
+    for (int i = from + 1; i < to; i++) {
+      long prefix = entries[i * 2];
+      long index = entries[i * 2 + 1];
+      int j = i - 1;
+      while (j >= from && compare(entries[j * 2], entries[j * 2 + 1], prefix, index,
+          tuples, comparator) > 0) {
+        entries[(j + 1) * 2] = entries[j * 2];
+        entries[(j + 1) * 2 + 1] = entries[j * 2 + 1];
+        j--;
+      }
+      entries[(j + 1) * 2] = prefix;
+      entries[(j + 1) * 2 + 1] = index;
+    }
+  }
+
+  private static void merge(long[] src, long[] dst, int left, int mid, int right,
+                            Tuple[] tuples, PrefixComparator comparator) {
+    int i = left;
+    int j = mid;
+    int k = left;
+    while (i < mid && j < right) {
+      if (compare(src[i * 2], src[i * 2 + 1], src[j * 2], src[j * 2 + 1],
+          tuples, comparator) <= 0) {
+        dst[k * 2] = src[i * 2];
+        dst[k * 2 + 1] = src[i * 2 + 1];
+        i++;
+      } else {
+        dst[k * 2] = src[j * 2];
+        dst[k * 2 + 1] = src[j * 2 + 1];
+        j++;
+      }
+      k++;
+    }
+    System.arraycopy(src, i * 2, dst, k * 2, (mid - i) * 2);
+    k += mid - i;
+    System.arraycopy(src, j * 2, dst, k * 2, (right - j) * 2);
+  }
+
+  private static int compare(long prefix1, long index1, long prefix2, long index2,
+                             Tuple[] tuples, PrefixComparator comparator) {
+    int c = Long.compare(prefix1, prefix2);
+    if (c != 0) {
+      return c;
+    }
+    return comparator.compare(tuples[(int) index1].getKey(), tuples[(int) index2].getKey());
+  }
+}
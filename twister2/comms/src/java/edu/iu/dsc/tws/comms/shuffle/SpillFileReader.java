@@ -0,0 +1,225 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Reads the blocks of a file written by {@link SpillFileWriter}. While a block is consumed,
+ * the next blocks are read from the file in the background, so the merge doesn't wait for the
+ * disk unless it is faster than the disk.
+ */
+public class SpillFileReader {
+
+  private final String fileName;
+  private final AsynchronousFileChannel channel;
+  private final int prefetchBlocks;
+  private final LZ4FastDecompressor decompressor;
+  private final CRC32 crc = new CRC32();
+
+  private final int blockCount;
+  private final long[] offsets;
+  private final int[] storedLengths;
+  private final int[] lengths;
+  private final int[] checksums;
+
+  /**
+   * Index of the current block
+   */
+  private int blockIndex = -1;
+
+  /**
+   * Blocks requested from the file, in the order of the blocks
+   */
+  private Deque<PendingRead> pendingReads = new ArrayDeque<>();
+
+  /**
+   * Buffer of the decompressed block, reused for each block
+   */
+  private byte[] decompressed;
+
+  public SpillFileReader(String fileName, int prefetchBlocks) {
+    this.fileName = fileName;
+    this.prefetchBlocks = prefetchBlocks;
+    try {
+      this.channel = AsynchronousFileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+      long size = channel.size();
+      if (size < SpillFileWriter.TRAILER_SIZE) {
+        throw new RuntimeException("Invalid spill file: " + fileName);
+      }
+      ByteBuffer trailer = read(size - SpillFileWriter.TRAILER_SIZE,
+          SpillFileWriter.TRAILER_SIZE);
+      long indexOffset = trailer.getLong();
+      this.blockCount = trailer.getInt();
+      int compression = trailer.getInt();
+      if (trailer.getInt() != SpillFileWriter.MAGIC) {
+        throw new RuntimeException("Invalid spill file: " + fileName);
+      }
+      this.decompressor = compression == SpillFileWriter.COMPRESSION_LZ4
+          ? LZ4Factory.fastestInstance().fastDecompressor() : null;
+
+      this.offsets = new long[blockCount];
+      this.storedLengths = new int[blockCount];
+      this.lengths = new int[blockCount];
+      this.checksums = new int[blockCount];
+      ByteBuffer index = read(indexOffset, blockCount * SpillFileWriter.INDEX_ENTRY_SIZE);
+      for (int i = 0; i < blockCount; i++) {
+        offsets[i] = index.getLong();
+        storedLengths[i] = index.getInt();
+        lengths[i] = index.getInt();
+        checksums[i] = index.getInt();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open the spill file: " + fileName, e);
+    }
+  }
+
+  /**
+   * Number of blocks in the file
+   */
+  public int getBlockCount() {
+    return blockCount;
+  }
+
+  /**
+   * Index of the block returned last, -1 if no block is read yet
+   */
+  public int getBlockIndex() {
+    return blockIndex;
+  }
+
+  /**
+   * Read the next block
+   *
+   * @return the block or null if there are no more blocks
+   */
+  public ByteBuffer nextBlock() {
+    return seek(blockIndex + 1);
+  }
+
+  /**
+   * Read the given block and start reading the blocks after it
+   *
+   * @param index index of the block
+   * @return the block or null if the index is after the last block
+   */
+  public ByteBuffer seek(int index) {
+    blockIndex = index;
+    if (index >= blockCount) {
+      pendingReads.clear();
+      return null;
+    }
+
+    // drop the reads that are not needed any more
+    while (!pendingReads.isEmpty() && pendingReads.peekFirst().index != index) {
+      pendingReads.pollFirst();
+    }
+    if (pendingReads.isEmpty()) {
+      pendingReads.add(new PendingRead(index));
+    }
+    PendingRead read = pendingReads.pollFirst();
+
+    // keep the disk busy while this block is consumed
+    int next = pendingReads.isEmpty() ? index + 1 : pendingReads.peekLast().index + 1;
+    while (next < blockCount && next <= index + prefetchBlocks) {
+      pendingReads.add(new PendingRead(next++));
+    }
+    return decode(index, read.await());
+  }
+
+  public void close() {
+    pendingReads.clear();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to close the spill file: " + fileName, e);
+    }
+  }
+
+  private ByteBuffer decode(int index, ByteBuffer stored) {
+    crc.reset();
+    crc.update(stored.array(), 0, stored.limit());
+    if ((int) crc.getValue() != checksums[index]) {
+      throw new RuntimeException("Checksum mismatch in block " + index
+          + " of the spill file: " + fileName);
+    }
+    if (storedLengths[index] == lengths[index]) {
+      return stored;
+    }
+    if (decompressed == null || decompressed.length < lengths[index]) {
+      decompressed = new byte[lengths[index]];
+    }
+    decompressor.decompress(stored.array(), 0, decompressed, 0, lengths[index]);
+    return ByteBuffer.wrap(decompressed, 0, lengths[index]);
+  }
+
+  private ByteBuffer read(long position, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    readFully(buffer, position);
+    buffer.flip();
+    return buffer;
+  }
+
+  private void readFully(ByteBuffer buffer, long position) {
+    long pos = position + buffer.position();
+    try {
+      while (buffer.hasRemaining()) {
+        int read = channel.read(buffer, pos).get();
+        if (read < 0) {
+          throw new RuntimeException("Unexpected end of the spill file: " + fileName);
+        }
+        pos += read;
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException("Failed to read the spill file: " + fileName, e);
+    }
+  }
+
+  /**
+   * A block read issued to the file
+   */
+  private final class PendingRead {
+    private final int index;
+    private final ByteBuffer buffer;
+    private final Future<Integer> future;
+
+    private PendingRead(int index) {
+      this.index = index;
+      this.buffer = ByteBuffer.allocate(storedLengths[index]);
+      this.future = channel.read(buffer, offsets[index]);
+    }
+
+    private ByteBuffer await() {
+      try {
+        future.get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new RuntimeException("Failed to read the spill file: " + fileName, e);
+      }
+      // a read can be partial
+      readFully(buffer, offsets[index]);
+      buffer.flip();
+      return buffer;
+    }
+  }
+}
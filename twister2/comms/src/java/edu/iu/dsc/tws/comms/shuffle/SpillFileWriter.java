@@ -0,0 +1,236 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Writes a spill file as a sequence of blocks. Records are written to a fixed size block
+ * buffer and a record never spans two blocks, a record larger than the block size is written
+ * to its own block. When a block is full it is optionally compressed and written to the file
+ * asynchronously, while the next block is filled in the second buffer.
+ * <p>
+ * The file ends with an index of the blocks and a trailer,
+ * <pre>
+ * [block 0] ... [block n-1]
+ * [offset(long) storedLength(int) length(int) crc32(int)] x n
+ * [indexOffset(long) n(int) compression(int) magic(int)]
+ * </pre>
+ * If a block doesn't get smaller with compression, the block is stored as it is and the stored
+ * length equals to the length of the block.
+ */
+public class SpillFileWriter {
+  public static final int COMPRESSION_NONE = 0;
+  public static final int COMPRESSION_LZ4 = 1;
+
+  static final int MAGIC = 0x54535046;
+  static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES * 3;
+  static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES * 3;
+
+  private final AsynchronousFileChannel channel;
+  private final int blockSize;
+  private final int compression;
+  private final LZ4Compressor compressor;
+  private final CRC32 crc = new CRC32();
+
+  /**
+   * The block being filled and the block being written
+   */
+  private ByteBuffer current;
+  private ByteBuffer flushing;
+
+  /**
+   * Compressed bytes of the two blocks
+   */
+  private byte[] compressed;
+  private byte[] compressedFlushing;
+
+  /**
+   * The pending write of the previous block
+   */
+  private Future<Integer> pendingWrite;
+  private ByteBuffer pendingBuffer;
+  private long pendingPosition;
+
+  /**
+   * Position of the next block in the file
+   */
+  private long filePosition = 0;
+
+  private List<long[]> index = new ArrayList<>();
+
+  public SpillFileWriter(String fileName, int blockSize, int compression) {
+    this.blockSize = blockSize;
+    this.compression = compression;
+    this.compressor = compression == COMPRESSION_LZ4
+        ? LZ4Factory.fastestInstance().fastCompressor() : null;
+    this.current = ByteBuffer.allocate(blockSize);
+    this.flushing = ByteBuffer.allocate(blockSize);
+    try {
+      Path path = Paths.get(fileName);
+      Files.createDirectories(path.getParent());
+      this.channel = AsynchronousFileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open the spill file: " + fileName, e);
+    }
+  }
+
+  /**
+   * Get the buffer to write a record of the given length. The record should be written to the
+   * returned buffer before calling this method again.
+   *
+   * @param length length of the record in bytes
+   * @return the buffer with at least length bytes remaining
+   */
+  public ByteBuffer reserve(int length) {
+    if (current.remaining() < length) {
+      if (current.position() > 0) {
+        flushBlock();
+      }
+      if (current.capacity() < length) {
+        // this block holds a single large record
+        current = ByteBuffer.allocate(length);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Write the remaining block and the index and close the file
+   *
+   * @return the size of the file
+   */
+  public long close() {
+    try {
+      if (current.position() > 0) {
+        flushBlock();
+      }
+      waitForPendingWrite();
+
+      ByteBuffer footer = ByteBuffer.allocate(index.size() * INDEX_ENTRY_SIZE + TRAILER_SIZE);
+      for (long[] entry : index) {
+        footer.putLong(entry[0]);
+        footer.putInt((int) entry[1]);
+        footer.putInt((int) entry[2]);
+        footer.putInt((int) entry[3]);
+      }
+      footer.putLong(filePosition);
+      footer.putInt(index.size());
+      footer.putInt(compression);
+      footer.putInt(MAGIC);
+      footer.flip();
+      write(footer, filePosition);
+      return filePosition + footer.limit();
+    } finally {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to close the spill file", e);
+      }
+    }
+  }
+
+  private void flushBlock() {
+    current.flip();
+    int length = current.limit();
+    ByteBuffer out = current;
+    if (compressor != null) {
+      int maxLength = compressor.maxCompressedLength(length);
+      if (compressed == null || compressed.length < maxLength) {
+        compressed = new byte[maxLength];
+      }
+      int compressedLength = compressor.compress(current.array(), 0, length,
+          compressed, 0, maxLength);
+      if (compressedLength < length) {
+        out = ByteBuffer.wrap(compressed, 0, compressedLength);
+      }
+    }
+    int storedLength = out.remaining();
+    crc.reset();
+    crc.update(out.array(), out.position(), storedLength);
+    index.add(new long[]{filePosition, storedLength, length, (int) crc.getValue()});
+
+    // wait for the previous block before starting to write this one
+    waitForPendingWrite();
+    pendingBuffer = out;
+    pendingPosition = filePosition;
+    pendingWrite = channel.write(out, filePosition);
+    filePosition += storedLength;
+
+    // swap the buffers, the written block becomes the next block to fill
+    ByteBuffer temp = flushing;
+    flushing = current;
+    current = temp.capacity() == blockSize ? temp : ByteBuffer.allocate(blockSize);
+    current.clear();
+    byte[] tempCompressed = compressedFlushing;
+    compressedFlushing = compressed;
+    compressed = tempCompressed;
+  }
+
+  private void waitForPendingWrite() {
+    if (pendingWrite == null) {
+      return;
+    }
+    try {
+      long position = pendingPosition + pendingWrite.get();
+      // a write can be partial
+      while (pendingBuffer.hasRemaining()) {
+        position += channel.write(pendingBuffer, position).get();
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException("Failed to write to the spill file", e);
+    }
+    pendingWrite = null;
+    pendingBuffer = null;
+  }
+
+  private void write(ByteBuffer buffer, long position) {
+    long pos = position;
+    try {
+      while (buffer.hasRemaining()) {
+        pos += channel.write(buffer, pos).get();
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException("Failed to write to the spill file", e);
+    }
+  }
+
+  /**
+   * Get the compression code from its name
+   *
+   * @param name none or lz4
+   * @return compression code
+   */
+  public static int compression(String name) {
+    if (name == null || "none".equalsIgnoreCase(name)) {
+      return COMPRESSION_NONE;
+    } else if ("lz4".equalsIgnoreCase(name)) {
+      return COMPRESSION_LZ4;
+    }
+    throw new IllegalArgumentException("Unsupported shuffle compression: " + name);
+  }
+}
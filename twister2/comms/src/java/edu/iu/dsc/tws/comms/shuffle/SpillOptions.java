@@ -0,0 +1,65 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * How the shuffle writes and reads the spill files
+ */
+public final class SpillOptions {
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+  public static final int DEFAULT_PREFETCH_BLOCKS = 1;
+
+  public static final SpillOptions DEFAULT = new SpillOptions(DEFAULT_BLOCK_SIZE,
+      SpillFileWriter.COMPRESSION_NONE, DEFAULT_PREFETCH_BLOCKS);
+
+  /**
+   * Size of a block written to the file
+   */
+  private final int blockSize;
+
+  /**
+   * Compression applied to the blocks
+   */
+  private final int compression;
+
+  /**
+   * Number of blocks read ahead of the block being merged
+   */
+  private final int prefetchBlocks;
+
+  public SpillOptions(int blockSize, int compression, int prefetchBlocks) {
+    this.blockSize = blockSize;
+    this.compression = compression;
+    this.prefetchBlocks = prefetchBlocks;
+  }
+
+  public static SpillOptions fromConfig(Config cfg) {
+    return new SpillOptions(CommunicationContext.getShuffleBlockSize(cfg),
+        SpillFileWriter.compression(CommunicationContext.getShuffleCompression(cfg)),
+        CommunicationContext.getShufflePrefetchBlocks(cfg));
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  public int getCompression() {
+    return compression;
+  }
+
+  public int getPrefetchBlocks() {
+    return prefetchBlocks;
+  }
+}
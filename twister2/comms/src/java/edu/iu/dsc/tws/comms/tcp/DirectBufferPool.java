@@ -0,0 +1,215 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.tcp;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A size classed pool of direct byte buffers. The sockets can read and write direct buffers
+ * without copying them through a temporary direct buffer inside the JDK, but direct buffers are
+ * expensive to allocate, so we keep the released buffers for the next operation.
+ * <p>
+ * Buffers are grouped to power of two size classes, a request is served with a buffer from the
+ * smallest class that fits the requested capacity. Released buffers are kept until the pool
+ * reaches the maximum number of bytes, after that they are left to the garbage collector.
+ * <p>
+ * When leak detection is enabled, the pool remembers where each outstanding buffer was
+ * acquired, so that the buffers that are never released can be reported.
+ */
+public class DirectBufferPool {
+  private static final Logger LOG = Logger.getLogger(DirectBufferPool.class.getName());
+
+  /**
+   * The smallest size class
+   */
+  private static final int MIN_SIZE_CLASS = 10;
+
+  /**
+   * Number of size classes, up to 1GB
+   */
+  private static final int SIZE_CLASSES = 21;
+
+  /**
+   * Free buffers in each size class
+   */
+  private final Queue<ByteBuffer>[] freeBuffers;
+
+  /**
+   * Maximum number of bytes we keep in the pool
+   */
+  private final long maxPooledBytes;
+
+  /**
+   * Number of bytes currently in the pool
+   */
+  private final AtomicLong pooledBytes = new AtomicLong();
+
+  /**
+   * Number of requests served from the pool
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * Number of requests that needed a new allocation
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Number of buffers given out and not yet released
+   */
+  private final AtomicLong outstanding = new AtomicLong();
+
+  /**
+   * Allocation points of outstanding buffers, null if leak detection is disabled
+   */
+  private final Map<ByteBuffer, Throwable> allocations;
+
+  @SuppressWarnings("unchecked")
+  public DirectBufferPool(long maxBytes, boolean leakDetection) {
+    this.maxPooledBytes = maxBytes;
+    this.freeBuffers = new Queue[SIZE_CLASSES];
+    for (int i = 0; i < SIZE_CLASSES; i++) {
+      freeBuffers[i] = new ConcurrentLinkedQueue<>();
+    }
+    if (leakDetection) {
+      allocations = Collections.synchronizedMap(new IdentityHashMap<>());
+    } else {
+      allocations = null;
+    }
+  }
+
+  /**
+   * Get a direct buffer with at least the given capacity
+   *
+   * @param capacity requested capacity
+   * @return a cleared buffer
+   */
+  public ByteBuffer acquire(int capacity) {
+    int sizeClass = sizeClass(capacity);
+    ByteBuffer buffer;
+    if (sizeClass < 0) {
+      // too large to pool
+      misses.incrementAndGet();
+      buffer = ByteBuffer.allocateDirect(capacity);
+    } else {
+      buffer = freeBuffers[sizeClass].poll();
+      if (buffer != null) {
+        hits.incrementAndGet();
+        pooledBytes.addAndGet(-buffer.capacity());
+        buffer.clear();
+      } else {
+        misses.incrementAndGet();
+        buffer = ByteBuffer.allocateDirect(1 << (sizeClass + MIN_SIZE_CLASS));
+      }
+    }
+
+    outstanding.incrementAndGet();
+    if (allocations != null) {
+      allocations.put(buffer, new Throwable("Buffer of " + buffer.capacity()
+          + " bytes acquired here"));
+    }
+    return buffer;
+  }
+
+  /**
+   * Return a buffer to the pool
+   *
+   * @param buffer the buffer
+   */
+  public void release(ByteBuffer buffer) {
+    if (!buffer.isDirect()) {
+      return;
+    }
+
+    if (allocations != null && allocations.remove(buffer) == null) {
+      LOG.warning("Releasing a buffer that is not acquired from the pool or already released");
+      return;
+    }
+    outstanding.decrementAndGet();
+
+    int capacity = buffer.capacity();
+    int sizeClass = sizeClass(capacity);
+    // only buffers with exact class size are pooled
+    if (sizeClass < 0 || capacity != 1 << (sizeClass + MIN_SIZE_CLASS)) {
+      return;
+    }
+
+    if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+      pooledBytes.addAndGet(-capacity);
+      return;
+    }
+    buffer.clear();
+    freeBuffers[sizeClass].offer(buffer);
+  }
+
+  /**
+   * Log the buffers that are acquired but not released
+   *
+   * @return number of outstanding buffers
+   */
+  public long reportLeaks() {
+    long count = outstanding.get();
+    if (count > 0) {
+      LOG.fine(String.format("%d direct buffers are not released to the pool", count));
+    }
+    if (allocations != null) {
+      synchronized (allocations) {
+        for (Throwable t : allocations.values()) {
+          LOG.log(Level.WARNING, "Direct buffer is not released", t);
+        }
+      }
+    }
+    return count;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getOutstanding() {
+    return outstanding.get();
+  }
+
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  @Override
+  public String toString() {
+    return "DirectBufferPool{hits=" + hits.get() + ", misses=" + misses.get()
+        + ", outstanding=" + outstanding.get() + ", pooledBytes=" + pooledBytes.get() + '}';
+  }
+
+  /**
+   * Find the size class for the capacity
+   *
+   * @param capacity capacity
+   * @return the size class or -1 if the capacity is too large
+   */
+  private static int sizeClass(int capacity) {
+    int bits = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+    int sizeClass = Math.max(bits - MIN_SIZE_CLASS, 0);
+    return sizeClass < SIZE_CLASSES ? sizeClass : -1;
+  }
+}
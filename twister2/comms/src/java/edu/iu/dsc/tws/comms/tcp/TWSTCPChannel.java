@@ -31,6 +31,8 @@ import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.TimeoutException;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.metrics.Counter;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
 import edu.iu.dsc.tws.api.resource.IWorkerController;
 import edu.iu.dsc.tws.common.net.NetworkInfo;
 import edu.iu.dsc.tws.common.net.tcp.TCPChannel;
@@ -130,6 +132,16 @@ public class TWSTCPChannel implements TWSChannel {
    */
   private List<Pair<Integer, Integer>> pendingCloseRequests = new ArrayList<>();
 
+  /**
+   * Pool of direct buffers, null if heap buffers are used
+   */
+  private DirectBufferPool bufferPool;
+
+  /**
+   * Number of sends rejected because the pending queue is full, the caller waits and retries
+   */
+  private Counter rejectedSends;
+
   /**
    * Create the TCP channel
    * @param config configuration
@@ -178,6 +190,26 @@ public class TWSTCPChannel implements TWSChannel {
     this.waitForCompletionSends = new IterativeLinkedList<>();
     this.executor = wController.getWorkerInfo().getWorkerID();
     this.comm = channel;
+
+    if (CommunicationContext.useDirectBuffers(config)) {
+      this.bufferPool = new DirectBufferPool(CommunicationContext.bufferPoolMaxBytes(config),
+          CommunicationContext.bufferPoolLeakDetection(config));
+    }
+    registerMetrics();
+  }
+
+  private void registerMetrics() {
+    MetricsRegistry metrics = MetricsRegistry.get();
+    this.rejectedSends = metrics.counter("twister2_tcp_sends_rejected_total");
+    metrics.gauge("twister2_tcp_pending_sends", pendingSends::size);
+    metrics.gauge("twister2_tcp_sends_in_progress", waitForCompletionSends::size);
+    if (bufferPool != null) {
+      DirectBufferPool pool = bufferPool;
+      metrics.gauge("twister2_buffer_pool_pooled_bytes", pool::getPooledBytes);
+      metrics.gauge("twister2_buffer_pool_outstanding_buffers", pool::getOutstanding);
+      metrics.gauge("twister2_buffer_pool_hits", pool::getHits);
+      metrics.gauge("twister2_buffer_pool_misses", pool::getMisses);
+    }
   }
 
   /**
@@ -206,6 +238,8 @@ public class TWSTCPChannel implements TWSChannel {
         new TCPSendRequests(id, message.getHeader().getEdge(), message, callback));
     if (offer) {
       pendingSendCount++;
+    } else {
+      rejectedSends.inc();
     }
     return offer;
   }
@@ -237,6 +271,11 @@ public class TWSTCPChannel implements TWSChannel {
       this.progress();
     }
     comm.stop();
+
+    if (bufferPool != null) {
+      bufferPool.reportLeaks();
+      LOG.fine(executor + " " + bufferPool);
+    }
   }
 
   @Override
@@ -397,9 +436,28 @@ public class TWSTCPChannel implements TWSChannel {
 
   @Override
   public ByteBuffer createBuffer(int capacity) {
+    if (bufferPool != null) {
+      return bufferPool.acquire(capacity);
+    }
     return ByteBuffer.allocate(capacity);
   }
 
+  @Override
+  public void releaseBuffer(ByteBuffer buffer) {
+    if (bufferPool != null) {
+      bufferPool.release(buffer);
+    }
+  }
+
+  /**
+   * The pool used to create the buffers
+   *
+   * @return the pool or null if heap buffers are used
+   */
+  public DirectBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
   /**
    * Close a worker id with edge
    *
@@ -0,0 +1,453 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.shuffle.ControlledFileReader;
+import edu.iu.dsc.tws.comms.shuffle.ControlledFileReaderFlags;
+import edu.iu.dsc.tws.comms.shuffle.FileLoader;
+import edu.iu.dsc.tws.comms.shuffle.SpillFileWriter;
+import edu.iu.dsc.tws.comms.shuffle.SpillOptions;
+
+/**
+ * Hybrid hash join. Both relations are split into partitions by the hash of the key.
+ * <p>
+ * The partitions of the build relation are kept in hash maps as long as they fit into the
+ * memory budget. When the budget is exceeded, the largest partition in memory is written to a
+ * spill file, and the rest of its build records go to the file. The probe records of the
+ * partitions in memory are joined right away, the probe records of the spilled partitions are
+ * written to spill files. A bloom filter of the build keys is used to skip the probe records
+ * that can't have a match, instead of writing them to disk.
+ * <p>
+ * After the probe relation is consumed, each spilled partition is joined with a new hybrid
+ * hash join with a different hash function, and the smaller of the two files as the build
+ * relation.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class HybridHashJoin implements Iterator<JoinedTuple> {
+  private static final Logger LOG = Logger.getLogger(HybridHashJoin.class.getName());
+
+  /**
+   * After this many levels of recursion the partitions are joined in memory
+   */
+  private static final int MAX_LEVEL = 4;
+
+  /**
+   * The size of every n th build record is measured to estimate the memory usage
+   */
+  private static final int SAMPLE_INTERVAL = 64;
+
+  /**
+   * Estimated memory used by the objects holding a record in a partition
+   */
+  private static final int RECORD_OVERHEAD = 64;
+
+  private static final double BLOOM_FPP = 0.03;
+
+  private final MessageType keyType;
+  private final long memoryBudget;
+  private final int noOfPartitions;
+  private final String directory;
+  private final SpillOptions spillOptions;
+  private final int level;
+
+  /**
+   * Whether the build relation is the left relation of the join
+   */
+  private final boolean buildIsLeft;
+
+  /**
+   * Whether the records without a match should be in the output
+   */
+  private final boolean preserveBuild;
+  private final boolean preserveProbe;
+
+  private final Iterator<Tuple> probe;
+  private final Partition[] partitions;
+  private final BloomFilter<Integer> bloomFilter;
+
+  /**
+   * Estimated bytes of the build records in memory
+   */
+  private long bytesInMemory = 0;
+  private long buildRecords = 0;
+  private long averageRecordSize = RECORD_OVERHEAD;
+
+  /**
+   * Joined tuples ready to be returned
+   */
+  private Deque<JoinedTuple> ready = new ArrayDeque<>();
+
+  /**
+   * The partition processed after the probe relation is consumed
+   */
+  private int partitionIndex = 0;
+  private HybridHashJoin spilledJoin;
+
+  public HybridHashJoin(Iterator<Tuple> build, Iterator<Tuple> probe, boolean buildIsLeft,
+                        boolean preserveBuild, boolean preserveProbe, MessageType keyType,
+                        long memoryBudget, int noOfPartitions, long expectedKeys,
+                        String directory, SpillOptions spillOptions) {
+    this(build, probe, buildIsLeft, preserveBuild, preserveProbe, keyType, memoryBudget,
+        noOfPartitions, expectedKeys, directory, spillOptions, 0);
+  }
+
+  private HybridHashJoin(Iterator<Tuple> build, Iterator<Tuple> probe, boolean buildIsLeft,
+                         boolean preserveBuild, boolean preserveProbe, MessageType keyType,
+                         long memoryBudget, int noOfPartitions, long expectedKeys,
+                         String directory, SpillOptions spillOptions, int level) {
+    this.probe = probe;
+    this.buildIsLeft = buildIsLeft;
+    this.preserveBuild = preserveBuild;
+    this.preserveProbe = preserveProbe;
+    this.keyType = keyType;
+    this.memoryBudget = memoryBudget;
+    this.noOfPartitions = noOfPartitions;
+    this.directory = directory;
+    this.spillOptions = spillOptions;
+    this.level = level;
+    this.bloomFilter = BloomFilter.create(Funnels.integerFunnel(),
+        Math.max(expectedKeys, 1), BLOOM_FPP);
+
+    this.partitions = new Partition[noOfPartitions];
+    for (int i = 0; i < noOfPartitions; i++) {
+      this.partitions[i] = new Partition(i);
+    }
+    this.doBuild(build);
+  }
+
+  /**
+   * Create a hybrid hash join for the given join type
+   *
+   * @param left left relation
+   * @param right right relation
+   * @param joinType join type
+   * @param keyType key type
+   * @param cfg configuration
+   * @return iterator over the joined tuples
+   */
+  public static Iterator<JoinedTuple> join(Iterator<Tuple> left, Iterator<Tuple> right,
+                                           CommunicationContext.JoinType joinType,
+                                           MessageType keyType, Config cfg) {
+    // we keep the relation whose unmatched tuples are not needed as the build relation,
+    // for full outer joins both are needed
+    boolean buildIsLeft = joinType != CommunicationContext.JoinType.LEFT;
+    boolean preserveLeft = joinType == CommunicationContext.JoinType.LEFT
+        || joinType == CommunicationContext.JoinType.FULL_OUTER;
+    boolean preserveRight = joinType == CommunicationContext.JoinType.RIGHT
+        || joinType == CommunicationContext.JoinType.FULL_OUTER;
+    String directory = Paths.get(CommunicationContext.persistentDirectory(cfg).get(0),
+        "join-" + UUID.randomUUID().toString()).toString();
+    return new HybridHashJoin(
+        buildIsLeft ? left : right,
+        buildIsLeft ? right : left,
+        buildIsLeft,
+        buildIsLeft ? preserveLeft : preserveRight,
+        buildIsLeft ? preserveRight : preserveLeft,
+        keyType,
+        CommunicationContext.getJoinHashMaxBytesInMemory(cfg),
+        CommunicationContext.getJoinHashPartitions(cfg),
+        CommunicationContext.getJoinHashBloomKeys(cfg),
+        directory,
+        SpillOptions.fromConfig(cfg));
+  }
+
+  private int partitionOf(int hash) {
+    // a different hash function at each level, otherwise a spilled partition doesn't split
+    int h = hash ^ (level * 0x9E3779B9);
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return (h & Integer.MAX_VALUE) % noOfPartitions;
+  }
+
+  private void doBuild(Iterator<Tuple> build) {
+    while (build.hasNext()) {
+      Tuple tuple = build.next();
+      int hash = THashMap.hashCode(keyType, tuple.getKey());
+      bloomFilter.put(hash);
+      Partition partition = partitions[partitionOf(hash)];
+      if (partition.isSpilled()) {
+        partition.spillBuild(tuple.getKey(), tuple.getValue());
+        continue;
+      }
+
+      if (buildRecords++ % SAMPLE_INTERVAL == 0) {
+        long size = serializedSize(tuple) + RECORD_OVERHEAD;
+        averageRecordSize = (averageRecordSize * 7 + size) / 8;
+      }
+      partition.add(tuple, averageRecordSize);
+      bytesInMemory += averageRecordSize;
+
+      while (bytesInMemory > memoryBudget && level < MAX_LEVEL) {
+        Partition largest = null;
+        for (Partition p : partitions) {
+          if (!p.isSpilled() && (largest == null || p.bytes > largest.bytes)) {
+            largest = p;
+          }
+        }
+        if (largest == null || largest.bytes == 0) {
+          break;
+        }
+        bytesInMemory -= largest.bytes;
+        largest.spill();
+      }
+    }
+
+    if (bytesInMemory > memoryBudget) {
+      LOG.warning(String.format("Join partitions couldn't be split further, keeping %d bytes "
+          + "in memory", bytesInMemory));
+    }
+  }
+
+  private long serializedSize(Tuple tuple) {
+    long size = MessageTypes.OBJECT.getDataPacker().packToByteArray(tuple.getValue()).length;
+    if (keyType.isPrimitive() && !keyType.isArray()) {
+      return size + keyType.getUnitSizeInBytes();
+    }
+    return size + keyType.getDataPacker().packToByteArray(tuple.getKey()).length;
+  }
+
+  private JoinedTuple joined(Object key, Object buildValue, Object probeValue) {
+    return buildIsLeft ? JoinedTuple.of(key, buildValue, probeValue)
+        : JoinedTuple.of(key, probeValue, buildValue);
+  }
+
+  /**
+   * Find the next joined tuples
+   */
+  private void progress() {
+    // join the probe relation with the partitions in memory
+    while (ready.isEmpty() && probe.hasNext()) {
+      Tuple tuple = probe.next();
+      Object key = tuple.getKey();
+      int hash = THashMap.hashCode(keyType, key);
+      Partition partition = partitions[partitionOf(hash)];
+      if (!partition.isSpilled()) {
+        BuildValues values = partition.records.get(key);
+        if (values != null) {
+          values.matched = true;
+          for (Object value : values.values) {
+            ready.add(joined(key, value, tuple.getValue()));
+          }
+        } else if (preserveProbe) {
+          ready.add(joined(key, null, tuple.getValue()));
+        }
+      } else if (bloomFilter.mightContain(hash)) {
+        partition.spillProbe(key, tuple.getValue());
+      } else if (preserveProbe) {
+        ready.add(joined(key, null, tuple.getValue()));
+      }
+    }
+
+    // now the spilled partitions and the unmatched build tuples
+    while (ready.isEmpty() && partitionIndex < partitions.length) {
+      Partition partition = partitions[partitionIndex];
+      if (!partition.isSpilled()) {
+        if (preserveBuild) {
+          for (Map.Entry<Object, BuildValues> e : partition.records.entrySet()) {
+            if (!e.getValue().matched) {
+              for (Object value : e.getValue().values) {
+                ready.add(joined(e.getKey(), value, null));
+              }
+            }
+          }
+        }
+        partition.records = null;
+        partitionIndex++;
+      } else if (spilledJoin == null) {
+        spilledJoin = partition.join();
+        if (spilledJoin == null) {
+          partitionIndex++;
+        }
+      } else if (spilledJoin.hasNext()) {
+        ready.add(spilledJoin.next());
+      } else {
+        spilledJoin = null;
+        partition.delete();
+        partitionIndex++;
+      }
+
+      if (partitionIndex == partitions.length) {
+        new File(directory).delete();
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (ready.isEmpty()) {
+      progress();
+    }
+    return !ready.isEmpty();
+  }
+
+  @Override
+  public JoinedTuple next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("There are no more joined tuples");
+    }
+    return ready.poll();
+  }
+
+  /**
+   * Values of a key in the build relation
+   */
+  private static final class BuildValues {
+    private List<Object> values = new ArrayList<>(1);
+    private boolean matched;
+  }
+
+  private final class Partition {
+    private final int index;
+    private Map<Object, BuildValues> records = new THashMap<>(keyType);
+    private long bytes;
+
+    private SpillFileWriter buildWriter;
+    private SpillFileWriter probeWriter;
+    private long buildFileSize;
+    private long probeFileSize;
+    private long buildCount;
+    private long probeCount;
+
+    private Partition(int index) {
+      this.index = index;
+    }
+
+    private boolean isSpilled() {
+      return buildWriter != null;
+    }
+
+    private void add(Tuple tuple, long size) {
+      records.computeIfAbsent(tuple.getKey(), k -> new BuildValues()).values.add(
+          tuple.getValue());
+      bytes += size;
+    }
+
+    private String fileName(String side) {
+      return Paths.get(directory, index + "." + side).toString();
+    }
+
+    /**
+     * The directory for the spill files of the join of this partition
+     */
+    private String childDirectory() {
+      return Paths.get(directory, Integer.toString(index)).toString();
+    }
+
+    private void spill() {
+      buildWriter = new SpillFileWriter(fileName("build"), spillOptions.getBlockSize(),
+          spillOptions.getCompression());
+      for (Map.Entry<Object, BuildValues> e : records.entrySet()) {
+        for (Object value : e.getValue().values) {
+          spillBuild(e.getKey(), value);
+        }
+      }
+      records = null;
+      bytes = 0;
+    }
+
+    private void spillBuild(Object key, Object value) {
+      FileLoader.writeRecord(buildWriter, key,
+          MessageTypes.OBJECT.getDataPacker().packToByteArray(value), keyType);
+      buildCount++;
+    }
+
+    private void spillProbe(Object key, Object value) {
+      if (probeWriter == null) {
+        probeWriter = new SpillFileWriter(fileName("probe"), spillOptions.getBlockSize(),
+            spillOptions.getCompression());
+      }
+      FileLoader.writeRecord(probeWriter, key,
+          MessageTypes.OBJECT.getDataPacker().packToByteArray(value), keyType);
+      probeCount++;
+    }
+
+    /**
+     * Create the join of the spilled files of this partition
+     *
+     * @return the join or null if the partition can't produce any tuples
+     */
+    private HybridHashJoin join() {
+      buildFileSize = buildWriter.close();
+      if (probeWriter != null) {
+        probeFileSize = probeWriter.close();
+      }
+      if (probeCount == 0 && !preserveBuild) {
+        delete();
+        return null;
+      }
+
+      // the smaller relation becomes the build relation
+      boolean swap = probeCount > 0 && probeFileSize < buildFileSize;
+      Iterator<Tuple> buildIt = swap ? read(fileName("probe")) : read(fileName("build"));
+      Iterator<Tuple> probeIt = swap ? read(fileName("build"))
+          : probeCount > 0 ? read(fileName("probe")) : new ArrayList<Tuple>().iterator();
+      return new HybridHashJoin(buildIt, probeIt,
+          swap != buildIsLeft,
+          swap ? preserveProbe : preserveBuild,
+          swap ? preserveBuild : preserveProbe,
+          keyType, memoryBudget, noOfPartitions, swap ? probeCount : buildCount,
+          childDirectory(), spillOptions, level + 1);
+    }
+
+    private void delete() {
+      new File(fileName("build")).delete();
+      new File(fileName("probe")).delete();
+      new File(childDirectory()).delete();
+    }
+  }
+
+  private Iterator<Tuple> read(String fileName) {
+    // we read the records one by one, so no memory is allowed for reading ahead
+    ControlledFileReader reader = new ControlledFileReader(
+        new ControlledFileReaderFlags(0, null), fileName, keyType, MessageTypes.OBJECT,
+        null, spillOptions.getPrefetchBlocks());
+    return new Iterator<Tuple>() {
+      @Override
+      public boolean hasNext() {
+        if (reader.hasNext()) {
+          return true;
+        }
+        reader.releaseResources();
+        return false;
+      }
+
+      @Override
+      public Tuple next() {
+        return reader.next();
+      }
+    };
+  }
+}
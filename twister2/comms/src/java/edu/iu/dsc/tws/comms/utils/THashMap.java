@@ -25,9 +25,18 @@ public class THashMap<K, V> extends HashedMap<K, V> {
     this.keyType = kType;
   }
 
-  @Override
-  protected int hash(Object o) {
-    if (o != null && o.getClass().isArray()) {
+  /**
+   * Hash code of a key, the arrays are hashed by their contents
+   *
+   * @param keyType the key type
+   * @param o the key
+   * @return hash code
+   */
+  public static int hashCode(MessageType keyType, Object o) {
+    if (o == null) {
+      return 0;
+    }
+    if (o.getClass().isArray()) {
       if (keyType == MessageTypes.OBJECT) {
         if (o instanceof byte[]) {
           return Arrays.hashCode((byte[]) o);
@@ -69,6 +78,14 @@ public class THashMap<K, V> extends HashedMap<K, V> {
       }
 
     }
+    return o.hashCode();
+  }
+
+  @Override
+  protected int hash(Object o) {
+    if (o != null && o.getClass().isArray()) {
+      return hashCode(keyType, o);
+    }
     return super.hash(o);
   }
 
@@ -0,0 +1,157 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.TimeoutException;
+import edu.iu.dsc.tws.api.resource.ControllerContext;
+import edu.iu.dsc.tws.api.resource.WorkerEnvironment;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+import edu.iu.dsc.tws.comms.stream.SAllReduce;
+
+/**
+ * A barrier between the workers that runs over the network connections of the workers instead
+ * of going through the job master. Every worker contributes a token to a streaming allreduce
+ * with one source and one target in each worker, and passes the barrier when the reduced value
+ * arrives, which happens only after all the workers have sent their tokens. With the tree
+ * algorithm the tokens are reduced to a root and broadcast back in log(p) levels, with doubling
+ * the workers exchange them in pairs at distances 1, 2, 4 ..
+ *
+ * The workers must create the barrier at the same point, it takes edges from the communicator.
+ */
+public class WorkerBarrier {
+  private static final Logger LOG = Logger.getLogger(WorkerBarrier.class.getName());
+
+  private final SAllReduce allReduce;
+
+  /**
+   * The source of this worker
+   */
+  private final int source;
+
+  private final int numberOfWorkers;
+
+  private final long timeLimit;
+
+  /**
+   * Number of barriers entered and passed by this worker
+   */
+  private int entered;
+
+  private int passed;
+
+  public WorkerBarrier(WorkerEnvironment workerEnv) {
+    this(workerEnv.getCommunicator(), LogicalPlanBuilder.plan(workerEnv.getNumberOfWorkers(),
+        workerEnv.getNumberOfWorkers(), workerEnv).withFairDistribution(),
+        ControllerContext.maxWaitTimeOnBarrier(workerEnv.getConfig()));
+  }
+
+  private WorkerBarrier(Communicator comm, LogicalPlanBuilder plan, long timeLimit) {
+    this(comm, plan.build(), plan.getSources(), plan.getTargets(), timeLimit);
+  }
+
+  /**
+   * Create a barrier with the given plan
+   *
+   * @param communicator the communicator of this worker, the barrier algorithm is read from its
+   * configuration
+   * @param plan the plan, with one source and one target in each worker
+   * @param sources the sources
+   * @param targets the targets
+   * @param timeLimit the time to wait for all the workers in milliseconds
+   */
+  public WorkerBarrier(Communicator communicator, LogicalPlan plan, Set<Integer> sources,
+                       Set<Integer> targets, long timeLimit) {
+    String allReduceAlgorithm = CommunicationContext.BARRIER_ALGO_DOUBLING.equals(
+        CommunicationContext.barrierAlgorithm(communicator.getConfig()))
+        ? CommunicationContext.ALLREDUCE_ALGO_DOUBLING : CommunicationContext.ALLREDUCE_ALGO_TREE;
+    Communicator comm = communicator.newWithConfig(Collections.singletonMap(
+        CommunicationContext.ALLREDUCE_ALGO_KEY, allReduceAlgorithm));
+
+    this.numberOfWorkers = sources.size();
+    this.timeLimit = timeLimit;
+    Set<Integer> sourcesOfWorker = new HashSet<>(plan.getLogicalIdsOfThisWorker());
+    sourcesOfWorker.retainAll(sources);
+    if (sourcesOfWorker.size() != 1) {
+      throw new IllegalArgumentException("A barrier needs one source in each worker, found "
+          + sourcesOfWorker + " in worker " + plan.getThisWorker());
+    }
+    this.source = sourcesOfWorker.iterator().next();
+    this.allReduce = new SAllReduce(comm, plan, sources, targets, MessageTypes.INTEGER_ARRAY,
+        new ReduceOperationFunction(Op.SUM, MessageTypes.INTEGER_ARRAY), new TokenReceiver());
+  }
+
+  /**
+   * Wait until all the workers reach the barrier
+   *
+   * @throws TimeoutException if all the workers don't arrive within the barrier time limit
+   */
+  public void waitOnBarrier() throws TimeoutException {
+    entered++;
+    long start = System.currentTimeMillis();
+    // a new token every time, the reduce function may reduce in to the arrays it gets
+    int[] token = new int[]{1};
+    while (!allReduce.reduce(source, token, 0)) {
+      allReduce.progressChannel();
+      checkTime(start);
+    }
+    while (passed < entered) {
+      allReduce.progressChannel();
+      checkTime(start);
+    }
+    // the messages of the last steps may still be in the operation, and the workers waiting
+    // for them would not get them before this worker enters the next barrier
+    while (!allReduce.isDelegateComplete()) {
+      allReduce.progressChannel();
+      checkTime(start);
+    }
+  }
+
+  private void checkTime(long start) throws TimeoutException {
+    if (System.currentTimeMillis() - start > timeLimit) {
+      throw new TimeoutException("All workers did not arrive at the barrier in " + timeLimit
+          + " ms");
+    }
+  }
+
+  public void close() {
+    allReduce.close();
+  }
+
+  private class TokenReceiver implements SingularReceiver {
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+    }
+
+    @Override
+    public boolean receive(int target, Object object) {
+      int arrived = ((int[]) object)[0];
+      if (arrived != numberOfWorkers) {
+        LOG.warning(String.format("%d workers of %d arrived at the barrier", arrived,
+            numberOfWorkers));
+      }
+      passed++;
+      return true;
+    }
+  }
+}
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -25,11 +26,20 @@ import edu.iu.dsc.tws.api.comms.messaging.MessageHeader;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
 import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.ObjectCodec;
+import edu.iu.dsc.tws.api.util.SerializerRegistry;
 import edu.iu.dsc.tws.comms.dfw.InMessage;
 import edu.iu.dsc.tws.comms.dfw.OutMessage;
 
 public class DataSerializerTest {
+  @After
+  public void clearRegistry() {
+    // the codecs registered by the tests should not be used by the other tests
+    SerializerRegistry.clear();
+  }
+
   @Test
   public void testBuildLargeIntegerMessage() {
     int numBuffers = 10;
@@ -80,6 +90,123 @@ public class DataSerializerTest {
     Assert.assertArrayEquals((byte[]) inMessage.getDeserializedData(), (byte[]) data);
   }
 
+  @Test
+  public void testBuildLargeDouble2DMessage() {
+    double[][] data = new double[30][25];
+    for (int i = 0; i < data.length; i++) {
+      for (int j = 0; j < data[i].length; j++) {
+        data[i][j] = i * 100 + j * 0.5;
+      }
+    }
+    // spans multiple buffers, with rows split between the buffers
+    InMessage inMessage = singleValueCase(10, 1000, MessageTypes.DOUBLE_ARRAY_2D, data);
+    double[][] result = (double[][]) inMessage.getDeserializedData();
+    Assert.assertEquals(data.length, result.length);
+    for (int i = 0; i < data.length; i++) {
+      Assert.assertArrayEquals(data[i], result[i], .01);
+    }
+  }
+
+  @Test
+  public void testBuildFloat3DMessage() {
+    float[][][] data = new float[3][4][5];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 4; j++) {
+        for (int k = 0; k < 5; k++) {
+          data[i][j][k] = i + j * 0.1f + k * 0.01f;
+        }
+      }
+    }
+    InMessage inMessage = singleValueCase(10, 1000, MessageTypes.FLOAT_ARRAY_3D, data);
+    float[][][] result = (float[][][]) inMessage.getDeserializedData();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 4; j++) {
+        Assert.assertArrayEquals(data[i][j], result[i][j], .001f);
+      }
+    }
+
+    byte[] packed = MessageTypes.FLOAT_ARRAY_3D.getDataPacker().packToByteArray(data);
+    result = MessageTypes.FLOAT_ARRAY_3D.getDataPacker().unpackFromByteArray(packed);
+    Assert.assertArrayEquals(data[2][3], result[2][3], .001f);
+  }
+
+  @Test
+  public void testRaggedArrays() {
+    double[][] ragged2D = {{1, 2}, {3}};
+    assertNotRectangular(MessageTypes.DOUBLE_ARRAY_2D, ragged2D, "array[1] has length 1");
+
+    // the rows have the same length, the second dimension doesn't
+    float[][][] ragged3D = new float[3][4][5];
+    ragged3D[2] = new float[2][5];
+    assertNotRectangular(MessageTypes.FLOAT_ARRAY_3D, ragged3D, "array[2] has length 2");
+
+    ragged3D = new float[3][4][5];
+    ragged3D[1][3] = new float[6];
+    assertNotRectangular(MessageTypes.FLOAT_ARRAY_3D, ragged3D, "array[1][3] has length 6");
+
+    ragged3D[1][3] = null;
+    assertNotRectangular(MessageTypes.FLOAT_ARRAY_3D, ragged3D, "array[1][3] is null");
+  }
+
+  private void assertNotRectangular(MessageType type, Object data, String message) {
+    try {
+      type.getDataPacker().packToByteArray(data);
+      Assert.fail("Packed an array which is not rectangular");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains(message));
+    }
+  }
+
+  @Test
+  public void testBuildRecordBatchMessage() {
+    RecordBatch.ColumnType[] types = {RecordBatch.ColumnType.INT, RecordBatch.ColumnType.DOUBLE,
+        RecordBatch.ColumnType.LONG, RecordBatch.ColumnType.FLOAT};
+    RecordBatch batch = new RecordBatch(types, 300);
+    for (int i = 0; i < 250; i++) {
+      int row = batch.addRow();
+      batch.getIntColumn(0)[row] = i;
+      batch.getDoubleColumn(1)[row] = i * 0.5;
+      batch.getLongColumn(2)[row] = i * 1000L;
+      batch.getFloatColumn(3)[row] = i * 0.25f;
+    }
+    // only the valid rows are sent, and the columns are split between the buffers
+    InMessage inMessage = singleValueCase(10, 1002, MessageTypes.RECORD_BATCH, batch);
+    RecordBatch result = (RecordBatch) inMessage.getDeserializedData();
+    Assert.assertEquals(250, result.getSize());
+    Assert.assertArrayEquals(types, result.getTypes());
+    for (int i = 0; i < 250; i++) {
+      Assert.assertEquals(i, result.getIntColumn(0)[i]);
+      Assert.assertEquals(i * 0.5, result.getDoubleColumn(1)[i], .001);
+      Assert.assertEquals(i * 1000L, result.getLongColumn(2)[i]);
+      Assert.assertEquals(i * 0.25f, result.getFloatColumn(3)[i], .001f);
+    }
+
+    boolean[] selection = new boolean[250];
+    for (int i = 0; i < 250; i += 5) {
+      selection[i] = true;
+    }
+    RecordBatch selected = result.select(selection);
+    byte[] packed = MessageTypes.RECORD_BATCH.getDataPacker().packToByteArray(selected);
+    RecordBatch unpacked = MessageTypes.RECORD_BATCH.getDataPacker().unpackFromByteArray(packed);
+    Assert.assertEquals(50, unpacked.getSize());
+    Assert.assertEquals(245 * 1000L, unpacked.getLongColumn(2)[49]);
+  }
+
+  @Test
+  public void testBuildLargeStringMessage() {
+    // non ascii characters and surrogate pairs, spanning many buffers
+    String chars = "a\u00e9\u4e2d\ud83d\ude00z";
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 1500; i++) {
+      builder.append(chars.charAt(i % chars.length()));
+    }
+    String data = builder.toString();
+    for (int size : new int[]{100, 999, 1000}) {
+      InMessage inMessage = singleValueCase(40, size, MessageTypes.STRING, data);
+      Assert.assertEquals(data, inMessage.getDeserializedData());
+    }
+  }
+
   @Test
   public void testBuildLargeObjectMessage() {
     int numBuffers = 20;
@@ -90,6 +217,69 @@ public class DataSerializerTest {
     Assert.assertArrayEquals((int[]) inMessage.getDeserializedData(), (int[]) data);
   }
 
+  @Test
+  public void testBuildCodecObjectMessage() {
+    SerializerRegistry.register(new PointCodec());
+    MessageType type = MessageTypes.OBJECT;
+
+    // spans multiple buffers
+    double[] values = new double[400];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i * 0.5;
+    }
+    InMessage inMessage = singleValueCase(10, 1000, type, new Point(7, values));
+    Point point = (Point) inMessage.getDeserializedData();
+    Assert.assertEquals(7, point.id);
+    Assert.assertArrayEquals(values, point.values, .01);
+
+    // fits to a single buffer
+    inMessage = singleValueCase(10, 1000, type, new Point(3, new double[]{1.0, 2.0}));
+    point = (Point) inMessage.getDeserializedData();
+    Assert.assertEquals(3, point.id);
+    Assert.assertArrayEquals(new double[]{1.0, 2.0}, point.values, .01);
+  }
+
+  private static class Point {
+    private int id;
+    private double[] values;
+
+    Point(int id, double[] values) {
+      this.id = id;
+      this.values = values;
+    }
+  }
+
+  public static class PointCodec implements ObjectCodec<Point> {
+    @Override
+    public Class<Point> getType() {
+      return Point.class;
+    }
+
+    @Override
+    public int getSerializedLength(Point value) {
+      return Integer.BYTES * 2 + value.values.length * Double.BYTES;
+    }
+
+    @Override
+    public void encode(Point value, ByteBuffer buffer) {
+      buffer.putInt(value.id);
+      buffer.putInt(value.values.length);
+      for (double v : value.values) {
+        buffer.putDouble(v);
+      }
+    }
+
+    @Override
+    public Point decode(ByteBuffer buffer) {
+      int id = buffer.getInt();
+      double[] values = new double[buffer.getInt()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = buffer.getDouble();
+      }
+      return new Point(id, values);
+    }
+  }
+
   private InMessage singleValueCase(int numBuffers, int size, MessageType type, Object data) {
     BlockingQueue<DataBuffer> bufferQueue = createDataQueue(numBuffers, size);
 
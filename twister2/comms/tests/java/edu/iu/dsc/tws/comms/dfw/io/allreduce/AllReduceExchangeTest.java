@@ -0,0 +1,132 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.allreduce;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+
+public class AllReduceExchangeTest {
+
+  /**
+   * Run a round between the ranks, delivering the messages in memory
+   */
+  private Object[] run(Object[] values, boolean ring) {
+    int ranks = values.length;
+    ReduceOperationFunction fn = new ReduceOperationFunction(Op.SUM, MessageTypes.INTEGER_ARRAY);
+    AllReduceExchange[] exchanges = new AllReduceExchange[ranks];
+    for (int i = 0; i < ranks; i++) {
+      exchanges[i] = new AllReduceExchange(0, i, ranks, ring, fn, values[i]);
+    }
+
+    // messages by the receiving rank and step
+    Map<String, AllReduceExchange.Message> messages = new HashMap<>();
+    boolean[] sent = new boolean[ranks];
+    boolean progress = true;
+    while (progress) {
+      progress = false;
+      for (int i = 0; i < ranks; i++) {
+        AllReduceExchange e = exchanges[i];
+        if (e.isDone()) {
+          continue;
+        }
+        if (!sent[i]) {
+          int target = e.sendTarget();
+          if (target >= 0) {
+            messages.put(target + ":" + e.getStep(), e.createMessage());
+          }
+          sent[i] = true;
+          progress = true;
+        }
+        if (e.receiveSource() >= 0) {
+          AllReduceExchange.Message m = messages.remove(i + ":" + e.getStep());
+          if (m == null) {
+            continue;
+          }
+          Assert.assertEquals(e.receiveSource(), m.getSource());
+          e.receive(m);
+        }
+        e.nextStep();
+        sent[i] = false;
+        progress = true;
+      }
+    }
+
+    Object[] results = new Object[ranks];
+    for (int i = 0; i < ranks; i++) {
+      Assert.assertTrue(exchanges[i].isDone());
+      results[i] = exchanges[i].getResult();
+    }
+    Assert.assertTrue(messages.isEmpty());
+    return results;
+  }
+
+  private void assertSum(int ranks, int length, boolean ring) {
+    Object[] values = new Object[ranks];
+    int[] expected = new int[length];
+    for (int i = 0; i < ranks; i++) {
+      int[] v = new int[length];
+      for (int j = 0; j < length; j++) {
+        v[j] = i * 1000 + j;
+        expected[j] += v[j];
+      }
+      values[i] = v;
+    }
+
+    for (Object result : run(values, ring)) {
+      Assert.assertArrayEquals(expected, (int[]) result);
+    }
+  }
+
+  @Test
+  public void testRecursiveDoubling() {
+    for (int ranks = 1; ranks <= 9; ranks++) {
+      assertSum(ranks, 10, false);
+    }
+  }
+
+  @Test
+  public void testRing() {
+    for (int ranks = 1; ranks <= 9; ranks++) {
+      assertSum(ranks, 100, true);
+    }
+    // less elements than ranks gives empty chunks
+    assertSum(7, 3, true);
+  }
+
+  @Test
+  public void testMissingValues() {
+    Object[] values = new Object[]{null, new int[]{1, 2, 3}, null, new int[]{4, 5, 6}, null};
+    for (Object result : run(values, true)) {
+      Assert.assertArrayEquals(new int[]{5, 7, 9}, (int[]) result);
+    }
+    for (Object result : run(values, false)) {
+      Assert.assertArrayEquals(new int[]{5, 7, 9}, (int[]) result);
+    }
+  }
+
+  @Test
+  public void testSplit() {
+    double[][] rows = new double[5][2];
+    Object[] chunks = AllReduceExchange.split(rows, 3);
+    Assert.assertEquals(3, chunks.length);
+    Assert.assertEquals(1, ((double[][]) chunks[0]).length);
+    Assert.assertArrayEquals(rows, (double[][]) AllReduceExchange.concat(chunks));
+    Assert.assertEquals(80, AllReduceExchange.sizeOf(rows));
+  }
+}
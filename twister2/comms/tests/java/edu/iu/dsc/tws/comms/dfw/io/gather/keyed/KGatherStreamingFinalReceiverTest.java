@@ -0,0 +1,178 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.gather.keyed;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.BulkReceiver;
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+
+public class KGatherStreamingFinalReceiverTest {
+
+  private static final int SOURCE = 0;
+
+  private static final int TARGET = 1;
+
+  /**
+   * The receiver keeps the results the bulk receiver rejects and delivers them once the input
+   * queue has room again
+   */
+  @Test
+  public void testNoMessagesLostWhenInputQueueFull() {
+    // a queue with room for a single batch, like a full executor input queue
+    Queue<Iterator<Object>> input = new ArrayBlockingQueue<>(1);
+    QueueBulkReceiver bulkReceiver = new QueueBulkReceiver(input);
+    KGatherStreamingFinalReceiver receiver = new KGatherStreamingFinalReceiver(bulkReceiver, 1);
+    Map<Integer, List<Integer>> expectedIds = new HashMap<>();
+    expectedIds.put(TARGET, Collections.singletonList(SOURCE));
+    receiver.init(Config.newBuilder().build(), new TestOperation(), expectedIds);
+
+    int messages = 1000;
+    Set<Object> received = new HashSet<>();
+    for (int i = 0; i < messages; i++) {
+      while (!receiver.onMessage(SOURCE, 0, TARGET, 0, new Tuple(i % 4, i))) {
+        receiver.progress();
+      }
+      // let the queue fill up and only consume now and then
+      receiver.progress();
+      if (i % 10 == 0) {
+        drain(input, received);
+      }
+    }
+    Assert.assertTrue(receiver.onMessage(SOURCE, 0, TARGET, MessageFlags.SYNC_EMPTY,
+        new byte[0]));
+
+    int rounds = 0;
+    while (receiver.progress() || !input.isEmpty()) {
+      drain(input, received);
+      Assert.assertTrue("receiver did not finish", rounds++ < 1000);
+    }
+
+    Assert.assertTrue(bulkReceiver.rejected > 0);
+    Assert.assertEquals(messages, received.size());
+  }
+
+  private static void drain(Queue<Iterator<Object>> input, Set<Object> received) {
+    Iterator<Object> it;
+    while ((it = input.poll()) != null) {
+      while (it.hasNext()) {
+        Tuple t = (Tuple) it.next();
+        Assert.assertTrue(received.add(t.getValue()));
+      }
+    }
+  }
+
+  private static class QueueBulkReceiver implements BulkReceiver {
+    private Queue<Iterator<Object>> queue;
+
+    private int rejected;
+
+    QueueBulkReceiver(Queue<Iterator<Object>> queue) {
+      this.queue = queue;
+    }
+
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+    }
+
+    @Override
+    public boolean receive(int target, Iterator<Object> it) {
+      if (!queue.offer(it)) {
+        rejected++;
+        return false;
+      }
+      return true;
+    }
+  }
+
+  private static class TestOperation implements DataFlowOperation {
+    private LogicalPlan plan = new LogicalPlan(
+        Collections.singletonMap(0, new HashSet<>(Arrays.asList(SOURCE, TARGET))),
+        Collections.singletonMap(0, Collections.singleton(0)), Collections.emptyMap(), 0);
+
+    @Override
+    public boolean sendPartial(int source, Object message, int flags) {
+      return false;
+    }
+
+    @Override
+    public boolean send(int source, Object message, int flags) {
+      return false;
+    }
+
+    @Override
+    public boolean send(int source, Object message, int flags, int target) {
+      return false;
+    }
+
+    @Override
+    public boolean sendPartial(int source, Object message, int flags, int target) {
+      return false;
+    }
+
+    @Override
+    public boolean progress() {
+      return false;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public boolean isDelegateComplete() {
+      return true;
+    }
+
+    @Override
+    public MessageType getKeyType() {
+      return MessageTypes.INTEGER;
+    }
+
+    @Override
+    public LogicalPlan getLogicalPlan() {
+      return plan;
+    }
+
+    @Override
+    public String getUniqueId() {
+      return "0";
+    }
+
+    @Override
+    public Set<Integer> getSources() {
+      return Collections.singleton(SOURCE);
+    }
+  }
+}
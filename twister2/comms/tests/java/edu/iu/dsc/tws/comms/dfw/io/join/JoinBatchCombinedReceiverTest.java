@@ -0,0 +1,119 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.join;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.BulkReceiver;
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.utils.JoinRelation;
+import edu.iu.dsc.tws.comms.utils.KeyComparatorWrapper;
+
+public class JoinBatchCombinedReceiverTest {
+
+  private static final int TARGET = 0;
+
+  private static List<Tuple> relation(int size, String prefix) {
+    List<Tuple> tuples = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      tuples.add(new Tuple(i, prefix + i));
+    }
+    return tuples;
+  }
+
+  /**
+   * A joined result the receiver rejects is kept and delivered when the relation is received
+   * again, after the input queue has room
+   */
+  @Test
+  public void testJoinKeptWhenInputQueueFull() {
+    // a full input queue
+    Queue<Iterator<Object>> input = new ArrayBlockingQueue<>(1);
+    input.add(Collections.emptyIterator());
+    QueueBulkReceiver bulkReceiver = new QueueBulkReceiver(input);
+
+    JoinBatchCombinedReceiver receiver = new JoinBatchCombinedReceiver(bulkReceiver,
+        CommunicationContext.JoinAlgorithm.SORT, CommunicationContext.JoinType.INNER,
+        new KeyComparatorWrapper((Comparator<Integer>) Integer::compare), MessageTypes.INTEGER);
+    receiver.init(Config.newBuilder().build(), Collections.singleton(TARGET));
+
+    List<Tuple> left = relation(100, "l");
+    List<Tuple> right = relation(50, "r");
+    Assert.assertTrue(receiver.receive(TARGET, left, JoinRelation.LEFT));
+    Assert.assertFalse(receiver.receive(TARGET, right, JoinRelation.RIGHT));
+    Assert.assertFalse(receiver.receive(TARGET, right, JoinRelation.RIGHT));
+    Assert.assertEquals(2, bulkReceiver.rejected);
+
+    input.clear();
+    Assert.assertTrue(receiver.receive(TARGET, right, JoinRelation.RIGHT));
+    Assert.assertEquals(1, input.size());
+
+    Iterator<Object> joined = input.poll();
+    int count = 0;
+    while (joined.hasNext()) {
+      JoinedTuple tuple = (JoinedTuple) joined.next();
+      Assert.assertEquals("l" + tuple.getKey(), tuple.getLeftValue());
+      Assert.assertEquals("r" + tuple.getKey(), tuple.getRightValue());
+      count++;
+    }
+    Assert.assertEquals(right.size(), count);
+
+    Assert.assertTrue(receiver.sync(TARGET, new byte[0], JoinRelation.LEFT));
+    Assert.assertTrue(receiver.sync(TARGET, new byte[0], JoinRelation.RIGHT));
+    Assert.assertEquals(1, bulkReceiver.syncs);
+  }
+
+  private static class QueueBulkReceiver implements BulkReceiver {
+    private Queue<Iterator<Object>> queue;
+
+    private int rejected;
+
+    private int syncs;
+
+    QueueBulkReceiver(Queue<Iterator<Object>> queue) {
+      this.queue = queue;
+    }
+
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+    }
+
+    @Override
+    public boolean receive(int target, Iterator<Object> it) {
+      if (!queue.offer(it)) {
+        rejected++;
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public boolean sync(int target, byte[] message) {
+      syncs++;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.functions.reduction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+public class DenseArrayReduceFunctionTest {
+
+  @Test
+  public void testSumInPlace() {
+    double[][] d1 = {{1, 2}, {3, 4}};
+    double[][] d2 = {{10, 20}, {30, 40}};
+    DenseArrayReduceFunction function = new DenseArrayReduceFunction(Op.SUM);
+    double[][] result = (double[][]) function.reduce(d1, d2);
+    Assert.assertArrayEquals(new double[]{11, 22}, result[0], .001);
+    Assert.assertArrayEquals(new double[]{33, 44}, result[1], .001);
+
+    // the result is updated in place for the following values
+    Object next = function.reduce(result, d2);
+    Assert.assertSame(result, next);
+    Assert.assertArrayEquals(new double[]{21, 42}, result[0], .001);
+    Assert.assertArrayEquals(new double[]{63, 84}, result[1], .001);
+  }
+
+  @Test
+  public void testInputsNotChanged() {
+    double[][] d1 = {{1, 2}, {3, 4}};
+    double[][] d2 = {{10, 20}, {30, 40}};
+    DenseArrayReduceFunction function = new DenseArrayReduceFunction(Op.SUM);
+    Object result = function.reduce(d1, d2);
+    Assert.assertNotSame(d1, result);
+    Assert.assertNotSame(d1[0], ((double[][]) result)[0]);
+    Assert.assertArrayEquals(new double[]{1, 2}, d1[0], .001);
+    Assert.assertArrayEquals(new double[]{3, 4}, d1[1], .001);
+    Assert.assertArrayEquals(new double[]{10, 20}, d2[0], .001);
+
+    // an input is copied again even after it was reduced once
+    Object other = function.reduce(d1, d2);
+    Assert.assertNotSame(result, other);
+    Assert.assertArrayEquals(new double[]{1, 2}, d1[0], .001);
+  }
+
+  @Test
+  public void testMinMax() {
+    int[] i1 = {1, 5, 3};
+    Object min = new DenseArrayReduceFunction(Op.MIN).reduce(i1, new int[]{2, 4, 3});
+    Assert.assertArrayEquals(new int[]{1, 4, 3}, (int[]) min);
+    Assert.assertArrayEquals(new int[]{1, 5, 3}, i1);
+
+    float[][] f1 = {{1f, 5f}};
+    Object max = new DenseArrayReduceFunction(Op.MAX).reduce(f1, new float[][]{{2f, 4f}});
+    Assert.assertArrayEquals(new float[]{2f, 5f}, ((float[][]) max)[0], .001f);
+  }
+
+  @Test(expected = Twister2RuntimeException.class)
+  public void testShapeMismatch() {
+    new DenseArrayReduceFunction(Op.SUM).reduce(new long[2][3], new long[3][3]);
+  }
+}
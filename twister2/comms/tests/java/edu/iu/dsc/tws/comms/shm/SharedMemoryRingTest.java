@@ -0,0 +1,130 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedMemoryRingTest {
+
+  private File createFile() throws IOException {
+    File file = File.createTempFile("twister2-ring", ".ring");
+    file.deleteOnExit();
+    return file;
+  }
+
+  private ByteBuffer createData(int size, int seed) {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    for (int i = 0; i < size; i++) {
+      buffer.put(i, (byte) (i + seed));
+    }
+    return buffer;
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    File file = createFile();
+    SharedMemoryRing consumer = SharedMemoryRing.create(file, 1024);
+    SharedMemoryRing producer = SharedMemoryRing.open(file);
+
+    Assert.assertFalse(consumer.peek());
+    Assert.assertTrue(producer.write(3, createData(100, 1), 100));
+    Assert.assertTrue(consumer.peek());
+    Assert.assertEquals(100, consumer.headLength());
+    Assert.assertEquals(3, consumer.headEdge());
+
+    ByteBuffer target = ByteBuffer.allocate(200);
+    consumer.poll(target);
+    Assert.assertEquals(100, target.limit());
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals((byte) (i + 1), target.get(i));
+    }
+    Assert.assertFalse(consumer.peek());
+    Assert.assertTrue(consumer.isEmpty());
+
+    producer.close(false);
+    consumer.close(true);
+    Assert.assertFalse(file.exists());
+  }
+
+  @Test
+  public void testFullAndWrap() throws IOException {
+    File file = createFile();
+    SharedMemoryRing consumer = SharedMemoryRing.create(file, 1024);
+    SharedMemoryRing producer = SharedMemoryRing.open(file);
+
+    int size = 300;
+    int written = 0;
+    int read = 0;
+    ByteBuffer target = ByteBuffer.allocate(size);
+    // write and read enough records to wrap around the ring a few times
+    while (read < 20) {
+      while (written < 20 && producer.write(written, createData(size, written), size)) {
+        written++;
+      }
+      Assert.assertTrue(written - read <= 3);
+
+      Assert.assertTrue(consumer.peek());
+      Assert.assertEquals(read, consumer.headEdge());
+      consumer.poll(target);
+      Assert.assertEquals(createData(size, read), target);
+      read++;
+    }
+    Assert.assertFalse(consumer.peek());
+
+    producer.close(false);
+    consumer.close(true);
+  }
+
+  @Test
+  public void testConcurrentProducer() throws IOException, InterruptedException {
+    File file = createFile();
+    SharedMemoryRing consumer = SharedMemoryRing.create(file, 4096);
+    SharedMemoryRing producer = SharedMemoryRing.open(file);
+
+    int records = 20000;
+    Thread producerThread = new Thread(() -> {
+      for (int i = 0; i < records; i++) {
+        int size = 1 + i % 200;
+        ByteBuffer data = createData(size, i);
+        while (!producer.write(i, data, size)) {
+          Thread.yield();
+        }
+      }
+    });
+    producerThread.start();
+
+    // every record published by the producer thread must be visible with its payload
+    ByteBuffer target = ByteBuffer.allocate(200);
+    int read = 0;
+    while (read < records) {
+      if (!consumer.peek()) {
+        continue;
+      }
+      Assert.assertEquals(read, consumer.headEdge());
+      int size = 1 + read % 200;
+      Assert.assertEquals(size, consumer.headLength());
+      consumer.poll(target);
+      Assert.assertEquals(createData(size, read), target);
+      read++;
+    }
+    producerThread.join();
+    Assert.assertFalse(consumer.peek());
+
+    producer.close(false);
+    consumer.close(true);
+  }
+}
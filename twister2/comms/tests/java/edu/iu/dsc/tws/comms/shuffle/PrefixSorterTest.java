@@ -0,0 +1,93 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.PrefixComparator;
+import edu.iu.dsc.tws.api.comms.PrefixComparators;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class PrefixSorterTest {
+
+  private void assertSorted(List<Tuple> records, PrefixComparator comparator) {
+    List<Tuple> expected = new ArrayList<>(records);
+    expected.sort((o1, o2) -> comparator.compare(o1.getKey(), o2.getKey()));
+
+    PrefixSorter.sort(records, comparator);
+    Assert.assertEquals(expected.size(), records.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(0, comparator.compare(expected.get(i).getKey(),
+          records.get(i).getKey()));
+    }
+  }
+
+  @Test
+  public void testIntegerKeys() {
+    Random random = new Random(1);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      records.add(new Tuple(random.nextInt(), i));
+    }
+    records.add(new Tuple(Integer.MIN_VALUE, 0));
+    records.add(new Tuple(Integer.MAX_VALUE, 0));
+    assertSorted(records, PrefixComparators.INTEGER);
+  }
+
+  @Test
+  public void testDoubleKeys() {
+    Random random = new Random(2);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      records.add(new Tuple(random.nextGaussian() * 100, i));
+    }
+    records.add(new Tuple(-0.0, 0));
+    records.add(new Tuple(0.0, 0));
+    records.add(new Tuple(Double.NEGATIVE_INFINITY, 0));
+    assertSorted(records, PrefixComparators.DOUBLE);
+  }
+
+  @Test
+  public void testByteKeysWithEqualPrefixes() {
+    Random random = new Random(3);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      // the first 8 bytes are shared by many keys, so the keys are compared
+      byte[] key = new byte[10 + random.nextInt(3)];
+      random.nextBytes(key);
+      for (int j = 0; j < 8; j++) {
+        key[j] = (byte) (random.nextInt(2) * 200);
+      }
+      records.add(new Tuple(key, i));
+    }
+    assertSorted(records, PrefixComparators.UNSIGNED_BYTES);
+  }
+
+  @Test
+  public void testPlainComparator() {
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      records.add(new Tuple(100 - i, i));
+    }
+    PrefixSorter.sort(records, Comparator.naturalOrder());
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i + 1, records.get(i).getKey());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SpillFileTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String fileName;
+
+  @Before
+  public void setUp() {
+    fileName = folder.getRoot().getPath() + "/spill";
+  }
+
+  private List<Tuple> createRecords(int count) {
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // every 100th record is larger than a block
+      int[] value = new int[i % 100 == 0 ? 2000 : i % 10];
+      for (int j = 0; j < value.length; j++) {
+        value[j] = i;
+      }
+      records.add(new Tuple(i, MessageTypes.INTEGER_ARRAY.getDataPacker().packToByteArray(value)));
+    }
+    return records;
+  }
+
+  private void writeAndRead(int compression, int prefetchBlocks) {
+    List<Tuple> records = createRecords(1000);
+    FileLoader.spillKeyValues(records, fileName, MessageTypes.INTEGER,
+        new SpillOptions(1024, compression, prefetchBlocks));
+
+    Comparator<Integer> comparator = Integer::compare;
+    ControlledFileReader reader = new ControlledFileReader(
+        new ControlledFileReaderFlags(Long.MAX_VALUE, comparator), fileName,
+        MessageTypes.INTEGER, MessageTypes.INTEGER_ARRAY, comparator, prefetchBlocks);
+    int count = 0;
+    while (reader.hasNext()) {
+      Tuple tuple = reader.next();
+      Assert.assertEquals(count, tuple.getKey());
+      int[] value = (int[]) tuple.getValue();
+      Assert.assertEquals(count % 100 == 0 ? 2000 : count % 10, value.length);
+      for (int v : value) {
+        Assert.assertEquals(count, v);
+      }
+      count++;
+      // closing and opening the file should continue from the same record
+      if (count % 37 == 0) {
+        reader.releaseResources();
+        reader.open();
+      }
+    }
+    reader.releaseResources();
+    Assert.assertEquals(records.size(), count);
+  }
+
+  @Test
+  public void testWriteAndRead() {
+    writeAndRead(SpillFileWriter.COMPRESSION_NONE, 1);
+  }
+
+  @Test
+  public void testWriteAndReadCompressed() {
+    writeAndRead(SpillFileWriter.COMPRESSION_LZ4, 4);
+  }
+
+  @Test
+  public void testChecksumMismatch() throws IOException {
+    FileLoader.spillKeyValues(createRecords(10), fileName, MessageTypes.INTEGER,
+        new SpillOptions(1024, SpillFileWriter.COMPRESSION_NONE, 1));
+    try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+      file.seek(4);
+      int b = file.read();
+      file.seek(4);
+      file.write(b + 1);
+    }
+
+    SpillFileReader reader = new SpillFileReader(fileName, 1);
+    try {
+      ByteBuffer block = reader.nextBlock();
+      Assert.fail("Expected a checksum error, but read " + block.remaining() + " bytes");
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getMessage().contains("Checksum"));
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.tcp;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectBufferPoolTest {
+
+  @Test
+  public void testReuse() {
+    DirectBufferPool pool = new DirectBufferPool(1024 * 1024, true);
+    ByteBuffer buffer = pool.acquire(1000);
+    Assert.assertTrue(buffer.isDirect());
+    Assert.assertEquals(1024, buffer.capacity());
+    Assert.assertEquals(1, pool.getMisses());
+    Assert.assertEquals(1, pool.getOutstanding());
+
+    buffer.putInt(10);
+    pool.release(buffer);
+    Assert.assertEquals(0, pool.getOutstanding());
+    Assert.assertEquals(1024, pool.getPooledBytes());
+
+    ByteBuffer reused = pool.acquire(1024);
+    Assert.assertSame(buffer, reused);
+    Assert.assertEquals(0, reused.position());
+    Assert.assertEquals(1, pool.getHits());
+
+    // a different size class is a miss
+    ByteBuffer other = pool.acquire(1025);
+    Assert.assertEquals(2048, other.capacity());
+    Assert.assertEquals(2, pool.getMisses());
+    Assert.assertEquals(2, pool.reportLeaks());
+  }
+
+  @Test
+  public void testMaxBytes() {
+    DirectBufferPool pool = new DirectBufferPool(4096, false);
+    ByteBuffer first = pool.acquire(4096);
+    ByteBuffer second = pool.acquire(4096);
+    pool.release(first);
+    pool.release(second);
+    // only one buffer fits in the pool
+    Assert.assertEquals(4096, pool.getPooledBytes());
+    Assert.assertSame(first, pool.acquire(4096));
+    Assert.assertNotSame(second, pool.acquire(4096));
+  }
+}
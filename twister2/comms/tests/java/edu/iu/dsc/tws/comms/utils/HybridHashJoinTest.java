@@ -0,0 +1,119 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.shuffle.SpillOptions;
+
+public class HybridHashJoinTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<Tuple> createRelation(Random random, int size, int keys, String prefix) {
+    List<Tuple> relation = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      relation.add(new Tuple(random.nextInt(keys), prefix + i));
+    }
+    return relation;
+  }
+
+  /**
+   * The join computed with nested loops
+   */
+  private List<String> expected(List<Tuple> left, List<Tuple> right,
+                                boolean preserveLeft, boolean preserveRight) {
+    List<String> joined = new ArrayList<>();
+    boolean[] rightMatched = new boolean[right.size()];
+    for (Tuple l : left) {
+      boolean matched = false;
+      for (int i = 0; i < right.size(); i++) {
+        if (l.getKey().equals(right.get(i).getKey())) {
+          joined.add(l.getKey() + ":" + l.getValue() + ":" + right.get(i).getValue());
+          matched = true;
+          rightMatched[i] = true;
+        }
+      }
+      if (!matched && preserveLeft) {
+        joined.add(l.getKey() + ":" + l.getValue() + ":null");
+      }
+    }
+    for (int i = 0; i < right.size() && preserveRight; i++) {
+      if (!rightMatched[i]) {
+        joined.add(right.get(i).getKey() + ":null:" + right.get(i).getValue());
+      }
+    }
+    joined.sort(String::compareTo);
+    return joined;
+  }
+
+  private void assertJoin(boolean buildIsLeft, boolean preserveLeft, boolean preserveRight,
+                          long memoryBudget) {
+    Random random = new Random(7);
+    List<Tuple> left = createRelation(random, 3000, 2000, "l");
+    List<Tuple> right = createRelation(random, 2000, 3000, "r");
+
+    Iterator<JoinedTuple> it = new HybridHashJoin(
+        (buildIsLeft ? left : right).iterator(),
+        (buildIsLeft ? right : left).iterator(),
+        buildIsLeft,
+        buildIsLeft ? preserveLeft : preserveRight,
+        buildIsLeft ? preserveRight : preserveLeft,
+        MessageTypes.INTEGER, memoryBudget, 4, 100,
+        folder.getRoot().getPath() + "/join", SpillOptions.DEFAULT);
+
+    List<String> joined = new ArrayList<>();
+    while (it.hasNext()) {
+      JoinedTuple tuple = it.next();
+      joined.add(tuple.getKey() + ":" + tuple.getLeftValue() + ":" + tuple.getRightValue());
+    }
+    joined.sort(String::compareTo);
+    Assert.assertEquals(expected(left, right, preserveLeft, preserveRight), joined);
+  }
+
+  @Test
+  public void testInMemory() {
+    assertJoin(true, false, false, Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testInnerJoinWithSpilling() {
+    assertJoin(true, false, false, 8 * 1024);
+  }
+
+  @Test
+  public void testLeftJoinWithSpilling() {
+    assertJoin(false, true, false, 8 * 1024);
+  }
+
+  @Test
+  public void testRightJoinWithSpilling() {
+    assertJoin(true, false, true, 8 * 1024);
+  }
+
+  @Test
+  public void testFullOuterJoinWithSpilling() {
+    assertJoin(true, true, true, 8 * 1024);
+  }
+}
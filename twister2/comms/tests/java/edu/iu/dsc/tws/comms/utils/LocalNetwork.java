@@ -0,0 +1,212 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.channel.ChannelListener;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+
+/**
+ * Workers in the same process, connected by channels that copy the buffers of a message in to
+ * the receive buffers of the target worker. Each worker can progress its channel in its own
+ * thread, the channels of a network are synchronized on the network.
+ */
+public class LocalNetwork {
+
+  private final LocalChannel[] channels;
+
+  public LocalNetwork(int workers) {
+    this.channels = new LocalChannel[workers];
+    for (int i = 0; i < workers; i++) {
+      channels[i] = new LocalChannel(i);
+    }
+  }
+
+  public TWSChannel getChannel(int worker) {
+    return channels[worker];
+  }
+
+  private static final class SendRequest {
+    private final int edge;
+    private final ChannelMessage message;
+    private final ChannelListener callback;
+    private int nextBuffer;
+
+    private SendRequest(int edge, ChannelMessage message, ChannelListener callback) {
+      this.edge = edge;
+      this.message = message;
+      this.callback = callback;
+    }
+  }
+
+  private static final class ReceiveRequest {
+    private final ChannelListener callback;
+    private final Queue<DataBuffer> availableBuffers;
+    private final Queue<DataBuffer> completedBuffers = new ArrayDeque<>();
+
+    private ReceiveRequest(ChannelListener callback, Queue<DataBuffer> buffers) {
+      this.callback = callback;
+      this.availableBuffers = buffers;
+    }
+  }
+
+  private final class LocalChannel implements TWSChannel {
+    private final int workerId;
+
+    /**
+     * Pending sends by the target worker
+     */
+    private final Map<Integer, Queue<SendRequest>> pendingSends = new HashMap<>();
+
+    /**
+     * Receives by the sending worker and edge
+     */
+    private final Map<Integer, Map<Integer, ReceiveRequest>> receives = new HashMap<>();
+
+    private final List<ReceiveRequest> receiveList = new ArrayList<>();
+
+    private LocalChannel(int workerId) {
+      this.workerId = workerId;
+    }
+
+    @Override
+    public boolean sendMessage(int id, ChannelMessage message, ChannelListener callback) {
+      synchronized (LocalNetwork.this) {
+        pendingSends.computeIfAbsent(id, k -> new ArrayDeque<>())
+            .offer(new SendRequest(message.getHeader().getEdge(), message, callback));
+        return true;
+      }
+    }
+
+    @Override
+    public boolean receiveMessage(int group, int id, int edge, ChannelListener callback,
+                                  Queue<DataBuffer> receiveBuffers) {
+      synchronized (LocalNetwork.this) {
+        ReceiveRequest request = new ReceiveRequest(callback, receiveBuffers);
+        receives.computeIfAbsent(id, k -> new HashMap<>()).put(edge, request);
+        receiveList.add(request);
+        return true;
+      }
+    }
+
+    @Override
+    public void progress() {
+      synchronized (LocalNetwork.this) {
+        progressSends();
+        progressReceives(0);
+      }
+    }
+
+    @Override
+    public void progressSends() {
+      synchronized (LocalNetwork.this) {
+        for (Map.Entry<Integer, Queue<SendRequest>> e : pendingSends.entrySet()) {
+          Queue<SendRequest> queue = e.getValue();
+          while (!queue.isEmpty()) {
+            SendRequest request = queue.peek();
+            Map<Integer, ReceiveRequest> edges = channels[e.getKey()].receives.get(workerId);
+            ReceiveRequest receive = edges == null ? null : edges.get(request.edge);
+            if (receive == null) {
+              break;
+            }
+            List<DataBuffer> buffers = request.message.getNormalBuffers();
+            while (request.nextBuffer < buffers.size()) {
+              DataBuffer target = receive.availableBuffers.poll();
+              if (target == null) {
+                break;
+              }
+              copy(buffers.get(request.nextBuffer), target);
+              receive.completedBuffers.offer(target);
+              request.nextBuffer++;
+            }
+            if (request.nextBuffer < buffers.size()) {
+              break;
+            }
+            queue.poll();
+            request.callback.onSendComplete(e.getKey(), request.edge, request.message);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void progressReceives(int group) {
+      synchronized (LocalNetwork.this) {
+        for (Map.Entry<Integer, Map<Integer, ReceiveRequest>> e : receives.entrySet()) {
+          for (Map.Entry<Integer, ReceiveRequest> edge : e.getValue().entrySet()) {
+            ReceiveRequest request = edge.getValue();
+            DataBuffer buffer;
+            while ((buffer = request.completedBuffers.poll()) != null) {
+              request.callback.onReceiveComplete(e.getKey(), edge.getKey(), buffer);
+            }
+          }
+        }
+      }
+    }
+
+    private void copy(DataBuffer source, DataBuffer target) {
+      ByteBuffer data = source.getByteBuffer().duplicate();
+      data.limit(source.getSize());
+      data.position(0);
+      ByteBuffer targetBuffer = target.getByteBuffer();
+      targetBuffer.clear();
+      targetBuffer.put(data);
+      targetBuffer.flip();
+      target.setSize(source.getSize());
+    }
+
+    @Override
+    public boolean isComplete() {
+      synchronized (LocalNetwork.this) {
+        for (Queue<SendRequest> queue : pendingSends.values()) {
+          if (!queue.isEmpty()) {
+            return false;
+          }
+        }
+        for (ReceiveRequest request : receiveList) {
+          if (!request.completedBuffers.isEmpty()) {
+            return false;
+          }
+        }
+        return true;
+      }
+    }
+
+    @Override
+    public ByteBuffer createBuffer(int capacity) {
+      return ByteBuffer.allocate(capacity);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void releaseBuffers(int wId, int e) {
+      synchronized (LocalNetwork.this) {
+        Map<Integer, ReceiveRequest> edges = receives.get(wId);
+        if (edges != null) {
+          receiveList.remove(edges.remove(e));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.TimeoutException;
+
+public class WorkerBarrierTest {
+
+  private static final long TIME_LIMIT = 30000;
+
+  /**
+   * Create the barrier of each worker, worker w has the source w and the target workers + w
+   */
+  private WorkerBarrier[] createBarriers(int workers, String algorithm, long timeLimit) {
+    Config config = Config.newBuilder()
+        .put(CommunicationContext.BARRIER_ALGO_KEY, algorithm)
+        .put(CommunicationContext.BUFFER_SIZE, 1024)
+        .put(CommunicationContext.SEND_BUFFERS_COUNT, 4)
+        .put(CommunicationContext.RECEIVE_BUFFERS_COUNT, 4)
+        .build();
+    LocalNetwork network = new LocalNetwork(workers);
+
+    Set<Integer> sources = new HashSet<>();
+    Set<Integer> targets = new HashSet<>();
+    for (int w = 0; w < workers; w++) {
+      sources.add(w);
+      targets.add(workers + w);
+    }
+
+    WorkerBarrier[] barriers = new WorkerBarrier[workers];
+    for (int w = 0; w < workers; w++) {
+      // the operations add their ids to the plan, so every worker has its own
+      Map<Integer, Set<Integer>> workerToTasks = new HashMap<>();
+      for (int i = 0; i < workers; i++) {
+        workerToTasks.put(i, new HashSet<>(Arrays.asList(i, workers + i)));
+      }
+      Map<Integer, Set<Integer>> groups = new HashMap<>();
+      groups.put(0, new HashSet<>(workerToTasks.keySet()));
+      LogicalPlan plan = new LogicalPlan(workerToTasks, groups, Collections.emptyMap(), w);
+      Communicator comm = new Communicator(config, network.getChannel(w));
+      barriers[w] = new WorkerBarrier(comm, plan, sources, targets, timeLimit);
+    }
+    return barriers;
+  }
+
+  /**
+   * Run the given number of barriers in a thread for each worker, the workers arrive at
+   * different times. A worker passing a barrier checks that all the workers arrived at it.
+   */
+  private void runBarriers(int workers, String algorithm, int rounds) throws Exception {
+    WorkerBarrier[] barriers = createBarriers(workers, algorithm, TIME_LIMIT);
+    AtomicIntegerArray arrived = new AtomicIntegerArray(rounds);
+    Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    Thread[] threads = new Thread[workers];
+    for (int w = 0; w < workers; w++) {
+      WorkerBarrier barrier = barriers[w];
+      Random random = new Random(w);
+      threads[w] = new Thread(() -> {
+        try {
+          for (int r = 0; r < rounds; r++) {
+            Thread.sleep(random.nextInt(5));
+            arrived.incrementAndGet(r);
+            barrier.waitOnBarrier();
+            if (arrived.get(r) != workers) {
+              errors.add(new AssertionError("Passed barrier " + r + " when "
+                  + arrived.get(r) + " workers arrived"));
+            }
+          }
+        } catch (Throwable t) {
+          errors.add(t);
+        }
+      });
+      threads[w].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (WorkerBarrier barrier : barriers) {
+      barrier.close();
+    }
+    Assert.assertTrue(errors.toString(), errors.isEmpty());
+    for (int r = 0; r < rounds; r++) {
+      Assert.assertEquals(workers, arrived.get(r));
+    }
+  }
+
+  @Test
+  public void testTreeBarrier() throws Exception {
+    runBarriers(4, CommunicationContext.BARRIER_ALGO_TREE, 1);
+    runBarriers(5, CommunicationContext.BARRIER_ALGO_TREE, 1);
+  }
+
+  @Test
+  public void testDoublingBarrier() throws Exception {
+    runBarriers(4, CommunicationContext.BARRIER_ALGO_DOUBLING, 1);
+    runBarriers(6, CommunicationContext.BARRIER_ALGO_DOUBLING, 1);
+  }
+
+  @Test
+  public void testBackToBackBarriers() throws Exception {
+    runBarriers(4, CommunicationContext.BARRIER_ALGO_TREE, 20);
+    runBarriers(5, CommunicationContext.BARRIER_ALGO_DOUBLING, 20);
+  }
+
+  @Test
+  public void testSingleWorker() throws Exception {
+    runBarriers(1, CommunicationContext.BARRIER_ALGO_TREE, 3);
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    // the last worker never arrives
+    int workers = 3;
+    WorkerBarrier[] barriers = createBarriers(workers, CommunicationContext.BARRIER_ALGO_TREE,
+        200);
+    Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    Thread[] threads = new Thread[workers - 1];
+    for (int w = 0; w < workers - 1; w++) {
+      WorkerBarrier barrier = barriers[w];
+      threads[w] = new Thread(() -> {
+        try {
+          barrier.waitOnBarrier();
+        } catch (Throwable t) {
+          errors.add(t);
+        }
+      });
+      threads[w].start();
+    }
+    for (Thread thread : threads) {
+      thread.join(10000);
+      Assert.assertFalse(thread.isAlive());
+    }
+    Assert.assertEquals(workers - 1, errors.size());
+    for (Throwable t : errors) {
+      Assert.assertTrue(t.toString(), t instanceof TimeoutException);
+    }
+    for (WorkerBarrier barrier : barriers) {
+      barrier.close();
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.beam.runners.twister2.translators.Twister2BatchPipelineTransla
 import org.apache.beam.runners.twister2.translators.Twister2PipelineTranslator;
 import org.apache.beam.runners.twister2.translators.Twister2StreamPipelineTranslator;
 import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.io.Read;
+import org.apache.beam.sdk.runners.TransformHierarchy;
 
 import edu.iu.dsc.tws.api.tset.sets.TSet;
 import edu.iu.dsc.tws.api.tset.sets.batch.BatchTSet;
@@ -50,9 +52,7 @@ public class Twister2PiplineExecutionEnvironment {
    */
   public void translate(Pipeline pipeline) {
 
-    // TODO: needs to be set properly based on the job
-    final boolean hasUnboundedOutput = false;
-    if (hasUnboundedOutput) {
+    if (hasUnboundedSource(pipeline)) {
       LOG.info("Found unbounded PCollection. Switching to streaming execution.");
       options.setStreaming(true);
     }
@@ -60,7 +60,8 @@ public class Twister2PiplineExecutionEnvironment {
     Twister2PipelineTranslator translator;
     if (options.isStreaming()) {
       twister2TranslationContext = new Twister2StreamingTranslationContext(options);
-      translator = new Twister2StreamPipelineTranslator(options, twister2TranslationContext);
+      translator = new Twister2StreamPipelineTranslator(
+          options, (Twister2StreamingTranslationContext) twister2TranslationContext);
     } else {
       twister2TranslationContext = new Twister2BatchTranslationContext(options);
       translator =
@@ -71,6 +72,23 @@ public class Twister2PiplineExecutionEnvironment {
     translator.translate(pipeline);
   }
 
+  /**
+   * Checks whether the pipeline reads an unbounded source, such a pipeline is translated to
+   * streaming tSets.
+   */
+  private static boolean hasUnboundedSource(Pipeline pipeline) {
+    final boolean[] unbounded = new boolean[1];
+    pipeline.traverseTopologically(new Pipeline.PipelineVisitor.Defaults() {
+      @Override
+      public void visitPrimitiveTransform(TransformHierarchy.Node node) {
+        if (node.getTransform() instanceof Read.Unbounded) {
+          unbounded[0] = true;
+        }
+      }
+    });
+    return unbounded[0];
+  }
+
   /**
    * Execute all the task graphs.
    */
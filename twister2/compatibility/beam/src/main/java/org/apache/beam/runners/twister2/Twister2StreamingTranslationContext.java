@@ -17,10 +17,17 @@
  */
 package org.apache.beam.runners.twister2;
 
+import org.apache.beam.runners.twister2.translators.functions.Twister2SinkFunction;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.PValue;
+
+import edu.iu.dsc.tws.api.tset.sets.TSet;
+import edu.iu.dsc.tws.tset.env.StreamingTSetEnvironment;
 import edu.iu.dsc.tws.tset.sets.batch.SinkTSet;
+import edu.iu.dsc.tws.tset.sets.streaming.StreamingTSetImpl;
 
 /**
- * doc.
+ * Translation context of the streaming pipelines, the PCollections are streaming TSets.
  */
 public class Twister2StreamingTranslationContext extends Twister2TranslationContext {
 
@@ -29,8 +36,40 @@ public class Twister2StreamingTranslationContext extends Twister2TranslationCont
     super(options);
   }
 
+  @Override
+  public <T> StreamingTSetImpl<WindowedValue<T>> getInputDataSet(PValue input) {
+    return (StreamingTSetImpl<WindowedValue<T>>) super.<T>getInputDataSet(input);
+  }
+
+  @Override
+  public void execute() {
+    if (!getSideInputDataSets().isEmpty()) {
+      throw new UnsupportedOperationException(
+          "Side inputs are not supported by the streaming pipelines");
+    }
+    StreamingTSetEnvironment environment = getStreamingEnvironment();
+    for (TSet leaf : getLeaves()) {
+      ((StreamingTSetImpl<?>) leaf).direct().sink(new Twister2SinkFunction());
+    }
+    environment.run();
+  }
+
+  /**
+   * Returns the environment of the pipeline, which should be a streaming environment
+   *
+   * @return the streaming environment
+   * @throws IllegalStateException if the environment is not a streaming environment
+   */
+  public StreamingTSetEnvironment getStreamingEnvironment() {
+    if (!(getEnvironment() instanceof StreamingTSetEnvironment)) {
+      throw new IllegalStateException("A streaming pipeline requires a "
+          + StreamingTSetEnvironment.class.getSimpleName() + ", found " + getEnvironment());
+    }
+    return (StreamingTSetEnvironment) getEnvironment();
+  }
+
   @Override
   public void eval(SinkTSet<?> tSet) {
-    throw new UnsupportedOperationException("Not implemented yet");
+    throw new UnsupportedOperationException("Streaming pipelines are run as a whole");
   }
 }
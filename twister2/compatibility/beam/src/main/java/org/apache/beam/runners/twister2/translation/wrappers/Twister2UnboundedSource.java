@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translation.wrappers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.beam.runners.core.construction.SerializablePipelineOptions;
+import org.apache.beam.sdk.io.UnboundedSource;
+import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.util.WindowedValue;
+
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.BaseSourceFunc;
+
+/**
+ * Reads an unbounded source in a streaming tSet. The source is split into the parallelism of
+ * the tSet and an instance reads the splits of its index in turns. The watermark of the readers
+ * is written to the outputs after the records read before it, so the streaming operations can
+ * close the event time windows.
+ * <p>
+ * The checkpoint mark of a reader is finalized after the records read before it are written to
+ * the outputs, every {@link #FINALIZE_INTERVAL} records and when the reader has no data. The
+ * marks are not persisted with the checkpoints of the job, so the readers are always created
+ * without a mark and a restarted job reads from where the source starts a new reader.
+ */
+public class Twister2UnboundedSource<T> extends BaseSourceFunc<WindowedValue<T>> {
+  private static final Logger LOG = Logger.getLogger(Twister2UnboundedSource.class.getName());
+
+  /**
+   * Number of records of a reader written to the outputs before finalizing its checkpoint mark
+   */
+  private static final int FINALIZE_INTERVAL = 1000;
+
+  private final UnboundedSource<T, ?> source;
+  private final SerializablePipelineOptions options;
+
+  private transient List<UnboundedSource.UnboundedReader<T>> readers;
+  private transient boolean[] started;
+  private transient int current;
+  private transient WindowedValue<T> next;
+
+  /**
+   * Index of the reader of the last record returned, -1 if there is none
+   */
+  private transient int lastRead;
+
+  /**
+   * Number of records of each reader written since its checkpoint mark was finalized
+   */
+  private transient int[] unfinalized;
+
+  /**
+   * The last watermark written to the outputs
+   */
+  private transient long watermark;
+
+  public Twister2UnboundedSource(UnboundedSource<T, ?> source,
+                                 SerializablePipelineOptions options) {
+    this.source = source;
+    this.options = options;
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+    super.prepare(context);
+    PipelineOptions pipelineOptions = options.get();
+    readers = new ArrayList<>();
+    watermark = BoundedWindow.TIMESTAMP_MIN_VALUE.getMillis();
+    try {
+      List<? extends UnboundedSource<T, ?>> splits =
+          source.split(context.getParallelism(), pipelineOptions);
+      for (int i = context.getIndex(); i < splits.size(); i += context.getParallelism()) {
+        readers.add(splits.get(i).createReader(pipelineOptions, null));
+      }
+    } catch (Exception e) {
+      throw new RuntimeException(
+          "Failed to create readers for source " + source.getClass().getSimpleName(), e);
+    }
+    if (readers.isEmpty()) {
+      LOG.warning(String.format("No splits of source %s to read in instance %d",
+          source, context.getIndex()));
+    }
+    started = new boolean[readers.size()];
+    unfinalized = new int[readers.size()];
+    lastRead = -1;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+    // the record of the previous call is written by now, so the watermark of the readers
+    // can not make it late
+    advanceWatermark();
+    if (lastRead >= 0) {
+      if (++unfinalized[lastRead] >= FINALIZE_INTERVAL) {
+        finalizeCheckpoint(lastRead);
+      }
+      lastRead = -1;
+    }
+    for (int i = 0; i < readers.size() && next == null; i++) {
+      int index = current;
+      current = (current + 1) % readers.size();
+      UnboundedSource.UnboundedReader<T> reader = readers.get(index);
+      try {
+        boolean available;
+        if (!started[index]) {
+          available = reader.start();
+          started[index] = true;
+        } else {
+          available = reader.advance();
+        }
+        if (available) {
+          next = WindowedValue.timestampedValueInGlobalWindow(
+              reader.getCurrent(), reader.getCurrentTimestamp());
+          lastRead = index;
+        } else if (unfinalized[index] > 0) {
+          finalizeCheckpoint(index);
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to read data.", e);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public WindowedValue<T> next() {
+    WindowedValue<T> value = next;
+    next = null;
+    return value;
+  }
+
+  /**
+   * Finalize the checkpoint mark of a reader, all the records it read are written by now
+   */
+  private void finalizeCheckpoint(int index) {
+    unfinalized[index] = 0;
+    try {
+      readers.get(index).getCheckpointMark().finalizeCheckpoint();
+    } catch (IOException e) {
+      LOG.warning("Failed to finalize the checkpoint mark: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Write the minimum watermark of the readers if it advanced. The watermark of a reader is only
+   * defined after it is started, so the watermark is held back until every reader has started,
+   * otherwise the records of a reader not started yet could be late
+   */
+  private void advanceWatermark() {
+    if (readers.isEmpty()) {
+      return;
+    }
+    long min = BoundedWindow.TIMESTAMP_MAX_VALUE.getMillis();
+    for (int i = 0; i < readers.size(); i++) {
+      if (!started[i]) {
+        return;
+      }
+      min = Math.min(min, readers.get(i).getWatermark().getMillis());
+    }
+    if (min > watermark) {
+      watermark = min;
+      getTSetContext().writeWatermark(watermark);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (readers == null) {
+      return;
+    }
+    if (lastRead >= 0) {
+      unfinalized[lastRead]++;
+    }
+    for (int i = 0; i < readers.size(); i++) {
+      if (unfinalized[i] > 0) {
+        finalizeCheckpoint(i);
+      }
+    }
+    for (UnboundedSource.UnboundedReader<T> reader : readers) {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        LOG.warning("Failed to close the reader: " + e.getMessage());
+      }
+    }
+    readers = null;
+  }
+}
@@ -17,12 +17,12 @@
  */
 package org.apache.beam.runners.twister2.translators;
 
-import org.apache.beam.runners.twister2.Twister2StreamTranslationContext;
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
 import org.apache.beam.sdk.transforms.PTransform;
 
 /**
  * doc.
  */
 public interface StreamTransformTranslator<TransformT extends PTransform> {
-  void translateNode(TransformT transform, Twister2StreamTranslationContext context);
+  void translateNode(TransformT transform, Twister2StreamingTranslationContext context);
 }
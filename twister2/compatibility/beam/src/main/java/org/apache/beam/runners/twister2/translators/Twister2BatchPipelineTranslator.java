@@ -24,6 +24,7 @@ import java.util.logging.Logger;
 import org.apache.beam.runners.twister2.Twister2BatchTranslationContext;
 import org.apache.beam.runners.twister2.Twister2PipelineOptions;
 import org.apache.beam.runners.twister2.translators.batch.AssignWindowTranslatorBatch;
+import org.apache.beam.runners.twister2.translators.batch.CombinePerKeyTranslatorBatch;
 import org.apache.beam.runners.twister2.translators.batch.FlattenTranslatorBatch;
 import org.apache.beam.runners.twister2.translators.batch.GroupByKeyTranslatorBatch;
 import org.apache.beam.runners.twister2.translators.batch.PCollectionViewTranslatorBatch;
@@ -31,12 +32,14 @@ import org.apache.beam.runners.twister2.translators.batch.ParDoMultiOutputTransl
 import org.apache.beam.runners.twister2.translators.batch.ReadSourceTranslatorBatch;
 import org.apache.beam.sdk.io.Read;
 import org.apache.beam.sdk.runners.TransformHierarchy;
+import org.apache.beam.sdk.transforms.Combine;
 import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.GroupByKey;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.View;
 import org.apache.beam.sdk.transforms.windowing.Window;
+import org.apache.beam.sdk.values.PCollection;
 
 /**
  * Twister pipeline translator for batch pipelines.
@@ -56,6 +59,12 @@ public class Twister2BatchPipelineTranslator extends Twister2PipelineTranslator
 
   private final Twister2BatchTranslationContext translationContext;
 
+  /**
+   * Translates the combines without expanding them, so the combine function can be lifted
+   */
+  private final CombinePerKeyTranslatorBatch combineTranslator =
+      new CombinePerKeyTranslatorBatch();
+
   static {
     registerTransformTranslator(Flatten.PCollections.class, new FlattenTranslatorBatch());
     registerTransformTranslator(Read.Bounded.class, new ReadSourceTranslatorBatch());
@@ -72,6 +81,21 @@ public class Twister2BatchPipelineTranslator extends Twister2PipelineTranslator
     this.translationContext = twister2TranslationContext;
   }
 
+  @Override
+  public CompositeBehavior enterCompositeTransform(TransformHierarchy.Node node) {
+    PTransform transform = node.getTransform();
+    if (transform instanceof Combine.PerKey) {
+      translationContext.setCurrentTransform(node.toAppliedPTransform(getPipeline()));
+      PCollection<?> input = translationContext.getInput((Combine.PerKey) transform);
+      if (CombinePerKeyTranslatorBatch.canTranslate((Combine.PerKey) transform, input)) {
+        LOG.fine(String.format("translating composite transform %s", transform));
+        combineTranslator.translateNode((Combine.PerKey) transform, translationContext);
+        return CompositeBehavior.DO_NOT_ENTER_TRANSFORM;
+      }
+    }
+    return CompositeBehavior.ENTER_TRANSFORM;
+  }
+
   @Override
   public void visitPrimitiveTransform(TransformHierarchy.Node node) {
     LOG.fine(String.format("visiting transform %s", node.getTransform()));
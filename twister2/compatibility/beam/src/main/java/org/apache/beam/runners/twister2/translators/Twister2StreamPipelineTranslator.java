@@ -17,21 +17,83 @@
  */
 package org.apache.beam.runners.twister2.translators;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.apache.beam.runners.twister2.Twister2PipelineOptions;
-import org.apache.beam.runners.twister2.Twister2TranslationContext;
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
+import org.apache.beam.runners.twister2.translators.streaming.AssignWindowTranslatorStream;
+import org.apache.beam.runners.twister2.translators.streaming.FlattenTranslatorStream;
+import org.apache.beam.runners.twister2.translators.streaming.GroupByKeyTranslatorStream;
+import org.apache.beam.runners.twister2.translators.streaming.ParDoMultiOutputTranslatorStream;
+import org.apache.beam.runners.twister2.translators.streaming.ReadSourceTranslatorStream;
+import org.apache.beam.sdk.io.Read;
+import org.apache.beam.sdk.runners.TransformHierarchy;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.windowing.Window;
 
 /**
- * doc.
+ * Twister pipeline translator for streaming pipelines.
  */
 public class Twister2StreamPipelineTranslator extends Twister2PipelineTranslator {
-  private static final java.util.logging.Logger LOG = Logger.getLogger(
+  private static final Logger LOG = Logger.getLogger(
       Twister2StreamPipelineTranslator.class.getName());
   private final Twister2PipelineOptions options;
 
+  /**
+   * A map from {@link PTransform} subclass to the corresponding {@link StreamTransformTranslator}
+   * to use to translate that transform.
+   */
+  private static final Map<Class<? extends PTransform>, StreamTransformTranslator>
+      TRANSFORM_TRANSLATORS = new HashMap<>();
+
+  private final Twister2StreamingTranslationContext translationContext;
+
+  static {
+    registerTransformTranslator(Flatten.PCollections.class, new FlattenTranslatorStream());
+    registerTransformTranslator(Read.Unbounded.class, new ReadSourceTranslatorStream());
+    registerTransformTranslator(ParDo.MultiOutput.class, new ParDoMultiOutputTranslatorStream());
+    registerTransformTranslator(Window.Assign.class, new AssignWindowTranslatorStream());
+    registerTransformTranslator(GroupByKey.class, new GroupByKeyTranslatorStream());
+  }
+
   public Twister2StreamPipelineTranslator(
-      Twister2PipelineOptions options, Twister2TranslationContext twister2TranslationContext) {
+      Twister2PipelineOptions options,
+      Twister2StreamingTranslationContext twister2TranslationContext) {
     this.options = options;
+    this.translationContext = twister2TranslationContext;
+  }
+
+  @Override
+  public void visitPrimitiveTransform(TransformHierarchy.Node node) {
+    LOG.fine(String.format("visiting transform %s", node.getTransform()));
+    PTransform transform = node.getTransform();
+    StreamTransformTranslator translator = getTransformTranslator(transform.getClass());
+    if (null == translator) {
+      throw new IllegalStateException("no streaming translator registered for " + transform);
+    }
+    translationContext.setCurrentTransform(node.toAppliedPTransform(getPipeline()));
+    translator.translateNode(transform, translationContext);
+  }
+
+  private StreamTransformTranslator<?> getTransformTranslator(
+      Class<? extends PTransform> transformClass) {
+    return TRANSFORM_TRANSLATORS.get(transformClass);
+  }
+
+  /**
+   * Records that instances of the specified PTransform class should be translated by default by the
+   * corresponding {@link StreamTransformTranslator}.
+   */
+  private static <TT extends PTransform> void registerTransformTranslator(
+      Class<TT> transformClass,
+      StreamTransformTranslator<? extends TT> transformTranslator) {
+    if (TRANSFORM_TRANSLATORS.put(transformClass, transformTranslator) != null) {
+      throw new IllegalArgumentException("defining multiple translators for " + transformClass);
+    }
   }
 }
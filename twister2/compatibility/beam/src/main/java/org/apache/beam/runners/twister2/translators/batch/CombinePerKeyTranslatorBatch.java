@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.batch;
+
+import java.util.Iterator;
+import java.util.logging.Logger;
+
+import org.apache.beam.runners.twister2.Twister2BatchTranslationContext;
+import org.apache.beam.runners.twister2.translators.BatchTransformTranslator;
+import org.apache.beam.runners.twister2.translators.functions.CombineToTupleFunction;
+import org.apache.beam.runners.twister2.translators.functions.ExplodeWindowsFunction;
+import org.apache.beam.runners.twister2.translators.functions.ExtractOutputFunction;
+import org.apache.beam.runners.twister2.translators.functions.MergeAccumulatorsFunction;
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.sdk.coders.CannotProvideCoderException;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.InstantCoder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.DefaultTrigger;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.WindowingStrategy;
+import org.joda.time.Instant;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.tset.sets.batch.BatchTSetImpl;
+import edu.iu.dsc.tws.tset.sets.batch.ComputeTSet;
+
+/**
+ * Combine.PerKey translator. The combine function is lifted before the shuffle, every element
+ * becomes an accumulator and the accumulators of a key and window are merged by a keyed reduce,
+ * first at the source workers and then at the targets. So only an accumulator per key and
+ * window of a worker is sent, instead of all the values as with a GroupByKey.
+ * <p>
+ * The transform is expanded to a GroupByKey and a ParDo instead, if it can't be lifted.
+ */
+public class CombinePerKeyTranslatorBatch<K, InputT, AccumT, OutputT>
+    implements BatchTransformTranslator<Combine.PerKey<K, InputT, OutputT>> {
+
+  private static final Logger LOG = Logger.getLogger(
+      CombinePerKeyTranslatorBatch.class.getName());
+
+  /**
+   * Check whether the combine can be lifted. This requires a combine function without side
+   * inputs or context, a coder for its accumulators, and windows that are not merged and fire
+   * only once.
+   *
+   * @param transform the transform
+   * @param input the input of the transform
+   * @return true if the transform can be translated by this translator
+   */
+  public static boolean canTranslate(Combine.PerKey<?, ?, ?> transform, PCollection<?> input) {
+    WindowingStrategy<?, ?> windowingStrategy = input.getWindowingStrategy();
+    boolean liftable = transform.getFn() instanceof Combine.CombineFn
+        && transform.getSideInputs().isEmpty()
+        && input.getCoder() instanceof KvCoder
+        && windowingStrategy.getWindowFn().isNonMerging()
+        && windowingStrategy.getTrigger() instanceof DefaultTrigger
+        && getAccumulatorCoder((Combine.CombineFn) transform.getFn(),
+        (PCollection) input) != null;
+    if (!liftable) {
+      LOG.fine(() -> "Combine " + transform.getName() + " is translated without lifting");
+    }
+    return liftable;
+  }
+
+  @Override
+  public void translateNode(Combine.PerKey<K, InputT, OutputT> transform,
+                            Twister2BatchTranslationContext context) {
+    PCollection<KV<K, InputT>> input = context.getInput(transform);
+    BatchTSetImpl<WindowedValue<KV<K, InputT>>> inputTSet = context.getInputDataSet(input);
+    Combine.CombineFn<InputT, AccumT, OutputT> combineFn =
+        (Combine.CombineFn<InputT, AccumT, OutputT>) transform.getFn();
+    WindowingStrategy<?, BoundedWindow> windowingStrategy =
+        (WindowingStrategy<?, BoundedWindow>) input.getWindowingStrategy();
+
+    Coder<KV<K, BoundedWindow>> keyCoder = KvCoder.of(
+        ((KvCoder<K, InputT>) input.getCoder()).getKeyCoder(),
+        windowingStrategy.getWindowFn().windowCoder());
+    Coder<KV<AccumT, Instant>> accumulatorCoder = KvCoder.of(
+        getAccumulatorCoder(combineFn, input), InstantCoder.of());
+
+    ComputeTSet<WindowedValue<KV<K, OutputT>>, Iterator<Tuple<EncodedKey, byte[]>>> outputTSet =
+        inputTSet
+            .direct()
+            .flatmap(new ExplodeWindowsFunction<KV<K, InputT>>())
+            .mapToTuple(new CombineToTupleFunction<>(combineFn, keyCoder, accumulatorCoder,
+                windowingStrategy.getTimestampCombiner()))
+            .keyedReduce(new MergeAccumulatorsFunction<>(combineFn, accumulatorCoder,
+                windowingStrategy.getTimestampCombiner()))
+            .map(new ExtractOutputFunction<>(combineFn, keyCoder, accumulatorCoder));
+    PCollection<KV<K, OutputT>> output = context.getOutput(transform);
+    context.setOutputDataSet(output, outputTSet);
+  }
+
+  private static <K, InputT, AccumT> Coder<AccumT> getAccumulatorCoder(
+      Combine.CombineFn<InputT, AccumT, ?> combineFn, PCollection<KV<K, InputT>> input) {
+    try {
+      return combineFn.getAccumulatorCoder(input.getPipeline().getCoderRegistry(),
+          ((KvCoder<K, InputT>) input.getCoder()).getValueCoder());
+    } catch (CannotProvideCoderException e) {
+      LOG.fine(() -> "No accumulator coder for " + combineFn + ": " + e.getMessage());
+      return null;
+    }
+  }
+}
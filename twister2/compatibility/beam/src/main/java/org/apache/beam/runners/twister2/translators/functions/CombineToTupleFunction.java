@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.runners.twister2.utils.TranslationUtils;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.TimestampCombiner;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.Instant;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.MapFunc;
+
+/**
+ * Adds the value of an element in a single window to a new accumulator. The key and the window
+ * become the key of the tuple, and the accumulator with the output timestamp its value, so
+ * the accumulators of a key and window can be merged before they are sent.
+ */
+public class CombineToTupleFunction<K, InputT, AccumT>
+    implements MapFunc<Tuple<EncodedKey, byte[]>, WindowedValue<KV<K, InputT>>> {
+
+  private final Combine.CombineFn<InputT, AccumT, ?> combineFn;
+  private final Coder<KV<K, BoundedWindow>> keyCoder;
+  private final Coder<KV<AccumT, Instant>> accumulatorCoder;
+  private final TimestampCombiner timestampCombiner;
+
+  public CombineToTupleFunction(Combine.CombineFn<InputT, AccumT, ?> combineFn,
+                                Coder<KV<K, BoundedWindow>> keyCoder,
+                                Coder<KV<AccumT, Instant>> accumulatorCoder,
+                                TimestampCombiner timestampCombiner) {
+    this.combineFn = combineFn;
+    this.keyCoder = keyCoder;
+    this.accumulatorCoder = accumulatorCoder;
+    this.timestampCombiner = timestampCombiner;
+  }
+
+  @Override
+  public Tuple<EncodedKey, byte[]> map(WindowedValue<KV<K, InputT>> input) {
+    BoundedWindow window = input.getWindows().iterator().next();
+    AccumT accumulator = combineFn.addInput(combineFn.createAccumulator(),
+        input.getValue().getValue());
+    Instant timestamp = timestampCombiner.assign(window, input.getTimestamp());
+    return new Tuple<>(
+        new EncodedKey(TranslationUtils.toByteArray(
+            KV.of(input.getValue().getKey(), window), keyCoder)),
+        TranslationUtils.toByteArray(
+            KV.of(combineFn.compact(accumulator), timestamp), accumulatorCoder));
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+
+/**
+ * Applies a function written for the iterators of the batch TSets to the single elements of a
+ * streaming TSet, each element is given to the function as an iterator of one element.
+ */
+public class ElementFunction<O, T> implements ComputeCollectorFunc<O, T> {
+
+  private final ComputeCollectorFunc<O, Iterator<T>> function;
+
+  public ElementFunction(ComputeCollectorFunc<O, Iterator<T>> function) {
+    this.function = function;
+  }
+
+  @Override
+  public void compute(T input, RecordCollector<O> output) {
+    function.compute(Collections.singletonList(input).iterator(), output);
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+    function.prepare(context);
+  }
+
+  @Override
+  public void close() {
+    function.close();
+  }
+}
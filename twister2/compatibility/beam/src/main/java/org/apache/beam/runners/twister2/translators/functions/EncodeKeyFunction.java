@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.runners.twister2.utils.TranslationUtils;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.MapFunc;
+
+/**
+ * Map an element to a tuple of its encoded key and its value encoded in its windows. The key
+ * hashes and compares by its bytes, so the elements of a key go to the same target.
+ */
+public class EncodeKeyFunction<K, V>
+    implements MapFunc<Tuple<EncodedKey, byte[]>, WindowedValue<KV<K, V>>> {
+
+  private final Coder<K> keyCoder;
+  private final WindowedValue.WindowedValueCoder<V> wvCoder;
+
+  public EncodeKeyFunction(Coder<K> keyCoder, WindowedValue.WindowedValueCoder<V> wvCoder) {
+    this.keyCoder = keyCoder;
+    this.wvCoder = wvCoder;
+  }
+
+  @Override
+  public Tuple<EncodedKey, byte[]> map(WindowedValue<KV<K, V>> input) {
+    WindowedValue<V> value = WindowedValue.of(input.getValue().getValue(),
+        input.getTimestamp(), input.getWindows(), input.getPane());
+    return new Tuple<>(
+        new EncodedKey(TranslationUtils.toByteArray(input.getValue().getKey(), keyCoder)),
+        TranslationUtils.toByteArray(value, wvCoder));
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+  }
+}
@@ -15,10 +15,27 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.apache.beam.runners.twister2;
+package org.apache.beam.runners.twister2.translators.functions;
+
+import org.apache.beam.sdk.util.WindowedValue;
+
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.FlatMapFunc;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
 
 /**
- * doc.
+ * Outputs a value for each window of an element.
  */
-public class Twister2StreamTranslationContext {
+public class ExplodeWindowsFunction<T> implements FlatMapFunc<WindowedValue<T>, WindowedValue<T>> {
+
+  @Override
+  public void flatMap(WindowedValue<T> input, RecordCollector<WindowedValue<T>> collector) {
+    for (WindowedValue<T> value : input.explodeWindows()) {
+      collector.collect(value);
+    }
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.runners.twister2.utils.TranslationUtils;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.PaneInfo;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.Instant;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.MapFunc;
+
+/**
+ * Extracts the output of the merged accumulator of a key and window.
+ */
+public class ExtractOutputFunction<K, AccumT, OutputT>
+    implements MapFunc<WindowedValue<KV<K, OutputT>>, Tuple<EncodedKey, byte[]>> {
+
+  private final Combine.CombineFn<?, AccumT, OutputT> combineFn;
+  private final Coder<KV<K, BoundedWindow>> keyCoder;
+  private final Coder<KV<AccumT, Instant>> accumulatorCoder;
+
+  public ExtractOutputFunction(Combine.CombineFn<?, AccumT, OutputT> combineFn,
+                               Coder<KV<K, BoundedWindow>> keyCoder,
+                               Coder<KV<AccumT, Instant>> accumulatorCoder) {
+    this.combineFn = combineFn;
+    this.keyCoder = keyCoder;
+    this.accumulatorCoder = accumulatorCoder;
+  }
+
+  @Override
+  public WindowedValue<KV<K, OutputT>> map(Tuple<EncodedKey, byte[]> input) {
+    KV<K, BoundedWindow> key = TranslationUtils.fromByteArray(input.getKey().getBytes(),
+        keyCoder);
+    KV<AccumT, Instant> accumulator = TranslationUtils.fromByteArray(input.getValue(),
+        accumulatorCoder);
+    // with the default trigger a non merging window fires once, after all of its input
+    return WindowedValue.of(
+        KV.of(key.getKey(), combineFn.extractOutput(accumulator.getKey())),
+        accumulator.getValue(),
+        key.getValue(),
+        PaneInfo.ON_TIME_AND_ONLY_FIRING);
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+  }
+}
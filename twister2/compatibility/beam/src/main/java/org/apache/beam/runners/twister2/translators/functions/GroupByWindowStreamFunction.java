@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.apache.beam.runners.core.InMemoryStateInternals;
+import org.apache.beam.runners.core.InMemoryTimerInternals;
+import org.apache.beam.runners.core.OutputWindowedValue;
+import org.apache.beam.runners.core.ReduceFnRunner;
+import org.apache.beam.runners.core.SystemReduceFn;
+import org.apache.beam.runners.core.TimerInternals;
+import org.apache.beam.runners.core.UnsupportedSideInputReader;
+import org.apache.beam.runners.core.construction.TriggerTranslation;
+import org.apache.beam.runners.core.triggers.ExecutableTriggerStateMachine;
+import org.apache.beam.runners.core.triggers.TriggerStateMachines;
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.runners.twister2.utils.TranslationUtils;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.state.TimeDomain;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.PaneInfo;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.WindowingStrategy;
+import org.joda.time.Instant;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+import edu.iu.dsc.tws.api.tset.fn.WatermarkFunc;
+
+/**
+ * Groups the values of a key by window in a streaming pipeline. The panes are produced by the
+ * trigger of the windowing strategy when the elements arrive and when the input watermark
+ * passes the end of a window, elements of windows that are past the allowed lateness are
+ * dropped. The state and the timers of a key are kept until all of its windows are closed.
+ */
+public class GroupByWindowStreamFunction<K, V, W extends BoundedWindow>
+    implements ComputeCollectorFunc<WindowedValue<KV<K, Iterable<V>>>, Tuple<EncodedKey, byte[]>>,
+    WatermarkFunc<WindowedValue<KV<K, Iterable<V>>>> {
+  private static final Logger LOG = Logger.getLogger(GroupByWindowStreamFunction.class.getName());
+
+  private final Coder<K> keyCoder;
+  private final WindowedValue.WindowedValueCoder<V> wvCoder;
+  private final WindowingStrategy<?, W> windowingStrategy;
+  private final SystemReduceFn<K, V, Iterable<V>, Iterable<V>, W> reduceFn;
+
+  private transient ExecutableTriggerStateMachine triggerStateMachine;
+
+  /**
+   * The keys with open windows
+   */
+  private transient Map<EncodedKey, KeyState<K>> keys;
+
+  private transient Instant inputWatermark;
+
+  private transient StreamOutputWindowedValue<K, V> outputter;
+
+  public GroupByWindowStreamFunction(
+      Coder<K> keyCoder,
+      WindowedValue.WindowedValueCoder<V> wvCoder,
+      WindowingStrategy<?, W> windowingStrategy,
+      SystemReduceFn<K, V, Iterable<V>, Iterable<V>, W> reduceFn) {
+    this.keyCoder = keyCoder;
+    this.wvCoder = wvCoder;
+    this.windowingStrategy = windowingStrategy;
+    this.reduceFn = reduceFn;
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+    triggerStateMachine = ExecutableTriggerStateMachine.create(
+        TriggerStateMachines.stateMachineForTrigger(
+            TriggerTranslation.toProto(windowingStrategy.getTrigger())));
+    keys = new HashMap<>();
+    inputWatermark = BoundedWindow.TIMESTAMP_MIN_VALUE;
+    outputter = new StreamOutputWindowedValue<>();
+  }
+
+  @Override
+  public void compute(Tuple<EncodedKey, byte[]> input,
+                      RecordCollector<WindowedValue<KV<K, Iterable<V>>>> output) {
+    WindowedValue<V> value = TranslationUtils.fromByteArray(input.getValue(), wvCoder);
+    List<WindowedValue<V>> onTime = new ArrayList<>();
+    for (WindowedValue<V> windowedValue : value.explodeWindows()) {
+      BoundedWindow window = windowedValue.getWindows().iterator().next();
+      if (window.maxTimestamp().plus(windowingStrategy.getAllowedLateness())
+          .isBefore(inputWatermark)) {
+        LOG.fine(() -> "Dropping an element of the expired window " + window);
+      } else {
+        onTime.add(windowedValue);
+      }
+    }
+    if (onTime.isEmpty()) {
+      return;
+    }
+
+    KeyState<K> state = keys.get(input.getKey());
+    if (state == null) {
+      K key = TranslationUtils.fromByteArray(input.getKey().getBytes(), keyCoder);
+      state = new KeyState<>(key, inputWatermark);
+      keys.put(input.getKey(), state);
+    }
+    try {
+      state.timerInternals.advanceProcessingTime(Instant.now());
+      state.timerInternals.advanceSynchronizedProcessingTime(Instant.now());
+      ReduceFnRunner<K, V, Iterable<V>, W> runner = createRunner(state);
+      runner.processElements(onTime);
+      fireEligibleTimers(state.timerInternals, runner);
+      runner.persist();
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to group the elements of key " + state.key, e);
+    }
+    emit(output);
+  }
+
+  @Override
+  public void onWatermark(long timestamp,
+                          RecordCollector<WindowedValue<KV<K, Iterable<V>>>> output) {
+    Instant watermark = new Instant(timestamp);
+    if (!watermark.isAfter(inputWatermark)) {
+      return;
+    }
+    inputWatermark = watermark;
+    Instant now = Instant.now();
+    Iterator<KeyState<K>> it = keys.values().iterator();
+    while (it.hasNext()) {
+      KeyState<K> state = it.next();
+      try {
+        state.timerInternals.advanceInputWatermark(watermark);
+        state.timerInternals.advanceProcessingTime(now);
+        state.timerInternals.advanceSynchronizedProcessingTime(now);
+        // only the keys with timers that are due need a runner
+        if (isDue(state.timerInternals.getNextTimer(TimeDomain.EVENT_TIME), watermark)
+            || isDue(state.timerInternals.getNextTimer(TimeDomain.PROCESSING_TIME), now)) {
+          ReduceFnRunner<K, V, Iterable<V>, W> runner = createRunner(state);
+          fireEligibleTimers(state.timerInternals, runner);
+          runner.persist();
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Failed to fire the timers of key " + state.key, e);
+      }
+      if (state.timerInternals.getNextTimer(TimeDomain.EVENT_TIME) == null
+          && state.timerInternals.getNextTimer(TimeDomain.PROCESSING_TIME) == null) {
+        it.remove();
+      }
+    }
+    emit(output);
+  }
+
+  private static boolean isDue(Instant timer, Instant time) {
+    return timer != null && !timer.isAfter(time);
+  }
+
+  private ReduceFnRunner<K, V, Iterable<V>, W> createRunner(KeyState<K> state) {
+    return new ReduceFnRunner<>(
+        state.key,
+        windowingStrategy,
+        triggerStateMachine,
+        state.stateInternals,
+        state.timerInternals,
+        outputter,
+        new UnsupportedSideInputReader("GroupAlsoByWindow"),
+        reduceFn,
+        null);
+  }
+
+  private void emit(RecordCollector<WindowedValue<KV<K, Iterable<V>>>> output) {
+    for (WindowedValue<KV<K, Iterable<V>>> value : outputter.getOutputs()) {
+      output.collect(value);
+    }
+    outputter.clear();
+  }
+
+  private void fireEligibleTimers(
+      InMemoryTimerInternals timerInternals, ReduceFnRunner<K, V, Iterable<V>, W> reduceFnRunner)
+      throws Exception {
+    List<TimerInternals.TimerData> timers = new ArrayList<>();
+    while (true) {
+      TimerInternals.TimerData timer;
+      while ((timer = timerInternals.removeNextEventTimer()) != null) {
+        timers.add(timer);
+      }
+      while ((timer = timerInternals.removeNextProcessingTimer()) != null) {
+        timers.add(timer);
+      }
+      while ((timer = timerInternals.removeNextSynchronizedProcessingTimer()) != null) {
+        timers.add(timer);
+      }
+      if (timers.isEmpty()) {
+        break;
+      }
+      reduceFnRunner.onTimers(timers);
+      timers.clear();
+    }
+  }
+
+  private static final class KeyState<K> {
+    private final K key;
+    private final InMemoryStateInternals<K> stateInternals;
+    private final InMemoryTimerInternals timerInternals;
+
+    private KeyState(K key, Instant inputWatermark) {
+      this.key = key;
+      this.stateInternals = InMemoryStateInternals.forKey(key);
+      this.timerInternals = new InMemoryTimerInternals();
+      try {
+        timerInternals.advanceInputWatermark(inputWatermark);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static class StreamOutputWindowedValue<K, V>
+      implements OutputWindowedValue<KV<K, Iterable<V>>> {
+    private final List<WindowedValue<KV<K, Iterable<V>>>> outputs = new ArrayList<>();
+
+    @Override
+    public void outputWindowedValue(
+        KV<K, Iterable<V>> output,
+        Instant timestamp,
+        Collection<? extends BoundedWindow> windows,
+        PaneInfo pane) {
+      outputs.add(WindowedValue.of(output, timestamp, windows, pane));
+    }
+
+    @Override
+    public <AT> void outputWindowedValue(
+        TupleTag<AT> tag,
+        AT output,
+        Instant timestamp,
+        Collection<? extends BoundedWindow> windows,
+        PaneInfo pane) {
+      throw new UnsupportedOperationException("GroupAlsoByWindow should not use tagged outputs.");
+    }
+
+    List<WindowedValue<KV<K, Iterable<V>>>> getOutputs() {
+      return outputs;
+    }
+
+    void clear() {
+      outputs.clear();
+    }
+  }
+}
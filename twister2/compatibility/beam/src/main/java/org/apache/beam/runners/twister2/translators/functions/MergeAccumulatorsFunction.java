@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.functions;
+
+import java.util.Arrays;
+
+import org.apache.beam.runners.twister2.utils.TranslationUtils;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.windowing.TimestampCombiner;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.Instant;
+
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
+
+/**
+ * Merges two encoded accumulators of the same key and window, and combines their timestamps.
+ */
+public class MergeAccumulatorsFunction<AccumT> implements ReduceFunc<byte[]> {
+
+  private final Combine.CombineFn<?, AccumT, ?> combineFn;
+  private final Coder<KV<AccumT, Instant>> accumulatorCoder;
+  private final TimestampCombiner timestampCombiner;
+
+  public MergeAccumulatorsFunction(Combine.CombineFn<?, AccumT, ?> combineFn,
+                                   Coder<KV<AccumT, Instant>> accumulatorCoder,
+                                   TimestampCombiner timestampCombiner) {
+    this.combineFn = combineFn;
+    this.accumulatorCoder = accumulatorCoder;
+    this.timestampCombiner = timestampCombiner;
+  }
+
+  @Override
+  public byte[] reduce(byte[] t1, byte[] t2) {
+    KV<AccumT, Instant> first = TranslationUtils.fromByteArray(t1, accumulatorCoder);
+    KV<AccumT, Instant> second = TranslationUtils.fromByteArray(t2, accumulatorCoder);
+    AccumT merged = combineFn.mergeAccumulators(
+        Arrays.asList(first.getKey(), second.getKey()));
+    Instant timestamp = timestampCombiner.combine(first.getValue(), second.getValue());
+    return TranslationUtils.toByteArray(
+        KV.of(combineFn.compact(merged), timestamp), accumulatorCoder);
+  }
+
+  @Override
+  public void prepare(TSetContext context) {
+  }
+}
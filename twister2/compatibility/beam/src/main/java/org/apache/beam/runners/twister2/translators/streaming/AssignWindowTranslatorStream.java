@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.streaming;
+
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
+import org.apache.beam.runners.twister2.translators.StreamTransformTranslator;
+import org.apache.beam.runners.twister2.translators.functions.AssignWindowsFunction;
+import org.apache.beam.runners.twister2.translators.functions.ElementFunction;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.transforms.windowing.Window;
+import org.apache.beam.sdk.transforms.windowing.WindowFn;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.WindowingStrategy;
+
+import edu.iu.dsc.tws.tset.sets.streaming.SComputeTSet;
+import edu.iu.dsc.tws.tset.sets.streaming.StreamingTSetImpl;
+
+/**
+ * Assign Window translator for the streaming pipelines.
+ */
+public class AssignWindowTranslatorStream<T>
+    implements StreamTransformTranslator<Window.Assign<T>> {
+  @Override
+  public void translateNode(
+      Window.Assign<T> transform, Twister2StreamingTranslationContext context) {
+    StreamingTSetImpl<WindowedValue<T>> inputTTSet =
+        context.getInputDataSet(context.getInput(transform));
+
+    final WindowingStrategy<T, BoundedWindow> windowingStrategy =
+        (WindowingStrategy<T, BoundedWindow>) context.getOutput(transform).getWindowingStrategy();
+
+    WindowFn<T, BoundedWindow> windowFn = windowingStrategy.getWindowFn();
+    SComputeTSet<WindowedValue<T>, WindowedValue<T>> outputTSet =
+        inputTTSet.direct().compute(
+            new ElementFunction<>(new AssignWindowsFunction<T>(windowFn)));
+    context.setOutputDataSet(context.getOutput(transform), outputTSet);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.streaming;
+
+import org.apache.beam.runners.core.SystemReduceFn;
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
+import org.apache.beam.runners.twister2.translators.StreamTransformTranslator;
+import org.apache.beam.runners.twister2.translators.functions.EncodeKeyFunction;
+import org.apache.beam.runners.twister2.translators.functions.GroupByWindowStreamFunction;
+import org.apache.beam.runners.twister2.utils.EncodedKey;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.WindowingStrategy;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.tset.fn.HashingPartitioner;
+import edu.iu.dsc.tws.tset.sets.streaming.SComputeTSet;
+import edu.iu.dsc.tws.tset.sets.streaming.SKeyedTSet;
+import edu.iu.dsc.tws.tset.sets.streaming.StreamingTSetImpl;
+
+/**
+ * GroupByKey translator for the streaming pipelines. The elements are partitioned by their
+ * encoded keys and grouped by window as they arrive, the panes are fired by the trigger and the
+ * watermarks of the inputs.
+ */
+public class GroupByKeyTranslatorStream<K, V>
+    implements StreamTransformTranslator<GroupByKey<K, V>> {
+
+  @Override
+  public void translateNode(
+      GroupByKey<K, V> transform, Twister2StreamingTranslationContext context) {
+    PCollection<KV<K, V>> input = context.getInput(transform);
+    StreamingTSetImpl<WindowedValue<KV<K, V>>> inputTTSet = context.getInputDataSet(input);
+    final KvCoder<K, V> coder = (KvCoder<K, V>) input.getCoder();
+    WindowingStrategy<?, BoundedWindow> windowingStrategy =
+        (WindowingStrategy<?, BoundedWindow>) input.getWindowingStrategy();
+    final WindowedValue.WindowedValueCoder<V> wvCoder = WindowedValue.FullWindowedValueCoder.of(
+        coder.getValueCoder(), windowingStrategy.getWindowFn().windowCoder());
+
+    SKeyedTSet<EncodedKey, byte[]> keyedTSet =
+        inputTTSet.mapToTuple(new EncodeKeyFunction<K, V>(coder.getKeyCoder(), wvCoder));
+
+    SComputeTSet<WindowedValue<KV<K, Iterable<V>>>, Tuple<EncodedKey, byte[]>> outputTSet =
+        keyedTSet
+            .keyedPartition(new HashingPartitioner<>())
+            .compute(
+                new GroupByWindowStreamFunction<K, V, BoundedWindow>(
+                    coder.getKeyCoder(),
+                    wvCoder,
+                    windowingStrategy,
+                    SystemReduceFn.buffering(coder.getValueCoder())));
+    PCollection output = context.getOutput(transform);
+    context.setOutputDataSet(output, outputTSet);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.beam.runners.twister2.translators.streaming;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.beam.runners.core.construction.ParDoTranslation;
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
+import org.apache.beam.runners.twister2.translators.StreamTransformTranslator;
+import org.apache.beam.runners.twister2.translators.functions.DoFnFunction;
+import org.apache.beam.runners.twister2.translators.functions.ElementFunction;
+import org.apache.beam.runners.twister2.translators.functions.OutputTagFilter;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.DoFnSchemaInformation;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.join.RawUnionValue;
+import org.apache.beam.sdk.transforms.reflect.DoFnSignature;
+import org.apache.beam.sdk.transforms.reflect.DoFnSignatures;
+import org.apache.beam.sdk.util.WindowedValue;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PValue;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.WindowingStrategy;
+import org.apache.beam.vendor.guava.v26_0_jre.com.google.common.collect.Maps;
+
+import edu.iu.dsc.tws.tset.sets.streaming.SComputeTSet;
+import edu.iu.dsc.tws.tset.sets.streaming.StreamingTSetImpl;
+
+/**
+ * ParDo translator for the streaming pipelines, the elements are processed one at a time as
+ * they arrive. Side inputs and the state and timers of a DoFn are not supported.
+ */
+public class ParDoMultiOutputTranslatorStream<IT, OT>
+    implements StreamTransformTranslator<ParDo.MultiOutput<IT, OT>> {
+
+  @Override
+  public void translateNode(
+      ParDo.MultiOutput<IT, OT> transform, Twister2StreamingTranslationContext context) {
+    DoFn<IT, OT> doFn = transform.getFn();
+    DoFnSignature signature = DoFnSignatures.getSignature(doFn.getClass());
+    if (signature.usesState() || signature.usesTimers()) {
+      throw new UnsupportedOperationException(
+          "State and timers are not supported by the streaming pipelines: " + doFn);
+    }
+    if (!transform.getSideInputs().isEmpty()) {
+      throw new UnsupportedOperationException(
+          "Side inputs are not supported by the streaming pipelines: " + transform);
+    }
+
+    StreamingTSetImpl<WindowedValue<IT>> inputTTSet =
+        context.getInputDataSet(context.getInput(transform));
+
+    WindowingStrategy<?, ?> windowingStrategy = context.getInput(transform).getWindowingStrategy();
+    Coder<IT> inputCoder = (Coder<IT>) context.getInput(transform).getCoder();
+
+    Map<TupleTag<?>, PValue> outputs = context.getOutputs();
+    Map<TupleTag<?>, Coder<?>> outputCoders = context.getOutputCoders();
+
+    DoFnSchemaInformation doFnSchemaInformation =
+        ParDoTranslation.getSchemaInformation(context.getCurrentTransform());
+    TupleTag<OT> mainOutput = transform.getMainOutputTag();
+    List<TupleTag<?>> additionalOutputTags = new ArrayList<>(outputs.size() - 1);
+
+    TupleTag<?> mainOutputTag;
+    try {
+      mainOutputTag = ParDoTranslation.getMainOutputTag(context.getCurrentTransform());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    Map<TupleTag<?>, Integer> outputMap = Maps.newHashMap();
+    // put the main output at index 0
+    outputMap.put(mainOutputTag, 0);
+    int count = 1;
+    for (TupleTag<?> tag : outputs.keySet()) {
+      if (!outputMap.containsKey(tag)) {
+        outputMap.put(tag, count++);
+      }
+    }
+
+    SComputeTSet<RawUnionValue, WindowedValue<IT>> outputTSet =
+        inputTTSet
+            .direct()
+            .compute(
+                new ElementFunction<>(
+                    new DoFnFunction<OT, IT>(
+                        context,
+                        doFn,
+                        inputCoder,
+                        outputCoders,
+                        additionalOutputTags,
+                        windowingStrategy,
+                        Collections.emptyMap(),
+                        mainOutput,
+                        doFnSchemaInformation,
+                        outputMap)));
+
+    for (Map.Entry<TupleTag<?>, PValue> output : outputs.entrySet()) {
+      SComputeTSet<WindowedValue<OT>, RawUnionValue> tempTSet =
+          outputTSet.direct().compute(
+              new ElementFunction<>(
+                  new OutputTagFilter<OT, IT>(outputMap.get(output.getKey()))));
+      context.setOutputDataSet((PCollection) output.getValue(), tempTSet);
+    }
+  }
+}
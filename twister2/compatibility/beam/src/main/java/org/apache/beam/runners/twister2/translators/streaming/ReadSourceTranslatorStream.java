@@ -17,19 +17,30 @@
  */
 package org.apache.beam.runners.twister2.translators.streaming;
 
-import org.apache.beam.runners.twister2.Twister2StreamTranslationContext;
+import org.apache.beam.runners.twister2.Twister2PipelineOptions;
+import org.apache.beam.runners.twister2.Twister2StreamingTranslationContext;
+import org.apache.beam.runners.twister2.translation.wrappers.Twister2UnboundedSource;
 import org.apache.beam.runners.twister2.translators.StreamTransformTranslator;
-import org.apache.beam.sdk.transforms.PTransform;
-import org.apache.beam.sdk.values.PBegin;
+import org.apache.beam.sdk.io.Read;
+import org.apache.beam.sdk.util.WindowedValue;
 import org.apache.beam.sdk.values.PCollection;
 
+import edu.iu.dsc.tws.tset.sets.streaming.SSourceTSet;
+
 /**
- * doc.
+ * Unbounded source translator.
  */
 public class ReadSourceTranslatorStream<T>
-    implements StreamTransformTranslator<PTransform<PBegin, PCollection<T>>> {
+    implements StreamTransformTranslator<Read.Unbounded<T>> {
   @Override
   public void translateNode(
-      PTransform<PBegin, PCollection<T>> transform, Twister2StreamTranslationContext context) {
+      Read.Unbounded<T> transform, Twister2StreamingTranslationContext context) {
+    Twister2UnboundedSource<T> twister2UnboundedSource =
+        new Twister2UnboundedSource<>(transform.getSource(), context.getSerializableOptions());
+    int parallelism = context.getOptions().as(Twister2PipelineOptions.class).getParallelism();
+    SSourceTSet<WindowedValue<T>> sourceTSet =
+        context.getStreamingEnvironment().createSource(twister2UnboundedSource, parallelism);
+    PCollection<T> output = context.getOutput(transform);
+    context.setOutputDataSet(output, sourceTSet);
   }
 }
@@ -21,6 +21,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.util.CoderUtils;
 import org.apache.beam.sdk.util.WindowedValue;
 
 /**
@@ -65,4 +67,20 @@ public final class TranslationUtils {
       throw new IllegalStateException("Error decoding bytes for coder: " + coder, e);
     }
   }
+
+  /**
+   * Utility method for serializing a value using the specified coder.
+   *
+   * @param value value to be serialized.
+   * @param coder Coder to serialize with.
+   * @param <T> Type of the value.
+   * @return Serialized bytes.
+   */
+  public static <T> byte[] toByteArray(T value, Coder<T> coder) {
+    try {
+      return CoderUtils.encodeToByteArray(coder, value);
+    } catch (CoderException e) {
+      throw new IllegalStateException("Error encoding value for coder: " + coder, e);
+    }
+  }
 }
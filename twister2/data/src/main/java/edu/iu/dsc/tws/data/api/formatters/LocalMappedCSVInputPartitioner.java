@@ -0,0 +1,63 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.formatters;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.data.api.assigner.OrderedInputSplitAssigner;
+import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.api.splits.MappedCSVInputSplit;
+import edu.iu.dsc.tws.data.fs.io.InputSplitAssigner;
+
+/**
+ * Splits a CSV file with numeric columns in to a given number of lines for each task, and reads
+ * the lines as double arrays with {@link MappedCSVInputSplit}.
+ */
+public class LocalMappedCSVInputPartitioner extends CSVInputPartitioner<double[]> {
+
+  private static final long serialVersionUID = 1L;
+
+  private int numberOfTasks;
+
+  private int columns = -1;
+
+  private OrderedInputSplitAssigner<double[]> assigner;
+
+  public LocalMappedCSVInputPartitioner(Path filePath, int numTasks, int datasize,
+                                        Config config) {
+    super(filePath, config, datasize);
+    this.numberOfTasks = numTasks;
+  }
+
+  public LocalMappedCSVInputPartitioner(Path filePath, int numTasks, int datasize,
+                                        int columns, Config config) {
+    this(filePath, numTasks, datasize, config);
+    this.columns = columns;
+  }
+
+  @Override
+  protected MappedCSVInputSplit createSplit(int num, Path file, long start,
+                                            long length, String[] hosts) {
+    MappedCSVInputSplit split = new MappedCSVInputSplit(num, file, start, length, hosts);
+    split.setColumns(columns);
+    return split;
+  }
+
+  @Override
+  public InputSplitAssigner<double[]> getInputSplitAssigner(
+      FileInputSplit<double[]>[] inputSplits) {
+    if (assigner == null) {
+      assigner = new OrderedInputSplitAssigner<>(inputSplits, numberOfTasks);
+    }
+    return assigner;
+  }
+}
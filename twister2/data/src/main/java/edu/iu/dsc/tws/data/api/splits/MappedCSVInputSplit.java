@@ -0,0 +1,272 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.data.api.formatters.FileInputPartitioner;
+import edu.iu.dsc.tws.data.fs.local.LocalDataInputStream;
+import edu.iu.dsc.tws.data.utils.FileSystemUtils;
+import edu.iu.dsc.tws.data.utils.TextParseUtils;
+
+/**
+ * Reads a split of a CSV file with numeric columns, returning every line as a double array.
+ * Local files are memory mapped a region at a time and the other file systems are read in to a
+ * buffer of the same size. The line and field delimiters are searched a word at a time and the
+ * numbers are parsed directly from the buffer, so no strings are created for the records.
+ * <p>
+ * The split must start at the beginning of a line, as created by the CSV partitioners.
+ */
+public class MappedCSVInputSplit extends FileInputSplit<double[]> {
+
+  private static final Logger LOG = Logger.getLogger(MappedCSVInputSplit.class.getName());
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The default size of a mapped region = 256MB.
+   */
+  private static final int DEFAULT_REGION_SIZE = 256 * 1024 * 1024;
+
+  private static final byte NEW_LINE = (byte) '\n';
+
+  private static final byte CARRIAGE_RETURN = (byte) '\r';
+
+  private byte fieldDelimiter = (byte) ',';
+
+  private int regionSize = DEFAULT_REGION_SIZE;
+
+  /**
+   * Number of columns in a line, if not set it is taken from the first line
+   */
+  private int columns = -1;
+
+  private transient FileChannel channel;
+
+  private transient ByteBuffer region;
+
+  /**
+   * Position of the first byte of the region in the file
+   */
+  private transient long regionStart;
+
+  /**
+   * Current position in the region
+   */
+  private transient int position;
+
+  private transient long splitEnd;
+
+  private transient boolean end;
+
+  public MappedCSVInputSplit(int num, Path file, long start, long length, String[] hosts) {
+    super(num, file, start, length, hosts);
+  }
+
+  public byte getFieldDelimiter() {
+    return fieldDelimiter;
+  }
+
+  public void setFieldDelimiter(byte fieldDelimiter) {
+    if (fieldDelimiter == NEW_LINE || fieldDelimiter == CARRIAGE_RETURN) {
+      throw new IllegalArgumentException("The field delimiter cannot be a line delimiter");
+    }
+    this.fieldDelimiter = fieldDelimiter;
+  }
+
+  public int getRegionSize() {
+    return regionSize;
+  }
+
+  public void setRegionSize(int regionSize) {
+    if (regionSize < Long.BYTES) {
+      throw new IllegalArgumentException("Region size must be at least " + Long.BYTES);
+    }
+    this.regionSize = regionSize;
+  }
+
+  public int getColumns() {
+    return columns;
+  }
+
+  public void setColumns(int columns) {
+    this.columns = columns;
+  }
+
+  @Override
+  public void open(Config cfg) throws IOException {
+    super.open(cfg);
+    if (this.stream instanceof LocalDataInputStream) {
+      this.channel = ((LocalDataInputStream) this.stream).getChannel();
+    }
+
+    if (this.splitLength == FileInputPartitioner.READ_WHOLE_SPLIT_FLAG) {
+      long fileLength = channel != null ? channel.size()
+          : FileSystemUtils.get(getPath(), cfg).getFileStatus(getPath()).getLen();
+      this.splitEnd = fileLength;
+    } else {
+      this.splitEnd = this.splitStart + this.splitLength;
+    }
+    LOG.fine(String.format("Reading split %s [%d, %d] %s", getPath(), splitStart, splitEnd,
+        channel != null ? "memory mapped" : "buffered"));
+
+    this.end = this.splitStart >= this.splitEnd;
+    if (!end) {
+      loadRegion(this.splitStart);
+    }
+  }
+
+  /**
+   * Read the next line in to a double array.
+   *
+   * @param reuse an array to reuse, a new one is created if it is null or not the size of a line
+   * @return the values of the line or null if there are no more lines
+   */
+  @Override
+  public double[] nextRecord(double[] reuse) throws IOException {
+    while (!end) {
+      int lineEnd = findLineEnd();
+      int recordEnd = lineEnd;
+      if (recordEnd > position && region.get(recordEnd - 1) == CARRIAGE_RETURN) {
+        recordEnd--;
+      }
+
+      double[] values = null;
+      // skip the empty lines
+      if (recordEnd > position) {
+        values = parseLine(position, recordEnd, reuse);
+      }
+
+      this.position = lineEnd + 1;
+      if (this.regionStart + this.position >= this.splitEnd) {
+        this.end = true;
+      } else if (this.position >= this.region.limit()) {
+        loadRegion(this.regionStart + this.position);
+      }
+
+      if (values != null) {
+        return values;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find the end of the current line, loading the next region if the line continues after
+   * the current region.
+   */
+  private int findLineEnd() throws IOException {
+    int lineEnd = TextParseUtils.indexOf(region, position, region.limit(), NEW_LINE);
+    if (lineEnd < 0 && regionStart + region.limit() < splitEnd) {
+      if (position == 0) {
+        throw new IOException("The line at " + regionStart + " is longer than the region size "
+            + regionSize);
+      }
+      loadRegion(regionStart + position);
+      lineEnd = TextParseUtils.indexOf(region, position, region.limit(), NEW_LINE);
+    }
+    // the last line of a split may not have a line delimiter
+    return lineEnd < 0 ? region.limit() : lineEnd;
+  }
+
+  private double[] parseLine(int from, int to, double[] reuse) throws IOException {
+    if (columns <= 0) {
+      columns = countFields(from, to);
+    }
+    double[] values = reuse != null && reuse.length == columns ? reuse : new double[columns];
+
+    int fieldStart = from;
+    for (int i = 0; i < columns; i++) {
+      if (fieldStart > to) {
+        throw new IOException(String.format("Expected %d columns in the line at %d of %s",
+            columns, regionStart + from, getPath()));
+      }
+      int fieldEnd = TextParseUtils.indexOf(region, fieldStart, to, fieldDelimiter);
+      if (fieldEnd < 0) {
+        fieldEnd = to;
+      }
+      try {
+        values[i] = TextParseUtils.parseDouble(region, fieldStart, fieldEnd);
+      } catch (NumberFormatException e) {
+        throw new IOException(String.format("Invalid value in column %d of the line at %d of %s",
+            i, regionStart + from, getPath()), e);
+      }
+      fieldStart = fieldEnd + 1;
+    }
+    return values;
+  }
+
+  private int countFields(int from, int to) {
+    int count = 1;
+    int index = TextParseUtils.indexOf(region, from, to, fieldDelimiter);
+    while (index >= 0) {
+      count++;
+      index = TextParseUtils.indexOf(region, index + 1, to, fieldDelimiter);
+    }
+    return count;
+  }
+
+  /**
+   * Map or read the region of the split starting from the given position of the file
+   */
+  private void loadRegion(long start) throws IOException {
+    int size = (int) Math.min(regionSize, splitEnd - start);
+    if (channel != null) {
+      this.region = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    } else {
+      if (region == null || region.capacity() < size) {
+        region = ByteBuffer.allocate(size);
+      }
+      byte[] bytes = region.array();
+      this.stream.seek(start);
+      int read = 0;
+      while (read < size) {
+        int count = this.stream.read(bytes, read, size - read);
+        if (count < 0) {
+          break;
+        }
+        read += count;
+      }
+      region.clear();
+      region.limit(read);
+      size = read;
+    }
+    this.region.order(ByteOrder.LITTLE_ENDIAN);
+    this.regionStart = start;
+    this.position = 0;
+    if (size == 0) {
+      this.end = true;
+    }
+  }
+
+  @Override
+  public boolean reachedEnd() {
+    return this.end;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.region = null;
+    this.channel = null;
+    if (this.stream != null) {
+      this.stream.close();
+      this.stream = null;
+    }
+    super.close();
+  }
+}
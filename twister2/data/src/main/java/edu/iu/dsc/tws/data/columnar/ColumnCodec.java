@@ -0,0 +1,382 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * Encodes and decodes the values of a column in a block. A chunk starts with the encoding, a
+ * flag saying whether the rest is compressed and the length of the uncompressed data.
+ * <p>
+ * All the encodings work on the values as longs, the floating point values are taken by their
+ * bits, so every encoding is lossless for every type.
+ */
+final class ColumnCodec {
+
+  private static final int CHUNK_HEADER = 1 + 1 + Integer.BYTES;
+
+  private ColumnCodec() {
+  }
+
+  /**
+   * Encode the first rows of a column with the smallest encoding
+   *
+   * @param type type of the column
+   * @param column the column array
+   * @param rows number of rows
+   * @param compress compress the chunk if it becomes smaller
+   * @return the chunk
+   */
+  static byte[] encode(RecordBatch.ColumnType type, Object column, int rows, boolean compress) {
+    long[] values = toLongs(type, column, rows);
+    int unit = type.getUnitSize();
+
+    int runs = rows == 0 ? 0 : 1;
+    for (int i = 1; i < rows; i++) {
+      if (values[i] != values[i - 1]) {
+        runs++;
+      }
+    }
+    long[] dictionary = distinct(values, rows);
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < rows; i++) {
+      min = Math.min(min, values[i]);
+      max = Math.max(max, values[i]);
+    }
+    int rangeWidth = rows == 0 ? 0 : bitWidth(max - min);
+    int indexWidth = bitWidth(dictionary.length - 1);
+
+    ColumnEncoding encoding = ColumnEncoding.PLAIN;
+    long size = (long) rows * unit;
+    long runLengthSize = Integer.BYTES + (long) runs * (Integer.BYTES + unit);
+    if (runLengthSize < size) {
+      encoding = ColumnEncoding.RUN_LENGTH;
+      size = runLengthSize;
+    }
+    long dictionarySize = Integer.BYTES + (long) dictionary.length * unit + 1
+        + packedBytes(rows, indexWidth);
+    if (dictionarySize < size) {
+      encoding = ColumnEncoding.DICTIONARY;
+      size = dictionarySize;
+    }
+    long bitPackedSize = Long.BYTES + 1 + packedBytes(rows, rangeWidth);
+    if (bitPackedSize < size) {
+      encoding = ColumnEncoding.BIT_PACKED;
+      size = bitPackedSize;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate((int) size);
+    switch (encoding) {
+      case PLAIN:
+        for (int i = 0; i < rows; i++) {
+          putValue(payload, unit, values[i]);
+        }
+        break;
+      case RUN_LENGTH:
+        payload.putInt(runs);
+        int start = 0;
+        for (int i = 1; i <= rows; i++) {
+          if (i == rows || values[i] != values[start]) {
+            payload.putInt(i - start);
+            putValue(payload, unit, values[start]);
+            start = i;
+          }
+        }
+        break;
+      case DICTIONARY:
+        payload.putInt(dictionary.length);
+        for (long value : dictionary) {
+          putValue(payload, unit, value);
+        }
+        payload.put((byte) indexWidth);
+        long[] indexes = new long[rows];
+        for (int i = 0; i < rows; i++) {
+          indexes[i] = Arrays.binarySearch(dictionary, values[i]);
+        }
+        pack(indexes, rows, indexWidth, payload);
+        break;
+      default:
+        payload.putLong(min);
+        payload.put((byte) rangeWidth);
+        for (int i = 0; i < rows; i++) {
+          values[i] -= min;
+        }
+        pack(values, rows, rangeWidth, payload);
+    }
+    return toChunk(encoding, payload.array(), compress);
+  }
+
+  /**
+   * Decode a chunk in to the first rows of a column
+   *
+   * @param type type of the column
+   * @param chunk the encoded chunk
+   * @param column the array to write the values
+   * @param rows number of rows
+   * @throws IOException if the chunk can't be decoded
+   */
+  static void decode(RecordBatch.ColumnType type, byte[] chunk, Object column, int rows)
+      throws IOException {
+    ByteBuffer payload = ByteBuffer.wrap(uncompress(chunk));
+    int unit = type.getUnitSize();
+    long[] values = new long[rows];
+    switch (getEncoding(chunk)) {
+      case PLAIN:
+        for (int i = 0; i < rows; i++) {
+          values[i] = getValue(payload, unit);
+        }
+        break;
+      case RUN_LENGTH:
+        int runs = payload.getInt();
+        int index = 0;
+        for (int r = 0; r < runs; r++) {
+          int length = payload.getInt();
+          long value = getValue(payload, unit);
+          Arrays.fill(values, index, index + length, value);
+          index += length;
+        }
+        break;
+      case DICTIONARY:
+        long[] dictionary = new long[payload.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+          dictionary[i] = getValue(payload, unit);
+        }
+        int indexWidth = payload.get();
+        unpack(payload, values, rows, indexWidth);
+        for (int i = 0; i < rows; i++) {
+          values[i] = dictionary[(int) values[i]];
+        }
+        break;
+      default:
+        long min = payload.getLong();
+        int rangeWidth = payload.get();
+        unpack(payload, values, rows, rangeWidth);
+        for (int i = 0; i < rows; i++) {
+          values[i] += min;
+        }
+    }
+    fromLongs(type, values, column, rows);
+  }
+
+  static ColumnEncoding getEncoding(byte[] chunk) {
+    return ColumnEncoding.of(chunk[0]);
+  }
+
+  private static byte[] toChunk(ColumnEncoding encoding, byte[] payload, boolean compress) {
+    byte[] data = payload;
+    boolean compressed = false;
+    if (compress && payload.length > 0) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      deflater.setInput(payload);
+      deflater.finish();
+      byte[] out = new byte[payload.length];
+      int length = deflater.deflate(out);
+      // use the compressed data only if it fits in a smaller space
+      if (deflater.finished() && length < payload.length) {
+        data = Arrays.copyOf(out, length);
+        compressed = true;
+      }
+      deflater.end();
+    }
+
+    ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER + data.length);
+    chunk.put((byte) encoding.ordinal());
+    chunk.put((byte) (compressed ? 1 : 0));
+    chunk.putInt(payload.length);
+    chunk.put(data);
+    return chunk.array();
+  }
+
+  private static byte[] uncompress(byte[] chunk) throws IOException {
+    ByteBuffer header = ByteBuffer.wrap(chunk);
+    header.get();
+    boolean compressed = header.get() == 1;
+    int length = header.getInt();
+    if (!compressed) {
+      return Arrays.copyOfRange(chunk, CHUNK_HEADER, CHUNK_HEADER + length);
+    }
+
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(chunk, CHUNK_HEADER, chunk.length - CHUNK_HEADER);
+      byte[] payload = new byte[length];
+      int read = 0;
+      while (read < length && !inflater.finished()) {
+        int count = inflater.inflate(payload, read, length - read);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += count;
+      }
+      if (read != length) {
+        throw new IOException("Expected " + length + " bytes in a chunk, found " + read);
+      }
+      return payload;
+    } catch (DataFormatException e) {
+      throw new IOException("Failed to uncompress a chunk", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static long[] toLongs(RecordBatch.ColumnType type, Object column, int rows) {
+    long[] values = new long[rows];
+    switch (type) {
+      case INT:
+        int[] ints = (int[]) column;
+        for (int i = 0; i < rows; i++) {
+          values[i] = ints[i];
+        }
+        break;
+      case LONG:
+        System.arraycopy(column, 0, values, 0, rows);
+        break;
+      case FLOAT:
+        float[] floats = (float[]) column;
+        for (int i = 0; i < rows; i++) {
+          values[i] = Float.floatToRawIntBits(floats[i]);
+        }
+        break;
+      default:
+        double[] doubles = (double[]) column;
+        for (int i = 0; i < rows; i++) {
+          values[i] = Double.doubleToRawLongBits(doubles[i]);
+        }
+    }
+    return values;
+  }
+
+  private static void fromLongs(RecordBatch.ColumnType type, long[] values, Object column,
+                                int rows) {
+    switch (type) {
+      case INT:
+        int[] ints = (int[]) column;
+        for (int i = 0; i < rows; i++) {
+          ints[i] = (int) values[i];
+        }
+        break;
+      case LONG:
+        System.arraycopy(values, 0, column, 0, rows);
+        break;
+      case FLOAT:
+        float[] floats = (float[]) column;
+        for (int i = 0; i < rows; i++) {
+          floats[i] = Float.intBitsToFloat((int) values[i]);
+        }
+        break;
+      default:
+        double[] doubles = (double[]) column;
+        for (int i = 0; i < rows; i++) {
+          doubles[i] = Double.longBitsToDouble(values[i]);
+        }
+    }
+  }
+
+  private static long[] distinct(long[] values, int rows) {
+    long[] sorted = Arrays.copyOf(values, rows);
+    Arrays.sort(sorted);
+    int count = 0;
+    for (int i = 0; i < rows; i++) {
+      if (i == 0 || sorted[i] != sorted[count - 1]) {
+        sorted[count++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, count);
+  }
+
+  private static void putValue(ByteBuffer buffer, int unit, long value) {
+    if (unit == Integer.BYTES) {
+      buffer.putInt((int) value);
+    } else {
+      buffer.putLong(value);
+    }
+  }
+
+  private static long getValue(ByteBuffer buffer, int unit) {
+    return unit == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+  }
+
+  /**
+   * Number of bits needed for the unsigned value
+   */
+  static int bitWidth(long value) {
+    return Long.SIZE - Long.numberOfLeadingZeros(value);
+  }
+
+  private static long packedBytes(int rows, int width) {
+    return ((long) rows * width + Long.SIZE - 1) / Long.SIZE * Long.BYTES;
+  }
+
+  /**
+   * Write the lowest width bits of each value, packed in to longs
+   */
+  static void pack(long[] values, int rows, int width, ByteBuffer out) {
+    if (width == 0) {
+      return;
+    }
+    long word = 0;
+    int bits = 0;
+    for (int i = 0; i < rows; i++) {
+      long value = values[i];
+      word |= value << bits;
+      bits += width;
+      if (bits >= Long.SIZE) {
+        out.putLong(word);
+        bits -= Long.SIZE;
+        // the bits of the value that didn't fit in the previous word
+        word = bits > 0 ? value >>> (width - bits) : 0;
+      }
+    }
+    if (bits > 0) {
+      out.putLong(word);
+    }
+  }
+
+  /**
+   * Read values written by {@link #pack(long[], int, int, ByteBuffer)}
+   */
+  static void unpack(ByteBuffer in, long[] values, int rows, int width) {
+    if (width == 0 || rows == 0) {
+      Arrays.fill(values, 0, rows, 0);
+      return;
+    }
+    long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+    long word = in.getLong();
+    int bits = 0;
+    for (int i = 0; i < rows; i++) {
+      if (bits + width <= Long.SIZE) {
+        values[i] = (word >>> bits) & mask;
+        bits += width;
+        if (bits == Long.SIZE && i + 1 < rows) {
+          word = in.getLong();
+          bits = 0;
+        }
+      } else {
+        int low = Long.SIZE - bits;
+        long value = word >>> bits;
+        word = in.getLong();
+        int high = width - low;
+        value |= (word & ((1L << high) - 1)) << low;
+        values[i] = value;
+        bits = high;
+      }
+    }
+  }
+}
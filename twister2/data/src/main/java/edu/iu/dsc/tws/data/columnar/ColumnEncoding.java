@@ -0,0 +1,43 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+/**
+ * Encodings of a column in a block, the writer picks the smallest one for each column
+ */
+public enum ColumnEncoding {
+  /**
+   * The values one after the other
+   */
+  PLAIN,
+  /**
+   * Runs of equal values as the length of the run and the value
+   */
+  RUN_LENGTH,
+  /**
+   * The distinct values followed by the bit packed index of each value
+   */
+  DICTIONARY,
+  /**
+   * The minimum followed by the bit packed difference of each value from it
+   */
+  BIT_PACKED;
+
+  private static final ColumnEncoding[] VALUES = values();
+
+  static ColumnEncoding of(int ordinal) {
+    if (ordinal < 0 || ordinal >= VALUES.length) {
+      throw new IllegalArgumentException("Un-known column encoding: " + ordinal);
+    }
+    return VALUES[ordinal];
+  }
+}
@@ -0,0 +1,151 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.Serializable;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * Keeps the rows where the value of a column is in a closed range. The statistics of a block
+ * are checked first, so the blocks without any value in the range are not read.
+ * <p>
+ * A range given with long bounds compares the integer columns exactly, the floating point
+ * columns and the ranges given with double bounds are compared as doubles.
+ */
+public final class ColumnPredicate implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int column;
+
+  private final boolean floatingPoint;
+
+  private final long minLong;
+
+  private final long maxLong;
+
+  private final double minDouble;
+
+  private final double maxDouble;
+
+  private ColumnPredicate(int column, boolean floatingPoint, long minLong, long maxLong,
+                          double minDouble, double maxDouble) {
+    this.column = column;
+    this.floatingPoint = floatingPoint;
+    this.minLong = minLong;
+    this.maxLong = maxLong;
+    this.minDouble = minDouble;
+    this.maxDouble = maxDouble;
+  }
+
+  /**
+   * Values between min and max, both inclusive
+   */
+  public static ColumnPredicate between(int column, long min, long max) {
+    return new ColumnPredicate(column, false, min, max, min, max);
+  }
+
+  /**
+   * Values between min and max, both inclusive
+   */
+  public static ColumnPredicate between(int column, double min, double max) {
+    return new ColumnPredicate(column, true, Long.MIN_VALUE, Long.MAX_VALUE, min, max);
+  }
+
+  public static ColumnPredicate equalTo(int column, long value) {
+    return between(column, value, value);
+  }
+
+  public static ColumnPredicate atLeast(int column, long min) {
+    return between(column, min, Long.MAX_VALUE);
+  }
+
+  public static ColumnPredicate atMost(int column, long max) {
+    return between(column, Long.MIN_VALUE, max);
+  }
+
+  public static ColumnPredicate atLeast(int column, double min) {
+    return between(column, min, Double.POSITIVE_INFINITY);
+  }
+
+  public static ColumnPredicate atMost(int column, double max) {
+    return between(column, Double.NEGATIVE_INFINITY, max);
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  /**
+   * Check whether a block with the given statistics may have a matching value
+   *
+   * @param stats statistics of the column in the block
+   * @return false if no value of the block matches
+   */
+  public boolean mayMatch(ColumnStats stats) {
+    if (floatingPoint || stats.isFloatingPoint()) {
+      return stats.getMaxDouble() >= minDouble && stats.getMinDouble() <= maxDouble;
+    }
+    return stats.getMaxLong() >= minLong && stats.getMinLong() <= maxLong;
+  }
+
+  /**
+   * Clear the selection of the rows that don't match
+   *
+   * @param type type of the column
+   * @param column values of the column
+   * @param rows number of rows
+   * @param selection the rows to keep
+   */
+  void select(RecordBatch.ColumnType type, Object column, int rows, boolean[] selection) {
+    switch (type) {
+      case INT:
+        int[] ints = (int[]) column;
+        for (int i = 0; i < rows; i++) {
+          selection[i] &= floatingPoint ? matches((double) ints[i]) : matches((long) ints[i]);
+        }
+        break;
+      case LONG:
+        long[] longs = (long[]) column;
+        for (int i = 0; i < rows; i++) {
+          selection[i] &= floatingPoint ? matches((double) longs[i]) : matches(longs[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floats = (float[]) column;
+        for (int i = 0; i < rows; i++) {
+          selection[i] &= matches((double) floats[i]);
+        }
+        break;
+      default:
+        double[] doubles = (double[]) column;
+        for (int i = 0; i < rows; i++) {
+          selection[i] &= matches(doubles[i]);
+        }
+    }
+  }
+
+  private boolean matches(long value) {
+    return value >= minLong && value <= maxLong;
+  }
+
+  private boolean matches(double value) {
+    return value >= minDouble && value <= maxDouble;
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnPredicate{column=" + column + ", range=["
+        + (floatingPoint ? minDouble + ", " + maxDouble : minLong + ", " + maxLong) + "]}";
+  }
+}
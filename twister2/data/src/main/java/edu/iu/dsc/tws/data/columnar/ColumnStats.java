@@ -0,0 +1,132 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * Minimum and maximum of a column in a block. Integer columns keep the values as longs and the
+ * floating point columns as doubles, NaN values are not included. A block without values has a
+ * minimum larger than the maximum, so no range matches it.
+ */
+public final class ColumnStats {
+
+  private final RecordBatch.ColumnType type;
+
+  private final long min;
+
+  private final long max;
+
+  ColumnStats(RecordBatch.ColumnType type, long min, long max) {
+    this.type = type;
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * Calculate the statistics of the first rows of a column
+   */
+  static ColumnStats of(RecordBatch.ColumnType type, Object column, int rows) {
+    switch (type) {
+      case INT: {
+        int[] values = (int[]) column;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+          min = Math.min(min, values[i]);
+          max = Math.max(max, values[i]);
+        }
+        return new ColumnStats(type, min, max);
+      }
+      case LONG: {
+        long[] values = (long[]) column;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+          min = Math.min(min, values[i]);
+          max = Math.max(max, values[i]);
+        }
+        return new ColumnStats(type, min, max);
+      }
+      case FLOAT: {
+        float[] values = (float[]) column;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < rows; i++) {
+          // comparisons with NaN are false, so they are skipped
+          if (values[i] < min) {
+            min = values[i];
+          }
+          if (values[i] > max) {
+            max = values[i];
+          }
+        }
+        return new ColumnStats(type, Double.doubleToLongBits(min), Double.doubleToLongBits(max));
+      }
+      default: {
+        double[] values = (double[]) column;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < rows; i++) {
+          if (values[i] < min) {
+            min = values[i];
+          }
+          if (values[i] > max) {
+            max = values[i];
+          }
+        }
+        return new ColumnStats(type, Double.doubleToLongBits(min), Double.doubleToLongBits(max));
+      }
+    }
+  }
+
+  public RecordBatch.ColumnType getType() {
+    return type;
+  }
+
+  public boolean isFloatingPoint() {
+    return type == RecordBatch.ColumnType.FLOAT || type == RecordBatch.ColumnType.DOUBLE;
+  }
+
+  public long getMinLong() {
+    return isFloatingPoint() ? (long) Math.floor(getMinDouble()) : min;
+  }
+
+  public long getMaxLong() {
+    return isFloatingPoint() ? (long) Math.ceil(getMaxDouble()) : max;
+  }
+
+  public double getMinDouble() {
+    return isFloatingPoint() ? Double.longBitsToDouble(min) : min;
+  }
+
+  public double getMaxDouble() {
+    return isFloatingPoint() ? Double.longBitsToDouble(max) : max;
+  }
+
+  /**
+   * The minimum as stored in the file, the raw long bits for the floating point columns
+   */
+  long getRawMin() {
+    return min;
+  }
+
+  long getRawMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnStats{" + type + ", min=" + (isFloatingPoint() ? getMinDouble() : min)
+        + ", max=" + (isFloatingPoint() ? getMaxDouble() : max) + '}';
+  }
+}
@@ -0,0 +1,136 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.IOException;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * An encoded {@link RecordBatch}, with each column as a separately encoded chunk and the
+ * statistics of each column. The chunks of the columns not needed by a scan are not decoded.
+ */
+public final class ColumnarBlock {
+
+  private final RecordBatch.ColumnType[] types;
+
+  private final int rows;
+
+  /**
+   * The chunk of each column, null for the columns that are not read
+   */
+  private final byte[][] chunks;
+
+  private final ColumnStats[] stats;
+
+  ColumnarBlock(RecordBatch.ColumnType[] types, int rows, byte[][] chunks,
+                ColumnStats[] stats) {
+    this.types = types;
+    this.rows = rows;
+    this.chunks = chunks;
+    this.stats = stats;
+  }
+
+  /**
+   * Encode a batch
+   *
+   * @param batch the batch
+   * @param compress compress the chunks
+   * @return the encoded block
+   */
+  public static ColumnarBlock encode(RecordBatch batch, boolean compress) {
+    int columnCount = batch.getColumnCount();
+    byte[][] chunks = new byte[columnCount][];
+    ColumnStats[] stats = new ColumnStats[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      RecordBatch.ColumnType type = batch.getType(i);
+      chunks[i] = ColumnCodec.encode(type, batch.getColumn(i), batch.getSize(), compress);
+      stats[i] = ColumnStats.of(type, batch.getColumn(i), batch.getSize());
+    }
+    return new ColumnarBlock(batch.getTypes(), batch.getSize(), chunks, stats);
+  }
+
+  /**
+   * Decode the block
+   *
+   * @param scan the columns and rows to decode, null for everything
+   * @return the batch or null if no row matches the scan
+   * @throws IOException if a chunk can't be decoded
+   */
+  public RecordBatch decode(ColumnarScan scan) throws IOException {
+    if (scan != null && !scan.mayMatch(stats)) {
+      return null;
+    }
+
+    boolean[] required = scan == null ? null : scan.requiredColumns(types.length);
+    Object[] columns = new Object[types.length];
+    for (int i = 0; i < types.length; i++) {
+      if (required == null || required[i]) {
+        if (chunks[i] == null) {
+          throw new IllegalStateException("Column " + i + " is not read");
+        }
+        columns[i] = allocate(types[i], rows);
+        ColumnCodec.decode(types[i], chunks[i], columns[i], rows);
+      }
+    }
+    if (scan == null) {
+      return new RecordBatch(types, columns, rows);
+    }
+    return scan.apply(types, columns, rows);
+  }
+
+  private static Object allocate(RecordBatch.ColumnType type, int rows) {
+    switch (type) {
+      case INT:
+        return new int[rows];
+      case LONG:
+        return new long[rows];
+      case FLOAT:
+        return new float[rows];
+      default:
+        return new double[rows];
+    }
+  }
+
+  public RecordBatch.ColumnType[] getTypes() {
+    return types;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public ColumnStats getStats(int column) {
+    return stats[column];
+  }
+
+  public ColumnEncoding getEncoding(int column) {
+    return ColumnCodec.getEncoding(chunks[column]);
+  }
+
+  byte[] getChunk(int column) {
+    return chunks[column];
+  }
+
+  /**
+   * Size of the encoded chunks
+   */
+  public long getSizeInBytes() {
+    long size = 0;
+    for (byte[] chunk : chunks) {
+      if (chunk != null) {
+        size += chunk.length;
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,170 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.data.FSDataInputStream;
+
+/**
+ * Reads a file written by {@link ColumnarFileWriter}. Only the footer is read when the reader
+ * is created, the blocks are read on demand. With a {@link ColumnarScan} the blocks whose
+ * statistics don't match the predicates are skipped and only the required columns are read.
+ */
+public class ColumnarFileReader implements Closeable {
+
+  private static final RecordBatch.ColumnType[] COLUMN_TYPES = RecordBatch.ColumnType.values();
+
+  private final FSDataInputStream stream;
+
+  private final DataInputStream in;
+
+  private final RecordBatch.ColumnType[] types;
+
+  private final ColumnarFileWriter.BlockMetadata[] blocks;
+
+  /**
+   * Open a file
+   *
+   * @param stream the stream of the file, it is closed with the reader
+   * @param length the length of the file
+   * @throws IOException if the file is not a valid columnar file
+   */
+  public ColumnarFileReader(FSDataInputStream stream, long length) throws IOException {
+    this.stream = stream;
+    this.in = new DataInputStream(stream);
+    if (length < Integer.BYTES + 1 + ColumnarFileWriter.TRAILER_SIZE) {
+      throw new IOException("The file is too small to be a columnar file: " + length);
+    }
+
+    stream.seek(0);
+    int magic = in.readInt();
+    byte version = in.readByte();
+    if (magic != ColumnarFileWriter.MAGIC || version != ColumnarFileWriter.VERSION) {
+      throw new IOException("Not a columnar file of version " + ColumnarFileWriter.VERSION);
+    }
+
+    stream.seek(length - ColumnarFileWriter.TRAILER_SIZE);
+    long footerOffset = in.readLong();
+    if (in.readInt() != ColumnarFileWriter.MAGIC) {
+      throw new IOException("The columnar file is not complete");
+    }
+
+    stream.seek(footerOffset);
+    this.types = new RecordBatch.ColumnType[in.readInt()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = COLUMN_TYPES[in.readByte()];
+    }
+    this.blocks = new ColumnarFileWriter.BlockMetadata[in.readInt()];
+    for (int b = 0; b < blocks.length; b++) {
+      int rows = in.readInt();
+      long[] offsets = new long[types.length];
+      int[] lengths = new int[types.length];
+      ColumnStats[] stats = new ColumnStats[types.length];
+      for (int i = 0; i < types.length; i++) {
+        offsets[i] = in.readLong();
+        lengths[i] = in.readInt();
+        stats[i] = new ColumnStats(types[i], in.readLong(), in.readLong());
+      }
+      blocks[b] = new ColumnarFileWriter.BlockMetadata(rows, offsets, lengths, stats);
+    }
+  }
+
+  public RecordBatch.ColumnType[] getTypes() {
+    return types;
+  }
+
+  public int getBlockCount() {
+    return blocks.length;
+  }
+
+  public int getRows(int block) {
+    return blocks[block].getRows();
+  }
+
+  public ColumnStats getStats(int block, int column) {
+    return blocks[block].getStats()[column];
+  }
+
+  /**
+   * Read a block
+   *
+   * @param block index of the block
+   * @param scan the columns and rows to read, null for everything
+   * @return the batch, or null if no row of the block matches the scan
+   * @throws IOException if the block can't be read
+   */
+  public RecordBatch readBlock(int block, ColumnarScan scan) throws IOException {
+    ColumnarFileWriter.BlockMetadata metadata = blocks[block];
+    if (scan != null && !scan.mayMatch(metadata.getStats())) {
+      return null;
+    }
+
+    boolean[] required = scan == null ? null : scan.requiredColumns(types.length);
+    byte[][] chunks = new byte[types.length][];
+    for (int i = 0; i < types.length; i++) {
+      if (required == null || required[i]) {
+        chunks[i] = new byte[metadata.getLength(i)];
+        stream.seek(metadata.getOffset(i));
+        in.readFully(chunks[i]);
+      }
+    }
+    return new ColumnarBlock(types, metadata.getRows(), chunks, metadata.getStats())
+        .decode(scan);
+  }
+
+  /**
+   * Iterate through the blocks with rows matching the scan
+   *
+   * @param scan the columns and rows to read, null for everything
+   * @return an iterator of the batches
+   */
+  public Iterator<RecordBatch> iterator(ColumnarScan scan) {
+    return new Iterator<RecordBatch>() {
+      private int block = 0;
+
+      private RecordBatch next;
+
+      @Override
+      public boolean hasNext() {
+        while (next == null && block < blocks.length) {
+          try {
+            next = readBlock(block++, scan);
+          } catch (IOException e) {
+            throw new IllegalStateException("Failed to read block " + (block - 1), e);
+          }
+        }
+        return next != null;
+      }
+
+      @Override
+      public RecordBatch next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException("No more blocks");
+        }
+        RecordBatch batch = next;
+        next = null;
+        return batch;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    stream.close();
+  }
+}
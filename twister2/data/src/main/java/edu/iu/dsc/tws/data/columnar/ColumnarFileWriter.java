@@ -0,0 +1,175 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * Writes record batches to a block based columnar file. Every batch is written as a block,
+ * with each column encoded separately. The footer at the end of the file has the position and
+ * the statistics of every column of every block, so a reader can read only the columns and
+ * the blocks it needs.
+ * <p>
+ * The layout of the file is
+ * <pre>
+ * magic, version
+ * block 0: chunk of column 0, chunk of column 1, ...
+ * block 1: ...
+ * footer: column count, column types, block count,
+ *         for each block the rows and for each column the offset, length, min and max
+ * footer offset, magic
+ * </pre>
+ */
+public class ColumnarFileWriter implements Closeable {
+
+  static final int MAGIC = 0x54324346;
+
+  static final byte VERSION = 1;
+
+  /**
+   * Size of the footer offset and the magic at the end of the file
+   */
+  static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final DataOutputStream out;
+
+  private final boolean compress;
+
+  private RecordBatch.ColumnType[] types;
+
+  private final List<BlockMetadata> blocks = new ArrayList<>();
+
+  private long position;
+
+  /**
+   * Position and statistics of a block
+   */
+  static final class BlockMetadata {
+    private final int rows;
+
+    private final long[] offsets;
+
+    private final int[] lengths;
+
+    private final ColumnStats[] stats;
+
+    BlockMetadata(int rows, long[] offsets, int[] lengths, ColumnStats[] stats) {
+      this.rows = rows;
+      this.offsets = offsets;
+      this.lengths = lengths;
+      this.stats = stats;
+    }
+
+    int getRows() {
+      return rows;
+    }
+
+    long getOffset(int column) {
+      return offsets[column];
+    }
+
+    int getLength(int column) {
+      return lengths[column];
+    }
+
+    ColumnStats[] getStats() {
+      return stats;
+    }
+  }
+
+  /**
+   * Create a writer
+   *
+   * @param out the stream to write, it is closed with the writer
+   * @param compress compress the columns
+   * @throws IOException if the header can't be written
+   */
+  public ColumnarFileWriter(OutputStream out, boolean compress) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    this.compress = compress;
+    this.out.writeInt(MAGIC);
+    this.out.writeByte(VERSION);
+    this.position = Integer.BYTES + 1;
+  }
+
+  /**
+   * Encode and write a batch as a block
+   */
+  public void write(RecordBatch batch) throws IOException {
+    writeBlock(ColumnarBlock.encode(batch, compress));
+  }
+
+  /**
+   * Write an encoded block, all the blocks must have the same column types
+   */
+  public void writeBlock(ColumnarBlock block) throws IOException {
+    if (types == null) {
+      types = block.getTypes();
+    } else if (!Arrays.equals(types, block.getTypes())) {
+      throw new IllegalArgumentException("Expected columns " + Arrays.toString(types)
+          + ", found " + Arrays.toString(block.getTypes()));
+    }
+
+    long[] offsets = new long[types.length];
+    int[] lengths = new int[types.length];
+    ColumnStats[] stats = new ColumnStats[types.length];
+    for (int i = 0; i < types.length; i++) {
+      byte[] chunk = block.getChunk(i);
+      offsets[i] = position;
+      lengths[i] = chunk.length;
+      stats[i] = block.getStats(i);
+      out.write(chunk);
+      position += chunk.length;
+    }
+    blocks.add(new BlockMetadata(block.getRows(), offsets, lengths, stats));
+  }
+
+  public int getBlockCount() {
+    return blocks.size();
+  }
+
+  /**
+   * Write the footer and close the stream
+   */
+  @Override
+  public void close() throws IOException {
+    long footerOffset = position;
+    RecordBatch.ColumnType[] columnTypes = types == null
+        ? new RecordBatch.ColumnType[0] : types;
+    out.writeInt(columnTypes.length);
+    for (RecordBatch.ColumnType type : columnTypes) {
+      out.writeByte(type.ordinal());
+    }
+    out.writeInt(blocks.size());
+    for (BlockMetadata block : blocks) {
+      out.writeInt(block.rows);
+      for (int i = 0; i < columnTypes.length; i++) {
+        out.writeLong(block.offsets[i]);
+        out.writeInt(block.lengths[i]);
+        out.writeLong(block.stats[i].getRawMin());
+        out.writeLong(block.stats[i].getRawMax());
+      }
+    }
+    out.writeLong(footerOffset);
+    out.writeInt(MAGIC);
+    out.close();
+  }
+}
@@ -0,0 +1,194 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.columnar;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+
+/**
+ * The columns and the rows to read from columnar data. Only the projected columns are returned,
+ * in the order of the projection, and only the rows matching all the predicates. The predicates
+ * refer to the columns of the stored batches, so they can use columns that are not projected.
+ */
+public final class ColumnarScan implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The columns to return, null for all the columns
+   */
+  private int[] projection;
+
+  private List<ColumnPredicate> predicates = new ArrayList<>();
+
+  public ColumnarScan project(int... columns) {
+    this.projection = columns;
+    return this;
+  }
+
+  public ColumnarScan filter(ColumnPredicate predicate) {
+    this.predicates.add(predicate);
+    return this;
+  }
+
+  public int[] getProjection() {
+    return projection;
+  }
+
+  public List<ColumnPredicate> getPredicates() {
+    return predicates;
+  }
+
+  /**
+   * Check the statistics of a block against the predicates
+   *
+   * @param stats statistics of each column of the block
+   * @return false if no row of the block matches
+   */
+  public boolean mayMatch(ColumnStats[] stats) {
+    for (ColumnPredicate predicate : predicates) {
+      if (!predicate.mayMatch(stats[predicate.getColumn()])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The columns needed to evaluate the scan
+   *
+   * @param columnCount number of columns in the data
+   * @return true for each column to read
+   */
+  boolean[] requiredColumns(int columnCount) {
+    boolean[] required = new boolean[columnCount];
+    if (projection == null) {
+      Arrays.fill(required, true);
+    } else {
+      for (int column : projection) {
+        required[column] = true;
+      }
+    }
+    for (ColumnPredicate predicate : predicates) {
+      required[predicate.getColumn()] = true;
+    }
+    return required;
+  }
+
+  /**
+   * Apply the predicates and the projection to a batch
+   *
+   * @param batch the batch with all the columns
+   * @return the selected rows and columns, or null if no row matches
+   */
+  public RecordBatch apply(RecordBatch batch) {
+    Object[] columns = new Object[batch.getColumnCount()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = batch.getColumn(i);
+    }
+    return apply(batch.getTypes(), columns, batch.getSize());
+  }
+
+  /**
+   * Apply the predicates and the projection to columns, the columns that are not required by
+   * the scan can be null
+   */
+  RecordBatch apply(RecordBatch.ColumnType[] types, Object[] columns, int rows) {
+    boolean[] selection = null;
+    int count = rows;
+    if (!predicates.isEmpty()) {
+      selection = new boolean[rows];
+      Arrays.fill(selection, true);
+      for (ColumnPredicate predicate : predicates) {
+        int column = predicate.getColumn();
+        predicate.select(types[column], columns[column], rows, selection);
+      }
+      count = 0;
+      for (int i = 0; i < rows; i++) {
+        if (selection[i]) {
+          count++;
+        }
+      }
+      if (count == 0) {
+        return null;
+      }
+    }
+
+    int outputColumns = projection == null ? types.length : projection.length;
+    RecordBatch.ColumnType[] outputTypes = new RecordBatch.ColumnType[outputColumns];
+    Object[] output = new Object[outputColumns];
+    for (int i = 0; i < outputColumns; i++) {
+      int column = projection == null ? i : projection[i];
+      outputTypes[i] = types[column];
+      output[i] = selection == null ? columns[column]
+          : compact(types[column], columns[column], rows, selection, count);
+    }
+    return new RecordBatch(outputTypes, output, count);
+  }
+
+  private static Object compact(RecordBatch.ColumnType type, Object column, int rows,
+                                boolean[] selection, int count) {
+    int j = 0;
+    switch (type) {
+      case INT: {
+        int[] from = (int[]) column;
+        int[] to = new int[count];
+        for (int i = 0; i < rows; i++) {
+          if (selection[i]) {
+            to[j++] = from[i];
+          }
+        }
+        return to;
+      }
+      case LONG: {
+        long[] from = (long[]) column;
+        long[] to = new long[count];
+        for (int i = 0; i < rows; i++) {
+          if (selection[i]) {
+            to[j++] = from[i];
+          }
+        }
+        return to;
+      }
+      case FLOAT: {
+        float[] from = (float[]) column;
+        float[] to = new float[count];
+        for (int i = 0; i < rows; i++) {
+          if (selection[i]) {
+            to[j++] = from[i];
+          }
+        }
+        return to;
+      }
+      default: {
+        double[] from = (double[]) column;
+        double[] to = new double[count];
+        for (int i = 0; i < rows; i++) {
+          if (selection[i]) {
+            to[j++] = from[i];
+          }
+        }
+        return to;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarScan{projection=" + Arrays.toString(projection)
+        + ", predicates=" + predicates + '}';
+  }
+}
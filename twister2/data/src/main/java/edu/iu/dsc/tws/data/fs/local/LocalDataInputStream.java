@@ -65,6 +65,13 @@ public class LocalDataInputStream extends FSDataInputStream {
     return this.fis.read();
   }
 
+  /**
+   * The channel of the file, it can be used to memory map the file
+   */
+  public FileChannel getChannel() {
+    return fileChannel;
+  }
+
   public Reader getReader() throws FileNotFoundException {
     return new FileReader(fileN);
   }
@@ -11,6 +11,7 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.data.utils;
 
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.config.Context;
 
 public class DataContext extends Context {
@@ -25,4 +26,14 @@ public class DataContext extends Context {
 
   public static final String TWISTER2_LATENCY = "latency";
 
+  /**
+   * Compress the columns of the record batches written to the disk
+   */
+  public static final String COLUMNAR_COMPRESSION = "twister2.data.columnar.compression";
+
+  public static final boolean COLUMNAR_COMPRESSION_DEFAULT = false;
+
+  public static boolean isColumnarCompression(Config config) {
+    return config.getBooleanValue(COLUMNAR_COMPRESSION, COLUMNAR_COMPRESSION_DEFAULT);
+  }
 }
@@ -0,0 +1,249 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Functions to scan and parse delimited text directly from a {@link ByteBuffer}, without
+ * creating strings. Delimiters are searched a word (8 bytes) at a time and numbers are
+ * accumulated from the digits, falling back to the JDK parsers only for the values that can't
+ * be converted exactly.
+ */
+public final class TextParseUtils {
+
+  private static final long ONES = 0x0101010101010101L;
+
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /**
+   * Number of decimal digits that always fits in a long
+   */
+  private static final int MAX_DIGITS = 18;
+
+  /**
+   * Powers of 10 that are exact as doubles
+   */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * Integers up to this are exact as doubles
+   */
+  private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+  private TextParseUtils() {
+  }
+
+  /**
+   * Find the first occurrence of a byte in the buffer between from (inclusive) and to
+   * (exclusive). A little endian buffer is scanned 8 bytes at a time, the position and the
+   * limit of the buffer are not used or changed.
+   *
+   * @param buffer the buffer
+   * @param from the first index to check
+   * @param to the index after the last index to check
+   * @param value the byte to search
+   * @return the index of the byte or -1 if it is not found
+   */
+  public static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+    int i = from;
+    if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+      long pattern = (value & 0xFFL) * ONES;
+      for (; i + Long.BYTES <= to; i += Long.BYTES) {
+        // the bytes equal to the value become zero, and a zero byte sets its high bit after
+        // subtracting one from every byte. a borrow only sets bits above the first zero byte,
+        // so the lowest set bit is always the first match
+        long word = buffer.getLong(i) ^ pattern;
+        long found = (word - ONES) & ~word & HIGH_BITS;
+        if (found != 0) {
+          return i + (Long.numberOfTrailingZeros(found) >>> 3);
+        }
+      }
+    }
+    for (; i < to; i++) {
+      if (buffer.get(i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parse a double from the bytes between from and to, ignoring the spaces and tabs around the
+   * number. The common decimal forms with up to 18 significant digits are converted
+   * without the JDK parser, and the results are the same as {@link Double#parseDouble(String)}.
+   *
+   * @param buffer the buffer
+   * @param from the first index of the number
+   * @param to the index after the number
+   * @return the value
+   * @throws NumberFormatException if the bytes are not a number
+   */
+  public static double parseDouble(ByteBuffer buffer, int from, int to) {
+    int start = skipWhitespace(buffer, from, to);
+    int end = trimWhitespace(buffer, start, to);
+
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean hasDigits = false;
+    boolean truncated = false;
+    for (; i < end; i++) {
+      int digit = buffer.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      hasDigits = true;
+      if (digits < MAX_DIGITS) {
+        mantissa = mantissa * 10 + digit;
+        if (mantissa != 0) {
+          digits++;
+        }
+      } else {
+        exponent++;
+        truncated = true;
+      }
+    }
+    if (i < end && buffer.get(i) == '.') {
+      i++;
+      for (; i < end; i++) {
+        int digit = buffer.get(i) - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        hasDigits = true;
+        if (digits < MAX_DIGITS) {
+          mantissa = mantissa * 10 + digit;
+          exponent--;
+          if (mantissa != 0) {
+            digits++;
+          }
+        } else {
+          truncated = true;
+        }
+      }
+    }
+    if (hasDigits && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+        negativeExponent = buffer.get(i) == '-';
+        i++;
+      }
+      int value = 0;
+      int exponentStart = i;
+      for (; i < end && i - exponentStart < 9; i++) {
+        int digit = buffer.get(i) - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        value = value * 10 + digit;
+      }
+      if (i == exponentStart) {
+        hasDigits = false;
+      }
+      exponent += negativeExponent ? -value : value;
+    }
+
+    if (!hasDigits || i != end || truncated) {
+      // special values, very long numbers and invalid input
+      return Double.parseDouble(toString(buffer, start, end));
+    }
+
+    if (mantissa == 0) {
+      return negative ? -0.0 : 0.0;
+    }
+    // both the mantissa and the power of 10 are exact, so a single operation rounds correctly
+    if (mantissa < MAX_EXACT_INTEGER && exponent >= -22 && exponent <= 22) {
+      double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+          : mantissa * POWERS_OF_TEN[exponent];
+      return negative ? -value : value;
+    }
+    return Double.parseDouble(toString(buffer, start, end));
+  }
+
+  /**
+   * Parse a long from the bytes between from and to, ignoring the spaces and tabs around the
+   * number.
+   *
+   * @param buffer the buffer
+   * @param from the first index of the number
+   * @param to the index after the number
+   * @return the value
+   * @throws NumberFormatException if the bytes are not a long
+   */
+  public static long parseLong(ByteBuffer buffer, int from, int to) {
+    int start = skipWhitespace(buffer, from, to);
+    int end = trimWhitespace(buffer, start, to);
+
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+    if (i == end || end - i > MAX_DIGITS) {
+      // may overflow, let the JDK check it
+      return Long.parseLong(toString(buffer, start, end));
+    }
+    long value = 0;
+    for (; i < end; i++) {
+      int digit = buffer.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("For input string: \""
+            + toString(buffer, start, end) + "\"");
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  private static int skipWhitespace(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    while (i < to && isWhitespace(buffer.get(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int trimWhitespace(ByteBuffer buffer, int from, int to) {
+    int i = to;
+    while (i > from && isWhitespace(buffer.get(i - 1))) {
+      i--;
+    }
+    return i;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  private static String toString(ByteBuffer buffer, int from, int to) {
+    byte[] bytes = new byte[to - from];
+    for (int i = from; i < to; i++) {
+      bytes[i - from] = buffer.get(i);
+    }
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+}
@@ -18,10 +18,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -29,13 +31,25 @@ import java.util.stream.Collectors;
 
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.data.FileStatus;
 import edu.iu.dsc.tws.api.data.FileSystem;
 import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.api.dataset.DataPartitionConsumer;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
-
+import edu.iu.dsc.tws.data.columnar.ColumnarBlock;
+import edu.iu.dsc.tws.data.columnar.ColumnarFileReader;
+import edu.iu.dsc.tws.data.columnar.ColumnarFileWriter;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
+import edu.iu.dsc.tws.data.utils.DataContext;
+
+/**
+ * A partition that keeps a number of frames in memory and writes the rest to files. The frames
+ * are written with the packer of the data type, except {@link RecordBatch} frames, which are
+ * encoded column by column in to columnar files, so a consumer with a {@link ColumnarScan} reads
+ * only the columns and the blocks it needs.
+ */
 public abstract class BufferedCollectionPartition<T> extends CollectionPartition<T>
     implements Closeable {
 
@@ -46,6 +60,8 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   private static final String EXTENSION = ".pbck";
 
+  private static final String COLUMNAR_EXTENSION = ".pcol";
+
   private long maxFramesInMemory;
   private MessageType dataType;
 
@@ -56,6 +72,12 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
   private long bufferedBytes = 0;
   private long maxBufferedBytes;
 
+  /**
+   * Record batches waiting to be written to a columnar file
+   */
+  private List<ColumnarBlock> blocks = new ArrayList<>();
+  private boolean compressColumns;
+
   private FileSystem fileSystem;
   private Path rootPath;
 
@@ -75,6 +97,7 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     this.maxFramesInMemory = maxFramesInMemory;
     this.maxBufferedBytes = bufferedBytes;
     this.dataType = dataType;
+    this.compressColumns = DataContext.isColumnarCompression(config);
     try {
       this.fileSystem = getFileSystem(config);
       this.rootPath = getRootPath(config);
@@ -153,9 +176,10 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     try {
       FileStatus[] fileStatuses = this.fileSystem.listFiles(this.rootPath);
       this.filesList = Arrays.stream(fileStatuses).map(FileStatus::getPath)
-          .filter(p -> p.getName().contains(EXTENSION))
-          .sorted(Comparator.comparingLong(path ->
-              Long.parseLong(path.getName().replace(EXTENSION, ""))))
+          .filter(p -> p.getName().contains(EXTENSION)
+              || p.getName().contains(COLUMNAR_EXTENSION))
+          .sorted(Comparator.comparingLong(path -> Long.parseLong(
+              path.getName().substring(0, path.getName().indexOf('.')))))
           .collect(Collectors.toList());
       this.fileCounter = fileStatuses.length;
     } catch (IOException e) {
@@ -169,6 +193,14 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
       super.add(val);
     } else {
       LOG.info("Writing to disk...");
+      if (val instanceof RecordBatch) {
+        this.addBatch((RecordBatch) val);
+        return;
+      }
+      // keep the order of the frames by writing the pending batches first
+      if (!this.blocks.isEmpty()) {
+        this.flush();
+      }
       // write to buffer
       byte[] bytes = dataType.getDataPacker().packToByteArray(val);
       this.buffers.add(bytes);
@@ -181,6 +213,19 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     }
   }
 
+  private void addBatch(RecordBatch batch) {
+    if (!this.buffers.isEmpty()) {
+      this.flush();
+    }
+    ColumnarBlock block = ColumnarBlock.encode(batch, this.compressColumns);
+    this.blocks.add(block);
+    this.bufferedBytes += block.getSizeInBytes();
+
+    if (this.bufferedBytes > this.maxBufferedBytes) {
+      this.flush();
+    }
+  }
+
   @Override
   public void addAll(Collection<T> frames) {
     for (T frame : frames) {
@@ -190,57 +235,152 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   @Override
   public DataPartitionConsumer<T> getConsumer() {
+    return getConsumer(null);
+  }
+
+  /**
+   * Creates a consumer which returns only the given columns and rows of the {@link RecordBatch}
+   * frames. The blocks of the columnar files that can't match the scan are skipped without
+   * reading them, and the batches without any matching row are not returned. The other frames
+   * are returned as they are.
+   *
+   * @param scan the columns and rows to read, null to read everything
+   * @return the consumer
+   */
+  public DataPartitionConsumer<T> getConsumer(ColumnarScan scan) {
 
     final Iterator<T> inMemoryIterator = this.dataList.iterator();
     final Iterator<Path> fileIterator = this.filesList.iterator();
     final Iterator<byte[]> buffersIterator = this.buffers.iterator();
+    final Iterator<ColumnarBlock> blocksIterator = this.blocks.iterator();
 
     return new DataPartitionConsumer<T>() {
 
       private Queue<byte[]> bufferFromDisk = new LinkedList<>();
 
+      private Iterator<RecordBatch> batchesFromDisk = Collections.emptyIterator();
+
+      private ColumnarFileReader columnarReader;
+
+      private T nextValue;
+
+      private boolean hasNextValue;
+
       @Override
       public boolean hasNext() {
-        return inMemoryIterator.hasNext()
-            || fileIterator.hasNext() || buffersIterator.hasNext() || !bufferFromDisk.isEmpty();
+        // skip the batches without any matching row
+        while (!hasNextValue) {
+          if (!fetch()) {
+            return false;
+          }
+        }
+        return true;
       }
 
       @Override
       public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException("No more frames available in this partition");
+        }
+        T value = nextValue;
+        nextValue = null;
+        hasNextValue = false;
+        return value;
+      }
+
+      /**
+       * Read the next frame
+       *
+       * @return false if there are no more frames
+       */
+      private boolean fetch() {
+        Object value;
         if (!this.bufferFromDisk.isEmpty()) {
-          return (T) dataType.getDataPacker().unpackFromByteArray(this.bufferFromDisk.poll());
+          value = applyScan(
+              dataType.getDataPacker().unpackFromByteArray(this.bufferFromDisk.poll()), scan);
+        } else if (batchesFromDisk.hasNext()) {
+          // the scan is already applied by the reader
+          value = batchesFromDisk.next();
+        } else if (columnarReader != null) {
+          closeReader();
+          return true;
         } else if (inMemoryIterator.hasNext()) {
-          return inMemoryIterator.next();
+          value = applyScan(inMemoryIterator.next(), scan);
         } else if (fileIterator.hasNext()) {
-          Path nextFile = fileIterator.next();
+          readFile(fileIterator.next());
+          return true;
+        } else if (buffersIterator.hasNext()) {
+          value = applyScan(
+              dataType.getDataPacker().unpackFromByteArray(buffersIterator.next()), scan);
+        } else if (blocksIterator.hasNext()) {
           try {
-            DataInputStream reader = new DataInputStream(fileSystem.open(nextFile));
+            value = blocksIterator.next().decode(scan);
+          } catch (IOException e) {
+            throw new Twister2RuntimeException("Failed to decode a columnar block", e);
+          }
+        } else {
+          return false;
+        }
+
+        if (value != null) {
+          nextValue = (T) value;
+          hasNextValue = true;
+        }
+        return true;
+      }
+
+      private void readFile(Path nextFile) {
+        try {
+          if (nextFile.getName().endsWith(COLUMNAR_EXTENSION)) {
+            columnarReader = openColumnar(nextFile);
+            batchesFromDisk = columnarReader.iterator(scan);
+            return;
+          }
+          try (DataInputStream reader = new DataInputStream(fileSystem.open(nextFile))) {
             long noOfFrames = reader.readLong();
             for (long i = 0; i < noOfFrames; i++) {
               int size = reader.readInt();
               byte[] data = new byte[size];
-              reader.read(data);
+              reader.readFully(data);
               this.bufferFromDisk.add(data);
             }
-            return next();
-          } catch (IOException e) {
-            throw new Twister2RuntimeException(
-                "Failed to read value from the temp file : " + nextFile.toString(), e);
           }
-        } else if (buffersIterator.hasNext()) {
-          return (T) dataType.getDataPacker().unpackFromByteArray(buffersIterator.next());
+        } catch (IOException e) {
+          throw new Twister2RuntimeException(
+              "Failed to read value from the temp file : " + nextFile.toString(), e);
+        }
+      }
+
+      private void closeReader() {
+        try {
+          columnarReader.close();
+        } catch (IOException e) {
+          LOG.warning("Failed to close a columnar file: " + e.getMessage());
         }
-        throw new Twister2RuntimeException("No more frames available in this partition");
+        columnarReader = null;
       }
     };
   }
 
+  private static Object applyScan(Object value, ColumnarScan scan) {
+    if (scan != null && value instanceof RecordBatch) {
+      return scan.apply((RecordBatch) value);
+    }
+    return value;
+  }
+
+  private ColumnarFileReader openColumnar(Path path) throws IOException {
+    return new ColumnarFileReader(this.fileSystem.open(path),
+        this.fileSystem.getFileStatus(path).getLen());
+  }
+
   /**
    * This method will clear the memory components of this partition by assigning buffer to null
    * and making it garbage collectible. This partition shouldn't be used after disposing.
    */
   public void dispose() {
     this.buffers = null;
+    this.blocks = null;
     this.dataList = null;
   }
 
@@ -259,11 +399,17 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     super.clear();
     this.filesList.clear();
     this.buffers.clear();
+    this.blocks.clear();
     this.bufferedBytes = 0;
     this.fileCounter = 0;
+    this.cachedFileIndex = -1;
   }
 
   public void flush() {
+    if (!this.blocks.isEmpty()) {
+      this.flushBlocks();
+      return;
+    }
     Path filePath = new Path(this.rootPath, (this.fileCounter++) + EXTENSION);
     try (DataOutputStream outputStream = new DataOutputStream(this.fileSystem.create(filePath))) {
       outputStream.writeLong(this.buffers.size());
@@ -281,6 +427,21 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     this.bufferedBytes = 0;
   }
 
+  private void flushBlocks() {
+    Path filePath = new Path(this.rootPath, (this.fileCounter++) + COLUMNAR_EXTENSION);
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(this.fileSystem.create(filePath),
+        this.compressColumns)) {
+      for (ColumnarBlock block : this.blocks) {
+        writer.writeBlock(block);
+      }
+    } catch (IOException e) {
+      throw new Twister2RuntimeException("Couldn't flush record batches to the disk", e);
+    }
+    this.filesList.add(filePath);
+    this.blocks.clear();
+    this.bufferedBytes = 0;
+  }
+
   public boolean hasIndexInMemory(int index) {
     return index < this.dataList.size();
   }
@@ -297,8 +458,19 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
       long currentSize = this.dataList.size();
       for (int fileIndex = 0; fileIndex < this.filesList.size(); fileIndex++) {
         Path nextFile = this.filesList.get(fileIndex);
-        try {
-          DataInputStream reader = new DataInputStream(fileSystem.open(nextFile));
+        if (nextFile.getName().endsWith(COLUMNAR_EXTENSION)) {
+          // every block of a columnar file is a frame
+          try (ColumnarFileReader reader = openColumnar(nextFile)) {
+            if (index < currentSize + reader.getBlockCount()) {
+              return (T) reader.readBlock((int) (index - currentSize), null);
+            }
+            currentSize += reader.getBlockCount();
+          } catch (IOException ioex) {
+            throw new Twister2RuntimeException("Failed to read from file : " + nextFile, ioex);
+          }
+          continue;
+        }
+        try (DataInputStream reader = new DataInputStream(fileSystem.open(nextFile))) {
           long noOfFrames = reader.readLong();
           if (index < currentSize + noOfFrames) {
             if (cachedFileIndex != fileIndex) {
@@ -308,13 +480,13 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
               for (long i = 0; i < noOfFrames; i++) {
                 int size = reader.readInt();
                 byte[] data = new byte[size];
-                reader.read(data);
+                reader.readFully(data);
                 this.currentFileCache.add(data);
               }
             }
             //not we have this file in cache
             return (T) dataType.getDataPacker().unpackFromByteArray(
-                this.currentFileCache.get((int) (index - this.dataList.size() - currentSize)));
+                this.currentFileCache.get((int) (index - currentSize)));
           } else {
             currentSize += noOfFrames;
           }
@@ -322,6 +494,13 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
           throw new Twister2RuntimeException("Failed to read from file : " + nextFile);
         }
       }
+      if (!this.blocks.isEmpty()) {
+        try {
+          return (T) this.blocks.get((int) (index - currentSize)).decode(null);
+        } catch (IOException e) {
+          throw new Twister2RuntimeException("Failed to decode a columnar block", e);
+        }
+      }
       return (T) dataType.getDataPacker().unpackFromByteArray(
           this.buffers.get((int) (index - currentSize)));
     }
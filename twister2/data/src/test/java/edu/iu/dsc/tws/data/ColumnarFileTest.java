@@ -0,0 +1,159 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.api.dataset.DataPartitionConsumer;
+import edu.iu.dsc.tws.common.config.ConfigLoader;
+import edu.iu.dsc.tws.data.columnar.ColumnEncoding;
+import edu.iu.dsc.tws.data.columnar.ColumnPredicate;
+import edu.iu.dsc.tws.data.columnar.ColumnarBlock;
+import edu.iu.dsc.tws.data.columnar.ColumnarFileReader;
+import edu.iu.dsc.tws.data.columnar.ColumnarFileWriter;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
+import edu.iu.dsc.tws.data.fs.local.LocalFileSystem;
+import edu.iu.dsc.tws.dataset.partition.BufferedCollectionPartition;
+import edu.iu.dsc.tws.dataset.partition.DiskBackedCollectionPartition;
+
+public class ColumnarFileTest {
+
+  private static final RecordBatch.ColumnType[] TYPES = {RecordBatch.ColumnType.INT,
+      RecordBatch.ColumnType.LONG, RecordBatch.ColumnType.FLOAT, RecordBatch.ColumnType.DOUBLE};
+
+  private static final int ROWS = 1000;
+
+  /**
+   * A batch with a sorted id, a column with few values, a column with long runs and a random
+   * column
+   */
+  private RecordBatch createBatch(int block) {
+    RecordBatch batch = new RecordBatch(TYPES, ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      batch.getIntColumn(0)[i] = block * ROWS + i;
+      batch.getLongColumn(1)[i] = i % 7 * 1000000007L;
+      batch.getFloatColumn(2)[i] = i / 100 + 0.5f;
+      batch.getDoubleColumn(3)[i] = Math.sin(block * ROWS + i);
+    }
+    batch.setSize(ROWS);
+    return batch;
+  }
+
+  private void assertBatch(RecordBatch expected, RecordBatch actual) {
+    Assert.assertEquals(expected.getSize(), actual.getSize());
+    Assert.assertArrayEquals(expected.getTypes(), actual.getTypes());
+    for (int i = 0; i < expected.getSize(); i++) {
+      Assert.assertEquals(expected.getIntColumn(0)[i], actual.getIntColumn(0)[i]);
+      Assert.assertEquals(expected.getLongColumn(1)[i], actual.getLongColumn(1)[i]);
+      Assert.assertEquals(expected.getFloatColumn(2)[i], actual.getFloatColumn(2)[i], 0);
+      Assert.assertEquals(expected.getDoubleColumn(3)[i], actual.getDoubleColumn(3)[i], 0);
+    }
+  }
+
+  @Test
+  public void testEncodings() throws IOException {
+    for (boolean compress : new boolean[]{false, true}) {
+      RecordBatch batch = createBatch(3);
+      ColumnarBlock block = ColumnarBlock.encode(batch, compress);
+      Assert.assertEquals(ColumnEncoding.BIT_PACKED, block.getEncoding(0));
+      Assert.assertEquals(ColumnEncoding.DICTIONARY, block.getEncoding(1));
+      Assert.assertEquals(ColumnEncoding.RUN_LENGTH, block.getEncoding(2));
+      Assert.assertEquals(ColumnEncoding.PLAIN, block.getEncoding(3));
+      Assert.assertTrue(block.getSizeInBytes() < ROWS * 24L);
+
+      Assert.assertEquals(3 * ROWS, block.getStats(0).getMinLong());
+      Assert.assertEquals(4 * ROWS - 1, block.getStats(0).getMaxLong());
+      assertBatch(batch, block.decode(null));
+    }
+  }
+
+  @Test
+  public void testFileScan() throws IOException {
+    File file = File.createTempFile("columnar", ".pcol");
+    file.deleteOnExit();
+    int blocks = 10;
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(new FileOutputStream(file), true)) {
+      for (int b = 0; b < blocks; b++) {
+        writer.write(createBatch(b));
+      }
+    }
+
+    LocalFileSystem fs = new LocalFileSystem();
+    Path path = new Path(file.getAbsolutePath());
+    try (ColumnarFileReader reader = new ColumnarFileReader(fs.open(path), file.length())) {
+      Assert.assertEquals(blocks, reader.getBlockCount());
+      for (int b = 0; b < blocks; b++) {
+        assertBatch(createBatch(b), reader.readBlock(b, null));
+      }
+
+      // only the rows 2500 to 2509 of the third block match, the other blocks are skipped
+      ColumnarScan scan = new ColumnarScan().project(3, 0)
+          .filter(ColumnPredicate.between(0, 2500L, 2509L));
+      Assert.assertNull(reader.readBlock(0, scan));
+      Iterator<RecordBatch> it = reader.iterator(scan);
+      Assert.assertTrue(it.hasNext());
+      RecordBatch selected = it.next();
+      Assert.assertFalse(it.hasNext());
+
+      Assert.assertEquals(10, selected.getSize());
+      Assert.assertEquals(2, selected.getColumnCount());
+      Assert.assertEquals(RecordBatch.ColumnType.DOUBLE, selected.getType(0));
+      for (int i = 0; i < 10; i++) {
+        Assert.assertEquals(2500 + i, selected.getIntColumn(1)[i]);
+        Assert.assertEquals(Math.sin(2500 + i), selected.getDoubleColumn(0)[i], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testPartition() {
+    int batches = 20;
+    String reference;
+    try (BufferedCollectionPartition<RecordBatch> dbp = new DiskBackedCollectionPartition<>(
+        MessageTypes.OBJECT, 40000, ConfigLoader.loadTestConfig())) {
+      for (int b = 0; b < batches; b++) {
+        dbp.add(createBatch(b));
+      }
+
+      DataPartitionConsumer<RecordBatch> consumer = dbp.getConsumer();
+      for (int b = 0; b < batches; b++) {
+        Assert.assertTrue(consumer.hasNext());
+        assertBatch(createBatch(b), consumer.next());
+      }
+      Assert.assertFalse(consumer.hasNext());
+      reference = dbp.getReference();
+    }
+
+    try (BufferedCollectionPartition<RecordBatch> dbp = new DiskBackedCollectionPartition<>(
+        MessageTypes.OBJECT, 40000, ConfigLoader.loadTestConfig(), reference)) {
+      for (int b = 0; b < batches; b++) {
+        assertBatch(createBatch(b), dbp.get(b));
+      }
+
+      DataPartitionConsumer<RecordBatch> consumer = dbp.getConsumer(new ColumnarScan()
+          .filter(ColumnPredicate.atLeast(0, 15L * ROWS)));
+      for (int b = 15; b < batches; b++) {
+        assertBatch(createBatch(b), consumer.next());
+      }
+      Assert.assertFalse(consumer.hasNext());
+    }
+  }
+}
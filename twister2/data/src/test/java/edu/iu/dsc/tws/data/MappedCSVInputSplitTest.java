@@ -0,0 +1,131 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.data.api.formatters.LocalMappedCSVInputPartitioner;
+import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.api.splits.MappedCSVInputSplit;
+import edu.iu.dsc.tws.data.utils.TextParseUtils;
+
+public class MappedCSVInputSplitTest {
+
+  @Test
+  public void testIndexOf() {
+    ByteBuffer buffer = toBuffer("0123456789abcdefghij,klmnopq,");
+    Assert.assertEquals(20, TextParseUtils.indexOf(buffer, 0, buffer.limit(), (byte) ','));
+    Assert.assertEquals(28, TextParseUtils.indexOf(buffer, 21, buffer.limit(), (byte) ','));
+    Assert.assertEquals(-1, TextParseUtils.indexOf(buffer, 0, 20, (byte) ','));
+    Assert.assertEquals(-1, TextParseUtils.indexOf(buffer, 0, buffer.limit(), (byte) '\n'));
+    // the bytes around a match must not give a false match
+    ByteBuffer bytes = ByteBuffer.wrap(new byte[]{1, 0, 1, 2, 1, 1, 1, 1, 1, 1})
+        .order(ByteOrder.LITTLE_ENDIAN);
+    Assert.assertEquals(1, TextParseUtils.indexOf(bytes, 0, 10, (byte) 0));
+    Assert.assertEquals(3, TextParseUtils.indexOf(bytes, 0, 10, (byte) 2));
+  }
+
+  @Test
+  public void testParseNumbers() {
+    String[] values = {"0", "-0.0", "1", "-12.5", " 0.12345678\t", "3.14159265358979",
+        "1e10", "2.5E-3", "+7", "123456789012345678901234", "0.000000000000000000001",
+        "1.7976931348623157E308", "4.9E-324", "NaN", "-Infinity", ".5", "5."};
+    for (String value : values) {
+      ByteBuffer buffer = toBuffer(value);
+      Assert.assertEquals(value, Double.parseDouble(value.trim()),
+          TextParseUtils.parseDouble(buffer, 0, buffer.limit()), 0.0);
+    }
+
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      String value = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+      ByteBuffer buffer = toBuffer(value);
+      Assert.assertEquals(value, Double.parseDouble(value),
+          TextParseUtils.parseDouble(buffer, 0, buffer.limit()), 0.0);
+    }
+
+    ByteBuffer buffer = toBuffer(" -1234567 ");
+    Assert.assertEquals(-1234567L, TextParseUtils.parseLong(buffer, 0, buffer.limit()));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testInvalidNumber() {
+    ByteBuffer buffer = toBuffer("1.2.3");
+    TextParseUtils.parseDouble(buffer, 0, buffer.limit());
+  }
+
+  @Test
+  public void testReadSplits() throws IOException {
+    int lines = 1000;
+    int columns = 4;
+    Random random = new Random(0);
+    StringBuilder builder = new StringBuilder();
+    List<double[]> expected = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      double[] row = new double[columns];
+      for (int j = 0; j < columns; j++) {
+        row[j] = random.nextDouble();
+        builder.append(String.format("%.8f", row[j]));
+        if (j < columns - 1) {
+          builder.append(",\t");
+        }
+        row[j] = Double.parseDouble(String.format("%.8f", row[j]));
+      }
+      expected.add(row);
+      builder.append(i % 2 == 0 ? "\n" : "\r\n");
+    }
+
+    File file = File.createTempFile("twister2-mapped", ".csv");
+    file.deleteOnExit();
+    Files.write(file.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+
+    Config config = Config.newBuilder().build();
+    LocalMappedCSVInputPartitioner partitioner = new LocalMappedCSVInputPartitioner(
+        new Path(file.getAbsolutePath()), 4, lines, config);
+    FileInputSplit<double[]>[] splits = partitioner.createInputSplits(4);
+    Assert.assertEquals(4, splits.length);
+
+    int line = 0;
+    for (FileInputSplit<double[]> split : splits) {
+      // a small region to read a split with many regions
+      ((MappedCSVInputSplit) split).setRegionSize(100);
+      split.open(config);
+      double[] row = null;
+      while (!split.reachedEnd()) {
+        row = split.nextRecord(row);
+        if (row != null) {
+          Assert.assertArrayEquals(expected.get(line++), row, 0.0);
+        }
+      }
+      split.close();
+    }
+    Assert.assertEquals(lines, line);
+  }
+
+  private static ByteBuffer toBuffer(String value) {
+    return ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII))
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
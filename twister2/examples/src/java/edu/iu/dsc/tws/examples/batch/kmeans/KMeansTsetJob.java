@@ -27,7 +27,7 @@ import edu.iu.dsc.tws.api.tset.fn.BaseSourceFunc;
 import edu.iu.dsc.tws.api.tset.fn.MapFunc;
 import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
 import edu.iu.dsc.tws.data.api.formatters.LocalCompleteTextInputPartitioner;
-import edu.iu.dsc.tws.data.api.formatters.LocalFixedInputPartitioner;
+import edu.iu.dsc.tws.data.api.formatters.LocalMappedCSVInputPartitioner;
 import edu.iu.dsc.tws.data.fs.io.InputSplit;
 import edu.iu.dsc.tws.data.utils.DataObjectConstants;
 import edu.iu.dsc.tws.dataset.DataSource;
@@ -169,8 +169,8 @@ public class KMeansTsetJob implements BatchTSetIWorker, Serializable {
           + context.getWorkerId();
       //The +1 in the array size is because of a data balancing bug
       localPoints = new double[dataSize / para][dimension];
-      this.source = new DataSource(cfg, new LocalFixedInputPartitioner(new
-          Path(datainputDirectory), context.getParallelism(), cfg, dataSize),
+      this.source = new DataSource(cfg, new LocalMappedCSVInputPartitioner(new
+          Path(datainputDirectory), context.getParallelism(), dataSize, dimension, cfg),
           context.getParallelism());
     }
 
@@ -186,13 +186,16 @@ public class KMeansTsetJob implements BatchTSetIWorker, Serializable {
         try {
           int count = 0;
           while (!inputSplit.reachedEnd()) {
-            String value = (String) inputSplit.nextRecord(null);
+            // the values are parsed directly in to the points, after the last point the split
+            // can still have empty lines, so the next row is only passed while there is one
+            double[] row = count < localPoints.length ? localPoints[count] : null;
+            double[] value = (double[]) inputSplit.nextRecord(row);
             if (value == null) {
               break;
             }
-            String[] splts = value.split(",");
-            for (int i = 0; i < dimension; i++) {
-              localPoints[count][i] = Double.valueOf(splts[i]);
+            if (row == null) {
+              throw new IllegalStateException("The input has more than "
+                  + localPoints.length + " points");
             }
             count += 1;
           }
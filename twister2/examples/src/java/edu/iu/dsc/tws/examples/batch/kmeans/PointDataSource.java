@@ -25,7 +25,7 @@ import edu.iu.dsc.tws.api.compute.nodes.BaseSource;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.api.dataset.DataPartition;
-import edu.iu.dsc.tws.data.api.formatters.LocalCSVInputPartitioner;
+import edu.iu.dsc.tws.data.api.formatters.LocalMappedCSVInputPartitioner;
 import edu.iu.dsc.tws.data.api.formatters.LocalTextInputPartitioner;
 import edu.iu.dsc.tws.data.fs.io.InputSplit;
 import edu.iu.dsc.tws.dataset.DataSource;
@@ -85,7 +85,9 @@ public class PointDataSource extends BaseSource implements Collector {
       try {
         while (!inputSplit.reachedEnd()) {
           Object value = inputSplit.nextRecord(null);
-          if (value != null) {
+          if (value instanceof double[]) {
+            points.add((double[]) value);
+          } else if (value != null) {
             double[] row = new double[dimension];
             String[] data = value.toString().split(",");
             for (int j = 0; j < dimension; j++) {
@@ -114,8 +116,8 @@ public class PointDataSource extends BaseSource implements Collector {
     ExecutionRuntime runtime = (ExecutionRuntime) cfg.get(
         ExecutorContext.TWISTER2_RUNTIME_OBJECT);
     if ("csv".equalsIgnoreCase(fileType)) {
-      this.source = runtime.createInput(cfg, context, new LocalCSVInputPartitioner(
-          new Path(dataDirectory), context.getParallelism(), getDatasize(), cfg));
+      this.source = runtime.createInput(cfg, context, new LocalMappedCSVInputPartitioner(
+          new Path(dataDirectory), context.getParallelism(), getDatasize(), dimension, cfg));
     } else {
       this.source = runtime.createInput(cfg, context, new LocalTextInputPartitioner(
           new Path(dataDirectory), context.getParallelism(), cfg));
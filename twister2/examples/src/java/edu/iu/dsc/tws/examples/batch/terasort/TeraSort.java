@@ -38,6 +38,8 @@ import org.apache.commons.cli.ParseException;
 
 import edu.iu.dsc.tws.api.JobConfig;
 import edu.iu.dsc.tws.api.Twister2Job;
+import edu.iu.dsc.tws.api.comms.PrefixComparator;
+import edu.iu.dsc.tws.api.comms.PrefixComparators;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
@@ -219,7 +221,7 @@ public class TeraSort implements IWorker {
   /**
    * Extracted from hbase source code
    */
-  public static final class ByteArrayComparator implements Comparator<byte[]> {
+  public static final class ByteArrayComparator implements PrefixComparator<byte[]> {
 
     private static final ByteArrayComparator INSTANCE = new ByteArrayComparator();
 
@@ -230,16 +232,14 @@ public class TeraSort implements IWorker {
       return INSTANCE;
     }
 
+    @Override
+    public long prefix(byte[] key) {
+      return PrefixComparators.unsignedBytesPrefix(key);
+    }
+
     @Override
     public int compare(byte[] left, byte[] right) {
-      for (int i = 0, j = 0; i < left.length && j < right.length; i++, j++) {
-        int a = left[i] & 0xff;
-        int b = right[j] & 0xff;
-        if (a != b) {
-          return a - b;
-        }
-      }
-      return left.length - right.length;
+      return PrefixComparators.compareUnsignedBytes(left, right);
     }
   }
 
@@ -46,6 +46,7 @@ import edu.iu.dsc.tws.task.window.collectives.ProcessWindow;
 import edu.iu.dsc.tws.task.window.collectives.ReduceWindow;
 import edu.iu.dsc.tws.task.window.core.BaseWindowedSink;
 import edu.iu.dsc.tws.task.window.function.AggregateWindowedFunction;
+import edu.iu.dsc.tws.task.window.function.AssociativeWindowFunction;
 import edu.iu.dsc.tws.task.window.function.FoldWindowedFunction;
 import edu.iu.dsc.tws.task.window.function.ProcessWindowedFunction;
 import edu.iu.dsc.tws.task.window.function.ReduceWindowedFunction;
@@ -239,7 +240,11 @@ public class STWindowExample extends BenchTaskWorker {
   }
 
 
-  protected static class ReduceFunctionImpl implements ReduceWindowedFunction<int[]> {
+  /**
+   * Element wise sum, which is associative so the windows are computed in panes
+   */
+  protected static class ReduceFunctionImpl implements ReduceWindowedFunction<int[]>,
+      AssociativeWindowFunction {
 
     @Override
     public int[] onMessage(int[] object1, int[] object2) {
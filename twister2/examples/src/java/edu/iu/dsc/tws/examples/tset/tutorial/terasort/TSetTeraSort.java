@@ -12,7 +12,6 @@
 package edu.iu.dsc.tws.examples.tset.tutorial.terasort;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -22,6 +21,8 @@ import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.JobConfig;
 import edu.iu.dsc.tws.api.Twister2Job;
+import edu.iu.dsc.tws.api.comms.PrefixComparator;
+import edu.iu.dsc.tws.api.comms.PrefixComparators;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.tset.TSetContext;
 import edu.iu.dsc.tws.api.tset.fn.ApplyFunc;
@@ -39,7 +40,7 @@ public class TSetTeraSort extends BaseTSetBatchWorker {
   private static final String PARAM_DATA_SIZE_GB = "PARAM_DATA_SIZE_GB";
   private static final String PARAM_PARALLELISM = "PARAM_PARALLELISM";
 
-  public static final class ByteArrayComparator implements Comparator<byte[]> {
+  public static final class ByteArrayComparator implements PrefixComparator<byte[]> {
 
     private static final ByteArrayComparator INSTANCE = new ByteArrayComparator();
 
@@ -50,16 +51,14 @@ public class TSetTeraSort extends BaseTSetBatchWorker {
       return INSTANCE;
     }
 
+    @Override
+    public long prefix(byte[] key) {
+      return PrefixComparators.unsignedBytesPrefix(key);
+    }
+
     @Override
     public int compare(byte[] left, byte[] right) {
-      for (int i = 0, j = 0; i < left.length && j < right.length; i++, j++) {
-        int a = left[i] & 0xff;
-        int b = right[j] & 0xff;
-        if (a != b) {
-          return a - b;
-        }
-      }
-      return left.length - right.length;
+      return PrefixComparators.compareUnsignedBytes(left, right);
     }
   }
 
@@ -11,24 +11,31 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.comms;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.comms.Communicator;
 import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
 import edu.iu.dsc.tws.api.compute.executor.ISync;
+import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.config.Config;
 
 public abstract class AbstractParallelOperation implements IParallelOperation {
 
+  private static final Logger LOG = Logger.getLogger(AbstractParallelOperation.class.getName());
+
   protected Config config;
 
   protected Communicator channel;
 
-  protected Map<Integer, BlockingQueue<IMessage>> outMessages = new HashMap<>();
+  protected Map<Integer, Queue<IMessage>> outMessages = new HashMap<>();
 
   protected Map<Integer, ISync> syncs = new HashMap<>();
 
@@ -36,6 +43,11 @@ public abstract class AbstractParallelOperation implements IParallelOperation {
 
   protected String inEdge;
 
+  /**
+   * The targets which didn't accept the watermark being sent by a source
+   */
+  private Map<Integer, Queue<Integer>> pendingWatermarkTargets = new HashMap<>();
+
   public AbstractParallelOperation(Config config, Communicator network,
                                    LogicalPlan tPlan, String edge) {
     this.config = config;
@@ -49,7 +61,7 @@ public abstract class AbstractParallelOperation implements IParallelOperation {
   }
 
   @Override
-  public void register(int targetTask, BlockingQueue<IMessage> queue) {
+  public void register(int targetTask, Queue<IMessage> queue) {
     if (outMessages.containsKey(targetTask)) {
       throw new RuntimeException("Existing queue for target task");
     }
@@ -84,4 +96,45 @@ public abstract class AbstractParallelOperation implements IParallelOperation {
   public boolean progress() {
     return this.getOp().progress();
   }
+
+  /**
+   * Send a watermark to each of the targets. If a target doesn't accept it, the source sends
+   * the same watermark again and only the remaining targets are tried.
+   *
+   * @param src the source
+   * @param watermark the watermark, wrapped as required by the operation
+   * @param targets the targets
+   * @return true if all the targets accepted the watermark
+   */
+  protected boolean sendToTargets(int src, Object watermark, Set<Integer> targets) {
+    Queue<Integer> pending = pendingWatermarkTargets.computeIfAbsent(src,
+        s -> new ArrayDeque<>(targets));
+    while (!pending.isEmpty()) {
+      if (!getOp().send(src, watermark, 0, pending.peek())) {
+        return false;
+      }
+      pending.poll();
+    }
+    pendingWatermarkTargets.remove(src);
+    return true;
+  }
+
+  /**
+   * Watermarks are sent as objects with the messages, so only the edges with object messages
+   * of variable size can carry them
+   *
+   * @param edge the edge
+   * @param keyed whether the operation sends keyed messages
+   * @return true if the edge can carry watermarks
+   */
+  protected static boolean canCarryWatermarks(Edge edge, boolean keyed) {
+    boolean objects = edge.getDataType() == MessageTypes.OBJECT
+        && (!keyed || edge.getKeyType() == MessageTypes.OBJECT)
+        && (edge.getMessageSchema() == null || !edge.getMessageSchema().isFixedSchema());
+    if (!objects) {
+      LOG.fine(() -> "Watermarks are not carried by the edge " + edge.getName()
+          + " with messages of type " + edge.getDataType());
+    }
+    return objects;
+  }
 }
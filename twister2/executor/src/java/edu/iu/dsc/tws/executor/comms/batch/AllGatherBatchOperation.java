@@ -12,8 +12,8 @@
 package edu.iu.dsc.tws.executor.comms.batch;
 
 import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.BulkReceiver;
@@ -67,11 +67,10 @@ public class AllGatherBatchOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Iterator<Object> it) {
       TaskMessage msg = new TaskMessage<>(it, inEdge, target);
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
       if (messages != null) {
-        if (messages.offer(msg)) {
-          return true;
-        }
+        // if the queue is full, we will be called again
+        return messages.offer(msg);
       }
       return true;
     }
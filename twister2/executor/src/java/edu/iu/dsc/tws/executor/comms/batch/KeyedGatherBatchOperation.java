@@ -13,8 +13,8 @@ package edu.iu.dsc.tws.executor.comms.batch;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.BulkReceiver;
@@ -80,7 +80,7 @@ public class KeyedGatherBatchOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Iterator<Object> it) {
       TaskMessage msg = new TaskMessage<>(it, inEdge, target);
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
       if (messages != null) {
         return messages.offer(msg);
       } else {
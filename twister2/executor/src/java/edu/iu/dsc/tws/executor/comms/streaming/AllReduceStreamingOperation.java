@@ -13,8 +13,8 @@ package edu.iu.dsc.tws.executor.comms.streaming;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.Communicator;
@@ -85,11 +85,9 @@ public class AllReduceStreamingOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Object object) {
       TaskMessage msg = new TaskMessage<>(object, inEdge, target);
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
       if (messages != null) {
-        if (messages.offer(msg)) {
-          return true;
-        }
+        return messages.offer(msg);
       }
       return true;
     }
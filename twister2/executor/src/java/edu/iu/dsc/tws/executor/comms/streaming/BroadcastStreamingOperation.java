@@ -11,8 +11,9 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.comms.streaming;
 
+import java.util.Collections;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.Communicator;
@@ -20,6 +21,7 @@ import edu.iu.dsc.tws.api.comms.LogicalPlan;
 import edu.iu.dsc.tws.api.comms.SingularReceiver;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.stream.SBroadCast;
@@ -29,6 +31,11 @@ public class BroadcastStreamingOperation extends AbstractParallelOperation {
 
   private SBroadCast op;
 
+  /**
+   * The source sending watermarks, empty if the edge can't carry them
+   */
+  private Set<Integer> watermarkSources;
+
   public BroadcastStreamingOperation(Config config, Communicator network, LogicalPlan tPlan,
                                      Set<Integer> sources, Set<Integer> dests, Edge edge) {
     super(config, network, tPlan, edge.getName());
@@ -45,6 +52,7 @@ public class BroadcastStreamingOperation extends AbstractParallelOperation {
     op = new SBroadCast(newComm, logicalPlan, sources.iterator().next(), dests,
         edge.getDataType(), new BcastReceiver(), edge.getEdgeID().nextId(),
         edge.getMessageSchema());
+    this.watermarkSources = canCarryWatermarks(edge, false) ? sources : Collections.emptySet();
   }
 
   @Override
@@ -52,6 +60,16 @@ public class BroadcastStreamingOperation extends AbstractParallelOperation {
     return op.bcast(source, message.getContent(), flags);
   }
 
+  @Override
+  public boolean sendWatermark(int src, Watermark watermark) {
+    return watermarkSources.isEmpty() || op.bcast(src, watermark, 0);
+  }
+
+  @Override
+  public Set<Integer> getWatermarkSources(int target) {
+    return watermarkSources;
+  }
+
   public class BcastReceiver implements SingularReceiver {
     @Override
     public void init(Config cfg, Set<Integer> targets) {
@@ -66,7 +84,7 @@ public class BroadcastStreamingOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Object object) {
       TaskMessage msg = new TaskMessage<>(object, inEdge, target);
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
       if (messages != null) {
         return messages.offer(msg);
       }
@@ -13,8 +13,9 @@ package edu.iu.dsc.tws.executor.comms.streaming;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.Communicator;
@@ -22,6 +23,7 @@ import edu.iu.dsc.tws.api.comms.LogicalPlan;
 import edu.iu.dsc.tws.api.comms.SingularReceiver;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.stream.SDirect;
@@ -31,6 +33,12 @@ public class DirectStreamingOperation extends AbstractParallelOperation {
 
   protected SDirect op;
 
+  private List<Integer> sources;
+
+  private List<Integer> targets;
+
+  private boolean watermarks;
+
   public DirectStreamingOperation(Config config, Communicator network, LogicalPlan tPlan,
                                   Set<Integer> srcs, Set<Integer> dests, Edge edge) {
     super(config, network, tPlan, edge.getName());
@@ -50,12 +58,30 @@ public class DirectStreamingOperation extends AbstractParallelOperation {
     Communicator newComm = channel.newWithConfig(edge.getProperties());
     op = new SDirect(newComm, logicalPlan, sources, targets, edge.getDataType(),
         new DirectReceiver(), edge.getEdgeID().nextId(), edge.getMessageSchema());
+    this.sources = sources;
+    this.targets = targets;
+    this.watermarks = canCarryWatermarks(edge, false);
   }
 
   public boolean send(int source, IMessage message, int flags) {
     return op.partition(source, message.getContent(), flags);
   }
 
+  @Override
+  public boolean sendWatermark(int src, Watermark watermark) {
+    return !watermarks || op.partition(src, watermark, 0);
+  }
+
+  @Override
+  public Set<Integer> getWatermarkSources(int target) {
+    int index = targets.indexOf(target);
+    if (!watermarks || index < 0) {
+      return Collections.emptySet();
+    }
+    // a target receives from the source at the same position
+    return Collections.singleton(sources.get(index));
+  }
+
   public class DirectReceiver implements SingularReceiver {
     @Override
     public void init(Config cfg, Set<Integer> targets) {
@@ -64,7 +90,7 @@ public class DirectStreamingOperation extends AbstractParallelOperation {
 
     @Override
     public boolean receive(int target, Object object) {
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
 
       TaskMessage msg = new TaskMessage<>(object, inEdge, target);
       return messages.offer(msg);
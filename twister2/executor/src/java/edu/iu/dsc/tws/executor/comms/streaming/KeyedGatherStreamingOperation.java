@@ -12,8 +12,8 @@
 package edu.iu.dsc.tws.executor.comms.streaming;
 
 import java.util.Iterator;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.BulkReceiver;
@@ -65,7 +65,7 @@ public class KeyedGatherStreamingOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Iterator<Object> it) {
       TaskMessage msg = new TaskMessage<>(it, inEdge, target);
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
       if (messages != null) {
         return messages.offer(msg);
       } else {
@@ -11,8 +11,9 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.comms.streaming;
 
+import java.util.Collections;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.Communicator;
@@ -23,6 +24,7 @@ import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.selectors.HashingSelector;
@@ -34,6 +36,13 @@ public class KeyedPartitionStreamOperation extends AbstractParallelOperation {
 
   private SKeyedPartition op;
 
+  private Set<Integer> targets;
+
+  /**
+   * The sources sending watermarks, empty if the edge can't carry them
+   */
+  private Set<Integer> watermarkSources;
+
   public KeyedPartitionStreamOperation(Config config, Communicator network, LogicalPlan tPlan,
                                        Set<Integer> sources, Set<Integer> dests, Edge edge) {
     super(config, network, tPlan, edge.getName());
@@ -59,6 +68,8 @@ public class KeyedPartitionStreamOperation extends AbstractParallelOperation {
     op = new SKeyedPartition(newComm, logicalPlan, sources, dests, keyType, dataType,
         new PartitionRecvrImpl(), destSelector, edge.getEdgeID().nextId(),
         edge.getMessageSchema());
+    this.targets = dests;
+    this.watermarkSources = canCarryWatermarks(edge, true) ? sources : Collections.emptySet();
   }
 
   @Override
@@ -68,6 +79,18 @@ public class KeyedPartitionStreamOperation extends AbstractParallelOperation {
         taskMessage.getContent().getKey(), taskMessage.getContent().getValue(), flags);
   }
 
+  @Override
+  public boolean sendWatermark(int src, Watermark watermark) {
+    // the keyed messages are tuples, the watermark is used as the key as well
+    return watermarkSources.isEmpty()
+        || sendToTargets(src, new Tuple<>(watermark, watermark), targets);
+  }
+
+  @Override
+  public Set<Integer> getWatermarkSources(int target) {
+    return watermarkSources;
+  }
+
   private class PartitionRecvrImpl implements SingularReceiver {
     @Override
     public void init(Config cfg, Set<Integer> targets) {
@@ -77,12 +100,12 @@ public class KeyedPartitionStreamOperation extends AbstractParallelOperation {
     @Override
     public boolean receive(int target, Object data) {
       if (data instanceof Tuple) {
-        TaskMessage msg = new TaskMessage<>(data, inEdge, target);
-        BlockingQueue<IMessage> messages = outMessages.get(target);
+        Object value = ((Tuple) data).getValue();
+        TaskMessage msg = new TaskMessage<>(value instanceof Watermark ? value : data,
+            inEdge, target);
+        Queue<IMessage> messages = outMessages.get(target);
         if (messages != null) {
-          if (messages.offer(msg)) {
-            return true;
-          }
+          return messages.offer(msg);
         }
       } else {
         throw new RuntimeException("Un-expecte data - " + data.getClass());
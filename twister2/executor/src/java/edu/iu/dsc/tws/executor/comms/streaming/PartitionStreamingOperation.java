@@ -11,8 +11,9 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.comms.streaming;
 
+import java.util.Collections;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import edu.iu.dsc.tws.api.comms.BaseOperation;
 import edu.iu.dsc.tws.api.comms.Communicator;
@@ -20,6 +21,7 @@ import edu.iu.dsc.tws.api.comms.LogicalPlan;
 import edu.iu.dsc.tws.api.comms.SingularReceiver;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.selectors.LoadBalanceSelector;
@@ -33,6 +35,13 @@ public class PartitionStreamingOperation extends AbstractParallelOperation {
 
   protected SPartition op;
 
+  private Set<Integer> targets;
+
+  /**
+   * The sources sending watermarks, empty if the edge can't carry them
+   */
+  private Set<Integer> watermarkSources;
+
   public PartitionStreamingOperation(Config config, Communicator network, LogicalPlan tPlan,
                                      Set<Integer> srcs, Set<Integer> dests, Edge edge) {
     super(config, network, tPlan, edge.getName());
@@ -49,12 +58,24 @@ public class PartitionStreamingOperation extends AbstractParallelOperation {
         edge.getDataType(),
         new PartitionBulkReceiver(),
         new LoadBalanceSelector(), edge.getEdgeID().nextId(), edge.getMessageSchema());
+    this.targets = dests;
+    this.watermarkSources = canCarryWatermarks(edge, false) ? srcs : Collections.emptySet();
   }
 
   public boolean send(int source, IMessage message, int flags) {
     return op.partition(source, message.getContent(), flags);
   }
 
+  @Override
+  public boolean sendWatermark(int src, Watermark watermark) {
+    return watermarkSources.isEmpty() || sendToTargets(src, watermark, targets);
+  }
+
+  @Override
+  public Set<Integer> getWatermarkSources(int target) {
+    return watermarkSources;
+  }
+
   public class PartitionBulkReceiver implements SingularReceiver {
     @Override
     public void init(Config cfg, Set<Integer> targets) {
@@ -62,7 +83,7 @@ public class PartitionStreamingOperation extends AbstractParallelOperation {
 
     @Override
     public boolean receive(int target, Object data) {
-      BlockingQueue<IMessage> messages = outMessages.get(target);
+      Queue<IMessage> messages = outMessages.get(target);
 
       TaskMessage msg = new TaskMessage<>(data, inEdge, target);
       return messages.offer(msg);
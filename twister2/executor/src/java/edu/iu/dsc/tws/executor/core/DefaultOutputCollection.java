@@ -11,7 +11,7 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.core;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.compute.IMessage;
@@ -20,11 +20,11 @@ import edu.iu.dsc.tws.api.compute.OutputCollection;
 public class DefaultOutputCollection implements OutputCollection {
   private static final Logger LOG = Logger.getLogger(DefaultOutputCollection.class.getName());
 
-  private BlockingQueue<IMessage> outQueue;
+  private Queue<IMessage> outQueue;
 
   private int count = 0;
 
-  public DefaultOutputCollection(BlockingQueue<IMessage> outQueue) {
+  public DefaultOutputCollection(Queue<IMessage> outQueue) {
     this.outQueue = outQueue;
   }
 
@@ -17,8 +17,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.LongSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -29,7 +31,9 @@ import com.google.common.collect.Table;
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
 import edu.iu.dsc.tws.api.comms.Communicator;
 import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.executor.ExecutionPlan;
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
 import edu.iu.dsc.tws.api.compute.executor.IExecutionPlanBuilder;
 import edu.iu.dsc.tws.api.compute.executor.INodeInstance;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
@@ -45,6 +49,7 @@ import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
 import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerSchedulePlan;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.net.BlockingSendException;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointingSGatherSink;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointingConfigurations;
@@ -52,6 +57,8 @@ import edu.iu.dsc.tws.executor.core.batch.SourceBatchInstance;
 import edu.iu.dsc.tws.executor.core.batch.TaskBatchInstance;
 import edu.iu.dsc.tws.executor.core.streaming.SourceStreamingInstance;
 import edu.iu.dsc.tws.executor.core.streaming.TaskStreamingInstance;
+import edu.iu.dsc.tws.executor.util.MpscRingQueue;
+import edu.iu.dsc.tws.executor.util.SpscRingQueue;
 import edu.iu.dsc.tws.executor.util.Utils;
 import edu.iu.dsc.tws.proto.checkpoint.Checkpoint;
 import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
@@ -59,6 +66,8 @@ import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
 public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
   private static final Logger LOG = Logger.getLogger(ExecutionPlanBuilder.class.getName());
 
+  private static final String QUEUE_DEPTH = "twister2_executor_queue_depth";
+
   /**
    * Worker id
    */
@@ -215,7 +224,8 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
 
       // lets create the instance
       INodeInstance iNodeInstance = createInstances(cfg, taskGraph.getGraphName(),
-          ip, v, taskGraph.getOperationMode(), inEdges, outEdges, taskSchedule, tasksVersion);
+          ip, v, taskGraph.getOperationMode(), inEdges, outEdges, taskSchedule, tasksVersion,
+          execution);
       // add to execution
       execution.addNodes(v.getName(), taskIdGenerator.generateGlobalTaskId(
           ip.getTaskId(), ip.getTaskIndex()), iNodeInstance);
@@ -396,6 +406,56 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     return cTasks;
   }
 
+  /**
+   * Create the queue the operations use to deliver messages to an instance. Operations may
+   * deliver from the channel thread as well as from the threads executing the sending and
+   * receiving instances, so this queue has multiple producers. When it is full the receivers
+   * get a false and retry.
+   */
+  private Queue<IMessage> createInQueue(Config cfg, Vertex vertex, TaskInstancePlan ip,
+                                        ExecutionPlan execution) {
+    Queue<IMessage> queue;
+    if (ExecutorContext.INSTANCE_QUEUE_TYPE_BLOCKING.equals(
+        ExecutorContext.instanceQueueType(cfg))) {
+      queue = new LinkedBlockingQueue<>();
+    } else {
+      queue = new MpscRingQueue<>(ExecutorContext.instanceQueueCapacity(cfg));
+    }
+    registerQueueDepth(queue, vertex, ip, "in", execution);
+    return queue;
+  }
+
+  /**
+   * Create the queue an instance writes its output to. Only the task of the instance produces
+   * in to this queue and it doesn't handle a rejected message, so the queue grows when full.
+   */
+  private Queue<IMessage> createOutQueue(Config cfg, Vertex vertex, TaskInstancePlan ip,
+                                         ExecutionPlan execution) {
+    Queue<IMessage> queue;
+    if (ExecutorContext.INSTANCE_QUEUE_TYPE_BLOCKING.equals(
+        ExecutorContext.instanceQueueType(cfg))) {
+      queue = new LinkedBlockingQueue<>();
+    } else {
+      queue = new SpscRingQueue<>(ExecutorContext.instanceQueueCapacity(cfg));
+    }
+    registerQueueDepth(queue, vertex, ip, "out", execution);
+    return queue;
+  }
+
+  /**
+   * Report the number of messages in a queue of an instance, replacing the queue of the same
+   * instance from a previous plan. The gauge is removed when the plan is closed.
+   */
+  private static void registerQueueDepth(Queue<IMessage> queue, Vertex vertex,
+                                         TaskInstancePlan ip, String direction,
+                                         ExecutionPlan execution) {
+    LongSupplier depth = queue::size;
+    String[] labels = {"task", vertex.getName(), "index", Integer.toString(ip.getTaskIndex()),
+        "queue", direction};
+    MetricsRegistry.get().gauge(QUEUE_DEPTH, depth, labels);
+    execution.addCloseHook(() -> MetricsRegistry.get().removeGauge(QUEUE_DEPTH, depth, labels));
+  }
+
   /**
    * Create an instance of a task,
    *
@@ -409,7 +469,8 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
                                         Vertex vertex, OperationMode operationMode,
                                         Map<String, Set<String>> inEdges,
                                         Map<String, String> outEdges,
-                                        TaskSchedulePlan taskSchedule, long tasksVersion) {
+                                        TaskSchedulePlan taskSchedule, long tasksVersion,
+                                        ExecutionPlan execution) {
     // lets add the task
     byte[] taskBytes = Utils.serialize(vertex.getTask());
     INode newInstance = (INode) Utils.deserialize(taskBytes);
@@ -418,8 +479,8 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     if (operationMode.equals(OperationMode.BATCH)) {
       if (newInstance instanceof ICompute) {
         TaskBatchInstance v = new TaskBatchInstance((ICompute) newInstance,
-            new LinkedBlockingQueue<>(),
-            new LinkedBlockingQueue<>(), cfg,
+            createInQueue(cfg, vertex, ip, execution),
+            createOutQueue(cfg, vertex, ip, execution), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(),
             inEdges, outEdges, taskSchedule, this.checkpointingClient,
@@ -428,7 +489,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
         return v;
       } else if (newInstance instanceof ISource) {
         SourceBatchInstance v = new SourceBatchInstance((ISource) newInstance,
-            new LinkedBlockingQueue<>(), cfg,
+            createOutQueue(cfg, vertex, ip, execution), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), outEdges,
             taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
@@ -440,8 +501,8 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     } else if (operationMode.equals(OperationMode.STREAMING)) {
       if (newInstance instanceof ICompute) {
         TaskStreamingInstance v = new TaskStreamingInstance((ICompute) newInstance,
-            new LinkedBlockingQueue<>(),
-            new LinkedBlockingQueue<>(), cfg,
+            createInQueue(cfg, vertex, ip, execution),
+            createOutQueue(cfg, vertex, ip, execution), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), inEdges,
             outEdges, taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
@@ -449,7 +510,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
         return v;
       } else if (newInstance instanceof ISource) {
         SourceStreamingInstance v = new SourceStreamingInstance((ISource) newInstance,
-            new LinkedBlockingQueue<>(), cfg,
+            createOutQueue(cfg, vertex, ip, execution), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), outEdges,
             taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
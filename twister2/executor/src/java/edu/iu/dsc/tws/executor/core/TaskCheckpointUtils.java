@@ -16,10 +16,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
-import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
-import edu.iu.dsc.tws.checkpointing.util.CheckpointUtils;
+import edu.iu.dsc.tws.checkpointing.util.SnapshotPersister;
 
 public final class TaskCheckpointUtils {
 
@@ -31,13 +30,12 @@ public final class TaskCheckpointUtils {
 
   public static void restore(CheckpointableTask checkpointableTask,
                              SnapshotImpl snapshot,
-                             StateStore stateStore, long tasksVersion, int globalTaskId) {
+                             SnapshotPersister persister, long tasksVersion,
+                             int globalTaskId) {
     checkpointableTask.initSnapshot(snapshot);
     if (tasksVersion > 0) {
       try {
-        CheckpointUtils.restoreSnapshot(stateStore,
-            tasksVersion,
-            snapshot);
+        persister.restore(tasksVersion, snapshot);
         LOG.log(Level.FINE, "Restoring task " + globalTaskId + " to version " + tasksVersion);
         checkpointableTask.restoreSnapshot(snapshot);
       } catch (IOException e) {
@@ -49,7 +47,7 @@ public final class TaskCheckpointUtils {
   public static void checkpoint(long checkpointID,
                                 CheckpointableTask checkpointableTask,
                                 SnapshotImpl snapshot,
-                                StateStore stateStore,
+                                SnapshotPersister persister,
                                 String family,
                                 int globalTaskId,
                                 CheckpointingClient checkpointingClient) {
@@ -60,9 +58,9 @@ public final class TaskCheckpointUtils {
       //update the new version
       snapshot.setVersion(checkpointID);
 
-      CheckpointUtils.saveState(stateStore, snapshot);
-
-      checkpointableTask.onSnapshotPersisted(snapshot);
+      // the snapshot may be written in the background, the task is notified when the
+      // version is polled from the persister
+      persister.persist(snapshot);
     } catch (IOException e) {
       throw new RuntimeException("Failed to write checkpoint of " + globalTaskId, e);
     }
@@ -21,6 +21,7 @@ import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.compute.OutputCollection;
 import edu.iu.dsc.tws.api.compute.TaskContext;
 import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.graph.OperationMode;
 import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
 import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerSchedulePlan;
@@ -297,6 +298,13 @@ public class TaskContextImpl implements TaskContext {
         MessageFlags.SYNC_BARRIER, edge, globalTaskId));
   }
 
+  @Override
+  public boolean writeWatermark(String edge, long timestamp) {
+    this.validateEdge(edge);
+    return collection.collect(edge, new TaskMessage<>(
+        new Watermark(timestamp, globalTaskId, false), edge, globalTaskId));
+  }
+
   /**
    * Write the last message
    *
@@ -35,12 +35,23 @@ public class InstanceState {
 
   private int value;
 
+  // number of times the state changed
+  private int changes;
+
   InstanceState(int val) {
     this.value = val;
   }
 
   public void addState(int state) {
-    this.value = this.value | state;
+    int newValue = this.value | state;
+    if (newValue != this.value) {
+      this.value = newValue;
+      this.changes++;
+    }
+  }
+
+  public int getChanges() {
+    return changes;
   }
 
   public boolean isSet(int state) {
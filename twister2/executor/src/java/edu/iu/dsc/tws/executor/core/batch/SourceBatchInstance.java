@@ -13,7 +13,7 @@ package edu.iu.dsc.tws.executor.core.batch;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
@@ -43,7 +43,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
   /**
    * Output will go throuh a single queue
    */
-  private BlockingQueue<IMessage> outBatchQueue;
+  private Queue<IMessage> outBatchQueue;
 
   /**
    * The configuration
@@ -100,6 +100,11 @@ public class SourceBatchInstance implements INodeInstance, ISync {
    */
   private InstanceState state = new InstanceState(InstanceState.INIT);
 
+  /**
+   * Number of task executions and messages sent so far
+   */
+  private long workCount;
+
   /**
    * The task context
    */
@@ -135,7 +140,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
    */
   private String[] outEdgeArray;
 
-  public SourceBatchInstance(ISource task, BlockingQueue<IMessage> outQueue,
+  public SourceBatchInstance(ISource task, Queue<IMessage> outQueue,
                              Config config, String tName, int taskId,
                              int globalTaskId, int tIndex, int parallel,
                              int wId, Map<String, Object> cfgs, Map<String, String> outEdges,
@@ -194,6 +199,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
       while (outBatchQueue.size() < lowWaterMark) {
         // if we are in executing state we can run
         batchTask.execute();
+        workCount++;
 
         // if all the edges are done
         if (taskContext.isCompleted()) {
@@ -211,6 +217,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
         IParallelOperation op = outBatchParOps.get(edge);
         if (op.send(globalTaskId, message, 0)) {
           outBatchQueue.poll();
+          workCount++;
         } else {
           // no point in progressing further
           break;
@@ -253,6 +260,11 @@ public class SourceBatchInstance implements INodeInstance, ISync {
     return this.batchTaskIndex;
   }
 
+  @Override
+  public long getWorkCount() {
+    return workCount + state.getChanges();
+  }
+
   @Override
   public INode getNode() {
     return batchTask;
@@ -15,8 +15,9 @@ package edu.iu.dsc.tws.executor.core.batch;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
 import edu.iu.dsc.tws.api.compute.IMessage;
@@ -34,6 +35,7 @@ import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.executor.core.DefaultOutputCollection;
 import edu.iu.dsc.tws.executor.core.TaskContextImpl;
+import edu.iu.dsc.tws.executor.util.RingQueue;
 
 /**
  * The class represents the instance of the executing task
@@ -44,16 +46,21 @@ public class TaskBatchInstance implements INodeInstance, ISync {
    */
   private ICompute task;
 
+  /**
+   * Executes a message taken from the input queue
+   */
+  private Consumer<IMessage> executeMessage;
+
   /**
    * All the inputs will come through a single queue, otherwise we need to look
    * at different queues for messages
    */
-  private BlockingQueue<IMessage> inQueue;
+  private Queue<IMessage> inQueue;
 
   /**
    * Output will go throuh a single queue
    */
-  private BlockingQueue<IMessage> outQueue;
+  private Queue<IMessage> outQueue;
 
   /**
    * The configuration
@@ -115,6 +122,11 @@ public class TaskBatchInstance implements INodeInstance, ISync {
    */
   private InstanceState state = new InstanceState(InstanceState.INIT);
 
+  /**
+   * Number of messages executed and sent so far
+   */
+  private long workCount;
+
   /**
    * Output edges
    */
@@ -170,14 +182,15 @@ public class TaskBatchInstance implements INodeInstance, ISync {
    */
   private String[] outEdgeArray;
 
-  public TaskBatchInstance(ICompute task, BlockingQueue<IMessage> inQueue,
-                           BlockingQueue<IMessage> outQueue, Config config, String tName,
+  public TaskBatchInstance(ICompute task, Queue<IMessage> inQueue,
+                           Queue<IMessage> outQueue, Config config, String tName,
                            int taskId, int globalTaskId, int tIndex, int parallel,
                            int wId, Map<String, Object> cfgs,
                            Map<String, Set<String>> inEdges, Map<String, String> outEdges,
                            TaskSchedulePlan taskSchedule, CheckpointingClient checkpointingClient,
                            String taskGraphName, long tasksVersion) {
     this.task = task;
+    this.executeMessage = m -> this.task.execute(m);
     this.inQueue = inQueue;
     this.outQueue = outQueue;
     this.config = config;
@@ -241,9 +254,14 @@ public class TaskBatchInstance implements INodeInstance, ISync {
   public boolean execute() {
     // we started the executio
     if (state.isSet(InstanceState.INIT) && state.isNotSet(InstanceState.EXECUTION_DONE)) {
-      while (!inQueue.isEmpty() && outQueue.size() < lowWaterMark) {
-        IMessage m = inQueue.poll();
-        task.execute(m);
+      // execute the input in batches until the output reaches the low watermark
+      int room;
+      while ((room = lowWaterMark - outQueue.size()) > 0) {
+        int executed = RingQueue.drain(inQueue, executeMessage, room);
+        if (executed == 0) {
+          break;
+        }
+        workCount += executed;
         state.addState(InstanceState.EXECUTING);
       }
 
@@ -268,6 +286,7 @@ public class TaskBatchInstance implements INodeInstance, ISync {
         int flags = 0;
         if (op.send(globalTaskId, message, flags)) {
           outQueue.poll();
+          workCount++;
         } else {
           // no point progressing further
           break;
@@ -346,6 +365,11 @@ public class TaskBatchInstance implements INodeInstance, ISync {
     return this.taskIndex;
   }
 
+  @Override
+  public long getWorkCount() {
+    return workCount + state.getChanges();
+  }
+
   @Override
   public INode getNode() {
     return task;
@@ -367,7 +391,7 @@ public class TaskBatchInstance implements INodeInstance, ISync {
     state = new InstanceState(InstanceState.INIT);
   }
 
-  public BlockingQueue<IMessage> getInQueue() {
+  public Queue<IMessage> getInQueue() {
     return inQueue;
   }
 }
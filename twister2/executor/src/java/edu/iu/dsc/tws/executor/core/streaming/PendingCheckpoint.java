@@ -11,15 +11,17 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.core.streaming;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
-import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
+import edu.iu.dsc.tws.checkpointing.util.SnapshotPersister;
 import edu.iu.dsc.tws.executor.core.TaskCheckpointUtils;
 
 public class PendingCheckpoint {
@@ -32,13 +34,18 @@ public class PendingCheckpoint {
   private int noOfedges;
   private CheckpointingClient checkpointingClient;
   private String taskGraphName;
-  private StateStore stateStore;
+  private SnapshotPersister persister;
   private SnapshotImpl snapshot;
   private IParallelOperation[] streamingInParOps;
 
   private long currentBarrierId;
   private Set<String> edgesOnCurrentBarrier;
 
+  /**
+   * Copies of the snapshots being written, in the order they are returned by the persister
+   */
+  private Deque<SnapshotImpl> unpersisted = new ArrayDeque<>();
+
 
   public PendingCheckpoint(String taskGraphName,
                            CheckpointableTask checkpointableTask,
@@ -46,7 +53,7 @@ public class PendingCheckpoint {
                            IParallelOperation[] streamingInParOps,
                            int noOfedges,
                            CheckpointingClient checkpointingClient,
-                           StateStore stateStore,
+                           SnapshotPersister persister,
                            SnapshotImpl snapshot) {
     this.checkpointableTask = checkpointableTask;
     this.globalTaskId = globalTaskId;
@@ -54,7 +61,7 @@ public class PendingCheckpoint {
     this.noOfedges = noOfedges;
     this.checkpointingClient = checkpointingClient;
     this.taskGraphName = taskGraphName;
-    this.stateStore = stateStore;
+    this.persister = persister;
     this.snapshot = snapshot;
     this.edgesOnCurrentBarrier = new HashSet<>();
   }
@@ -97,11 +104,13 @@ public class PendingCheckpoint {
           this.currentBarrierId,
           this.checkpointableTask,
           this.snapshot,
-          this.stateStore,
+          this.persister,
           this.taskGraphName,
           this.globalTaskId,
           this.checkpointingClient
       );
+      // the task updates the snapshot for the next checkpoint before this one is written
+      this.unpersisted.add(this.snapshot.readOnlyCopy());
       long barrierId = this.currentBarrierId;
       this.reset();
       return barrierId;
@@ -111,4 +120,33 @@ public class PendingCheckpoint {
     }
     return -1;
   }
+
+  /**
+   * Returns the oldest checkpoint written to the store since the last call, the barriers of a
+   * checkpoint are forwarded when it is executed, but it should be reported to the checkpoint
+   * master only after this returns it
+   *
+   * @return a read only copy of the snapshot written, its version is the barrier id of the
+   * checkpoint, or null if no checkpoint is written
+   */
+  public SnapshotImpl pollPersisted() {
+    long barrierId = this.persister.pollPersisted();
+    if (barrierId == -1) {
+      return null;
+    }
+    SnapshotImpl persisted = this.unpersisted.pollFirst();
+    if (persisted == null || persisted.getVersion() != barrierId) {
+      throw new IllegalStateException("Checkpoint " + barrierId + " of " + this.globalTaskId
+          + " is written, but it was not taken by this task");
+    }
+    this.checkpointableTask.onSnapshotPersisted(persisted);
+    return persisted;
+  }
+
+  /**
+   * Whether there are checkpoints being written
+   */
+  public boolean hasUnpersisted() {
+    return this.persister.hasPending();
+  }
 }
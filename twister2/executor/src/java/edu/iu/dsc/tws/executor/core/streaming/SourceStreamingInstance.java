@@ -12,11 +12,11 @@
 package edu.iu.dsc.tws.executor.core.streaming;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.BlockingQueue;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
@@ -25,6 +25,8 @@ import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.OutputCollection;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
 import edu.iu.dsc.tws.api.compute.executor.INodeInstance;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
@@ -39,6 +41,7 @@ import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointingSGatherSink;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointUtils;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointingConfigurations;
+import edu.iu.dsc.tws.checkpointing.util.SnapshotPersister;
 import edu.iu.dsc.tws.executor.core.DefaultOutputCollection;
 import edu.iu.dsc.tws.executor.core.TaskCheckpointUtils;
 import edu.iu.dsc.tws.executor.core.TaskContextImpl;
@@ -54,7 +57,7 @@ public class SourceStreamingInstance implements INodeInstance {
   /**
    * Output will go through a single queue
    */
-  private BlockingQueue<IMessage> outStreamingQueue;
+  private Queue<IMessage> outStreamingQueue;
 
   /**
    * The configuration
@@ -132,6 +135,7 @@ public class SourceStreamingInstance implements INodeInstance {
    */
   private boolean checkpointable;
   private StateStore stateStore;
+  private SnapshotPersister snapshotPersister;
   private SnapshotImpl snapshot;
   private int barrierMessagesSent = 0;
   private Queue<Snapshot> snapshotQueue = new LinkedList<>();
@@ -158,7 +162,37 @@ public class SourceStreamingInstance implements INodeInstance {
    */
   private PendingCheckpoint pendingCheckpoint;
 
-  public SourceStreamingInstance(ISource streamingTask, BlockingQueue<IMessage> outStreamingQueue,
+  /**
+   * Milliseconds without output after which the source is marked idle, 0 if never
+   */
+  private long watermarkIdleTimeout;
+
+  /**
+   * The last watermark sent through an edge
+   */
+  private Map<String, Long> sentWatermarks = new HashMap<>();
+
+  /**
+   * The edges the source has to send an active watermark before the next message
+   */
+  private Queue<String> resumingEdges = new ArrayDeque<>();
+
+  /**
+   * Time of the last message sent
+   */
+  private long lastOutputTime;
+
+  /**
+   * True after the idle watermarks are written to all the edges
+   */
+  private boolean idle;
+
+  /**
+   * The edges the output queue did not accept the idle watermark for yet
+   */
+  private Queue<String> idleEdges = new ArrayDeque<>();
+
+  public SourceStreamingInstance(ISource streamingTask, Queue<IMessage> outStreamingQueue,
                                  Config config, String tName, int taskId,
                                  int globalTaskId, int tIndex, int parallel,
                                  int wId, Map<String, Object> cfgs, Map<String, String> outEdges,
@@ -186,6 +220,7 @@ public class SourceStreamingInstance implements INodeInstance {
     this.checkpointable = this.streamingTask instanceof CheckpointableTask
         && CheckpointingConfigurations.isCheckpointingEnabled(config);
     this.checkPointingFrequency = CheckpointingConfigurations.getCheckPointingFrequency(config);
+    this.watermarkIdleTimeout = ExecutorContext.watermarkIdleTimeout(config);
   }
 
   public void prepare(Config cfg) {
@@ -211,11 +246,12 @@ public class SourceStreamingInstance implements INodeInstance {
     if (this.checkpointable) {
       this.stateStore = CheckpointUtils.getStateStore(config);
       this.stateStore.init(config, this.taskGraphName, String.valueOf(globalTaskId));
+      this.snapshotPersister = new SnapshotPersister(this.stateStore, config);
 
       TaskCheckpointUtils.restore(
           (CheckpointableTask) this.streamingTask,
           this.snapshot,
-          this.stateStore,
+          this.snapshotPersister,
           this.tasksVersion,
           globalTaskId
       );
@@ -224,7 +260,7 @@ public class SourceStreamingInstance implements INodeInstance {
 
       this.pendingCheckpoint = new PendingCheckpoint(taskGraphName,
           (CheckpointableTask) this.streamingTask, globalTaskId, outOpArray, outEdges.size(),
-          checkpointingClient, stateStore, snapshot);
+          checkpointingClient, snapshotPersister, snapshot);
     }
   }
 
@@ -252,13 +288,38 @@ public class SourceStreamingInstance implements INodeInstance {
     while (!outStreamingQueue.isEmpty()) {
       IMessage message = outStreamingQueue.peek();
       if (message != null) {
+        if ((idle || !idleEdges.isEmpty()) && !isIdleWatermark(message)) {
+          // the source has output again, the receivers have to wait for its watermarks
+          idle = false;
+          idleEdges.clear();
+          resumingEdges.addAll(sentWatermarks.keySet());
+        }
+        if (!resumeWatermarks()) {
+          nothingToProcess = false;
+          break;
+        }
+
         String edge = message.edge();
         IParallelOperation op = outStreamingParOps.get(edge);
         boolean barrierMessage = (message.getFlag() & MessageFlags.SYNC_BARRIER)
             == MessageFlags.SYNC_BARRIER;
+        boolean sent;
+        if (barrierMessage) {
+          sent = op.sendBarrier(globalTaskId, (byte[]) message.getContent());
+        } else if (message.getContent() instanceof Watermark) {
+          Watermark watermark = (Watermark) message.getContent();
+          sent = op.sendWatermark(globalTaskId, watermark);
+          if (sent) {
+            sentWatermarks.merge(edge, watermark.getTimestamp(), Math::max);
+          }
+        } else {
+          sent = op.send(globalTaskId, message, message.getFlag());
+        }
         // if we successfully send remove message
-        if (barrierMessage ? op.sendBarrier(globalTaskId, (byte[]) message.getContent())
-            : op.send(globalTaskId, message, message.getFlag())) {
+        if (sent) {
+          if (!isIdleWatermark(message)) {
+            lastOutputTime = System.currentTimeMillis();
+          }
           outStreamingQueue.poll();
         } else {
           nothingToProcess = false;
@@ -277,19 +338,76 @@ public class SourceStreamingInstance implements INodeInstance {
       }
     }
 
+    if (watermarkIdleTimeout > 0 && !idle && idleEdges.isEmpty()
+        && outStreamingQueue.isEmpty() && !sentWatermarks.isEmpty()
+        && System.currentTimeMillis() - lastOutputTime > watermarkIdleTimeout) {
+      idleEdges.addAll(sentWatermarks.keySet());
+    }
+    if (!idleEdges.isEmpty()) {
+      writeIdleWatermarks();
+      nothingToProcess = false;
+    }
+
     if (this.checkpointable && outStreamingQueue.isEmpty() && this.pendingCheckpoint.isPending()) {
       long barrier = this.pendingCheckpoint.execute();
       if (barrier != -1) {
-        ((CheckpointableTask) this.streamingTask)
-            .onCheckpointPropagated(this.snapshot);
         this.scheduleBarriers(barrier);
-        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, barrier);
+        nothingToProcess = false;
+      }
+    }
+
+    if (this.checkpointable) {
+      // a checkpoint is reported only after its snapshot is in the store
+      SnapshotImpl persisted = this.pendingCheckpoint.pollPersisted();
+      if (persisted != null) {
+        ((CheckpointableTask) this.streamingTask).onCheckpointPropagated(persisted);
+        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, persisted.getVersion());
+      }
+      if (this.pendingCheckpoint.hasUnpersisted()) {
         nothingToProcess = false;
       }
     }
     return !nothingToProcess;
   }
 
+  /**
+   * Write the idle watermarks the output queue did not accept yet. The source is idle only
+   * after all the edges got one.
+   */
+  private void writeIdleWatermarks() {
+    while (!idleEdges.isEmpty()) {
+      String edge = idleEdges.peek();
+      if (!outputStreamingCollection.collect(edge, new TaskMessage<>(
+          new Watermark(sentWatermarks.get(edge), globalTaskId, true), edge, globalTaskId))) {
+        return;
+      }
+      idleEdges.poll();
+    }
+    idle = true;
+  }
+
+  private static boolean isIdleWatermark(IMessage message) {
+    return message.getContent() instanceof Watermark
+        && ((Watermark) message.getContent()).isIdle();
+  }
+
+  /**
+   * Send the last watermark of the edges again as active watermarks after the source was idle
+   *
+   * @return true if all the edges got the watermark
+   */
+  private boolean resumeWatermarks() {
+    while (!resumingEdges.isEmpty()) {
+      String edge = resumingEdges.peek();
+      Watermark watermark = new Watermark(sentWatermarks.get(edge), globalTaskId, false);
+      if (!outStreamingParOps.get(edge).sendWatermark(globalTaskId, watermark)) {
+        return false;
+      }
+      resumingEdges.poll();
+    }
+    return true;
+  }
+
   @Override
   public INode getNode() {
     return streamingTask;
@@ -302,7 +420,7 @@ public class SourceStreamingInstance implements INodeInstance {
     }
   }
 
-  public BlockingQueue<IMessage> getOutStreamingQueue() {
+  public Queue<IMessage> getOutStreamingQueue() {
     return outStreamingQueue;
   }
 
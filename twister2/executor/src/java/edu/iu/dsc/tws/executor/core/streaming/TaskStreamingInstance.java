@@ -14,8 +14,9 @@ package edu.iu.dsc.tws.executor.core.streaming;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,12 +25,15 @@ import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.OutputCollection;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
 import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
 import edu.iu.dsc.tws.api.compute.executor.INodeInstance;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
 import edu.iu.dsc.tws.api.compute.executor.ISync;
 import edu.iu.dsc.tws.api.compute.graph.OperationMode;
 import edu.iu.dsc.tws.api.compute.modifiers.Closable;
+import edu.iu.dsc.tws.api.compute.modifiers.WatermarkReceptor;
 import edu.iu.dsc.tws.api.compute.nodes.ICompute;
 import edu.iu.dsc.tws.api.compute.nodes.INode;
 import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
@@ -39,9 +43,11 @@ import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointingSGatherSink;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointUtils;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointingConfigurations;
+import edu.iu.dsc.tws.checkpointing.util.SnapshotPersister;
 import edu.iu.dsc.tws.executor.core.DefaultOutputCollection;
 import edu.iu.dsc.tws.executor.core.TaskCheckpointUtils;
 import edu.iu.dsc.tws.executor.core.TaskContextImpl;
+import edu.iu.dsc.tws.executor.util.RingQueue;
 
 /**
  * The class represents the instance of the executing task
@@ -52,18 +58,23 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
    */
   protected ICompute task;
 
+  /**
+   * Executes a message taken from the input queue
+   */
+  private Consumer<IMessage> executeMessage;
+
   private static final Logger LOG = Logger.getLogger(TaskStreamingInstance.class.getName());
 
   /**
    * All the inputs will come through a single queue, otherwise we need to look
    * at different queues for messages
    */
-  protected BlockingQueue<IMessage> inQueue;
+  protected Queue<IMessage> inQueue;
 
   /**
    * Output will go throuh a single queue
    */
-  protected BlockingQueue<IMessage> outQueue;
+  protected Queue<IMessage> outQueue;
 
   /**
    * The configuration
@@ -145,6 +156,7 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
   protected Map<String, Set<String>> inputEdges;
   private boolean checkpointable;
   private StateStore stateStore;
+  private SnapshotPersister snapshotPersister;
   private SnapshotImpl snapshot;
 
   /**
@@ -173,8 +185,23 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
   private boolean ftGatherTask;
   private CheckpointingSGatherSink checkpointingSGatherSink;
 
-  public TaskStreamingInstance(ICompute task, BlockingQueue<IMessage> inQueue,
-                               BlockingQueue<IMessage> outQueue, Config config, String tName,
+  /**
+   * Aligns the watermarks of the input edges
+   */
+  private WatermarkAligner watermarkAligner = new WatermarkAligner();
+
+  /**
+   * The last watermark given to the task
+   */
+  private long deliveredWatermark = Long.MIN_VALUE;
+
+  /**
+   * Watermarks the output queue did not accept yet, per output edge
+   */
+  private Map<String, Watermark> pendingWatermarks = new HashMap<>();
+
+  public TaskStreamingInstance(ICompute task, Queue<IMessage> inQueue,
+                               Queue<IMessage> outQueue, Config config, String tName,
                                int taskId, int globalTaskId, int tIndex,
                                int parallel, int wId, Map<String, Object> cfgs,
                                Map<String, Set<String>> inEdges, Map<String, String> outEdges,
@@ -182,6 +209,13 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
                                CheckpointingClient checkpointingClient, String taskGraphName,
                                long tasksVersion) {
     this.task = task;
+    this.executeMessage = m -> {
+      if (m.getContent() instanceof Watermark) {
+        this.onWatermark(m.edge(), (Watermark) m.getContent());
+      } else {
+        this.task.execute(m);
+      }
+    };
     this.inQueue = inQueue;
     this.outQueue = outQueue;
     this.config = config;
@@ -248,9 +282,14 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
       this.inEdgeArray[index++] = e;
     }
 
+    for (Map.Entry<String, IParallelOperation> e : inParOps.entrySet()) {
+      watermarkAligner.addSources(e.getKey(), e.getValue().getWatermarkSources(globalTaskId));
+    }
+
     if (this.checkpointable) {
       this.stateStore = CheckpointUtils.getStateStore(config);
       this.stateStore.init(config, this.taskGraphName, String.valueOf(globalTaskId));
+      this.snapshotPersister = new SnapshotPersister(this.stateStore, config);
 
       this.pendingCheckpoint = new PendingCheckpoint(
           this.taskGraphName,
@@ -259,14 +298,14 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
           this.intOpArray,
           this.inEdgeArray.length,
           this.checkpointingClient,
-          this.stateStore,
+          this.snapshotPersister,
           this.snapshot
       );
 
       TaskCheckpointUtils.restore(
           (CheckpointableTask) this.task,
           this.snapshot,
-          this.stateStore,
+          this.snapshotPersister,
           this.tasksVersion,
           globalTaskId
       );
@@ -291,15 +330,21 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
    * Executing compute task
    */
   public boolean execute() {
+    // first write the watermarks the output queue rejected before
+    if (!pendingWatermarks.isEmpty()) {
+      collectWatermarks();
+    }
+
     // execute if there are incoming messages
-    while (!inQueue.isEmpty() && outQueue.size() < lowWaterMark) {
-      IMessage m = inQueue.poll();
-      if (m != null) {
-        task.execute(m);
+    // execute the input in batches until the output reaches the low watermark
+    int room;
+    while ((room = lowWaterMark - outQueue.size()) > 0) {
+      if (RingQueue.drain(inQueue, executeMessage, room) == 0) {
+        break;
       }
     }
     // set the initial nothing to execute
-    boolean nothingToProcess = inQueue.isEmpty();
+    boolean nothingToProcess = inQueue.isEmpty() && pendingWatermarks.isEmpty();
 
     // now check the output queue
     while (!outQueue.isEmpty()) {
@@ -312,9 +357,16 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
 
         // invoke the communication operation
         IParallelOperation op = outParOps.get(edge);
+        boolean sent;
+        if (barrierMessage) {
+          sent = op.sendBarrier(globalTaskId, (byte[]) message.getContent());
+        } else if (message.getContent() instanceof Watermark) {
+          sent = op.sendWatermark(globalTaskId, (Watermark) message.getContent());
+        } else {
+          sent = op.send(globalTaskId, message, message.getFlag());
+        }
         // if we successfully send remove
-        if (barrierMessage ? op.sendBarrier(globalTaskId, (byte[]) message.getContent())
-            : op.send(globalTaskId, message, message.getFlag())) {
+        if (sent) {
           outQueue.poll();
         } else {
           nothingToProcess = false;
@@ -340,16 +392,61 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
     if (this.checkpointable && this.inQueue.isEmpty() && this.outQueue.isEmpty()) {
       long checkpointedBarrierId = this.pendingCheckpoint.execute();
       if (checkpointedBarrierId != -1) {
-        ((CheckpointableTask) this.task).onCheckpointPropagated(this.snapshot);
-        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, checkpointedBarrierId);
         this.scheduleBarriers(checkpointedBarrierId);
         nothingToProcess = false;
       }
     }
 
+    if (this.checkpointable) {
+      // a checkpoint is reported only after its snapshot is in the store
+      SnapshotImpl persisted = this.pendingCheckpoint.pollPersisted();
+      if (persisted != null) {
+        ((CheckpointableTask) this.task).onCheckpointPropagated(persisted);
+        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, persisted.getVersion());
+      }
+      if (this.pendingCheckpoint.hasUnpersisted()) {
+        nothingToProcess = false;
+      }
+    }
+
     return !nothingToProcess;
   }
 
+  /**
+   * Align a watermark with the watermarks of the other sources and, if the watermark of this
+   * task changes, give it to the task and forward it through the output edges after the
+   * messages already produced
+   */
+  private void onWatermark(String edge, Watermark watermark) {
+    if (!watermarkAligner.update(edge, watermark)) {
+      return;
+    }
+    long timestamp = watermarkAligner.getWatermark();
+    boolean idle = watermarkAligner.isIdle();
+    if (!idle && timestamp > deliveredWatermark) {
+      deliveredWatermark = timestamp;
+      if (task instanceof WatermarkReceptor) {
+        ((WatermarkReceptor) task).onWatermark(timestamp);
+      }
+    }
+    if (timestamp == Long.MIN_VALUE && !idle) {
+      return;
+    }
+    // a newer watermark replaces the one still waiting for an edge
+    for (String e : outEdgeArray) {
+      pendingWatermarks.put(e, new Watermark(timestamp, globalTaskId, idle));
+    }
+    collectWatermarks();
+  }
+
+  /**
+   * Write the pending watermarks to the output queue, keeping the ones it rejects
+   */
+  private void collectWatermarks() {
+    pendingWatermarks.entrySet().removeIf(e -> outputCollection.collect(e.getKey(),
+        new TaskMessage<>(e.getValue(), e.getKey(), globalTaskId)));
+  }
+
   public void scheduleBarriers(Long bid) {
     ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
     buffer.putLong(bid);
@@ -370,7 +467,7 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
     }
   }
 
-  public BlockingQueue<IMessage> getInQueue() {
+  public Queue<IMessage> getInQueue() {
     return inQueue;
   }
 
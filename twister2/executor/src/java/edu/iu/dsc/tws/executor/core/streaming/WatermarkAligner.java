@@ -0,0 +1,112 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.core.streaming;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import edu.iu.dsc.tws.api.compute.Watermark;
+
+/**
+ * Aligns the watermarks a task receives from the sources of its input edges. The watermark of
+ * the task is the minimum of the watermarks of the active sources, so it advances only after
+ * every active source has sent a watermark. Idle sources are left out until they send an
+ * active watermark again, and the task becomes idle when all of its sources are idle.
+ */
+public class WatermarkAligner {
+  /**
+   * Last watermark of a source, for each input edge
+   */
+  private Map<String, Map<Integer, Long>> watermarks = new HashMap<>();
+
+  /**
+   * The idle sources, for each input edge
+   */
+  private Map<String, Set<Integer>> idleSources = new HashMap<>();
+
+  /**
+   * The aligned watermark, it never goes back
+   */
+  private long watermark = Long.MIN_VALUE;
+
+  private boolean idle;
+
+  /**
+   * Register the sources of an edge, the watermark doesn't advance until all of them send one
+   *
+   * @param edge the input edge
+   * @param sources the sources of the edge sending watermarks
+   */
+  public void addSources(String edge, Set<Integer> sources) {
+    Map<Integer, Long> edgeWatermarks = watermarks.computeIfAbsent(edge, e -> new HashMap<>());
+    for (int source : sources) {
+      edgeWatermarks.putIfAbsent(source, Long.MIN_VALUE);
+    }
+  }
+
+  /**
+   * Update the watermark of a source
+   *
+   * @param edge the edge the watermark came through
+   * @param wm the watermark
+   * @return true if the aligned watermark advanced or the task became idle or active
+   */
+  public boolean update(String edge, Watermark wm) {
+    Map<Integer, Long> edgeWatermarks = watermarks.computeIfAbsent(edge, e -> new HashMap<>());
+    Set<Integer> edgeIdle = idleSources.computeIfAbsent(edge, e -> new HashSet<>());
+    Long last = edgeWatermarks.get(wm.getSource());
+    if (last == null || wm.getTimestamp() > last) {
+      edgeWatermarks.put(wm.getSource(), wm.getTimestamp());
+    }
+    if (wm.isIdle()) {
+      edgeIdle.add(wm.getSource());
+    } else {
+      edgeIdle.remove(wm.getSource());
+    }
+
+    long min = Long.MAX_VALUE;
+    boolean allIdle = true;
+    for (Map.Entry<String, Map<Integer, Long>> e : watermarks.entrySet()) {
+      Set<Integer> idleOfEdge = idleSources.get(e.getKey());
+      for (Map.Entry<Integer, Long> source : e.getValue().entrySet()) {
+        if (idleOfEdge == null || !idleOfEdge.contains(source.getKey())) {
+          allIdle = false;
+          min = Math.min(min, source.getValue());
+        }
+      }
+    }
+
+    boolean changed = allIdle != idle;
+    idle = allIdle;
+    if (!allIdle && min > watermark) {
+      watermark = min;
+      changed = true;
+    }
+    return changed;
+  }
+
+  /**
+   * The aligned watermark, {@link Long#MIN_VALUE} until all the active sources send one
+   */
+  public long getWatermark() {
+    return watermark;
+  }
+
+  /**
+   * True if all the sources are idle
+   */
+  public boolean isIdle() {
+    return idle;
+  }
+}
@@ -234,6 +234,8 @@ public class BatchSharingExecutor extends ThreadSharingExecutor {
     for (IParallelOperation op : ops) {
       op.close();
     }
+    // release what was registered for the plan
+    executionPlan.close();
     executionHook.onClose(this);
     // clear the finished instances
     finishedInstances.set(0);
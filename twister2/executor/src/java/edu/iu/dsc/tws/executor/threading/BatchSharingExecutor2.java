@@ -78,6 +78,11 @@ public class BatchSharingExecutor2 implements IExecutor {
    */
   private CountDownLatch doneSignal;
 
+  /**
+   * Busy and idle time of the threads
+   */
+  private ExecutorMetrics metrics = new ExecutorMetrics("batch");
+
   /**
    * The current plan we are executing
    */
@@ -88,6 +93,11 @@ public class BatchSharingExecutor2 implements IExecutor {
    */
   protected IExecutionHook executionHook;
 
+  /**
+   * The workers of the current execution, so that a worker finding work can wake up the others
+   */
+  private BatchWorker[] batchWorkers;
+
   public BatchSharingExecutor2(Config cfg, int workerId, TWSChannel channel, ExecutionPlan plan,
                                IExecutionHook hook) {
     this.workerId = workerId;
@@ -196,16 +206,16 @@ public class BatchSharingExecutor2 implements IExecutor {
       node.prepare(config);
     }
 
-    BatchWorker[] batchWorkers = new BatchWorker[numThreads];
+    batchWorkers = new BatchWorker[numThreads];
 
     final AtomicBoolean[] taskStatus = new AtomicBoolean[tasks.size()];
     for (int i = 0; i < tasks.size(); i++) {
       taskStatus[i] = new AtomicBoolean(false);
     }
     doneSignal = new CountDownLatch(numThreads - 1);
-    batchWorkers[0] = new BatchWorker(tasks, taskStatus);
+    batchWorkers[0] = new BatchWorker(tasks, taskStatus, IdleBackoff.fromConfig(config));
     for (int i = 1; i < numThreads; i++) {
-      BatchWorker task = new BatchWorker(tasks, taskStatus);
+      BatchWorker task = new BatchWorker(tasks, taskStatus, IdleBackoff.fromConfig(config));
       threads.submit(task);
       batchWorkers[i] = task;
     }
@@ -304,6 +314,8 @@ public class BatchSharingExecutor2 implements IExecutor {
     for (IParallelOperation op : ops) {
       op.close();
     }
+    // release what was registered for the plan
+    executionPlan.close();
 
     // clear the finished instances
     finishedInstances.set(0);
@@ -368,9 +380,16 @@ public class BatchSharingExecutor2 implements IExecutor {
     private AtomicBoolean[] ignoreIndex;
     private int lastIndex;
 
-    public BatchWorker(List<INodeInstance> tasks, AtomicBoolean[] ignoreIndex) {
+    // back off when a round over all the tasks doesn't do any work
+    private IdleBackoff backoff;
+    private int roundVisits;
+    private boolean roundProgressed;
+
+    public BatchWorker(List<INodeInstance> tasks, AtomicBoolean[] ignoreIndex,
+                       IdleBackoff backoff) {
       this.tasks = tasks;
       this.ignoreIndex = ignoreIndex;
+      this.backoff = backoff;
     }
 
     private int getNext() {
@@ -398,19 +417,51 @@ public class BatchSharingExecutor2 implements IExecutor {
       int nodeInstanceIndex = this.getNext();
       if (nodeInstanceIndex != -1) {
         INodeInstance nodeInstance = this.tasks.get(nodeInstanceIndex);
+        long workCount = nodeInstance.getWorkCount();
+        long start = metrics.start();
         boolean needsFurther = nodeInstance.execute();
+        metrics.busy(start);
         if (!needsFurther) {
           finishedInstances.incrementAndGet(); //(nodeInstance.getId(), true);
+          roundProgressed = true;
         } else {
+          if (workCount == -1 || workCount != nodeInstance.getWorkCount()) {
+            roundProgressed = true;
+          }
           //need further execution
           this.ignoreIndex[nodeInstanceIndex].set(false);
         }
       }
+
+      if (backoff.isEnabled() && ++roundVisits >= tasks.size()) {
+        endRound();
+      }
 //      } catch (Throwable t) {
 //        LOG.log(Level.SEVERE, String.format("%d Error in executor", workerId), t);
 //        throw new RuntimeException("Error occurred in execution of task", t);
 //      }
     }
+
+    /**
+     * We have visited every task once, back off if none of them did any work
+     */
+    private void endRound() {
+      if (roundProgressed) {
+        backoff.reset();
+        // others may have been waiting for the output of this work
+        for (BatchWorker w : batchWorkers) {
+          if (w != this) {
+            w.backoff.wakeUp();
+          }
+        }
+      } else {
+        long start = metrics.start();
+        backoff.idle();
+        metrics.idle(start);
+      }
+      roundVisits = 0;
+      roundProgressed = false;
+    }
   }
 
   private class BatchExecution implements IExecution {
@@ -0,0 +1,51 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import edu.iu.dsc.tws.api.metrics.Counter;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
+
+/**
+ * Time the threads of an executor spend executing the instances (busy) and backing off or
+ * waiting because there is no work (idle). Nothing is timed if the metrics are disabled.
+ */
+final class ExecutorMetrics {
+
+  private final boolean enabled;
+
+  private final Counter busyNanos;
+
+  private final Counter idleNanos;
+
+  ExecutorMetrics(String executor) {
+    MetricsRegistry metrics = MetricsRegistry.get();
+    this.enabled = metrics.isEnabled();
+    this.busyNanos = metrics.counter("twister2_executor_busy_nanos_total", "executor", executor);
+    this.idleNanos = metrics.counter("twister2_executor_idle_nanos_total", "executor", executor);
+  }
+
+  long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  void busy(long start) {
+    if (enabled) {
+      busyNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  void idle(long start) {
+    if (enabled) {
+      idleNanos.add(System.nanoTime() - start);
+    }
+  }
+}
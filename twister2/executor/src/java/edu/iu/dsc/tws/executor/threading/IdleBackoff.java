@@ -0,0 +1,144 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import java.util.concurrent.locks.LockSupport;
+
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * Backs off an executor thread that doesn't find any work. The thread first spins, then yields
+ * and finally parks for exponentially growing periods up to a maximum. Once work is found
+ * {@link #reset()} brings the thread back to spinning, and other threads can cut a park short
+ * with {@link #wakeUp()}.
+ *
+ * An instance is used by a single thread, except for {@link #wakeUp()}.
+ */
+public class IdleBackoff {
+  /**
+   * What the thread does on the next idle call
+   */
+  enum Phase {
+    SPIN,
+    YIELD,
+    PARK
+  }
+
+  /**
+   * The first park period
+   */
+  private static final long MIN_PARK_NANOS = 1000L;
+
+  /**
+   * If false, idle returns immediately and the thread keeps spinning
+   */
+  private final boolean enabled;
+
+  private final int maxSpins;
+
+  private final int maxYields;
+
+  private final long maxParkNanos;
+
+  private int spins;
+
+  private int yields;
+
+  private long parkNanos = MIN_PARK_NANOS;
+
+  /**
+   * The thread while it is parked
+   */
+  private volatile Thread parkedThread;
+
+  public IdleBackoff(boolean enabled, int maxSpins, int maxYields, long maxParkNanos) {
+    this.enabled = enabled;
+    this.maxSpins = maxSpins;
+    this.maxYields = maxYields;
+    this.maxParkNanos = Math.max(maxParkNanos, MIN_PARK_NANOS);
+  }
+
+  public static IdleBackoff fromConfig(Config cfg) {
+    String strategy = ExecutorContext.idleStrategy(cfg);
+    boolean backoff;
+    if (ExecutorContext.IDLE_STRATEGY_BACKOFF.equals(strategy)) {
+      backoff = true;
+    } else if (ExecutorContext.IDLE_STRATEGY_SPIN.equals(strategy)) {
+      backoff = false;
+    } else {
+      throw new RuntimeException("Un-known idle strategy: " + strategy);
+    }
+    return new IdleBackoff(backoff, ExecutorContext.idleSpins(cfg),
+        ExecutorContext.idleYields(cfg), ExecutorContext.idleMaxParkNanos(cfg));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Called when the thread didn't find any work
+   */
+  public void idle() {
+    if (!enabled) {
+      return;
+    }
+
+    if (spins < maxSpins) {
+      spins++;
+    } else if (yields < maxYields) {
+      yields++;
+      Thread.yield();
+    } else {
+      parkedThread = Thread.currentThread();
+      LockSupport.parkNanos(this, parkNanos);
+      parkedThread = null;
+      parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+    }
+  }
+
+  /**
+   * Called when the thread found work
+   */
+  public void reset() {
+    spins = 0;
+    yields = 0;
+    parkNanos = MIN_PARK_NANOS;
+  }
+
+  Phase getPhase() {
+    if (spins < maxSpins) {
+      return Phase.SPIN;
+    } else if (yields < maxYields) {
+      return Phase.YIELD;
+    }
+    return Phase.PARK;
+  }
+
+  /**
+   * The period of the next park
+   */
+  long getParkNanos() {
+    return parkNanos;
+  }
+
+  /**
+   * Un-park the thread if it is parked, this can be called from any thread
+   */
+  public void wakeUp() {
+    Thread thread = parkedThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+}
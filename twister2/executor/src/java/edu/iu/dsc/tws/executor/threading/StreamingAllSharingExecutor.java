@@ -291,6 +291,8 @@ public class StreamingAllSharingExecutor implements IExecutor {
     for (IParallelOperation op : ops) {
       op.close();
     }
+    // release what was registered for the plan
+    executionPlan.close();
     executionHook.onClose(this);
     // clear the finished instances
     cleanUpCalled = true;
@@ -83,6 +83,11 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
    */
   private CountDownLatch doneSignal;
 
+  /**
+   * Busy and idle time of the threads
+   */
+  private ExecutorMetrics metrics = new ExecutorMetrics("streaming");
+
   /**
    * Execution plan
    */
@@ -187,9 +192,10 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
     }
     doneSignal = new CountDownLatch(numThreads - 1);
     AtomicInteger idleCounter = new AtomicInteger(tasks.size());
-    workers[0] = new StreamWorker(tasks, taskStatus, idleTasks, idleCounter, 0);
+    workers[0] = new StreamWorker(tasks, taskStatus, idleTasks, idleCounter, 0,
+        IdleBackoff.fromConfig(config));
     for (int i = 1; i < numThreads; i++) {
-      StreamWorker task = new StreamWorker(tasks, taskStatus, idleTasks, idleCounter, i);
+      StreamWorker task = new StreamWorker(tasks, taskStatus, idleTasks, idleCounter, i, null);
       threads.submit(task);
       workers[i] = task;
     }
@@ -289,6 +295,8 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
     for (IParallelOperation op : ops) {
       op.close();
     }
+    // release what was registered for the plan
+    executionPlan.close();
 
     executionHook.onClose(this);
     // clear the finished instances
@@ -347,15 +355,18 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
     private AtomicBoolean[] idleTasks;
     private AtomicInteger activeCounter;
     private int threadIndex;
+    // how the main thread backs off when all the tasks are idle, other threads wait on tasks
+    private IdleBackoff backoff;
 
     public StreamWorker(List<INodeInstance> tasks,
                         AtomicBoolean[] ignoreIndex, AtomicBoolean[] idle,
-                        AtomicInteger activeCounter, int threadIndex) {
+                        AtomicInteger activeCounter, int threadIndex, IdleBackoff backoff) {
       this.tasks = tasks;
       this.ignoreIndex = ignoreIndex;
       this.idleTasks = idle;
       this.activeCounter = activeCounter;
       this.threadIndex = threadIndex;
+      this.backoff = backoff;
     }
 
     private int getNext() {
@@ -379,9 +390,23 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
     }
 
     private void doWaiting() {
+      long start = metrics.start();
+      try {
+        waitForWork();
+      } finally {
+        metrics.idle(start);
+      }
+    }
+
+    private void waitForWork() {
       if (this.threadIndex == 0) {
-        //sleep for few nanos
-        LockSupport.parkNanos(1);
+        if (backoff.isEnabled()) {
+          // spin, yield and then park for longer periods while nothing arrives
+          backoff.idle();
+        } else {
+          //sleep for few nanos
+          LockSupport.parkNanos(1);
+        }
       } else {
         synchronized (tasks) {
           try {
@@ -398,7 +423,9 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
         int nodeInstanceIndex = this.getNext();
         if (nodeInstanceIndex != -1) {
           INodeInstance nodeInstance = this.tasks.get(nodeInstanceIndex);
+          long start = metrics.start();
           boolean needsFurther = nodeInstance.execute();
+          metrics.busy(start);
           // need further execution
           if (needsFurther) {
             // if we were idle, we are no longer idle
@@ -407,6 +434,7 @@ public class StreamingAllSharingExecutor2 implements IExecutor {
             }
 
             if (this.threadIndex == 0) {
+              backoff.reset();
               synchronized (tasks) {
                 // we need more threads now. Notifying others to join processing
                 tasks.notifyAll();
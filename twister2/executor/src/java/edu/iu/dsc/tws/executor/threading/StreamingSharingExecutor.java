@@ -128,6 +128,8 @@ public class StreamingSharingExecutor extends ThreadSharingExecutor {
     for (IParallelOperation op : ops) {
       op.close();
     }
+    // release what was registered for the plan
+    executionPlan.close();
     // execution hook
     executionHook.afterExecution();
     cleanUpCalled = true;
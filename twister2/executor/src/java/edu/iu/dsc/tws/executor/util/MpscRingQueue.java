@@ -0,0 +1,146 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded multi producer, single consumer queue. Producers claim a slot by incrementing the
+ * producer index with a CAS and then publish the element into the slot, the consumer waits for
+ * a claimed slot to be published. Offer returns false when the queue is full.
+ *
+ * @param <E> type of the elements
+ */
+public class MpscRingQueue<E> extends RingQueue<E> {
+  private final AtomicReferenceArray<E> buffer;
+
+  private final int mask;
+
+  private final int capacity;
+
+  private final AtomicLong producerIndex = new AtomicLong();
+
+  /**
+   * A cached upper bound for the producer index, so that producers don't read the consumer
+   * index on every offer
+   */
+  private volatile long producerLimit;
+
+  private final AtomicLong consumerIndex = new AtomicLong();
+
+  public MpscRingQueue(int capacity) {
+    this.capacity = roundToPowerOfTwo(capacity);
+    this.mask = this.capacity - 1;
+    this.buffer = new AtomicReferenceArray<>(this.capacity);
+    this.producerLimit = this.capacity;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException("Null elements are not allowed");
+    }
+
+    long limit = producerLimit;
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index >= limit) {
+        limit = consumerIndex.get() + capacity;
+        if (index >= limit) {
+          return false;
+        }
+        producerLimit = limit;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+
+    buffer.lazySet((int) index & mask, e);
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    long index = consumerIndex.get();
+    int offset = (int) index & mask;
+    E e = waitForElement(index, offset);
+    if (e == null) {
+      return null;
+    }
+    buffer.lazySet(offset, null);
+    consumerIndex.lazySet(index + 1);
+    return e;
+  }
+
+  @Override
+  public E peek() {
+    long index = consumerIndex.get();
+    return waitForElement(index, (int) index & mask);
+  }
+
+  @Override
+  public int drain(Consumer<? super E> consumer, int limit) {
+    long index = consumerIndex.get();
+    int count = 0;
+    for (; count < limit; count++) {
+      int offset = (int) index & mask;
+      E e = waitForElement(index, offset);
+      if (e == null) {
+        break;
+      }
+      buffer.lazySet(offset, null);
+      consumerIndex.lazySet(++index);
+      consumer.accept(e);
+    }
+    return count;
+  }
+
+  /**
+   * Get the element at the index, if a producer has claimed the slot but not yet published it
+   * we spin until it does
+   */
+  private E waitForElement(long index, int offset) {
+    E e = buffer.get(offset);
+    if (e == null) {
+      if (index == producerIndex.get()) {
+        return null;
+      }
+      do {
+        e = buffer.get(offset);
+      } while (e == null);
+    }
+    return e;
+  }
+
+  @Override
+  public int size() {
+    long after = consumerIndex.get();
+    while (true) {
+      long before = after;
+      long producer = producerIndex.get();
+      after = consumerIndex.get();
+      if (before == after) {
+        return (int) Math.min(producer - after, capacity);
+      }
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerIndex.get() == producerIndex.get();
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,73 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.util;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * Base of the lock free queues between the task instances and the parallel operations. The
+ * queues are backed by power of two arrays and only a single thread at a time may consume.
+ * Iteration is not supported.
+ *
+ * @param <E> type of the elements
+ */
+public abstract class RingQueue<E> extends AbstractQueue<E> {
+  /**
+   * Take up to limit elements from the queue and give them to the consumer
+   *
+   * @param consumer the consumer
+   * @param limit maximum number of elements to take
+   * @return number of elements taken
+   */
+  public abstract int drain(Consumer<? super E> consumer, int limit);
+
+  /**
+   * Drain a queue, using the batch drain if the queue supports it
+   *
+   * @param queue the queue
+   * @param consumer the consumer
+   * @param limit maximum number of elements to take
+   * @param <E> type of the elements
+   * @return number of elements taken
+   */
+  public static <E> int drain(Queue<E> queue, Consumer<? super E> consumer, int limit) {
+    if (queue instanceof RingQueue) {
+      return ((RingQueue<E>) queue).drain(consumer, limit);
+    }
+
+    int count = 0;
+    E e;
+    while (count < limit && (e = queue.poll()) != null) {
+      consumer.accept(e);
+      count++;
+    }
+    return count;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    throw new UnsupportedOperationException("Iteration is not supported");
+  }
+
+  static int roundToPowerOfTwo(int value) {
+    if (value <= 2) {
+      return 2;
+    }
+    if (value > (1 << 30)) {
+      throw new IllegalArgumentException("Queue capacity is too large: " + value);
+    }
+    return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+  }
+}
@@ -0,0 +1,151 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A single producer, single consumer queue made of fixed size rings. When the current ring is
+ * full, the producer links a new ring and leaves a jump marker in the old one for the consumer
+ * to follow, so offer never fails. This is for queues written by a task that cannot handle a
+ * rejected message.
+ *
+ * The producer always keeps the slot at its index empty, the jump marker goes in to that slot.
+ *
+ * @param <E> type of the elements
+ */
+public class SpscRingQueue<E> extends RingQueue<E> {
+  /**
+   * Marks that the consumer should continue in the next ring
+   */
+  private static final Object JUMP = new Object();
+
+  private final int mask;
+
+  private final int ringSize;
+
+  // the producer side
+  private AtomicReferenceArray<Object> producerBuffer;
+
+  private final AtomicLong producerIndex = new AtomicLong();
+
+  // the consumer side
+  private AtomicReferenceArray<Object> consumerBuffer;
+
+  private final AtomicLong consumerIndex = new AtomicLong();
+
+  public SpscRingQueue(int ringSize) {
+    this.ringSize = roundToPowerOfTwo(ringSize);
+    this.mask = this.ringSize - 1;
+    // the last slot points to the next ring
+    this.producerBuffer = new AtomicReferenceArray<>(this.ringSize + 1);
+    this.consumerBuffer = producerBuffer;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException("Null elements are not allowed");
+    }
+
+    AtomicReferenceArray<Object> buffer = producerBuffer;
+    long index = producerIndex.get();
+    int offset = (int) index & mask;
+    if (buffer.get((int) (index + 1) & mask) == null) {
+      buffer.lazySet(offset, e);
+    } else {
+      // only our slot is left, link a new ring and put the jump marker in to the slot
+      AtomicReferenceArray<Object> next = new AtomicReferenceArray<>(ringSize + 1);
+      next.lazySet(offset, e);
+      buffer.lazySet(ringSize, next);
+      producerBuffer = next;
+      buffer.lazySet(offset, JUMP);
+    }
+    producerIndex.lazySet(index + 1);
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    long index = consumerIndex.get();
+    int offset = (int) index & mask;
+    Object e = nextElement(offset);
+    if (e == null) {
+      return null;
+    }
+    consumerBuffer.lazySet(offset, null);
+    consumerIndex.lazySet(index + 1);
+    return cast(e);
+  }
+
+  @Override
+  public E peek() {
+    return cast(nextElement((int) consumerIndex.get() & mask));
+  }
+
+  @Override
+  public int drain(Consumer<? super E> consumer, int limit) {
+    long index = consumerIndex.get();
+    int count = 0;
+    for (; count < limit; count++) {
+      int offset = (int) index & mask;
+      Object e = nextElement(offset);
+      if (e == null) {
+        break;
+      }
+      consumerBuffer.lazySet(offset, null);
+      consumerIndex.lazySet(++index);
+      consumer.accept(cast(e));
+    }
+    return count;
+  }
+
+  /**
+   * Get the element at the offset, moving the consumer to the next ring if we find a jump
+   */
+  private Object nextElement(int offset) {
+    Object e = consumerBuffer.get(offset);
+    if (e == JUMP) {
+      @SuppressWarnings("unchecked")
+      AtomicReferenceArray<Object> next = (AtomicReferenceArray<Object>) consumerBuffer.get(
+          ringSize);
+      consumerBuffer = next;
+      e = next.get(offset);
+    }
+    return e;
+  }
+
+  @SuppressWarnings("unchecked")
+  private E cast(Object e) {
+    return (E) e;
+  }
+
+  @Override
+  public int size() {
+    long after = consumerIndex.get();
+    while (true) {
+      long before = after;
+      long producer = producerIndex.get();
+      after = consumerIndex.get();
+      if (before == after) {
+        return (int) Math.min(producer - after, Integer.MAX_VALUE);
+      }
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerIndex.get() == producerIndex.get();
+  }
+}
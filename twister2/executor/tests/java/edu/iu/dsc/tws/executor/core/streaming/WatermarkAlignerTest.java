@@ -0,0 +1,214 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.core.streaming;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.BaseOperation;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.executor.comms.AbstractParallelOperation;
+
+public class WatermarkAlignerTest {
+
+  private static final String EDGE = "e";
+
+  private static final String OTHER_EDGE = "o";
+
+  private static Watermark wm(long timestamp, int source) {
+    return new Watermark(timestamp, source, false);
+  }
+
+  private static Watermark idle(long timestamp, int source) {
+    return new Watermark(timestamp, source, true);
+  }
+
+  @Test
+  public void testMinOfSources() {
+    WatermarkAligner aligner = new WatermarkAligner();
+    aligner.addSources(EDGE, new HashSet<>(Arrays.asList(0, 1)));
+    aligner.addSources(OTHER_EDGE, new HashSet<>(Arrays.asList(2)));
+
+    // the watermark doesn't advance until every source sends one
+    Assert.assertFalse(aligner.update(EDGE, wm(10, 0)));
+    Assert.assertFalse(aligner.update(EDGE, wm(20, 1)));
+    Assert.assertEquals(Long.MIN_VALUE, aligner.getWatermark());
+
+    Assert.assertTrue(aligner.update(OTHER_EDGE, wm(15, 2)));
+    Assert.assertEquals(10, aligner.getWatermark());
+
+    Assert.assertTrue(aligner.update(EDGE, wm(30, 0)));
+    Assert.assertEquals(15, aligner.getWatermark());
+
+    Assert.assertTrue(aligner.update(OTHER_EDGE, wm(40, 2)));
+    Assert.assertEquals(20, aligner.getWatermark());
+  }
+
+  @Test
+  public void testMonotonic() {
+    WatermarkAligner aligner = new WatermarkAligner();
+    aligner.addSources(EDGE, new HashSet<>(Arrays.asList(0, 1)));
+
+    aligner.update(EDGE, wm(10, 0));
+    Assert.assertTrue(aligner.update(EDGE, wm(10, 1)));
+    Assert.assertEquals(10, aligner.getWatermark());
+
+    // a source going back in time doesn't move its watermark or the aligned one back
+    Assert.assertFalse(aligner.update(EDGE, wm(5, 0)));
+    Assert.assertEquals(10, aligner.getWatermark());
+    Assert.assertFalse(aligner.update(EDGE, wm(20, 1)));
+    Assert.assertEquals(10, aligner.getWatermark());
+    Assert.assertTrue(aligner.update(EDGE, wm(12, 0)));
+    Assert.assertEquals(12, aligner.getWatermark());
+  }
+
+  @Test
+  public void testIdleSources() {
+    WatermarkAligner aligner = new WatermarkAligner();
+    aligner.addSources(EDGE, new HashSet<>(Arrays.asList(0, 1)));
+
+    aligner.update(EDGE, wm(10, 0));
+    Assert.assertEquals(Long.MIN_VALUE, aligner.getWatermark());
+
+    // an idle source is left out, so the other one alone moves the watermark
+    Assert.assertTrue(aligner.update(EDGE, idle(0, 1)));
+    Assert.assertEquals(10, aligner.getWatermark());
+    Assert.assertFalse(aligner.isIdle());
+    Assert.assertTrue(aligner.update(EDGE, wm(30, 0)));
+    Assert.assertEquals(30, aligner.getWatermark());
+
+    // the source becomes active again with an older watermark, which holds the watermark
+    Assert.assertFalse(aligner.update(EDGE, wm(25, 1)));
+    Assert.assertEquals(30, aligner.getWatermark());
+    Assert.assertFalse(aligner.update(EDGE, wm(40, 0)));
+    Assert.assertEquals(30, aligner.getWatermark());
+    Assert.assertTrue(aligner.update(EDGE, wm(35, 1)));
+    Assert.assertEquals(35, aligner.getWatermark());
+
+    // the task is idle when all of its sources are
+    Assert.assertFalse(aligner.update(EDGE, idle(40, 0)));
+    Assert.assertTrue(aligner.update(EDGE, idle(40, 1)));
+    Assert.assertTrue(aligner.isIdle());
+    Assert.assertEquals(35, aligner.getWatermark());
+
+    Assert.assertTrue(aligner.update(EDGE, wm(50, 0)));
+    Assert.assertFalse(aligner.isIdle());
+    Assert.assertEquals(50, aligner.getWatermark());
+  }
+
+  @Test
+  public void testPartialSendToTargets() {
+    ScriptedOperation op = new ScriptedOperation();
+    TestParallelOperation parallelOp = new TestParallelOperation(op);
+    Watermark watermark = wm(10, 0);
+
+    // the second target doesn't accept the watermark
+    op.reject.add(2);
+    Assert.assertFalse(parallelOp.sendWatermark(0, watermark,
+        new HashSet<>(Arrays.asList(1, 2, 3))));
+    Assert.assertEquals(Arrays.asList(1), op.accepted);
+
+    // only the remaining targets are tried again
+    op.reject.clear();
+    op.reject.add(3);
+    Assert.assertFalse(parallelOp.sendWatermark(0, watermark,
+        new HashSet<>(Arrays.asList(1, 2, 3))));
+    Assert.assertEquals(Arrays.asList(1, 2), op.accepted);
+
+    op.reject.clear();
+    Assert.assertTrue(parallelOp.sendWatermark(0, watermark,
+        new HashSet<>(Arrays.asList(1, 2, 3))));
+    Assert.assertEquals(Arrays.asList(1, 2, 3), op.accepted);
+
+    // the next watermark goes to all the targets again
+    op.accepted.clear();
+    Assert.assertTrue(parallelOp.sendWatermark(0, wm(20, 0),
+        new HashSet<>(Arrays.asList(1, 2, 3))));
+    Assert.assertEquals(Arrays.asList(1, 2, 3), op.accepted);
+  }
+
+  @Test
+  public void testPartialSendPerSource() {
+    ScriptedOperation op = new ScriptedOperation();
+    TestParallelOperation parallelOp = new TestParallelOperation(op);
+
+    op.reject.add(2);
+    Assert.assertFalse(parallelOp.sendWatermark(0, wm(10, 0),
+        new HashSet<>(Arrays.asList(1, 2))));
+    // the pending targets of a source don't affect another source
+    op.reject.clear();
+    Assert.assertTrue(parallelOp.sendWatermark(1, wm(10, 1),
+        new HashSet<>(Arrays.asList(1, 2))));
+    Assert.assertEquals(Arrays.asList(1, 1, 2), op.accepted);
+
+    Assert.assertTrue(parallelOp.sendWatermark(0, wm(10, 0),
+        new HashSet<>(Arrays.asList(1, 2))));
+    Assert.assertEquals(Arrays.asList(1, 1, 2, 2), op.accepted);
+  }
+
+  /**
+   * An operation accepting the messages to all the targets except the rejected ones
+   */
+  private static class ScriptedOperation extends BaseOperation {
+    private final List<Integer> reject = new ArrayList<>();
+
+    private final List<Integer> accepted = new ArrayList<>();
+
+    ScriptedOperation() {
+      super(new Communicator(Config.newBuilder().build(), null, Collections.emptyList()), true,
+          "test");
+    }
+
+    @Override
+    public boolean send(int src, Object message, int flags, int target) {
+      if (reject.contains(target)) {
+        return false;
+      }
+      accepted.add(target);
+      return true;
+    }
+  }
+
+  private static class TestParallelOperation extends AbstractParallelOperation {
+    private final BaseOperation op;
+
+    TestParallelOperation(BaseOperation op) {
+      super(Config.newBuilder().build(), null, null, EDGE);
+      this.op = op;
+    }
+
+    boolean sendWatermark(int src, Watermark watermark, Set<Integer> targets) {
+      return sendToTargets(src, watermark, new TreeSet<>(targets));
+    }
+
+    @Override
+    public boolean send(int source, IMessage message, int flags) {
+      return false;
+    }
+
+    @Override
+    public BaseOperation getOp() {
+      return op;
+    }
+  }
+}
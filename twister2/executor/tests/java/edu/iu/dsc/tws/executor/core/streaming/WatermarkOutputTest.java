@@ -0,0 +1,195 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.core.streaming;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.BaseOperation;
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.Watermark;
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
+import edu.iu.dsc.tws.api.compute.executor.ISync;
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
+import edu.iu.dsc.tws.api.compute.nodes.ISource;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * Tests that the watermarks the output queue rejects are written again and not lost
+ */
+public class WatermarkOutputTest {
+
+  private static final String IN_EDGE = "in";
+
+  private static final String OUT_EDGE = "out";
+
+  private static final int SOURCE_ID = 0;
+
+  private static final int TASK_ID = 1;
+
+  @Test
+  public void testTaskWatermarkWithFullOutQueue() {
+    Config config = Config.newBuilder().build();
+    FullQueue outQueue = new FullQueue();
+    Queue<IMessage> inQueue = new LinkedList<>();
+    TaskStreamingInstance instance = new TaskStreamingInstance(new Compute(), inQueue, outQueue,
+        config, "task", TASK_ID, TASK_ID, 0, 1, 0, new HashMap<>(),
+        Collections.singletonMap(IN_EDGE, Collections.singleton("source")),
+        Collections.singletonMap(OUT_EDGE, "sink"), null, null, "graph", 0);
+    RecordingOperation out = new RecordingOperation();
+    instance.registerInParallelOperation(IN_EDGE, new RecordingOperation());
+    instance.registerOutParallelOperation(OUT_EDGE, out);
+    instance.prepare(config);
+
+    inQueue.offer(new TaskMessage<>(new Watermark(10, SOURCE_ID, false), IN_EDGE, SOURCE_ID));
+    outQueue.full = true;
+    Assert.assertTrue(instance.execute());
+    Assert.assertTrue(inQueue.isEmpty());
+    Assert.assertTrue(out.watermarks.isEmpty());
+
+    // the watermark is kept while the queue is full
+    Assert.assertTrue(instance.execute());
+    Assert.assertTrue(out.watermarks.isEmpty());
+
+    outQueue.full = false;
+    instance.execute();
+    Assert.assertEquals(1, out.watermarks.size());
+    Assert.assertEquals(10, out.watermarks.get(0).getTimestamp());
+    Assert.assertFalse(out.watermarks.get(0).isIdle());
+  }
+
+  @Test
+  public void testSourceIdleWatermarkWithFullOutQueue() throws InterruptedException {
+    Config config = Config.newBuilder()
+        .put(ExecutorContext.WATERMARK_IDLE_TIMEOUT, 100L).build();
+    FullQueue outQueue = new FullQueue();
+    SourceStreamingInstance instance = new SourceStreamingInstance(new Source(), outQueue,
+        config, "source", SOURCE_ID, SOURCE_ID, 0, 1, 0, new HashMap<>(),
+        Collections.singletonMap(OUT_EDGE, "task"), null, null, "graph", 0);
+    RecordingOperation out = new RecordingOperation();
+    instance.registerOutParallelOperation(OUT_EDGE, out);
+    instance.prepare(config);
+
+    // the source writes a single watermark and no other output
+    instance.execute();
+    Assert.assertEquals(1, out.watermarks.size());
+
+    Thread.sleep(200);
+    outQueue.full = true;
+    Assert.assertTrue(instance.execute());
+    Assert.assertTrue(instance.execute());
+    Assert.assertEquals(1, out.watermarks.size());
+
+    outQueue.full = false;
+    for (int i = 0; i < 3; i++) {
+      instance.execute();
+    }
+    Assert.assertEquals(2, out.watermarks.size());
+    Assert.assertEquals(10, out.watermarks.get(1).getTimestamp());
+    Assert.assertTrue(out.watermarks.get(1).isIdle());
+  }
+
+  /**
+   * A queue that rejects every offer while full is set
+   */
+  private static class FullQueue extends LinkedList<IMessage> {
+    private boolean full;
+
+    @Override
+    public boolean offer(IMessage message) {
+      return !full && super.offer(message);
+    }
+  }
+
+  private static class Compute implements ICompute<Object> {
+    @Override
+    public void prepare(Config cfg, TaskContext context) {
+    }
+
+    @Override
+    public boolean execute(IMessage<Object> content) {
+      return true;
+    }
+  }
+
+  private static class Source implements ISource {
+    private TaskContext context;
+
+    private boolean written;
+
+    @Override
+    public void prepare(Config cfg, TaskContext ctx) {
+      this.context = ctx;
+    }
+
+    @Override
+    public void execute() {
+      if (!written) {
+        written = context.writeWatermark(OUT_EDGE, 10);
+      }
+    }
+  }
+
+  private static class RecordingOperation implements IParallelOperation {
+    private List<Watermark> watermarks = new ArrayList<>();
+
+    @Override
+    public boolean send(int source, IMessage message, int flags) {
+      return true;
+    }
+
+    @Override
+    public void register(int targetTask, Queue<IMessage> queue) {
+    }
+
+    @Override
+    public void registerSync(int targetTask, ISync sync) {
+    }
+
+    @Override
+    public boolean progress() {
+      return false;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+
+    @Override
+    public boolean sendWatermark(int src, Watermark watermark) {
+      watermarks.add(watermark);
+      return true;
+    }
+
+    @Override
+    public Set<Integer> getWatermarkSources(int target) {
+      return Collections.singleton(SOURCE_ID);
+    }
+
+    @Override
+    public BaseOperation getOp() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+public class IdleBackoffTest {
+
+  @Test
+  public void testProgression() {
+    IdleBackoff backoff = new IdleBackoff(true, 3, 2, 100000L);
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(IdleBackoff.Phase.SPIN, backoff.getPhase());
+      backoff.idle();
+    }
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(IdleBackoff.Phase.YIELD, backoff.getPhase());
+      backoff.idle();
+    }
+    Assert.assertEquals(IdleBackoff.Phase.PARK, backoff.getPhase());
+
+    // the park period doubles on every idle call
+    long expected = backoff.getParkNanos();
+    Assert.assertEquals(1000L, expected);
+    for (int i = 0; i < 5; i++) {
+      backoff.idle();
+      expected *= 2;
+      Assert.assertEquals(IdleBackoff.Phase.PARK, backoff.getPhase());
+      Assert.assertEquals(expected, backoff.getParkNanos());
+    }
+  }
+
+  @Test
+  public void testResetOnWork() {
+    IdleBackoff backoff = new IdleBackoff(true, 2, 2, 100000L);
+    for (int i = 0; i < 10; i++) {
+      backoff.idle();
+    }
+    Assert.assertEquals(IdleBackoff.Phase.PARK, backoff.getPhase());
+    Assert.assertTrue(backoff.getParkNanos() > 1000L);
+
+    backoff.reset();
+    Assert.assertEquals(IdleBackoff.Phase.SPIN, backoff.getPhase());
+    Assert.assertEquals(1000L, backoff.getParkNanos());
+
+    // the whole progression starts again
+    backoff.idle();
+    backoff.idle();
+    Assert.assertEquals(IdleBackoff.Phase.YIELD, backoff.getPhase());
+
+    // work found while yielding
+    backoff.idle();
+    backoff.reset();
+    Assert.assertEquals(IdleBackoff.Phase.SPIN, backoff.getPhase());
+  }
+
+  @Test
+  public void testMaxPark() {
+    Config config = Config.newBuilder()
+        .put(ExecutorContext.IDLE_STRATEGY, ExecutorContext.IDLE_STRATEGY_BACKOFF)
+        .put(ExecutorContext.IDLE_SPINS, 0)
+        .put(ExecutorContext.IDLE_YIELDS, 0)
+        .put(ExecutorContext.IDLE_MAX_PARK_NANOS, 5000L)
+        .build();
+    IdleBackoff backoff = IdleBackoff.fromConfig(config);
+    Assert.assertTrue(backoff.isEnabled());
+    Assert.assertEquals(IdleBackoff.Phase.PARK, backoff.getPhase());
+    for (int i = 0; i < 20; i++) {
+      backoff.idle();
+      Assert.assertTrue(backoff.getParkNanos() <= 5000L);
+    }
+    Assert.assertEquals(5000L, backoff.getParkNanos());
+
+    // a maximum below the first period parks for the first period
+    backoff = new IdleBackoff(true, 0, 0, 10L);
+    backoff.idle();
+    Assert.assertEquals(1000L, backoff.getParkNanos());
+  }
+
+  @Test
+  public void testSpinStrategy() {
+    IdleBackoff backoff = IdleBackoff.fromConfig(Config.newBuilder().build());
+    Assert.assertFalse(backoff.isEnabled());
+    for (int i = 0; i < 1000; i++) {
+      backoff.idle();
+    }
+    Assert.assertEquals(IdleBackoff.Phase.SPIN, backoff.getPhase());
+  }
+
+  @Test
+  public void testUnknownStrategy() {
+    Config config = Config.newBuilder()
+        .put(ExecutorContext.IDLE_STRATEGY, "sleep")
+        .build();
+    try {
+      IdleBackoff.fromConfig(config);
+      Assert.fail("Created a backoff with an unknown strategy");
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getMessage().contains("sleep"));
+    }
+  }
+
+  @Test
+  public void testWakeUp() throws Exception {
+    // parks for up to a second without a wake up
+    IdleBackoff backoff = new IdleBackoff(true, 0, 0, TimeUnit.SECONDS.toNanos(1));
+    for (int i = 0; i < 30; i++) {
+      backoff.idle();
+    }
+    Assert.assertEquals(TimeUnit.SECONDS.toNanos(1), backoff.getParkNanos());
+
+    CountDownLatch parked = new CountDownLatch(1);
+    long[] elapsed = new long[1];
+    Thread thread = new Thread(() -> {
+      parked.countDown();
+      long start = System.nanoTime();
+      backoff.idle();
+      elapsed[0] = System.nanoTime() - start;
+    });
+    thread.start();
+    parked.await();
+    while (thread.isAlive()) {
+      backoff.wakeUp();
+      thread.join(1);
+    }
+    Assert.assertTrue("Parked for " + elapsed[0] + " ns",
+        elapsed[0] < TimeUnit.MILLISECONDS.toNanos(500));
+  }
+}
@@ -0,0 +1,143 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingQueueTest {
+
+  @Test
+  public void testOfferPoll() {
+    MpscRingQueue<Integer> queue = new MpscRingQueue<>(4);
+    Assert.assertTrue(queue.isEmpty());
+    Assert.assertNull(queue.poll());
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertEquals(3, queue.size());
+    Assert.assertEquals(Integer.valueOf(0), queue.peek());
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testFullQueueRejectsOffer() {
+    MpscRingQueue<Integer> queue = new MpscRingQueue<>(5);
+    Assert.assertEquals(8, queue.capacity());
+    for (int i = 0; i < 8; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertFalse(queue.offer(8));
+    Assert.assertEquals(8, queue.size());
+
+    // a slot is free again after a poll, and the order is kept across the wrap
+    Assert.assertEquals(Integer.valueOf(0), queue.poll());
+    Assert.assertTrue(queue.offer(8));
+    Assert.assertFalse(queue.offer(9));
+    for (int i = 1; i <= 8; i++) {
+      Assert.assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    Assert.assertNull(queue.poll());
+  }
+
+  @Test
+  public void testDrain() {
+    MpscRingQueue<Integer> queue = new MpscRingQueue<>(8);
+    for (int i = 0; i < 6; i++) {
+      queue.offer(i);
+    }
+    List<Integer> drained = new ArrayList<>();
+    Assert.assertEquals(4, queue.drain(drained::add, 4));
+    Assert.assertEquals(2, queue.drain(drained::add, 4));
+    Assert.assertEquals(0, queue.drain(drained::add, 4));
+    for (int i = 0; i < 6; i++) {
+      Assert.assertEquals(Integer.valueOf(i), drained.get(i));
+    }
+
+    // the drained slots can be used again
+    for (int i = 0; i < 8; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+  }
+
+  @Test
+  public void testDrainOtherQueues() {
+    Queue<Integer> queue = new ArrayDeque<>();
+    for (int i = 0; i < 5; i++) {
+      queue.offer(i);
+    }
+    List<Integer> drained = new ArrayList<>();
+    Assert.assertEquals(3, RingQueue.drain(queue, drained::add, 3));
+    Assert.assertEquals(2, RingQueue.drain(queue, drained::add, 3));
+    Assert.assertEquals(5, drained.size());
+    Assert.assertEquals(Integer.valueOf(4), drained.get(4));
+  }
+
+  @Test
+  public void testMultipleProducers() throws InterruptedException {
+    int producers = 4;
+    int perProducer = 20000;
+    MpscRingQueue<long[]> queue = new MpscRingQueue<>(64);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      Thread t = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) {
+          long[] element = new long[]{producer, i};
+          while (!queue.offer(element)) {
+            Thread.yield();
+          }
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+    start.countDown();
+
+    // every element arrives once, and the elements of a producer in the order it offered them
+    int[] next = new int[producers];
+    int received = 0;
+    while (received < producers * perProducer) {
+      long[] element = queue.poll();
+      if (element == null) {
+        continue;
+      }
+      int producer = (int) element[0];
+      Assert.assertEquals(next[producer], element[1]);
+      next[producer]++;
+      received++;
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    Assert.assertNull(queue.poll());
+    for (int p = 0; p < producers; p++) {
+      Assert.assertEquals(perProducer, next[p]);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpscRingQueueTest {
+
+  @Test
+  public void testOfferPoll() {
+    SpscRingQueue<Integer> queue = new SpscRingQueue<>(4);
+    Assert.assertTrue(queue.isEmpty());
+    Assert.assertNull(queue.poll());
+    Assert.assertNull(queue.peek());
+
+    Assert.assertTrue(queue.offer(1));
+    Assert.assertTrue(queue.offer(2));
+    Assert.assertEquals(2, queue.size());
+    Assert.assertEquals(Integer.valueOf(1), queue.peek());
+    Assert.assertEquals(Integer.valueOf(1), queue.poll());
+    Assert.assertEquals(Integer.valueOf(2), queue.poll());
+    Assert.assertNull(queue.poll());
+  }
+
+  @Test
+  public void testLinksRingsWhenFull() {
+    SpscRingQueue<Integer> queue = new SpscRingQueue<>(4);
+    // more than a ring holds, offer never fails
+    for (int i = 0; i < 50; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertEquals(50, queue.size());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(Integer.valueOf(i), queue.peek());
+      Assert.assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    Assert.assertTrue(queue.isEmpty());
+
+    // the consumer followed the producer to the last ring
+    Assert.assertTrue(queue.offer(50));
+    Assert.assertEquals(Integer.valueOf(50), queue.poll());
+  }
+
+  @Test
+  public void testInterleavedLinking() {
+    SpscRingQueue<Integer> queue = new SpscRingQueue<>(4);
+    int offered = 0;
+    int polled = 0;
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 5; i++) {
+        queue.offer(offered++);
+      }
+      for (int i = 0; i < 3; i++) {
+        Assert.assertEquals(Integer.valueOf(polled++), queue.poll());
+      }
+    }
+    while (polled < offered) {
+      Assert.assertEquals(Integer.valueOf(polled++), queue.poll());
+    }
+    Assert.assertNull(queue.poll());
+  }
+
+  @Test
+  public void testDrainAcrossRings() {
+    SpscRingQueue<Integer> queue = new SpscRingQueue<>(4);
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    List<Integer> drained = new ArrayList<>();
+    Assert.assertEquals(7, RingQueue.drain(queue, drained::add, 7));
+    Assert.assertEquals(3, queue.drain(drained::add, 7));
+    Assert.assertEquals(0, queue.drain(drained::add, 7));
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(Integer.valueOf(i), drained.get(i));
+    }
+  }
+
+  @Test
+  public void testConcurrentProducer() throws InterruptedException {
+    int count = 100000;
+    SpscRingQueue<Integer> queue = new SpscRingQueue<>(16);
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < count; i++) {
+        queue.offer(i);
+      }
+    });
+    producer.start();
+    int next = 0;
+    while (next < count) {
+      Integer e = queue.poll();
+      if (e != null) {
+        Assert.assertEquals(Integer.valueOf(next++), e);
+      }
+    }
+    producer.join();
+    Assert.assertNull(queue.poll());
+  }
+}
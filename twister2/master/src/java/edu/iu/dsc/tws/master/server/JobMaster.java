@@ -27,6 +27,8 @@ import edu.iu.dsc.tws.api.driver.IDriver;
 import edu.iu.dsc.tws.api.driver.IScalerPerCluster;
 import edu.iu.dsc.tws.api.exceptions.Twister2Exception;
 import edu.iu.dsc.tws.api.faulttolerance.FaultToleranceContext;
+import edu.iu.dsc.tws.api.metrics.MetricsContext;
+import edu.iu.dsc.tws.api.metrics.MetricsServer;
 import edu.iu.dsc.tws.api.net.StatusCode;
 import edu.iu.dsc.tws.api.net.request.ConnectHandler;
 import edu.iu.dsc.tws.checkpointing.master.CheckpointManager;
@@ -166,6 +168,16 @@ public class JobMaster {
    */
   private BarrierHandler barrierHandler;
 
+  /**
+   * Keeps the metrics sent by the workers
+   */
+  private MetricsAggregator metricsAggregator;
+
+  /**
+   * Http endpoint of the metrics of the workers, null if it is not enabled
+   */
+  private MetricsServer metricsServer;
+
   /**
    * JobMaster to ZooKeeper connection
    * TODO: need to close zk connection, need to integrate with zk-con in scaler, job terminator.
@@ -272,6 +284,7 @@ public class JobMaster {
     workerHandler =
         new WorkerHandler(workerMonitor, rrServer, ZKContext.isZooKeeperServerUsed(config));
     barrierHandler = new BarrierHandler(workerMonitor, rrServer);
+    metricsAggregator = new MetricsAggregator(rrServer);
 
     JobMasterAPI.RegisterWorker.Builder registerWorkerBuilder =
         JobMasterAPI.RegisterWorker.newBuilder();
@@ -303,6 +316,10 @@ public class JobMaster {
 
     JobMasterAPI.WorkersJoined.Builder joinedBuilder = JobMasterAPI.WorkersJoined.newBuilder();
 
+    JobMasterAPI.WorkerMetrics.Builder metricsBuilder = JobMasterAPI.WorkerMetrics.newBuilder();
+    JobMasterAPI.WorkerMetricsResponse.Builder metricsResponseBuilder =
+        JobMasterAPI.WorkerMetricsResponse.newBuilder();
+
     rrServer.registerRequestHandler(registerWorkerBuilder, workerHandler);
     rrServer.registerRequestHandler(registerWorkerResponseBuilder, workerHandler);
 
@@ -323,6 +340,14 @@ public class JobMaster {
 
     rrServer.registerRequestHandler(joinedBuilder, workerMonitor);
 
+    rrServer.registerRequestHandler(metricsBuilder, metricsAggregator);
+    rrServer.registerRequestHandler(metricsResponseBuilder, metricsAggregator);
+
+    int metricsPort = MetricsContext.jobMasterHttpPort(config);
+    if (MetricsContext.isEnabled(config) && metricsPort > 0) {
+      metricsServer = MetricsServer.start(metricsPort, metricsAggregator::snapshot);
+    }
+
     // if ZoKeeper server is used for this job, initialize that
     try {
       initZKMasterController(workerMonitor);
@@ -419,6 +444,10 @@ public class JobMaster {
     if (dashClient != null) {
       dashClient.close();
     }
+
+    if (metricsServer != null) {
+      metricsServer.stop();
+    }
   }
 
   private void initDriver() {
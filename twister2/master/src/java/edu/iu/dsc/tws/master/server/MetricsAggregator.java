@@ -0,0 +1,89 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.master.server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.protobuf.Message;
+
+import edu.iu.dsc.tws.api.metrics.MetricSample;
+import edu.iu.dsc.tws.api.net.request.MessageHandler;
+import edu.iu.dsc.tws.api.net.request.RequestID;
+import edu.iu.dsc.tws.common.net.tcp.request.RRServer;
+import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
+
+/**
+ * Keeps the latest metrics sent by each worker, so the metrics of the whole job can be read
+ * from the job master. Each sample gets a worker label with the id of the worker it came from.
+ */
+public class MetricsAggregator implements MessageHandler {
+  private static final Logger LOG = Logger.getLogger(MetricsAggregator.class.getName());
+
+  private RRServer rrServer;
+
+  /**
+   * worker id --> the latest samples of the worker
+   */
+  private Map<Integer, List<MetricSample>> workerMetrics = new ConcurrentHashMap<>();
+
+  public MetricsAggregator(RRServer rrServer) {
+    this.rrServer = rrServer;
+  }
+
+  @Override
+  public void onMessage(RequestID id, int workerId, Message message) {
+
+    if (message instanceof JobMasterAPI.WorkerMetrics) {
+      JobMasterAPI.WorkerMetrics metrics = (JobMasterAPI.WorkerMetrics) message;
+      LOG.log(Level.FINE, () -> "WorkerMetrics received from worker " + metrics.getWorkerID()
+          + " with " + metrics.getSampleCount() + " samples");
+
+      String worker = Integer.toString(metrics.getWorkerID());
+      List<MetricSample> samples = new ArrayList<>(metrics.getSampleCount());
+      for (JobMasterAPI.MetricSample s : metrics.getSampleList()) {
+        samples.add(new MetricSample(s.getFamily(), s.getName(), s.getLabels(), s.getValue(),
+            MetricSample.Type.valueOf(s.getType().name())).withLabel("worker", worker));
+      }
+      workerMetrics.put(metrics.getWorkerID(), samples);
+
+      JobMasterAPI.WorkerMetricsResponse response =
+          JobMasterAPI.WorkerMetricsResponse.newBuilder()
+              .setWorkerID(metrics.getWorkerID())
+              .build();
+      rrServer.sendResponse(id, response);
+
+    } else {
+      LOG.log(Level.SEVERE, "Un-known message received: " + message);
+    }
+  }
+
+  /**
+   * The latest samples of all the workers
+   *
+   * @return the samples, the samples of a family are next to each other
+   */
+  public List<MetricSample> snapshot() {
+    List<MetricSample> samples = new ArrayList<>();
+    for (List<MetricSample> workerSamples : workerMetrics.values()) {
+      samples.addAll(workerSamples);
+    }
+    // the sort is stable, so the samples of a histogram of a worker stay in order
+    samples.sort(Comparator.comparing(MetricSample::getFamily));
+    return samples;
+  }
+}
@@ -23,6 +23,9 @@ import com.google.protobuf.Message;
 
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.net.BlockingSendException;
+import edu.iu.dsc.tws.api.metrics.MetricSample;
+import edu.iu.dsc.tws.api.metrics.MetricsContext;
+import edu.iu.dsc.tws.api.metrics.MetricsRegistry;
 import edu.iu.dsc.tws.api.net.StatusCode;
 import edu.iu.dsc.tws.api.net.request.ConnectHandler;
 import edu.iu.dsc.tws.api.net.request.MessageHandler;
@@ -46,6 +49,7 @@ import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI.WorkerInfo;
  * worker discovery
  * barrier method
  * Ping service
+ * periodic metrics reports
  * <p>
  * It can be started in two different modes:
  * Threaded and Blocking
@@ -63,7 +67,7 @@ public final class JMWorkerAgent {
   private static final Logger LOG = Logger.getLogger(JMWorkerAgent.class.getName());
 
   private static Progress looper;
-  private boolean stopLooper = false;
+  private volatile boolean stopLooper = false;
 
   private Config config;
   private WorkerInfo thisWorker;
@@ -220,6 +224,10 @@ public final class JMWorkerAgent {
 
     JobMasterAPI.WorkersJoined.Builder joinedBuilder = JobMasterAPI.WorkersJoined.newBuilder();
 
+    JobMasterAPI.WorkerMetrics.Builder metricsBuilder = JobMasterAPI.WorkerMetrics.newBuilder();
+    JobMasterAPI.WorkerMetricsResponse.Builder metricsResponseBuilder =
+        JobMasterAPI.WorkerMetricsResponse.newBuilder();
+
     ResponseMessageHandler responseMessageHandler = new ResponseMessageHandler();
     rrClient.registerResponseHandler(registerWorkerBuilder, responseMessageHandler);
     rrClient.registerResponseHandler(registerWorkerResponseBuilder, responseMessageHandler);
@@ -234,6 +242,9 @@ public final class JMWorkerAgent {
     rrClient.registerResponseHandler(driverMessageBuilder, responseMessageHandler);
     rrClient.registerResponseHandler(joinedBuilder, responseMessageHandler);
 
+    rrClient.registerResponseHandler(metricsBuilder, responseMessageHandler);
+    rrClient.registerResponseHandler(metricsResponseBuilder, responseMessageHandler);
+
     // try to connect to JobMaster
     tryUntilConnected(CONNECTION_TRY_TIME_LIMIT);
 
@@ -321,9 +332,38 @@ public final class JMWorkerAgent {
       throw new RuntimeException("Could not register Worker with JobMaster. Exiting .....");
     }
 
+    startMetricsReporter();
     return jmThread;
   }
 
+  /**
+   * start a thread sending the metrics of this worker to the job master periodically
+   */
+  private void startMetricsReporter() {
+    long interval = MetricsContext.reportInterval(config);
+    if (!MetricsContext.isEnabled(config) || interval <= 0) {
+      return;
+    }
+
+    Thread reporter = new Thread(() -> {
+      while (!stopLooper) {
+        try {
+          Thread.sleep(interval);
+        } catch (InterruptedException e) {
+          return;
+        }
+
+        if (!stopLooper && rrClient.isConnected()) {
+          sendWorkerMetrics();
+        }
+      }
+    });
+
+    reporter.setName("JM Metrics Reporter");
+    reporter.setDaemon(true);
+    reporter.start();
+  }
+
   /**
    * start the Job Master Client in a blocking call
    */
@@ -571,6 +611,30 @@ public final class JMWorkerAgent {
   }
 
 
+  /**
+   * send the current metrics of this worker to the job master, without waiting for a response
+   */
+  public boolean sendWorkerMetrics() {
+
+    JobMasterAPI.WorkerMetrics.Builder builder = JobMasterAPI.WorkerMetrics.newBuilder()
+        .setWorkerID(thisWorker.getWorkerID());
+    for (MetricSample sample : MetricsRegistry.get().snapshot()) {
+      builder.addSample(JobMasterAPI.MetricSample.newBuilder()
+          .setFamily(sample.getFamily())
+          .setName(sample.getName())
+          .setLabels(sample.getLabels())
+          .setValue(sample.getValue())
+          .setType(JobMasterAPI.MetricType.valueOf(sample.getType().name())));
+    }
+
+    RequestID requestID = rrClient.sendRequest(builder.build());
+    if (requestID == null) {
+      LOG.fine("Could not send WorkerMetrics message.");
+      return false;
+    }
+    return true;
+  }
+
   /**
    * stop the JMWorkerAgent
    */
@@ -663,6 +727,9 @@ public final class JMWorkerAgent {
       } else if (message instanceof JobMasterAPI.WorkerMessageResponse) {
         LOG.fine("Received a WorkerMessageResponse from the master. \n" + message);
 
+      } else if (message instanceof JobMasterAPI.WorkerMetricsResponse) {
+        // nothing to do
+
       } else if (message instanceof JobMasterAPI.DriverMessage) {
 
         JobMasterAPI.DriverMessage driverMessage = (JobMasterAPI.DriverMessage) message;
@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.compute.executor.ExecutionPlan;
 import edu.iu.dsc.tws.api.compute.graph.ComputeGraph;
 import edu.iu.dsc.tws.api.compute.graph.OperationMode;
@@ -27,6 +28,7 @@ import edu.iu.dsc.tws.api.resource.IWorkerController;
 import edu.iu.dsc.tws.api.resource.IWorkerFailureListener;
 import edu.iu.dsc.tws.api.resource.WorkerEnvironment;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointingConfigurations;
+import edu.iu.dsc.tws.comms.utils.WorkerBarrier;
 import edu.iu.dsc.tws.task.impl.ComputeGraphBuilder;
 import edu.iu.dsc.tws.task.impl.TaskExecutor;
 
@@ -46,6 +48,12 @@ public final class ComputeEnvironment {
    */
   private TaskExecutor taskExecutor;
 
+  /**
+   * The barrier over the network between the workers, null if the barriers go through the
+   * worker controller
+   */
+  private WorkerBarrier barrier;
+
   /**
    * The task graph index
    */
@@ -59,6 +67,10 @@ public final class ComputeEnvironment {
   private ComputeEnvironment(WorkerEnvironment workerEnv) {
     this.workerEnvironment = workerEnv;
     this.taskExecutor = new TaskExecutor(workerEnv);
+    if (!CommunicationContext.BARRIER_ALGO_MASTER.equals(
+        CommunicationContext.barrierAlgorithm(workerEnv.getConfig()))) {
+      this.barrier = new WorkerBarrier(workerEnv);
+    }
 
     // if checkpointing enabled lets register for receiving faults
     if (CheckpointingConfigurations.isCheckpointingEnabled(workerEnv.getConfig())) {
@@ -142,7 +154,7 @@ public final class ComputeEnvironment {
    */
   public void close() {
     try {
-      workerEnvironment.getWorkerController().waitOnBarrier();
+      waitOnBarrier();
     } catch (TimeoutException timeoutException) {
       LOG.log(Level.SEVERE, timeoutException.getMessage(), timeoutException);
     }
@@ -156,10 +168,27 @@ public final class ComputeEnvironment {
     }
     // close the task executor
     taskExecutor.close();
+    if (barrier != null) {
+      barrier.close();
+    }
     // close the worker environment
     workerEnvironment.close();
   }
 
+  /**
+   * Wait until all the workers arrive at the barrier. The barrier runs over the network between
+   * the workers unless the master barrier algorithm is configured
+   *
+   * @throws TimeoutException if all the workers don't arrive within the time limit
+   */
+  public void waitOnBarrier() throws TimeoutException {
+    if (barrier != null) {
+      barrier.waitOnBarrier();
+    } else {
+      workerEnvironment.getWorkerController().waitOnBarrier();
+    }
+  }
+
   public Map<String, ExecutionPlan> build(ComputeGraph ...computeGraphs) {
     return this.getTaskExecutor().plan(computeGraphs);
   }
@@ -95,7 +95,7 @@ public abstract class TaskWorker implements IWorker {
     execute();
     // wait for the sync
     try {
-      workerEnvironment.getWorkerController().waitOnBarrier();
+      computeEnvironment.waitOnBarrier();
     } catch (TimeoutException timeoutException) {
       LOG.log(Level.SEVERE, timeoutException.getMessage(), timeoutException);
     }
@@ -13,8 +13,10 @@ package edu.iu.dsc.tws.task.window.collectives;
 
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.task.window.api.IWindowMessage;
+import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
 import edu.iu.dsc.tws.task.window.core.BaseWindowedSink;
 import edu.iu.dsc.tws.task.window.function.ReduceWindowedFunction;
+import edu.iu.dsc.tws.task.window.manage.WindowManager;
 
 public abstract class ReduceWindow<T> extends BaseWindowedSink<T> {
 
@@ -28,6 +30,16 @@ public abstract class ReduceWindow<T> extends BaseWindowedSink<T> {
     this.reduceWindowedFunction = reduceWindowedFunction;
   }
 
+  /**
+   * The events are combined as they arrive if the function is an
+   * {@link edu.iu.dsc.tws.task.window.function.AssociativeWindowFunction} and the window is
+   * made of whole panes
+   */
+  @Override
+  protected WindowManager<T> newWindowManager(WindowLifeCycleListener<T> listener) {
+    return newIncrementalWindowManager(reduceWindowedFunction, listener);
+  }
+
   @Override
   public boolean execute(IWindowMessage<T> windowMessage) {
     if (windowMessage != null) {
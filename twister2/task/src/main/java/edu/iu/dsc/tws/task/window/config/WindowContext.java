@@ -0,0 +1,66 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.config;
+
+import java.util.List;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.config.Context;
+import edu.iu.dsc.tws.api.config.TokenSub;
+
+/**
+ * Configurations of the window event buffers
+ */
+public final class WindowContext extends Context {
+
+  /**
+   * Maximum number of window events kept in memory by a task, the older events are written
+   * to disk. 0 keeps all the events in memory.
+   */
+  public static final String MEMORY_EVENTS = "twister2.task.window.memory.events";
+
+  public static final long MEMORY_EVENTS_DEFAULT = 0;
+
+  /**
+   * Number of events written to a single spill file
+   */
+  public static final String SPILL_SEGMENT_EVENTS = "twister2.task.window.spill.segment.events";
+
+  public static final int SPILL_SEGMENT_EVENTS_DEFAULT = 10000;
+
+  /**
+   * Directory for the spill files, the first persistent directory of the network is used
+   * if not given
+   */
+  public static final String SPILL_DIRECTORY = "twister2.task.window.spill.dir";
+
+  private WindowContext() {
+  }
+
+  public static long memoryEvents(Config cfg) {
+    return cfg.getLongValue(MEMORY_EVENTS, MEMORY_EVENTS_DEFAULT);
+  }
+
+  public static int spillSegmentEvents(Config cfg) {
+    return cfg.getIntegerValue(SPILL_SEGMENT_EVENTS, SPILL_SEGMENT_EVENTS_DEFAULT);
+  }
+
+  public static String spillDirectory(Config cfg) {
+    String dir = cfg.getStringValue(SPILL_DIRECTORY);
+    if (dir != null) {
+      return TokenSub.substitute(cfg, dir, substitutions);
+    }
+    List<String> dirs = CommunicationContext.persistentDirectory(cfg);
+    return dirs.isEmpty() ? System.getProperty("java.io.tmpdir") : dirs.get(0);
+  }
+}
@@ -18,9 +18,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.compute.IFunction;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.TaskContext;
 import edu.iu.dsc.tws.api.compute.modifiers.Closable;
+import edu.iu.dsc.tws.api.compute.modifiers.WatermarkReceptor;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.task.window.IWindowCompute;
 import edu.iu.dsc.tws.task.window.api.GlobalStreamId;
@@ -30,8 +32,12 @@ import edu.iu.dsc.tws.task.window.api.IWindow;
 import edu.iu.dsc.tws.task.window.api.IWindowMessage;
 import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
 import edu.iu.dsc.tws.task.window.config.WindowConfig;
+import edu.iu.dsc.tws.task.window.config.WindowContext;
 import edu.iu.dsc.tws.task.window.event.WatermarkEventGenerator;
 import edu.iu.dsc.tws.task.window.exceptions.InvalidWindow;
+import edu.iu.dsc.tws.task.window.function.AssociativeWindowFunction;
+import edu.iu.dsc.tws.task.window.manage.PaneWindowManager;
+import edu.iu.dsc.tws.task.window.manage.WindowEventBuffer;
 import edu.iu.dsc.tws.task.window.manage.WindowManager;
 import edu.iu.dsc.tws.task.window.policy.eviction.count.CountEvictionPolicy;
 import edu.iu.dsc.tws.task.window.policy.eviction.count.WatermarkCountEvictionPolicy;
@@ -47,7 +53,7 @@ import edu.iu.dsc.tws.task.window.util.WindowParameter;
 import edu.iu.dsc.tws.task.window.util.WindowUtils;
 
 public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T>
-    implements IWindowCompute<T>, Closable {
+    implements IWindowCompute<T>, Closable, WatermarkReceptor {
 
   private static final Logger LOG = Logger.getLogger(BaseWindowedSink.class.getName());
 
@@ -95,10 +101,56 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
   public void prepare(Config cfg, TaskContext ctx) {
     super.prepare(cfg, ctx);
     this.windowLifeCycleListener = newWindowLifeCycleListener();
-    this.windowManager = new WindowManager(this.windowLifeCycleListener);
+    this.windowManager = newWindowManager(this.windowLifeCycleListener);
     initialize(ctx);
   }
 
+  /**
+   * Creates the window manager which keeps the events and triggers the windows
+   *
+   * @param listener the listener receiving the windows
+   * @return the window manager
+   */
+  protected WindowManager<T> newWindowManager(WindowLifeCycleListener<T> listener) {
+    return new WindowManager<>(listener, newEventBuffer());
+  }
+
+  /**
+   * Creates the buffer of the window events, spilling the older events to disk if the number
+   * of events in memory is limited by the configuration
+   *
+   * @return the event buffer
+   */
+  protected WindowEventBuffer<T> newEventBuffer() {
+    long memoryEvents = WindowContext.memoryEvents(config);
+    if (memoryEvents <= 0) {
+      return new WindowEventBuffer<>();
+    }
+    return new WindowEventBuffer<>(memoryEvents, WindowContext.spillSegmentEvents(config),
+        WindowContext.spillDirectory(config));
+  }
+
+  /**
+   * Creates a window manager combining the events into panes with the given function, if the
+   * function is an {@link AssociativeWindowFunction} and the window is made of whole panes.
+   * Other functions, event time windows and windows with a length which is not a multiple of
+   * the sliding length keep the events.
+   *
+   * @param function the function combining the events of a window
+   * @param listener the listener receiving the windows
+   * @return the window manager
+   */
+  protected WindowManager<T> newIncrementalWindowManager(IFunction<T> function,
+                                                         WindowLifeCycleListener<T> listener) {
+    int panes = PaneWindowManager.getPanesPerWindow(this.windowParameter);
+    if (!(function instanceof AssociativeWindowFunction) || isTimestamped() || panes <= 0) {
+      // not through newWindowManager, the subclasses override it to call this method
+      return new WindowManager<>(listener, newEventBuffer());
+    }
+    LOG.fine(String.format("Window computed incrementally with %d panes", panes));
+    return new PaneWindowManager<>(listener, function, panes);
+  }
+
   public void initialize(TaskContext context) {
     try {
       if (this.iWindow == null) {
@@ -296,6 +348,17 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
     this.windowingPolicy.start();
   }
 
+  /**
+   * A watermark from the upstream tasks replaces the watermark computed from the timestamps
+   * of the messages of this task
+   */
+  @Override
+  public void onWatermark(long timestamp) {
+    if (watermarkEventGenerator != null) {
+      watermarkEventGenerator.advance(timestamp);
+    }
+  }
+
   @Override
   public void close() {
     if (watermarkEventGenerator != null) {
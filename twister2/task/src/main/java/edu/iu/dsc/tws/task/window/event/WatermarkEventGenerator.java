@@ -41,6 +41,11 @@ public class WatermarkEventGenerator<T> implements Runnable {
   private Set<GlobalStreamId> inputStreams;
   private final Map<GlobalStreamId, Long> streamTimeStampMap;
 
+  /**
+   * The watermark received from the upstream tasks, Long.MIN_VALUE if none
+   */
+  private volatile long upstreamWatermark = Long.MIN_VALUE;
+
 
   public WatermarkEventGenerator(WindowManager<T> winManager, long eventLagTime, long interval,
                                  Set<GlobalStreamId> inputStreams) {
@@ -69,6 +74,9 @@ public class WatermarkEventGenerator<T> implements Runnable {
   }
 
   private long computeWaterMarkTimeStamp() {
+    if (upstreamWatermark != Long.MIN_VALUE) {
+      return upstreamWatermark - eventLagTime;
+    }
     long timestamp = 0;
     if (streamTimeStampMap.size() >= this.inputStreams.size()) {
       timestamp = Long.MAX_VALUE;
@@ -79,8 +87,21 @@ public class WatermarkEventGenerator<T> implements Runnable {
     return timestamp - eventLagTime;
   }
 
+  /**
+   * Use a watermark received from the upstream tasks instead of the timestamps of the
+   * messages, and generate the watermark event without waiting for the next interval
+   *
+   * @param watermark the upstream watermark
+   */
+  public void advance(long watermark) {
+    if (watermark > upstreamWatermark) {
+      upstreamWatermark = watermark;
+      run();
+    }
+  }
+
   @Override
-  public void run() {
+  public synchronized void run() {
     try {
       long watermarkTime = computeWaterMarkTimeStamp();
       if (watermarkTime > lastWatermarkTime) {
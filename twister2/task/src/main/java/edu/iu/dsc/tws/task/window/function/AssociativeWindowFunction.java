@@ -0,0 +1,22 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.function;
+
+/**
+ * Marks a reduce or aggregate function as associative, f(f(a, b), c) equals f(a, f(b, c)).
+ * Processing time windows of such functions are computed incrementally, by combining the
+ * events into panes and the panes into windows, which calls the function on different groups
+ * of the events than the order they arrive in. Functions without this marker get the events
+ * of a window one by one in arrival order.
+ */
+public interface AssociativeWindowFunction {
+}
@@ -0,0 +1,169 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.manage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.compute.IFunction;
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.task.window.api.Event;
+import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
+import edu.iu.dsc.tws.task.window.api.WindowMessageImpl;
+import edu.iu.dsc.tws.task.window.util.WindowParameter;
+
+/**
+ * A window manager for windows computed with an associative function. Instead of keeping the
+ * events of the window, the events arriving between two triggers are combined into a pane and
+ * a window is the last panes. The panes are kept in a {@link TwoStackAggregator}, so an event
+ * costs one call to the function and a window costs amortized constant time regardless of the
+ * window length.
+ * <p>
+ * This requires the window length to be a multiple of the sliding length, so that a window is
+ * made of whole panes. The listener receives the aggregate of the window as the only message
+ * of the window, the events are not given to it, so the new events of a window and the
+ * expired events are not available.
+ *
+ * @param <T> type of the events
+ */
+public class PaneWindowManager<T> extends WindowManager<T> {
+
+  private static final Logger LOG = Logger.getLogger(PaneWindowManager.class.getName());
+
+  private static final long serialVersionUID = 4873094312750918435L;
+
+  private final WindowLifeCycleListener<T> listener;
+
+  private final IFunction<T> function;
+
+  private final int panesPerWindow;
+
+  private final TwoStackAggregator<T> panes;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * The aggregate of the events after the last trigger, null if there are no events
+   */
+  private T currentPane;
+
+  /**
+   * The edge and the source task of the windows are taken from the last event
+   */
+  private String edge;
+
+  private int sourceTask;
+
+  public PaneWindowManager(WindowLifeCycleListener<T> listener, IFunction<T> function,
+                           int panesPerWindow) {
+    super(listener);
+    if (panesPerWindow <= 0) {
+      throw new IllegalArgumentException("A window should have at least one pane: "
+          + panesPerWindow);
+    }
+    this.listener = listener;
+    this.function = function;
+    this.panesPerWindow = panesPerWindow;
+    this.panes = new TwoStackAggregator<>(function);
+  }
+
+  /**
+   * The number of panes in a window of the given parameters
+   *
+   * @param parameter the window parameters
+   * @return the number of panes or -1 if the window length is not a multiple of the sliding
+   * length
+   */
+  public static int getPanesPerWindow(WindowParameter parameter) {
+    if (parameter == null) {
+      return -1;
+    }
+    long length;
+    long slide;
+    if (parameter.getWindowCountSize() != null && parameter.getSlidingCountSize() != null) {
+      length = parameter.getWindowCountSize().value;
+      slide = parameter.getSlidingCountSize().value;
+    } else if (parameter.getWindowDurationSize() != null
+        && parameter.getSldingDurationSize() != null) {
+      length = parameter.getWindowDurationSize().value;
+      slide = parameter.getSldingDurationSize().value;
+    } else {
+      return -1;
+    }
+    if (slide <= 0 || length < slide || length % slide != 0
+        || length / slide > Integer.MAX_VALUE) {
+      return -1;
+    }
+    return (int) (length / slide);
+  }
+
+  @Override
+  public void add(Event<T> windowEvent) {
+    if (!windowEvent.isWatermark()) {
+      IMessage<T> message = windowEvent.get();
+      try {
+        lock.lock();
+        currentPane = currentPane == null
+            ? message.getContent() : function.onMessage(currentPane, message.getContent());
+        edge = message.edge();
+        sourceTask = message.sourceTask();
+      } finally {
+        lock.unlock();
+      }
+    }
+    // the policies count the events and call onEvent when a window is due
+    track(windowEvent);
+  }
+
+  @Override
+  public boolean onEvent() {
+    T aggregate;
+    String windowEdge;
+    int windowSource;
+    try {
+      lock.lock();
+      panes.push(currentPane);
+      currentPane = null;
+      while (panes.size() > panesPerWindow) {
+        panes.pop();
+      }
+      aggregate = panes.query();
+      windowEdge = edge;
+      windowSource = sourceTask;
+    } finally {
+      lock.unlock();
+    }
+
+    if (aggregate != null) {
+      List<IMessage<T>> window = new ArrayList<>(1);
+      window.add(new TaskMessage<>(aggregate, windowEdge, windowSource));
+      listener.onActivation(new WindowMessageImpl<>(window),
+          new WindowMessageImpl<>(Collections.emptyList()),
+          new WindowMessageImpl<>(null, Collections.emptyList()));
+    } else {
+      LOG.log(Level.FINE, "No events processed for the window, onActivation method is not called");
+    }
+    getWindowingPolicy().reset();
+    return aggregate != null;
+  }
+
+  @Override
+  public List<Event<T>> scanEvents(boolean fullScan) {
+    // the events are not kept
+    return Collections.emptyList();
+  }
+}
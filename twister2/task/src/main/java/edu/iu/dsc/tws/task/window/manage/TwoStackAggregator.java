@@ -0,0 +1,112 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.manage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.compute.IFunction;
+
+/**
+ * A FIFO queue of partial aggregates which returns the aggregate of all the values in the queue
+ * in amortized constant time. New values are pushed to the back stack keeping a running
+ * aggregate. When the oldest value is removed and the front stack is empty, the back stack is
+ * moved to the front stack, storing with each value the aggregate of it and all the newer values
+ * of the front stack.
+ * <p>
+ * The function should be associative, it doesn't have to be commutative. A null value is
+ * treated as an empty partial aggregate.
+ *
+ * @param <T> type of the values
+ */
+public class TwoStackAggregator<T> implements Serializable {
+
+  private static final long serialVersionUID = -3180273561253904856L;
+
+  private final IFunction<T> function;
+
+  /**
+   * The aggregates of the front values, the last one is the aggregate of the whole front stack
+   * and belongs to the oldest value
+   */
+  private final List<T> front = new ArrayList<>();
+
+  /**
+   * The values pushed after the last move to the front stack, the last one is the newest
+   */
+  private final List<T> back = new ArrayList<>();
+
+  private T backAggregate;
+
+  public TwoStackAggregator(IFunction<T> function) {
+    this.function = function;
+  }
+
+  /**
+   * Add a value to the back of the queue
+   *
+   * @param value the partial aggregate, can be null
+   */
+  public void push(T value) {
+    back.add(value);
+    backAggregate = combine(backAggregate, value);
+  }
+
+  /**
+   * Remove the oldest value
+   */
+  public void pop() {
+    if (front.isEmpty()) {
+      T aggregate = null;
+      for (int i = back.size() - 1; i >= 0; i--) {
+        aggregate = combine(back.get(i), aggregate);
+        front.add(aggregate);
+      }
+      back.clear();
+      backAggregate = null;
+    }
+    if (front.isEmpty()) {
+      throw new IllegalStateException("The aggregator is empty");
+    }
+    front.remove(front.size() - 1);
+  }
+
+  /**
+   * The aggregate of the values in the queue
+   *
+   * @return the aggregate, null if all the values are empty
+   */
+  public T query() {
+    T frontAggregate = front.isEmpty() ? null : front.get(front.size() - 1);
+    return combine(frontAggregate, backAggregate);
+  }
+
+  public int size() {
+    return front.size() + back.size();
+  }
+
+  public void clear() {
+    front.clear();
+    back.clear();
+    backAggregate = null;
+  }
+
+  private T combine(T older, T newer) {
+    if (older == null) {
+      return newer;
+    } else if (newer == null) {
+      return older;
+    }
+    return function.onMessage(older, newer);
+  }
+}
@@ -0,0 +1,597 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.manage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.task.window.api.Event;
+import edu.iu.dsc.tws.task.window.api.EventImpl;
+import edu.iu.dsc.tws.task.window.config.WindowContext;
+
+/**
+ * The events of a window manager in the arrival order. When more than the given number of
+ * events are in memory, the oldest events are written to a segment file and read back when the
+ * events are scanned. A segment file is deleted after all of its events are removed.
+ * <p>
+ * Every event gets a sequence number, so the manager can find the events of a window without
+ * keeping references to them. The buffer is not thread safe, the window manager accesses it
+ * under its lock.
+ *
+ * @param <T> type of the events
+ */
+public class WindowEventBuffer<T> implements Iterable<Event<T>> {
+
+  private static final Logger LOG = Logger.getLogger(WindowEventBuffer.class.getName());
+
+  /**
+   * Maximum number of events in memory, 0 or less keeps all the events in memory
+   */
+  private final long maxEventsInMemory;
+
+  /**
+   * Number of events written to a segment
+   */
+  private final int segmentEvents;
+
+  /**
+   * The directory under which the directory of this buffer is created
+   */
+  private final String baseDirectory;
+
+  private File directory;
+
+  private final KryoSerializer serializer = new KryoSerializer();
+
+  /**
+   * The spilled events, oldest first
+   */
+  private final List<Segment> segments = new ArrayList<>();
+
+  /**
+   * The events after the spilled events
+   */
+  private final Deque<Entry<T>> memory = new ArrayDeque<>();
+
+  private long spilledEvents;
+
+  private long nextSequence;
+
+  private int nextSegment;
+
+  /**
+   * Creates a buffer keeping all the events in memory
+   */
+  public WindowEventBuffer() {
+    this(0, WindowContext.SPILL_SEGMENT_EVENTS_DEFAULT, null);
+  }
+
+  public WindowEventBuffer(long maxEventsInMemory, int segmentEvents, String baseDirectory) {
+    if (maxEventsInMemory > 0 && (segmentEvents <= 0 || baseDirectory == null)) {
+      throw new IllegalArgumentException("A segment size and a directory are needed to spill");
+    }
+    this.maxEventsInMemory = maxEventsInMemory;
+    this.segmentEvents = segmentEvents;
+    this.baseDirectory = baseDirectory;
+  }
+
+  public void add(Event<T> event) {
+    memory.addLast(new Entry<>(nextSequence++, event));
+    if (maxEventsInMemory > 0 && memory.size() > maxEventsInMemory) {
+      spill((int) Math.min(segmentEvents, memory.size()));
+    }
+  }
+
+  public long size() {
+    return spilledEvents + memory.size();
+  }
+
+  public long getSpilledEvents() {
+    return spilledEvents;
+  }
+
+  @Override
+  public Iterator<Event<T>> iterator() {
+    return cursor();
+  }
+
+  /**
+   * An iterator over the events which can add the current event to a {@link Snapshot}
+   *
+   * @return the cursor
+   */
+  public Cursor cursor() {
+    dropEmptySegments();
+    return new Cursor();
+  }
+
+  public Snapshot newSnapshot() {
+    return new Snapshot();
+  }
+
+  /**
+   * Delete the spilled events
+   */
+  public void close() {
+    for (Segment segment : segments) {
+      delete(segment.file);
+    }
+    segments.clear();
+    memory.clear();
+    spilledEvents = 0;
+    if (directory != null) {
+      delete(directory);
+      directory = null;
+    }
+  }
+
+  private void spill(int count) {
+    File file = new File(getDirectory(), "segment-" + nextSegment++);
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      for (int i = 0; i < count; i++) {
+        write(out, memory.pollFirst());
+      }
+    } catch (IOException e) {
+      throw new Twister2RuntimeException("Failed to write the window events to " + file, e);
+    }
+    segments.add(new Segment(file, count));
+    spilledEvents += count;
+    LOG.log(Level.FINE, () -> String.format("Spilled %d window events to %s, %d events on disk",
+        count, file, spilledEvents));
+  }
+
+  private File getDirectory() {
+    if (directory == null) {
+      try {
+        Path base = Paths.get(baseDirectory);
+        Files.createDirectories(base);
+        directory = Files.createTempDirectory(base, "window").toFile();
+      } catch (IOException e) {
+        throw new Twister2RuntimeException("Failed to create the window spill directory in "
+            + baseDirectory, e);
+      }
+    }
+    return directory;
+  }
+
+  private void write(DataOutputStream out, Entry<T> entry) throws IOException {
+    IMessage<T> message = entry.event.get();
+    out.writeLong(entry.sequence);
+    out.writeLong(entry.event.getTimeStamp());
+    out.writeInt(message.getFlag());
+    out.writeInt(message.sourceTask());
+    String edge = message.edge();
+    out.writeBoolean(edge != null);
+    if (edge != null) {
+      out.writeUTF(edge);
+    }
+    T content = message.getContent();
+    if (content == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = serializer.serialize(content);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<Entry<T>> read(Segment segment, KryoSerializer kryoSerializer) {
+    List<Entry<T>> entries = new ArrayList<>(segment.count);
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(segment.file)))) {
+      for (int i = 0; i < segment.count; i++) {
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        int flag = in.readInt();
+        int source = in.readInt();
+        String edge = in.readBoolean() ? in.readUTF() : null;
+        int length = in.readInt();
+        T content = null;
+        if (length >= 0) {
+          byte[] bytes = new byte[length];
+          in.readFully(bytes);
+          content = (T) kryoSerializer.deserialize(bytes);
+        }
+        entries.add(new Entry<>(sequence,
+            new EventImpl<>(new TaskMessage<>(content, flag, edge, source), timestamp)));
+      }
+    } catch (IOException e) {
+      throw new Twister2RuntimeException("Failed to read the window events from "
+          + segment.file, e);
+    }
+    return entries;
+  }
+
+  private void dropEmptySegments() {
+    Iterator<Segment> it = segments.iterator();
+    while (it.hasNext()) {
+      Segment segment = it.next();
+      if (segment.live == 0) {
+        it.remove();
+        segment.dropped = true;
+        if (segment.readers == 0) {
+          delete(segment.file);
+        }
+      }
+    }
+  }
+
+  private static void delete(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Failed to delete " + file, e);
+    }
+  }
+
+  private static final class Entry<T> {
+    private final long sequence;
+
+    private final Event<T> event;
+
+    private Entry(long sequence, Event<T> event) {
+      this.sequence = sequence;
+      this.event = event;
+    }
+  }
+
+  private static final class Segment {
+    private final File file;
+
+    private final int count;
+
+    /**
+     * The events of the segment removed from the buffer
+     */
+    private final BitSet removed;
+
+    private int live;
+
+    /**
+     * Number of snapshots reading this segment, the file is kept until they are released
+     */
+    private int readers;
+
+    private boolean dropped;
+
+    private Segment(File file, int count) {
+      this.file = file;
+      this.count = count;
+      this.removed = new BitSet(count);
+      this.live = count;
+    }
+  }
+
+  /**
+   * Iterates the events oldest first. The spilled events are read a segment at a time.
+   */
+  public final class Cursor implements Iterator<Event<T>> {
+    private int segmentIndex;
+
+    private List<Entry<T>> segmentEntries;
+
+    private int position;
+
+    private Iterator<Entry<T>> memoryIterator;
+
+    private Entry<T> next;
+
+    private Segment nextSegment;
+
+    private int nextIndex;
+
+    private Entry<T> current;
+
+    private Segment currentSegment;
+
+    private int currentIndex;
+
+    private Cursor() {
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (memoryIterator == null) {
+        advanceSegments();
+        if (next != null) {
+          return true;
+        }
+        memoryIterator = memory.iterator();
+      }
+      return memoryIterator.hasNext();
+    }
+
+    private void advanceSegments() {
+      while (segmentIndex < segments.size()) {
+        Segment segment = segments.get(segmentIndex);
+        if (segmentEntries == null) {
+          segmentEntries = segment.live > 0 ? read(segment, serializer)
+              : Collections.emptyList();
+        }
+        while (position < segmentEntries.size()) {
+          int index = position++;
+          if (!segment.removed.get(index)) {
+            next = segmentEntries.get(index);
+            nextSegment = segment;
+            nextIndex = index;
+            return;
+          }
+        }
+        segmentEntries = null;
+        position = 0;
+        segmentIndex++;
+      }
+    }
+
+    @Override
+    public Event<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (next != null) {
+        current = next;
+        currentSegment = nextSegment;
+        currentIndex = nextIndex;
+        next = null;
+      } else {
+        current = memoryIterator.next();
+        currentSegment = null;
+      }
+      return current.event;
+    }
+
+    @Override
+    public void remove() {
+      if (current == null) {
+        throw new IllegalStateException("No current event");
+      }
+      if (currentSegment != null) {
+        currentSegment.removed.set(currentIndex);
+        currentSegment.live--;
+        spilledEvents--;
+      } else {
+        memoryIterator.remove();
+      }
+      current = null;
+    }
+
+    /**
+     * The sequence number of the current event
+     */
+    public long sequence() {
+      return current.sequence;
+    }
+
+    /**
+     * Add the current event to a snapshot
+     *
+     * @param snapshot the snapshot
+     * @param newEvent whether the event is new to the window
+     */
+    public void include(Snapshot snapshot, boolean newEvent) {
+      snapshot.add(currentSegment, currentIndex, current, newEvent);
+    }
+  }
+
+  /**
+   * The events of a window. The spilled events are not kept in memory, they are read from the
+   * segment files when the lists are iterated, so the segments are kept until the snapshot is
+   * released.
+   */
+  public final class Snapshot {
+    private final List<Part<T>> events = new ArrayList<>();
+
+    private final List<Part<T>> newEvents = new ArrayList<>();
+
+    private final Set<Segment> pinned = new LinkedHashSet<>();
+
+    private int size;
+
+    private int newSize;
+
+    private Snapshot() {
+    }
+
+    private void add(Segment segment, int index, Entry<T> entry, boolean newEvent) {
+      if (segment != null && pinned.add(segment)) {
+        segment.readers++;
+      }
+      add(events, segment, index, entry);
+      size++;
+      if (newEvent) {
+        add(newEvents, segment, index, entry);
+        newSize++;
+      }
+    }
+
+    private void add(List<Part<T>> parts, Segment segment, int index, Entry<T> entry) {
+      Part<T> last = parts.isEmpty() ? null : parts.get(parts.size() - 1);
+      if (last == null || last.segment != segment) {
+        last = new Part<>(segment);
+        parts.add(last);
+      }
+      if (segment != null) {
+        last.included.set(index);
+      } else {
+        last.messages.add(entry.event.get());
+      }
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    /**
+     * The events of the window, the list is valid until the snapshot is released
+     */
+    public List<IMessage<T>> getEvents() {
+      return new EventList<>(events, size);
+    }
+
+    /**
+     * The events of the window which were not in the previous window
+     */
+    public List<IMessage<T>> getNewEvents() {
+      return new EventList<>(newEvents, newSize);
+    }
+
+    /**
+     * Release the segments of this snapshot, deleting the ones removed from the buffer
+     */
+    public void release() {
+      for (Segment segment : pinned) {
+        segment.readers--;
+        if (segment.dropped && segment.readers == 0) {
+          delete(segment.file);
+        }
+      }
+      pinned.clear();
+    }
+  }
+
+  /**
+   * Consecutive events of a snapshot, either from a segment or from memory
+   */
+  private static final class Part<T> {
+    private final Segment segment;
+
+    private final BitSet included;
+
+    private final List<IMessage<T>> messages;
+
+    private Part(Segment segment) {
+      this.segment = segment;
+      this.included = segment != null ? new BitSet(segment.count) : null;
+      this.messages = segment != null ? null : new ArrayList<>();
+    }
+  }
+
+  /**
+   * A read only list over the parts of a snapshot. The list is meant to be iterated, a random
+   * access other than the next element reads the list from the start.
+   */
+  private static final class EventList<T> extends AbstractList<IMessage<T>> {
+    private final List<Part<T>> parts;
+
+    private final int size;
+
+    private EventIterator<T> cursor;
+
+    private int cursorIndex = -1;
+
+    private EventList(List<Part<T>> parts, int size) {
+      this.parts = parts;
+      this.size = size;
+    }
+
+    @Override
+    public IMessage<T> get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      if (cursor == null || index <= cursorIndex) {
+        cursor = new EventIterator<>(parts);
+        cursorIndex = -1;
+      }
+      IMessage<T> message = null;
+      while (cursorIndex < index) {
+        message = cursor.next();
+        cursorIndex++;
+      }
+      return message;
+    }
+
+    @Override
+    public Iterator<IMessage<T>> iterator() {
+      return new EventIterator<>(parts);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static final class EventIterator<T> implements Iterator<IMessage<T>> {
+    private final Iterator<Part<T>> parts;
+
+    private final KryoSerializer kryoSerializer = new KryoSerializer();
+
+    private Iterator<IMessage<T>> current = Collections.emptyIterator();
+
+    private EventIterator(List<Part<T>> parts) {
+      this.parts = parts.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext() && parts.hasNext()) {
+        Part<T> part = parts.next();
+        if (part.segment == null) {
+          current = part.messages.iterator();
+        } else {
+          List<Entry<T>> entries = read(part.segment, kryoSerializer);
+          List<IMessage<T>> messages = new ArrayList<>(part.included.cardinality());
+          for (int i = part.included.nextSetBit(0); i >= 0;
+               i = part.included.nextSetBit(i + 1)) {
+            messages.add(entries.get(i).event.get());
+          }
+          current = messages.iterator();
+        }
+      }
+      return current.hasNext();
+    }
+
+    @Override
+    public IMessage<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+  }
+}
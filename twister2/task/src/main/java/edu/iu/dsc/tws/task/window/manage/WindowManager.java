@@ -12,11 +12,7 @@
 package edu.iu.dsc.tws.task.window.manage;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -50,29 +46,34 @@ public class WindowManager<T> implements IManager<T> {
 
   private ReentrantLock lock;
 
-  private final ConcurrentLinkedQueue<Event<T>> queue;
+  private final WindowEventBuffer<T> buffer;
 
-  private final Set<Event<T>> previousWindowEvents;
+  /**
+   * The sequence numbers of the events of the previous window, as ranges of consecutive
+   * events of the buffer
+   */
+  private List<long[]> previousWindow;
 
   private final AtomicInteger eventsSinceLastExpiration;
 
   private boolean debug = false;
 
   public WindowManager(WindowLifeCycleListener<T> windowLifeCycleListener) {
+    this(windowLifeCycleListener, new WindowEventBuffer<>());
+  }
+
+  public WindowManager(WindowLifeCycleListener<T> windowLifeCycleListener,
+                       WindowEventBuffer<T> buffer) {
     this.windowLifeCycleListener = windowLifeCycleListener;
-    this.queue = new ConcurrentLinkedQueue<>();
+    this.buffer = buffer;
     this.expiredEvents = new ArrayList<>();
     this.lock = new ReentrantLock();
-    this.previousWindowEvents = new HashSet<>();
+    this.previousWindow = new ArrayList<>();
     this.eventsSinceLastExpiration = new AtomicInteger();
   }
 
   public WindowManager() {
-    this.queue = new ConcurrentLinkedQueue<>();
-    this.expiredEvents = new ArrayList<>();
-    this.lock = new ReentrantLock();
-    this.previousWindowEvents = new HashSet<>();
-    this.eventsSinceLastExpiration = new AtomicInteger();
+    this(null);
   }
 
   public IWindowingPolicy<T> getWindowingPolicy() {
@@ -103,7 +104,12 @@ public class WindowManager<T> implements IManager<T> {
 
   public void add(Event<T> windowEvent) {
     if (!windowEvent.isWatermark()) {
-      queue.add(windowEvent);
+      try {
+        lock.lock();
+        buffer.add(windowEvent);
+      } finally {
+        lock.unlock();
+      }
     } else {
       LOG.fine(String.format("Event With WaterMark ts %f ", (double) windowEvent.getTimeStamp()));
     }
@@ -114,34 +120,33 @@ public class WindowManager<T> implements IManager<T> {
 
   @Override
   public boolean onEvent() {
-    List<Event<T>> windowEvents = null;
-    List<IMessage<T>> expired = null;
+    WindowEventBuffer<T>.Snapshot window;
+    List<IMessage<T>> expired;
     try {
       lock.lock();
-      windowEvents = scanEvents(true);
+      window = scanWindow();
       expired = new ArrayList<>(expiredEvents);
       expiredEvents.clear();
     } finally {
       lock.unlock();
     }
-    List<IMessage<T>> events = new ArrayList<>();
-    List<IMessage<T>> newEvents = new ArrayList<>();
-    for (Event<T> event : windowEvents) {
-      events.add(event.get());
-      if (!previousWindowEvents.contains(event)) {
-        newEvents.add(event.get());
-      }
-    }
-    previousWindowEvents.clear();
-    if (!events.isEmpty()) {
-      previousWindowEvents.addAll(windowEvents);
+    if (!window.isEmpty()) {
       LOG.log(Level.FINE, String.format("WindowLifeCycleListener onActivation, "
-          + "events in the window : %d", events.size()));
-      IWindowMessage<T> ievents = bundleNonExpiredWindowIMessage(events);
-      IWindowMessage<T> inewEvents = bundleNonExpiredWindowIMessage(newEvents);
+          + "events in the window : %d", window.size()));
+      IWindowMessage<T> ievents = new WindowMessageImpl<>(window.getEvents());
+      IWindowMessage<T> inewEvents = new WindowMessageImpl<>(window.getNewEvents());
       //TODO : handle expired events
       IWindowMessage<T> iexpired = bundleExpiredWindowIMessage(expired);
-      windowLifeCycleListener.onActivation(ievents, inewEvents, iexpired);
+      try {
+        windowLifeCycleListener.onActivation(ievents, inewEvents, iexpired);
+      } finally {
+        try {
+          lock.lock();
+          window.release();
+        } finally {
+          lock.unlock();
+        }
+      }
     } else {
       LOG.log(Level.FINE,
           String.format("No events processed for the window, onActivation method is not called"));
@@ -149,7 +154,55 @@ public class WindowManager<T> implements IManager<T> {
 
     this.windowingPolicy.reset();
 
-    return !events.isEmpty();
+    return !window.isEmpty();
+  }
+
+  /**
+   * Expire the events and collect the events of the window, the events of the window which
+   * were not in the previous window are the new events
+   *
+   * @return the events of the window
+   */
+  private WindowEventBuffer<T>.Snapshot scanWindow() {
+    List<IMessage<T>> eventsToExpire = new ArrayList<>();
+    WindowEventBuffer<T>.Snapshot window = buffer.newSnapshot();
+    List<long[]> currentWindow = new ArrayList<>();
+    int previous = 0;
+    boolean lastIncluded = false;
+    WindowEventBuffer<T>.Cursor it = buffer.cursor();
+    while (it.hasNext()) {
+      Event<T> windowEvent = it.next();
+      Action action = evictionPolicy.evict(windowEvent);
+      if (action == Action.EXPIRE) {
+        eventsToExpire.add(windowEvent.get());
+        it.remove();
+      } else if (action == Action.STOP) {
+        break;
+      } else if (action == Action.PROCESS) {
+        long sequence = it.sequence();
+        while (previous < previousWindow.size() && previousWindow.get(previous)[1] < sequence) {
+          previous++;
+        }
+        boolean newEvent = previous == previousWindow.size()
+            || previousWindow.get(previous)[0] > sequence;
+        it.include(window, newEvent);
+        // the events between two consecutive events of the buffer are removed, so they
+        // can be in the same range
+        if (lastIncluded) {
+          currentWindow.get(currentWindow.size() - 1)[1] = sequence;
+        } else {
+          currentWindow.add(new long[]{sequence, sequence});
+        }
+        lastIncluded = true;
+        continue;
+      }
+      lastIncluded = false;
+    }
+    previousWindow = currentWindow;
+    expiredEvents.addAll(eventsToExpire);
+    eventsSinceLastExpiration.set(0);
+    notifyExpired(eventsToExpire);
+    return window;
   }
 
   public List<Event<T>> scanEvents(boolean fullScan) {
@@ -157,7 +210,7 @@ public class WindowManager<T> implements IManager<T> {
     List<Event<T>> eventsToProcess = new ArrayList<>();
     try {
       lock.lock();
-      Iterator<Event<T>> it = queue.iterator();
+      WindowEventBuffer<T>.Cursor it = buffer.cursor();
       while (it.hasNext()) {
         Event<T> windowEvent = it.next();
         Action action = evictionPolicy.evict(windowEvent);
@@ -175,6 +228,11 @@ public class WindowManager<T> implements IManager<T> {
       lock.unlock();
     }
     eventsSinceLastExpiration.set(0);
+    notifyExpired(eventsToExpire);
+    return eventsToProcess;
+  }
+
+  private void notifyExpired(List<IMessage<T>> eventsToExpire) {
     if (!eventsToExpire.isEmpty()) {
       if (debug) {
         LOG.severe(String.format("OnExpiry called on WindowLifeCycleListener"));
@@ -182,8 +240,6 @@ public class WindowManager<T> implements IManager<T> {
       IWindowMessage<T> eventsToExpireIWindow = bundleExpiredWindowIMessage(eventsToExpire);
       windowLifeCycleListener.onExpiry(eventsToExpireIWindow);
     }
-
-    return eventsToProcess;
   }
 
   public IWindowMessage<T> bundleWindowMessage(List<Event<T>> events) {
@@ -245,6 +301,12 @@ public class WindowManager<T> implements IManager<T> {
     if (windowingPolicy != null) {
       windowingPolicy.shutdown();
     }
+    try {
+      lock.lock();
+      buffer.close();
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
@@ -261,13 +323,18 @@ public class WindowManager<T> implements IManager<T> {
     if (end > start) {
       int count = 0;
       long ts = Long.MIN_VALUE;
-      for (Event<T> event : queue) {
-        if (event.getTimeStamp() > start && event.getTimeStamp() <= end) {
-          ts = Math.max(ts, event.getTimeStamp());
-          if (++count % slide == 0) {
-            timestamps.add(ts);
+      try {
+        lock.lock();
+        for (Event<T> event : buffer) {
+          if (event.getTimeStamp() > start && event.getTimeStamp() <= end) {
+            ts = Math.max(ts, event.getTimeStamp());
+            if (++count % slide == 0) {
+              timestamps.add(ts);
+            }
           }
         }
+      } finally {
+        lock.unlock();
       }
     }
     return timestamps;
@@ -282,10 +349,15 @@ public class WindowManager<T> implements IManager<T> {
    */
   public long getEventCount(long referenceTime) {
     long eventCount = 0;
-    for (Event<T> event : queue) {
-      if (event.getTimeStamp() <= referenceTime) {
-        ++eventCount;
+    try {
+      lock.lock();
+      for (Event<T> event : buffer) {
+        if (event.getTimeStamp() <= referenceTime) {
+          ++eventCount;
+        }
       }
+    } finally {
+      lock.unlock();
     }
     return eventCount;
   }
@@ -300,10 +372,15 @@ public class WindowManager<T> implements IManager<T> {
    */
   public long getEarliestEventTimestamp(long start, long end) {
     long minTimestamp = Long.MAX_VALUE;
-    for (Event<T> event : queue) {
-      if (event.getTimeStamp() > start && event.getTimeStamp() <= end) {
-        minTimestamp = Math.min(minTimestamp, event.getTimeStamp());
+    try {
+      lock.lock();
+      for (Event<T> event : buffer) {
+        if (event.getTimeStamp() > start && event.getTimeStamp() <= end) {
+          minTimestamp = Math.min(minTimestamp, event.getTimeStamp());
+        }
       }
+    } finally {
+      lock.unlock();
     }
     return minTimestamp;
   }
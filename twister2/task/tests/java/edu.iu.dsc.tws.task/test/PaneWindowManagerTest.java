@@ -0,0 +1,173 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.task.window.api.IEvictionPolicy;
+import edu.iu.dsc.tws.task.window.api.IWindowMessage;
+import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
+import edu.iu.dsc.tws.task.window.collectives.AggregateWindow;
+import edu.iu.dsc.tws.task.window.function.AggregateWindowedFunction;
+import edu.iu.dsc.tws.task.window.function.AssociativeWindowFunction;
+import edu.iu.dsc.tws.task.window.manage.PaneWindowManager;
+import edu.iu.dsc.tws.task.window.manage.TwoStackAggregator;
+import edu.iu.dsc.tws.task.window.manage.WindowManager;
+import edu.iu.dsc.tws.task.window.policy.eviction.count.CountEvictionPolicy;
+import edu.iu.dsc.tws.task.window.policy.trigger.IWindowingPolicy;
+import edu.iu.dsc.tws.task.window.policy.trigger.count.CountWindowPolicy;
+import edu.iu.dsc.tws.task.window.util.WindowParameter;
+
+public class PaneWindowManagerTest {
+
+  private static class Listener implements WindowLifeCycleListener<Integer> {
+    private List<Integer> windows = new ArrayList<>();
+
+    @Override
+    public void onExpiry(IWindowMessage<Integer> events) {
+    }
+
+    @Override
+    public void onActivation(IWindowMessage<Integer> events, IWindowMessage<Integer> newEvents,
+                             IWindowMessage<Integer> expired) {
+      Assert.assertEquals(1, events.getWindow().size());
+      windows.add(events.getWindow().get(0).getContent());
+    }
+  }
+
+  @Test
+  public void testAggregatorOrder() {
+    TwoStackAggregator<String> aggregator = new TwoStackAggregator<>((s1, s2) -> s1 + s2);
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      aggregator.push(Integer.toString(i % 10));
+      if (i % 3 == 2) {
+        aggregator.push(null);
+      }
+      while (aggregator.size() > 7) {
+        aggregator.pop();
+      }
+      expected.setLength(0);
+      // the values of the queue are the last pushes, rebuild them from the start
+      List<String> pushed = new ArrayList<>();
+      for (int j = 0; j <= i; j++) {
+        pushed.add(Integer.toString(j % 10));
+        if (j % 3 == 2) {
+          pushed.add(null);
+        }
+      }
+      for (String s : pushed.subList(pushed.size() - aggregator.size(), pushed.size())) {
+        if (s != null) {
+          expected.append(s);
+        }
+      }
+      Assert.assertEquals(expected.toString(), aggregator.query());
+    }
+  }
+
+  @Test
+  public void testSlidingCountWindow() {
+    assertWindows(6, 2, 100);
+  }
+
+  @Test
+  public void testTumblingCountWindow() {
+    assertWindows(5, 5, 52);
+  }
+
+  private static class Sum implements AggregateWindowedFunction<Integer>,
+      AssociativeWindowFunction {
+    @Override
+    public Integer onMessage(Integer object1, Integer object2) {
+      return object1 + object2;
+    }
+  }
+
+  private static class Aggregate extends AggregateWindow<Integer> {
+    Aggregate(AggregateWindowedFunction<Integer> function) {
+      super(function);
+      this.config = Config.newBuilder().build();
+      withSlidingCountWindow(6, 2);
+    }
+
+    private WindowManager<Integer> windowManager() {
+      return newWindowManager(new Listener());
+    }
+
+    @Override
+    public boolean aggregate(Integer message) {
+      return true;
+    }
+
+    @Override
+    public boolean aggregateLateMessages(Integer message) {
+      return true;
+    }
+  }
+
+  /**
+   * Only functions marked associative are computed in panes, the others get the events in the
+   * order they arrive
+   */
+  @Test
+  public void testPanesOnlyForAssociativeFunctions() {
+    Assert.assertTrue(new Aggregate(new Sum()).windowManager() instanceof PaneWindowManager);
+
+    WindowManager<Integer> manager = new Aggregate((a, b) -> 2 * a + 3 * b).windowManager();
+    Assert.assertFalse(manager instanceof PaneWindowManager);
+  }
+
+  @Test
+  public void testPanesPerWindow() {
+    Assert.assertEquals(3,
+        PaneWindowManager.getPanesPerWindow(new WindowParameter()
+            .withSlidingingCountWindow(6, 2)));
+    Assert.assertEquals(1,
+        PaneWindowManager.getPanesPerWindow(new WindowParameter()
+            .withTumblingCountWindow(4)));
+    Assert.assertEquals(-1,
+        PaneWindowManager.getPanesPerWindow(new WindowParameter()
+            .withSlidingingCountWindow(5, 2)));
+  }
+
+  private void assertWindows(int length, int slide, int events) {
+    Listener listener = new Listener();
+    PaneWindowManager<Integer> manager = new PaneWindowManager<>(listener, Integer::sum,
+        length / slide);
+    IEvictionPolicy<Integer> evictionPolicy = new CountEvictionPolicy<>(length);
+    IWindowingPolicy<Integer> windowingPolicy = new CountWindowPolicy<>(slide, manager,
+        evictionPolicy);
+    manager.setEvictionPolicy(evictionPolicy);
+    manager.setWindowingPolicy(windowingPolicy);
+    windowingPolicy.start();
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 1; i <= events; i++) {
+      manager.add(new TaskMessage<>(i));
+      if (i % slide == 0) {
+        int sum = 0;
+        for (int j = Math.max(1, i - length + 1); j <= i; j++) {
+          sum += j;
+        }
+        expected.add(sum);
+      }
+    }
+    manager.shutdown();
+    Assert.assertEquals(expected, listener.windows);
+  }
+}
@@ -0,0 +1,134 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.task.window.api.Event;
+import edu.iu.dsc.tws.task.window.api.EventImpl;
+import edu.iu.dsc.tws.task.window.api.IEvictionPolicy;
+import edu.iu.dsc.tws.task.window.api.IWindowMessage;
+import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
+import edu.iu.dsc.tws.task.window.manage.WindowEventBuffer;
+import edu.iu.dsc.tws.task.window.manage.WindowManager;
+import edu.iu.dsc.tws.task.window.policy.eviction.count.CountEvictionPolicy;
+import edu.iu.dsc.tws.task.window.policy.trigger.IWindowingPolicy;
+import edu.iu.dsc.tws.task.window.policy.trigger.count.CountWindowPolicy;
+
+public class WindowEventBufferTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+
+  private static class Listener implements WindowLifeCycleListener<Integer> {
+    private List<List<Integer>> windows = new ArrayList<>();
+
+    private List<List<Integer>> newEvents = new ArrayList<>();
+
+    @Override
+    public void onExpiry(IWindowMessage<Integer> events) {
+    }
+
+    @Override
+    public void onActivation(IWindowMessage<Integer> events, IWindowMessage<Integer> newEvts,
+                             IWindowMessage<Integer> expired) {
+      windows.add(contents(events.getWindow()));
+      newEvents.add(contents(newEvts.getWindow()));
+    }
+
+    private List<Integer> contents(List<IMessage<Integer>> messages) {
+      List<Integer> values = new ArrayList<>();
+      for (IMessage<Integer> m : messages) {
+        values.add(m.getContent());
+      }
+      return values;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    directory = folder.getRoot();
+  }
+
+  @Test
+  public void testSpillAndRemove() {
+    WindowEventBuffer<Integer> buffer = new WindowEventBuffer<>(10, 4, directory.getPath());
+    for (int i = 0; i < 30; i++) {
+      buffer.add(new EventImpl<>(new TaskMessage<>(i, "edge", 3), i));
+    }
+    Assert.assertEquals(30, buffer.size());
+    Assert.assertTrue(buffer.getSpilledEvents() > 0);
+
+    // remove the even events, from the segments and from memory
+    Iterator<Event<Integer>> it = buffer.iterator();
+    int expected = 0;
+    while (it.hasNext()) {
+      Event<Integer> event = it.next();
+      Assert.assertEquals(expected, (int) event.get().getContent());
+      Assert.assertEquals(expected, event.getTimeStamp());
+      Assert.assertEquals("edge", event.get().edge());
+      Assert.assertEquals(3, event.get().sourceTask());
+      if (expected % 2 == 0) {
+        it.remove();
+      }
+      expected++;
+    }
+    Assert.assertEquals(15, buffer.size());
+
+    expected = 1;
+    for (Event<Integer> event : buffer) {
+      Assert.assertEquals(expected, (int) event.get().getContent());
+      expected += 2;
+    }
+    buffer.close();
+    Assert.assertFalse(directory.list().length > 0);
+  }
+
+  @Test
+  public void testSpilledWindows() {
+    Listener memory = runCountWindow(new WindowEventBuffer<>());
+    Listener spilled = runCountWindow(new WindowEventBuffer<>(7, 3, directory.getPath()));
+    Assert.assertFalse(memory.windows.isEmpty());
+    Assert.assertEquals(memory.windows, spilled.windows);
+    Assert.assertEquals(memory.newEvents, spilled.newEvents);
+    Assert.assertFalse(directory.list().length > 0);
+  }
+
+  private Listener runCountWindow(WindowEventBuffer<Integer> buffer) {
+    Listener listener = new Listener();
+    WindowManager<Integer> manager = new WindowManager<>(listener, buffer);
+    IEvictionPolicy<Integer> evictionPolicy = new CountEvictionPolicy<>(20);
+    IWindowingPolicy<Integer> windowingPolicy = new CountWindowPolicy<>(5, manager,
+        evictionPolicy);
+    manager.setEvictionPolicy(evictionPolicy);
+    manager.setWindowingPolicy(windowingPolicy);
+    windowingPolicy.start();
+    for (int i = 0; i < 100; i++) {
+      manager.add(new TaskMessage<>(i));
+    }
+    manager.shutdown();
+    return listener;
+  }
+}
@@ -0,0 +1,239 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
+import edu.iu.dsc.tws.api.compute.nodes.INode;
+import edu.iu.dsc.tws.api.compute.nodes.ISource;
+import edu.iu.dsc.tws.api.tset.TBase;
+import edu.iu.dsc.tws.api.tset.TSetConstants;
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.task.graph.GraphBuilder;
+import edu.iu.dsc.tws.tset.fn.FlatMapIterCompute;
+import edu.iu.dsc.tws.tset.fn.ForEachIterCompute;
+import edu.iu.dsc.tws.tset.fn.MapIterCompute;
+import edu.iu.dsc.tws.tset.links.batch.DirectTLink;
+import edu.iu.dsc.tws.tset.ops.BaseOp;
+import edu.iu.dsc.tws.tset.ops.ChainedStage;
+import edu.iu.dsc.tws.tset.sets.BaseTSet;
+import edu.iu.dsc.tws.tset.sets.BaseTSetWithSchema;
+import edu.iu.dsc.tws.tset.sets.BuildableTSet;
+import edu.iu.dsc.tws.tset.sets.batch.ComputeTSet;
+import edu.iu.dsc.tws.tset.sets.batch.SourceTSet;
+
+/**
+ * Operator fusion (chaining) of a build sequence. A map, flatmap or foreach TSet connected to
+ * the preceding TSet by a direct link is fused in to the task of the preceding TSet when
+ * <ul>
+ * <li>the link is the only output of the preceding TSet and the only input of the TSet</li>
+ * <li>both have the same parallelism</li>
+ * <li>the TSet doesn't have other inputs added to it</li>
+ * <li>chaining is not disabled for any of them</li>
+ * </ul>
+ * The fused TSets run in the task of the first TSet of the chain (the head), one record at a
+ * time, so there is no queue or direct operation between them. The links going out of the last
+ * TSet of the chain are connected to the head.
+ */
+public final class FusionPlan {
+  private static final Logger LOG = Logger.getLogger(FusionPlan.class.getName());
+
+  /**
+   * Plan without any fused TSets
+   */
+  public static final FusionPlan NONE = new FusionPlan(Collections.emptyMap(),
+      Collections.emptyMap(), Collections.emptySet());
+
+  /**
+   * head of a chain {@literal -->} fused TSets in the order of the chain
+   */
+  private final Map<TBase, List<ComputeTSet<?, ?>>> chains;
+
+  /**
+   * fused TSet {@literal -->} head of its chain
+   */
+  private final Map<TBase, TBase> heads;
+
+  /**
+   * Direct links inside the chains
+   */
+  private final Set<TBase> fusedLinks;
+
+  private FusionPlan(Map<TBase, List<ComputeTSet<?, ?>>> chains, Map<TBase, TBase> heads,
+                     Set<TBase> fusedLinks) {
+    this.chains = chains;
+    this.heads = heads;
+    this.fusedLinks = fusedLinks;
+  }
+
+  /**
+   * Find the chains of a build sequence
+   *
+   * @param graph tbase graph
+   * @param buildSequence build sequence
+   * @return the plan
+   */
+  public static FusionPlan create(TBaseGraph graph, Collection<TBase> buildSequence) {
+    // fused tset --> the tset it is fused in to, and the reverse
+    Map<TBase, TBase> upstream = new HashMap<>();
+    Map<TBase, ComputeTSet<?, ?>> downstream = new HashMap<>();
+    Set<TBase> fusedLinks = new HashSet<>();
+
+    for (TBase node : buildSequence) {
+      if (!canChain(graph, node, buildSequence)) {
+        continue;
+      }
+
+      TBase link = relevant(graph.getPredecessors(node), buildSequence).iterator().next();
+      TBase up = relevant(graph.getPredecessors(link), buildSequence).iterator().next();
+      upstream.put(node, up);
+      downstream.put(up, (ComputeTSet<?, ?>) node);
+      fusedLinks.add(link);
+    }
+
+    if (upstream.isEmpty()) {
+      return NONE;
+    }
+
+    Map<TBase, List<ComputeTSet<?, ?>>> chains = new HashMap<>();
+    Map<TBase, TBase> heads = new HashMap<>();
+    for (TBase node : upstream.values()) {
+      if (upstream.containsKey(node)) {
+        // not the head of a chain
+        continue;
+      }
+
+      List<ComputeTSet<?, ?>> chain = new ArrayList<>();
+      ComputeTSet<?, ?> next = downstream.get(node);
+      while (next != null) {
+        chain.add(next);
+        heads.put(next, node);
+        next = downstream.get(next);
+      }
+      chains.put(node, chain);
+      LOG.log(Level.FINE, () -> "Fusing " + chain + " in to " + node);
+    }
+
+    return new FusionPlan(chains, heads, fusedLinks);
+  }
+
+  private static boolean canChain(TBaseGraph graph, TBase node,
+                                  Collection<TBase> buildSequence) {
+    if (node.getClass() != ComputeTSet.class) {
+      return false;
+    }
+
+    ComputeTSet<?, ?> tSet = (ComputeTSet<?, ?>) node;
+    if (!tSet.isChainingEnabled() || !tSet.getTSetEnv().getInputs(tSet.getId()).isEmpty()) {
+      return false;
+    }
+
+    TFunction<?, ?> function = tSet.getComputeFunc();
+    if (function instanceof ForEachIterCompute) {
+      // a compute function writes a single output, which would be a different value per record
+      if (!relevant(graph.getSuccessors(node), buildSequence).isEmpty()) {
+        return false;
+      }
+    } else if (!(function instanceof MapIterCompute || function instanceof FlatMapIterCompute)) {
+      return false;
+    }
+
+    Set<TBase> links = relevant(graph.getPredecessors(node), buildSequence);
+    if (links.size() != 1) {
+      return false;
+    }
+    TBase link = links.iterator().next();
+    if (link.getClass() != DirectTLink.class || ((DirectTLink<?>) link).isUseDisk()
+        || relevant(graph.getSuccessors(link), buildSequence).size() != 1) {
+      return false;
+    }
+
+    Set<TBase> ups = relevant(graph.getPredecessors(link), buildSequence);
+    if (ups.size() != 1) {
+      return false;
+    }
+    TBase up = ups.iterator().next();
+    if (up.getClass() != ComputeTSet.class && up.getClass() != SourceTSet.class) {
+      return false;
+    }
+    BaseTSet<?> upTSet = (BaseTSet<?>) up;
+    return upTSet.isChainingEnabled() && upTSet.getParallelism() == tSet.getParallelism()
+        && relevant(graph.getSuccessors(up), buildSequence).size() == 1;
+  }
+
+  private static Set<TBase> relevant(Set<TBase> nodes, Collection<TBase> buildSequence) {
+    Set<TBase> res = new HashSet<>(nodes);
+    res.retainAll(buildSequence);
+    return res;
+  }
+
+  /**
+   * Weather the node is built as a part of a chain, fused TSets and the links between them
+   */
+  public boolean isFused(TBase node) {
+    return heads.containsKey(node) || fusedLinks.contains(node);
+  }
+
+  public boolean isChainHead(TBase node) {
+    return chains.containsKey(node);
+  }
+
+  /**
+   * The name of the task a TSet is built in to
+   *
+   * @param node tset
+   * @return id of the head of the chain if the TSet is fused, else the id of the TSet
+   */
+  public String vertexId(TBase node) {
+    TBase head = heads.get(node);
+    return head != null ? head.getId() : node.getId();
+  }
+
+  /**
+   * Build the task of a chain
+   *
+   * @param graphBuilder graph builder
+   * @param head head of the chain
+   */
+  public void buildChain(GraphBuilder graphBuilder, BuildableTSet head) {
+    List<ComputeTSet<?, ?>> chain = chains.get(head);
+    List<ChainedStage> stages = new ArrayList<>();
+    for (ComputeTSet<?, ?> tSet : chain) {
+      stages.add(new ChainedStage(tSet.getComputeFunc(), tSet));
+    }
+
+    INode node = head.getINode();
+    ((BaseOp) node).chain(stages);
+    if (node instanceof ICompute) {
+      graphBuilder.addTask(head.getId(), (ICompute) node, head.getParallelism());
+    } else if (node instanceof ISource) {
+      graphBuilder.addSource(head.getId(), (ISource) node, head.getParallelism());
+    } else {
+      throw new RuntimeException("Unknown INode " + node);
+    }
+
+    graphBuilder.addConfiguration(head.getId(), TSetConstants.INPUT_SCHEMA_KEY,
+        ((BaseTSetWithSchema) head).getInputSchema());
+    graphBuilder.addConfiguration(head.getId(), TSetConstants.OUTPUT_SCHEMA_KEY,
+        chain.get(chain.size() - 1).getOutputSchema());
+  }
+}
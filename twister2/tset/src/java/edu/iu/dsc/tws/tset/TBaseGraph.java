@@ -40,6 +40,11 @@ public class TBaseGraph implements Serializable {
 
   private Set<BuildableTSet> sources;
 
+  /**
+   * Fuse chains of TSets in to single tasks when building
+   */
+  private boolean fusionEnabled = true;
+
   public TBaseGraph() {
     //no args constructor for kryo
   }
@@ -130,13 +135,30 @@ public class TBaseGraph implements Serializable {
   public void setSources(Set<BuildableTSet> sources) {
     this.sources = sources;
   }
+
+  public boolean isFusionEnabled() {
+    return fusionEnabled;
+  }
+
+  /**
+   * Enable or disable operator fusion for the builds done after this. Fusion can be disabled for
+   * a single TSet using disableChaining of the TSet.
+   *
+   * @param fusion true to fuse chains of TSets in to single tasks
+   */
+  public void setFusionEnabled(boolean fusion) {
+    this.fusionEnabled = fusion;
+  }
+
   private BuildContext doBuild(Set<BuildableTSet> roots, AdjNodesExtractor nodesExtractor) {
     String buildId = TSetUtils.generateBuildId(roots);
 
     Set<TBase> buildSeq = conditionalBFS(roots, nodesExtractor);
     LOG.log(Level.FINE, () -> "Build order for " + buildId + " : " + buildSeq.toString());
 
-    return new BuildContext(buildId, roots, buildSeq, opMode);
+    FusionPlan fusion = fusionEnabled && opMode == OperationMode.BATCH
+        ? FusionPlan.create(this, buildSeq) : FusionPlan.NONE;
+    return new BuildContext(buildId, roots, buildSeq, opMode, fusion);
   }
 
   /**
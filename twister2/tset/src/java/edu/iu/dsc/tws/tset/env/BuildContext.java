@@ -21,6 +21,8 @@ import edu.iu.dsc.tws.api.tset.TBase;
 import edu.iu.dsc.tws.task.graph.GraphBuilder;
 import edu.iu.dsc.tws.task.impl.TaskExecutor;
 import edu.iu.dsc.tws.tset.Buildable;
+import edu.iu.dsc.tws.tset.FusionPlan;
+import edu.iu.dsc.tws.tset.links.BuildableTLink;
 import edu.iu.dsc.tws.tset.sets.BuildableTSet;
 
 /**
@@ -48,6 +50,11 @@ public class BuildContext {
    */
   private OperationMode operationMode;
 
+  /**
+   * TSets fused in to the tasks of other TSets
+   */
+  private FusionPlan fusionPlan;
+
   /**
    * Compute graph based on the build order
    */
@@ -65,10 +72,16 @@ public class BuildContext {
 
   public BuildContext(String bId, Set<BuildableTSet> roots, Set<TBase> buildSeq,
                       OperationMode opMode) {
+    this(bId, roots, buildSeq, opMode, FusionPlan.NONE);
+  }
+
+  public BuildContext(String bId, Set<BuildableTSet> roots, Set<TBase> buildSeq,
+                      OperationMode opMode, FusionPlan fusion) {
     this.buildId = bId;
     this.rootTBases = roots;
     this.buildSequence = buildSeq;
     this.operationMode = opMode;
+    this.fusionPlan = fusion;
   }
 
   public ComputeGraph getComputeGraph() {
@@ -97,24 +110,17 @@ public class BuildContext {
     return buildSequence;
   }
 
+  public FusionPlan getFusionPlan() {
+    return fusionPlan;
+  }
+
   public IExecutor getExecutor() {
     return executor;
   }
 
   public boolean build(TaskExecutor taskExecutor) {
     if (computeGraph == null || executionPlan == null) {
-      GraphBuilder graphBuilder = GraphBuilder.newBuilder();
-      graphBuilder.operationMode(operationMode);
-
-      // building the individual TBases
-      for (TBase node : buildSequence) {
-        // here, build seq is required for tlinks to filter out nodes that are relevant to this
-        // particular build sequence
-        ((Buildable) node).build(graphBuilder, buildSequence);
-      }
-
-      computeGraph = graphBuilder.build();
-      computeGraph.setGraphName(buildId);
+      computeGraph = buildComputeGraph();
 
       executionPlan = taskExecutor.plan(computeGraph);
 
@@ -126,4 +132,42 @@ public class BuildContext {
     // BuildContext has already been built. Exiting!
     return false;
   }
+
+  /**
+   * Build the compute graph of the build sequence, the TSets fused by the fusion plan are built
+   * in to the tasks of the heads of their chains
+   *
+   * @return the compute graph
+   */
+  public ComputeGraph buildComputeGraph() {
+    GraphBuilder graphBuilder = GraphBuilder.newBuilder();
+    graphBuilder.operationMode(operationMode);
+
+    // building the tasks first, the task of a fused chain is built when its head is found,
+    // which can be after the links going out of the chain
+    for (TBase node : buildSequence) {
+      if (node instanceof BuildableTLink || fusionPlan.isFused(node)) {
+        continue;
+      }
+
+      if (fusionPlan.isChainHead(node)) {
+        fusionPlan.buildChain(graphBuilder, (BuildableTSet) node);
+      } else {
+        ((Buildable) node).build(graphBuilder, buildSequence);
+      }
+    }
+
+    // building the edges
+    for (TBase node : buildSequence) {
+      if (node instanceof BuildableTLink && !fusionPlan.isFused(node)) {
+        // here, build seq is required for tlinks to filter out nodes that are relevant to this
+        // particular build sequence
+        ((BuildableTLink) node).build(graphBuilder, buildSequence, fusionPlan);
+      }
+    }
+
+    ComputeGraph graph = graphBuilder.build();
+    graph.setGraphName(buildId);
+    return graph;
+  }
 }
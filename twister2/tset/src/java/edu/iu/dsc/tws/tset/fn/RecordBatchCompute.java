@@ -0,0 +1,70 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn;
+
+import java.io.Serializable;
+import java.util.Iterator;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+
+/**
+ * Groups records in to {@link RecordBatch}es of a fixed number of rows. The following TSets
+ * should use {@link edu.iu.dsc.tws.api.tset.schema.PrimitiveSchemas#RECORD_BATCH} so the
+ * batches are sent column by column.
+ *
+ * @param <T> record type
+ */
+public class RecordBatchCompute<T> implements ComputeCollectorFunc<RecordBatch, Iterator<T>> {
+
+  /**
+   * Writes the values of a record in to a row of a batch
+   *
+   * @param <T> record type
+   */
+  public interface RowWriter<T> extends Serializable {
+    void write(T record, RecordBatch batch, int row);
+  }
+
+  private RecordBatch.ColumnType[] types;
+
+  private int batchSize;
+
+  private RowWriter<T> rowWriter;
+
+  public RecordBatchCompute() {
+    //no args constructor for kryo
+  }
+
+  public RecordBatchCompute(RecordBatch.ColumnType[] types, int batchSize,
+                            RowWriter<T> rowWriter) {
+    this.types = types;
+    this.batchSize = batchSize;
+    this.rowWriter = rowWriter;
+  }
+
+  @Override
+  public void compute(Iterator<T> input, RecordCollector<RecordBatch> output) {
+    RecordBatch batch = new RecordBatch(types, batchSize);
+    while (input.hasNext()) {
+      rowWriter.write(input.next(), batch, batch.addRow());
+      if (batch.isFull()) {
+        output.collect(batch);
+        batch = new RecordBatch(types, batchSize);
+      }
+    }
+    if (batch.getSize() > 0) {
+      output.collect(batch);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn;
+
+import java.io.Serializable;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.tset.fn.MapFunc;
+
+/**
+ * Keeps the rows of a {@link RecordBatch} selected by a predicate working on whole columns
+ */
+public class RecordBatchFilter implements MapFunc<RecordBatch, RecordBatch> {
+
+  /**
+   * Selects the rows of a batch
+   */
+  public interface BatchPredicate extends Serializable {
+    /**
+     * Set the selection of the first {@link RecordBatch#getSize()} rows
+     *
+     * @param batch the batch
+     * @param selection set to true for the rows to keep
+     */
+    void select(RecordBatch batch, boolean[] selection);
+  }
+
+  private BatchPredicate predicate;
+
+  private transient boolean[] selection;
+
+  public RecordBatchFilter() {
+    //no args constructor for kryo
+  }
+
+  public RecordBatchFilter(BatchPredicate predicate) {
+    this.predicate = predicate;
+  }
+
+  @Override
+  public RecordBatch map(RecordBatch input) {
+    if (selection == null || selection.length < input.getSize()) {
+      selection = new boolean[input.getSize()];
+    }
+    predicate.select(input, selection);
+    return input.select(selection);
+  }
+}
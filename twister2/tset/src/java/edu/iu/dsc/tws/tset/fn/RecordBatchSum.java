@@ -0,0 +1,86 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn;
+
+import java.util.Arrays;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
+
+/**
+ * Reduces {@link RecordBatch}es to a batch with a single row holding the sum of each column
+ */
+public class RecordBatchSum implements ReduceFunc<RecordBatch> {
+
+  @Override
+  public RecordBatch reduce(RecordBatch t1, RecordBatch t2) {
+    if (!Arrays.equals(t1.getTypes(), t2.getTypes())) {
+      throw new IllegalArgumentException("Record batches should have the same columns: "
+          + t1 + " and " + t2);
+    }
+
+    RecordBatch sum = new RecordBatch(t1.getTypes(), 1);
+    sum.addRow();
+    for (int c = 0; c < t1.getColumnCount(); c++) {
+      switch (t1.getType(c)) {
+        case INT:
+          sum.getIntColumn(c)[0] = sum(t1.getIntColumn(c), t1.getSize())
+              + sum(t2.getIntColumn(c), t2.getSize());
+          break;
+        case LONG:
+          sum.getLongColumn(c)[0] = sum(t1.getLongColumn(c), t1.getSize())
+              + sum(t2.getLongColumn(c), t2.getSize());
+          break;
+        case FLOAT:
+          sum.getFloatColumn(c)[0] = sum(t1.getFloatColumn(c), t1.getSize())
+              + sum(t2.getFloatColumn(c), t2.getSize());
+          break;
+        default:
+          sum.getDoubleColumn(c)[0] = sum(t1.getDoubleColumn(c), t1.getSize())
+              + sum(t2.getDoubleColumn(c), t2.getSize());
+      }
+    }
+    return sum;
+  }
+
+  private static int sum(int[] values, int size) {
+    int sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  private static long sum(long[] values, int size) {
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  private static float sum(float[] values, int size) {
+    float sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  private static double sum(double[] values, int size) {
+    double sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+}
@@ -155,6 +155,10 @@ public class DAGMutableGraph<T extends TBase> implements MutableGraph<T> {
     while (!stack.isEmpty()) {
       String current = stack.pop();
       Set<String> childs = childList.get(current);
+      if (childs == null) {
+        // the target is not yet in the graph
+        continue;
+      }
       if (childs.contains(origin.getId())) {
         return true;
       }
@@ -20,6 +20,7 @@ import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.tset.TBase;
 import edu.iu.dsc.tws.task.graph.GraphBuilder;
 import edu.iu.dsc.tws.tset.Buildable;
+import edu.iu.dsc.tws.tset.FusionPlan;
 
 public interface BuildableTLink extends TBase, Buildable {
 
@@ -27,6 +28,18 @@ public interface BuildableTLink extends TBase, Buildable {
 
   @Override
   default void build(GraphBuilder graphBuilder, Collection<? extends TBase> buildSequence) {
+    build(graphBuilder, buildSequence, FusionPlan.NONE);
+  }
+
+  /**
+   * Builds the edges, connecting the tasks the adjacent TSets are built in to
+   *
+   * @param graphBuilder  Dataflow graph builder
+   * @param buildSequence build sequence
+   * @param fusion        TSets fused in to the tasks of other TSets
+   */
+  default void build(GraphBuilder graphBuilder, Collection<? extends TBase> buildSequence,
+                     FusionPlan fusion) {
 
     // filter out the relevant sources out of the predecessors
     HashSet<TBase> relevantSources = new HashSet<>(getTBaseGraph().getPredecessors(this));
@@ -38,8 +51,8 @@ public interface BuildableTLink extends TBase, Buildable {
 
     for (TBase source : relevantSources) {
       for (TBase target : relevantTargets) {
-        String s = source.getId();
-        String t = target.getId();
+        String s = fusion.vertexId(source);
+        String t = fusion.vertexId(target);
 
         Edge edge = getEdge();
         edge.setName(edge.getName() + "_" + s + "_" + t);
@@ -52,4 +52,8 @@ public class DirectTLink<T> extends BatchIteratorLinkWrapper<T> {
     this.useDisk = true;
     return this;
   }
+
+  public boolean isUseDisk() {
+    return useDisk;
+  }
 }
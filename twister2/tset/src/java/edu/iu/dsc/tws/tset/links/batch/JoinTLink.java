@@ -27,6 +27,7 @@ import edu.iu.dsc.tws.api.tset.TBase;
 import edu.iu.dsc.tws.api.tset.schema.JoinSchema;
 import edu.iu.dsc.tws.api.tset.sets.TupleTSet;
 import edu.iu.dsc.tws.task.graph.GraphBuilder;
+import edu.iu.dsc.tws.tset.FusionPlan;
 import edu.iu.dsc.tws.tset.env.BatchTSetEnvironment;
 import edu.iu.dsc.tws.tset.fn.HashingPartitioner;
 import edu.iu.dsc.tws.tset.sets.BuildableTSet;
@@ -84,9 +85,11 @@ public class JoinTLink<K, VL, VR> extends BatchIteratorLinkWrapper<JoinedTuple<K
    *
    * @param graphBuilder  graph builder
    * @param buildSequence build seq
+   * @param fusion        fused TSets
    */
   @Override
-  public void build(GraphBuilder graphBuilder, Collection<? extends TBase> buildSequence) {
+  public void build(GraphBuilder graphBuilder, Collection<? extends TBase> buildSequence,
+                    FusionPlan fusion) {
 
     // filter out the relevant sources out of the predecessors
     ArrayList<TBase> sources = new ArrayList<>(getTBaseGraph().getPredecessors(this));
@@ -111,15 +114,15 @@ public class JoinTLink<K, VL, VR> extends BatchIteratorLinkWrapper<JoinedTuple<K
           + target.getId();
 
       // build left
-      buildJoin(graphBuilder, leftTSet, target, 0, groupName, kType, dTypeL);
+      buildJoin(graphBuilder, leftTSet, target, 0, groupName, kType, dTypeL, fusion);
 
       // build right
-      buildJoin(graphBuilder, rightTSet, target, 1, groupName, kType, dTypeR);
+      buildJoin(graphBuilder, rightTSet, target, 1, groupName, kType, dTypeR, fusion);
     }
   }
 
   private void buildJoin(GraphBuilder graphBuilder, TBase s, TBase t, int idx, String groupName,
-                         MessageType kType, MessageType dType) {
+                         MessageType kType, MessageType dType, FusionPlan fusion) {
     Edge e = new Edge(getId(), OperationNames.JOIN, dType);
     // override edge name with join_source_target
     e.setName(e.getName() + "_" + s.getId() + "_" + t.getId());
@@ -135,7 +138,7 @@ public class JoinTLink<K, VL, VR> extends BatchIteratorLinkWrapper<JoinedTuple<K
     e.addProperty(CommunicationContext.USE_DISK, useDisk);
     e.setKeyType(kType);
 
-    graphBuilder.connect(s.getId(), t.getId(), e);
+    graphBuilder.connect(fusion.vertexId(s), fusion.vertexId(t), e);
   }
 
   public JoinTLink<K, VL, VR> useHashAlgorithm() {
@@ -13,6 +13,7 @@
 
 package edu.iu.dsc.tws.tset.links.streaming;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.compute.OperationNames;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
@@ -27,6 +28,13 @@ import edu.iu.dsc.tws.tset.env.StreamingTSetEnvironment;
 public class SAllReduceTLink<T> extends StreamingSingleLink<T> {
   private ReduceFunc<T> reduceFn;
 
+  /**
+   * The allreduce algorithm, if null the configured algorithm is used
+   */
+  private String algorithm;
+
+  private boolean elementWise;
+
   public SAllReduceTLink(StreamingTSetEnvironment tSetEnv, ReduceFunc<T> rFn, int sourceParallelism,
                          Schema schema) {
     super(tSetEnv, "sallreduce", sourceParallelism, schema);
@@ -35,7 +43,15 @@ public class SAllReduceTLink<T> extends StreamingSingleLink<T> {
 
   @Override
   public Edge getEdge() {
-    return new Edge(getId(), OperationNames.ALLREDUCE, this.getSchema().getDataType(), reduceFn);
+    Edge e = new Edge(getId(), OperationNames.ALLREDUCE, this.getSchema().getDataType(),
+        reduceFn);
+    if (algorithm != null) {
+      e.addProperty(CommunicationContext.ALLREDUCE_ALGO_KEY, algorithm);
+    }
+    if (elementWise) {
+      e.addProperty(CommunicationContext.ALLREDUCE_ELEMENT_WISE, true);
+    }
+    return e;
   }
 
   @Override
@@ -43,4 +59,34 @@ public class SAllReduceTLink<T> extends StreamingSingleLink<T> {
     rename(n);
     return this;
   }
+
+  /**
+   * Reduce with a chunked ring reduce-scatter and allgather between the workers. The reduce
+   * function should reduce two arrays element by element.
+   */
+  public SAllReduceTLink<T> useRingAlgorithm() {
+    this.algorithm = CommunicationContext.ALLREDUCE_ALGO_RING;
+    this.elementWise = true;
+    return this;
+  }
+
+  /**
+   * Reduce by exchanging the values between the workers with recursive doubling
+   */
+  public SAllReduceTLink<T> useRecursiveDoubling() {
+    this.algorithm = CommunicationContext.ALLREDUCE_ALGO_DOUBLING;
+    return this;
+  }
+
+  /**
+   * Pick between recursive doubling and the ring using the size of the values
+   *
+   * @param elementWiseFn true if the reduce function reduces arrays element by element, the
+   * ring is only used if this is true
+   */
+  public SAllReduceTLink<T> useAutoAlgorithm(boolean elementWiseFn) {
+    this.algorithm = CommunicationContext.ALLREDUCE_ALGO_AUTO;
+    this.elementWise = elementWiseFn;
+    return this;
+  }
 }
@@ -39,7 +39,7 @@ public abstract class BaseComputeOp<I> extends BaseOp implements ICompute<I> {
     gettSetContext().updateRuntimeInfo(cfg, ctx);
     this.getFunction().prepare(gettSetContext());
 
-    this.multiEdgeOpAdapter = new MultiEdgeOpAdapter(ctx);
+    this.multiEdgeOpAdapter = createEdgeAdapter(cfg, ctx);
   }
 
   public abstract TFunction getFunction();
@@ -14,10 +14,13 @@ package edu.iu.dsc.tws.tset.ops;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import edu.iu.dsc.tws.api.compute.TaskContext;
 import edu.iu.dsc.tws.api.compute.modifiers.IONames;
 import edu.iu.dsc.tws.api.compute.modifiers.Receptor;
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.dataset.DataPartition;
 import edu.iu.dsc.tws.api.tset.TSetContext;
 import edu.iu.dsc.tws.tset.sets.BaseTSet;
@@ -34,6 +37,9 @@ public abstract class BaseOp implements Receptor, Serializable {
   // map (TSetID --> input Name)
   private Map<String, String> rcvTSets;
 
+  // tsets fused in to the task of this op
+  private List<ChainedStage> chainedStages;
+
   BaseOp() {
   }
 
@@ -67,4 +73,21 @@ public abstract class BaseOp implements Receptor, Serializable {
   TSetContext gettSetContext() {
     return tSetContext;
   }
+
+  /**
+   * Fuse the given stages in to the task of this op. The records written by this op are passed
+   * through them before they are written to the out edges
+   *
+   * @param stages stages in the order of the chain
+   */
+  public void chain(List<ChainedStage> stages) {
+    this.chainedStages = stages;
+  }
+
+  MultiEdgeOpAdapter createEdgeAdapter(Config cfg, TaskContext ctx) {
+    if (chainedStages == null || chainedStages.isEmpty()) {
+      return new MultiEdgeOpAdapter(ctx);
+    }
+    return new ChainedEdgeAdapter(cfg, ctx, chainedStages);
+  }
 }
@@ -0,0 +1,82 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops;
+
+import java.util.List;
+
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+
+/**
+ * Passes the records written by an op through the {@link ChainedStage}s fused in to its task
+ * before writing them to the out edges. The stages run in the same thread, so a record is not
+ * queued or serialized between them.
+ */
+public class ChainedEdgeAdapter extends MultiEdgeOpAdapter {
+  private final List<ChainedStage> stages;
+
+  /**
+   * Collector feeding the stage at the same index, the last one writes to the edges
+   */
+  private final StageCollector[] collectors;
+
+  public ChainedEdgeAdapter(Config cfg, TaskContext taskContext, List<ChainedStage> stages) {
+    super(taskContext);
+    this.stages = stages;
+    this.collectors = new StageCollector[stages.size() + 1];
+    for (int i = 0; i < collectors.length; i++) {
+      collectors[i] = new StageCollector(i);
+    }
+
+    for (ChainedStage stage : stages) {
+      stage.prepare(cfg, taskContext);
+    }
+  }
+
+  @Override
+  public <T> void writeToEdges(T output) {
+    collectors[0].collect(output);
+  }
+
+  @Override
+  public boolean writeEndToEdges() {
+    boolean ended = super.writeEndToEdges();
+    if (ended) {
+      for (ChainedStage stage : stages) {
+        stage.close();
+      }
+    }
+    return ended;
+  }
+
+  private class StageCollector implements RecordCollector<Object> {
+    private final int index;
+
+    StageCollector(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void collect(Object record) {
+      if (index < stages.size()) {
+        stages.get(index).process(record, collectors[index + 1]);
+      } else {
+        ChainedEdgeAdapter.super.writeToEdges(record);
+      }
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
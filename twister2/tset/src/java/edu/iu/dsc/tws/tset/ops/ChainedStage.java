@@ -0,0 +1,109 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.TSetContext;
+import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
+import edu.iu.dsc.tws.api.tset.fn.ComputeFunc;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.tset.sets.BaseTSet;
+
+/**
+ * A TSet fused in to the task of a preceding TSet. The function of the TSet consumes an iterator
+ * but works on one record at a time (map, flatmap, foreach), so it is called with each record
+ * written by the preceding TSet instead of an iterator over the whole partition.
+ */
+public class ChainedStage implements Serializable {
+
+  private TFunction function;
+
+  private TSetContext tSetContext = new TSetContext();
+
+  private transient RecordIterator input;
+
+  public ChainedStage() {
+    //non arg constructor for kryo
+  }
+
+  public ChainedStage(TFunction function, BaseTSet originTSet) {
+    if (!(function instanceof ComputeCollectorFunc || function instanceof ComputeFunc)) {
+      throw new RuntimeException("Unknown function type for a chained stage: " + function);
+    }
+    this.function = function;
+    this.tSetContext.setId(originTSet.getId());
+    this.tSetContext.setName(originTSet.getName());
+    this.tSetContext.setParallelism(originTSet.getParallelism());
+  }
+
+  void prepare(Config cfg, TaskContext ctx) {
+    tSetContext.updateRuntimeInfo(cfg, ctx);
+    function.prepare(tSetContext);
+    input = new RecordIterator();
+  }
+
+  /**
+   * Apply the function to a record
+   *
+   * @param record the record
+   * @param output collector for the results, the output of a {@link ComputeFunc} is discarded
+   */
+  @SuppressWarnings("unchecked")
+  void process(Object record, RecordCollector<Object> output) {
+    input.reset(record);
+    if (function instanceof ComputeCollectorFunc) {
+      ((ComputeCollectorFunc<Object, Iterator<Object>>) function).compute(input, output);
+    } else {
+      ((ComputeFunc<Object, Iterator<Object>>) function).compute(input);
+    }
+  }
+
+  void close() {
+    function.close();
+  }
+
+  /**
+   * Iterator over a single record, reused for every record
+   */
+  private static final class RecordIterator implements Iterator<Object> {
+    private Object record;
+
+    private boolean available;
+
+    void reset(Object r) {
+      this.record = r;
+      this.available = true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return available;
+    }
+
+    @Override
+    public Object next() {
+      if (!available) {
+        throw new NoSuchElementException();
+      }
+      available = false;
+      Object r = record;
+      record = null;
+      return r;
+    }
+  }
+}
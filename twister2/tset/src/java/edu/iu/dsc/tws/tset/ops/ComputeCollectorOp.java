@@ -16,9 +16,13 @@ package edu.iu.dsc.tws.tset.ops;
 import java.util.Map;
 
 import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.compute.modifiers.WatermarkReceptor;
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
 import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
 import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.api.tset.fn.WatermarkFunc;
 import edu.iu.dsc.tws.tset.sets.BaseTSet;
 
 /**
@@ -27,10 +31,15 @@ import edu.iu.dsc.tws.tset.sets.BaseTSet;
  * @param <O> Collector type
  * @param <I> Input message content type
  */
-public class ComputeCollectorOp<O, I> extends BaseComputeOp<I> {
+public class ComputeCollectorOp<O, I> extends BaseComputeOp<I> implements WatermarkReceptor {
 
   private ComputeCollectorFunc<O, I> computeFunction;
 
+  /**
+   * Collects the records produced by the function, for the messages and the watermarks
+   */
+  private transient RecordCollector<O> collector;
+
   public ComputeCollectorOp() {
   }
 
@@ -41,8 +50,9 @@ public class ComputeCollectorOp<O, I> extends BaseComputeOp<I> {
   }
 
   @Override
-  public boolean execute(IMessage<I> content) {
-    computeFunction.compute(content.getContent(), new RecordCollector<O>() {
+  public void prepare(Config cfg, TaskContext ctx) {
+    super.prepare(cfg, ctx);
+    this.collector = new RecordCollector<O>() {
       @Override
       public void collect(O record) {
         writeToEdges(record);
@@ -51,13 +61,25 @@ public class ComputeCollectorOp<O, I> extends BaseComputeOp<I> {
       @Override
       public void close() {
       }
-    });
+    };
+  }
+
+  @Override
+  public boolean execute(IMessage<I> content) {
+    computeFunction.compute(content.getContent(), collector);
 
     writeEndToEdges();
     computeFunction.close();
     return true;
   }
 
+  @Override
+  public void onWatermark(long timestamp) {
+    if (computeFunction instanceof WatermarkFunc) {
+      ((WatermarkFunc<O>) computeFunction).onWatermark(timestamp, collector);
+    }
+  }
+
   @Override
   public TFunction getFunction() {
     return computeFunction;
@@ -49,16 +49,18 @@ public class MultiEdgeOpAdapter {
 
   /*
   When writing end to edges, we have to wait till taskInstance.execute is called from all the input
-  edges of the task. This is monitored using the inEdgeCount.
+  edges of the task. This is monitored using the inEdgeCount. Returns true if the end was written.
    */
-  public void writeEndToEdges() {
+  public boolean writeEndToEdges() {
     if (taskContext.getOperationMode() == OperationMode.STREAMING) {
-      return;
+      return false;
     }
 
     if (--inEdgeCount == 0) {
       outEdgeWriter.writeEnd();
+      return true;
     }
+    return false;
   }
 
 
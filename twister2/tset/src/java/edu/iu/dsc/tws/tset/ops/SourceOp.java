@@ -37,7 +37,7 @@ public class SourceOp<T> extends BaseOp implements ISource, Closable {
   public void prepare(Config cfg, TaskContext ctx) {
     gettSetContext().updateRuntimeInfo(cfg, ctx);
     this.source.prepare(gettSetContext());
-    this.multiEdgeOpAdapter = new MultiEdgeOpAdapter(ctx);
+    this.multiEdgeOpAdapter = createEdgeAdapter(cfg, ctx);
   }
 
   @Override
@@ -45,6 +45,11 @@ public abstract class BaseTSet<T> implements BuildableTSet {
    */
   private boolean isMutable = false;
 
+  /**
+   * Defines if the TSet can be fused with the neighbouring TSets in to a single task
+   */
+  private boolean chainingEnabled = true;
+
   /**
    * Possible Types of state in a TSet
    */
@@ -124,6 +129,14 @@ public abstract class BaseTSet<T> implements BuildableTSet {
     isMutable = mutable;
   }
 
+  public boolean isChainingEnabled() {
+    return chainingEnabled;
+  }
+
+  public void setChainingEnabled(boolean chaining) {
+    this.chainingEnabled = chaining;
+  }
+
   public StateType getStateType() {
     return stateType;
   }
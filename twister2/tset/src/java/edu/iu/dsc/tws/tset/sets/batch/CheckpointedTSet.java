@@ -13,6 +13,7 @@ package edu.iu.dsc.tws.tset.sets.batch;
 
 import edu.iu.dsc.tws.api.compute.nodes.INode;
 import edu.iu.dsc.tws.api.tset.schema.Schema;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
 import edu.iu.dsc.tws.tset.env.BatchTSetEnvironment;
 import edu.iu.dsc.tws.tset.ops.CheckpointedSourceOp;
 import edu.iu.dsc.tws.tset.sources.DiskPartitionBackedSource;
@@ -46,6 +47,11 @@ public class CheckpointedTSet<T> extends PersistedTSet<T> {
     return storedSource;
   }
 
+  @Override
+  public SourceTSet<T> scan(ColumnarScan scan) {
+    return getTSetEnv().createSource(sourceFunc.withScan(scan), getParallelism());
+  }
+
   @Override
   public CheckpointedTSet<T> withSchema(Schema schema) {
     return (CheckpointedTSet<T>) super.withSchema(schema);
@@ -58,6 +58,17 @@ public class ComputeTSet<O, I> extends BatchTSetImpl<O> {
     return this;
   }
 
+  /**
+   * Keeps this TSet in its own task. By default a map, flatmap or foreach over a direct link is
+   * fused in to the task of the preceding TSet.
+   *
+   * @return this TSet
+   */
+  public ComputeTSet<O, I> disableChaining() {
+    setChainingEnabled(false);
+    return this;
+  }
+
   @Override
   public ComputeTSet<O, I> addInput(String key, StorableTBase<?> input) {
     return (ComputeTSet<O, I>) super.addInput(key, input);
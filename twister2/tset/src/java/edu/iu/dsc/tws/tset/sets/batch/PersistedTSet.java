@@ -14,7 +14,9 @@ package edu.iu.dsc.tws.tset.sets.batch;
 import edu.iu.dsc.tws.api.tset.fn.SinkFunc;
 import edu.iu.dsc.tws.api.tset.schema.Schema;
 import edu.iu.dsc.tws.api.tset.sets.StorableTBase;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
 import edu.iu.dsc.tws.tset.env.BatchTSetEnvironment;
+import edu.iu.dsc.tws.tset.sources.DataPartitionSourceFunc;
 
 public class PersistedTSet<T> extends StoredTSet<T> {
 
@@ -23,6 +25,21 @@ public class PersistedTSet<T> extends StoredTSet<T> {
     super(tSetEnv, "persisted", sinkFunc, parallelism, inputSchema);
   }
 
+  /**
+   * A source reading only the given columns and rows of the persisted record batches. The
+   * blocks of the columnar files that can't match the scan are skipped without reading them.
+   * Frames that are not record batches are returned as they are.
+   *
+   * @param scan the columns and rows to read
+   * @return the source tset
+   */
+  public SourceTSet<T> scan(ColumnarScan scan) {
+    SourceTSet<T> source = getTSetEnv().createSource("scan(" + getId() + ")",
+        new DataPartitionSourceFunc<>(getStoredSourcePrefix(), scan), getParallelism());
+    source.addInput(getStoredSourcePrefix(), this);
+    return source;
+  }
+
   @Override
   public PersistedTSet<T> persist() {
     return this;
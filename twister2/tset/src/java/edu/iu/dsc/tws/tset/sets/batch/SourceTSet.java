@@ -60,6 +60,17 @@ public class SourceTSet<T> extends BatchTSetImpl<T> {
     return this;
   }
 
+  /**
+   * Keeps the following TSets in their own tasks, instead of fusing them in to the task of this
+   * source
+   *
+   * @return this TSet
+   */
+  public SourceTSet<T> disableChaining() {
+    setChainingEnabled(false);
+    return this;
+  }
+
   @Override
   public SourceTSet<T> withSchema(Schema schema) {
     return (SourceTSet<T>) super.withSchema(schema);
@@ -148,6 +148,13 @@ public abstract class StoredTSet<T> extends BatchTSetImpl<T> implements Storable
     return this.storedSource;
   }
 
+  /**
+   * The key of the stored data in the inputs of the sources reading it
+   */
+  protected String getStoredSourcePrefix() {
+    return storedSourcePrefix;
+  }
+
   @Override
   public List<T> getData() {
     List<T> results = new ArrayList<>();
@@ -15,6 +15,8 @@ import edu.iu.dsc.tws.api.dataset.DataPartition;
 import edu.iu.dsc.tws.api.dataset.DataPartitionConsumer;
 import edu.iu.dsc.tws.api.tset.TSetContext;
 import edu.iu.dsc.tws.api.tset.fn.BaseSourceFunc;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
+import edu.iu.dsc.tws.dataset.partition.BufferedCollectionPartition;
 
 public class DataPartitionSourceFunc<T> extends BaseSourceFunc<T> {
 //  private static final Logger LOG = Logger.getLogger(CacheSource.class.getName());
@@ -22,8 +24,18 @@ public class DataPartitionSourceFunc<T> extends BaseSourceFunc<T> {
   private String storedKey;
   private transient DataPartitionConsumer<T> currentConsumer;
 
+  /**
+   * Columns and rows to read from the persisted record batches, null to read everything
+   */
+  private ColumnarScan scan;
+
   public DataPartitionSourceFunc(String storedDataKey) {
+    this(storedDataKey, null);
+  }
+
+  public DataPartitionSourceFunc(String storedDataKey, ColumnarScan scan) {
     this.storedKey = storedDataKey;
+    this.scan = scan;
   }
 
   @Override
@@ -41,6 +53,13 @@ public class DataPartitionSourceFunc<T> extends BaseSourceFunc<T> {
     super.prepare(ctx);
     // retrieve the partition from the context
     DataPartition<T> data = (DataPartition<T>) getInput(storedKey);
-    this.currentConsumer = data.getConsumer();
+    if (scan == null) {
+      this.currentConsumer = data.getConsumer();
+    } else if (data instanceof BufferedCollectionPartition) {
+      this.currentConsumer = ((BufferedCollectionPartition<T>) data).getConsumer(scan);
+    } else {
+      throw new RuntimeException("A columnar scan can only read a persisted partition, "
+          + "but " + storedKey + " is a " + data.getClass().getSimpleName());
+    }
   }
 }
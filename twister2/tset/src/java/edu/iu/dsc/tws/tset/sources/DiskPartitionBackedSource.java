@@ -15,6 +15,7 @@ import edu.iu.dsc.tws.api.dataset.DataPartition;
 import edu.iu.dsc.tws.api.dataset.DataPartitionConsumer;
 import edu.iu.dsc.tws.api.tset.TSetContext;
 import edu.iu.dsc.tws.api.tset.fn.BaseSourceFunc;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
 import edu.iu.dsc.tws.dataset.partition.DiskBackedCollectionPartition;
 
 public class DiskPartitionBackedSource<T> extends BaseSourceFunc<T> {
@@ -24,8 +25,35 @@ public class DiskPartitionBackedSource<T> extends BaseSourceFunc<T> {
 
   private DiskBackedCollectionPartition<T> diskPartition;
 
+  /**
+   * Columns and rows to read from the persisted record batches, null to read everything
+   */
+  private ColumnarScan scan;
+
   public DiskPartitionBackedSource(String referencePrefix) {
+    this(referencePrefix, null);
+  }
+
+  /**
+   * Create a source reading only the columns and rows of the scan from the persisted record
+   * batches
+   *
+   * @param referencePrefix prefix of the references of the partitions
+   * @param scan the columns and rows to read, null to read everything
+   */
+  public DiskPartitionBackedSource(String referencePrefix, ColumnarScan scan) {
     this.referencePrefix = referencePrefix;
+    this.scan = scan;
+  }
+
+  /**
+   * A source reading the same partitions with the given scan
+   *
+   * @param columnarScan the columns and rows to read
+   * @return the new source
+   */
+  public DiskPartitionBackedSource<T> withScan(ColumnarScan columnarScan) {
+    return new DiskPartitionBackedSource<>(this.referencePrefix, columnarScan);
   }
 
   @Override
@@ -45,7 +73,7 @@ public class DiskPartitionBackedSource<T> extends BaseSourceFunc<T> {
 //    String reference = ctx.getId() + ctx.getIndex();
     this.diskPartition = new DiskBackedCollectionPartition<>(0, ctx.getConfig(),
         reference);
-    this.consumer = diskPartition.getConsumer();
+    this.consumer = diskPartition.getConsumer(scan);
   }
 
   /**
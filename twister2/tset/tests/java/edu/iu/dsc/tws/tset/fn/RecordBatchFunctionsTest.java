@@ -0,0 +1,170 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.tset.fn.RecordCollector;
+
+public class RecordBatchFunctionsTest {
+
+  private static final RecordBatch.ColumnType[] TYPES = {
+      RecordBatch.ColumnType.INT, RecordBatch.ColumnType.LONG,
+      RecordBatch.ColumnType.FLOAT, RecordBatch.ColumnType.DOUBLE};
+
+  private static RecordBatch batch(int... values) {
+    RecordBatch batch = new RecordBatch(TYPES, values.length + 2);
+    for (int value : values) {
+      int row = batch.addRow();
+      batch.getIntColumn(0)[row] = value;
+      batch.getLongColumn(1)[row] = value * 10L;
+      batch.getFloatColumn(2)[row] = value / 2f;
+      batch.getDoubleColumn(3)[row] = value / 4d;
+    }
+    return batch;
+  }
+
+  private static void assertRows(RecordBatch batch, int... values) {
+    Assert.assertEquals(values.length, batch.getSize());
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(values[i], batch.getIntColumn(0)[i]);
+      Assert.assertEquals(values[i] * 10L, batch.getLongColumn(1)[i]);
+      Assert.assertEquals(values[i] / 2f, batch.getFloatColumn(2)[i], 0);
+      Assert.assertEquals(values[i] / 4d, batch.getDoubleColumn(3)[i], 0);
+    }
+  }
+
+  @Test
+  public void testSelect() {
+    RecordBatch batch = batch(1, 2, 3, 4, 5);
+    RecordBatch selected = batch.select(
+        new boolean[]{true, false, false, true, true, true, true});
+    assertRows(selected, 1, 4, 5);
+    Assert.assertArrayEquals(TYPES, selected.getTypes());
+    // the original batch is not changed
+    assertRows(batch, 1, 2, 3, 4, 5);
+
+    assertRows(batch.select(new boolean[5]));
+    assertRows(batch().select(new boolean[0]));
+  }
+
+  @Test
+  public void testFilter() {
+    RecordBatchFilter filter = new RecordBatchFilter((b, selection) -> {
+      int[] values = b.getIntColumn(0);
+      for (int i = 0; i < b.getSize(); i++) {
+        selection[i] = values[i] % 2 == 0;
+      }
+    });
+    assertRows(filter.map(batch(1, 2, 3, 4, 5, 6)), 2, 4, 6);
+    // a larger batch than the previous one needs a larger selection
+    assertRows(filter.map(batch(8, 7, 6, 5, 4, 3, 2, 1, 0)), 8, 6, 4, 2, 0);
+    // values left in the selection from the previous batch are not used
+    assertRows(filter.map(batch(1, 3)));
+    assertRows(filter.map(batch()));
+  }
+
+  @Test
+  public void testSum() {
+    RecordBatchSum sum = new RecordBatchSum();
+    RecordBatch result = sum.reduce(batch(1, 2, 3), batch(4, 5));
+    Assert.assertEquals(1, result.getSize());
+    Assert.assertEquals(15, result.getIntColumn(0)[0]);
+    Assert.assertEquals(150L, result.getLongColumn(1)[0]);
+    Assert.assertEquals(7.5f, result.getFloatColumn(2)[0], 0);
+    Assert.assertEquals(3.75, result.getDoubleColumn(3)[0], 0);
+
+    // values beyond the size of a batch are not added
+    RecordBatch cleared = batch(100, 200);
+    cleared.setSize(1);
+    result = sum.reduce(result, cleared);
+    Assert.assertEquals(115, result.getIntColumn(0)[0]);
+    Assert.assertEquals(1150L, result.getLongColumn(1)[0]);
+  }
+
+  @Test
+  public void testSumEmpty() {
+    RecordBatchSum sum = new RecordBatchSum();
+    RecordBatch result = sum.reduce(batch(), batch());
+    Assert.assertEquals(1, result.getSize());
+    Assert.assertEquals(0, result.getIntColumn(0)[0]);
+    Assert.assertEquals(0L, result.getLongColumn(1)[0]);
+    Assert.assertEquals(0f, result.getFloatColumn(2)[0], 0);
+    Assert.assertEquals(0d, result.getDoubleColumn(3)[0], 0);
+
+    result = sum.reduce(batch(), batch(3, 4));
+    Assert.assertEquals(7, result.getIntColumn(0)[0]);
+    Assert.assertEquals(70L, result.getLongColumn(1)[0]);
+  }
+
+  @Test
+  public void testSumDifferentColumns() {
+    RecordBatch other = new RecordBatch(new RecordBatch.ColumnType[]{
+        RecordBatch.ColumnType.INT, RecordBatch.ColumnType.INT,
+        RecordBatch.ColumnType.FLOAT, RecordBatch.ColumnType.DOUBLE}, 1);
+    try {
+      new RecordBatchSum().reduce(batch(1), other);
+      Assert.fail("Batches with different columns should not be added");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testCompute() {
+    List<RecordBatch> batches = compute(Arrays.asList(1, 2, 3, 4, 5), 2);
+    Assert.assertEquals(3, batches.size());
+    assertRows(batches.get(0), 1, 2);
+    assertRows(batches.get(1), 3, 4);
+    assertRows(batches.get(2), 5);
+
+    // a full last batch is sent once, without an empty batch after it
+    batches = compute(Arrays.asList(1, 2, 3, 4), 2);
+    Assert.assertEquals(2, batches.size());
+    assertRows(batches.get(0), 1, 2);
+    assertRows(batches.get(1), 3, 4);
+  }
+
+  @Test
+  public void testComputeEmpty() {
+    Assert.assertTrue(compute(Collections.emptyList(), 2).isEmpty());
+  }
+
+  private static List<RecordBatch> compute(List<Integer> records, int batchSize) {
+    RecordBatchCompute<Integer> compute = new RecordBatchCompute<>(TYPES, batchSize,
+        (value, b, row) -> {
+          b.getIntColumn(0)[row] = value;
+          b.getLongColumn(1)[row] = value * 10L;
+          b.getFloatColumn(2)[row] = value / 2f;
+          b.getDoubleColumn(3)[row] = value / 4d;
+        });
+    List<RecordBatch> batches = new ArrayList<>();
+    compute.compute(records.iterator(), new RecordCollector<RecordBatch>() {
+      @Override
+      public void collect(RecordBatch record) {
+        batches.add(record);
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    return batches;
+  }
+}
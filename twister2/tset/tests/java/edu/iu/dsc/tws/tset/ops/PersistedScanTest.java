@@ -0,0 +1,94 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.RecordBatch;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.schema.PrimitiveSchemas;
+import edu.iu.dsc.tws.data.columnar.ColumnPredicate;
+import edu.iu.dsc.tws.data.columnar.ColumnarScan;
+import edu.iu.dsc.tws.dataset.partition.BufferedCollectionPartition;
+import edu.iu.dsc.tws.dataset.partition.DiskBackedCollectionPartition;
+import edu.iu.dsc.tws.tset.env.BatchTSetEnvironment;
+import edu.iu.dsc.tws.tset.sets.batch.PersistedTSet;
+import edu.iu.dsc.tws.tset.sets.batch.SourceTSet;
+
+public class PersistedScanTest {
+
+  private static final RecordBatch.ColumnType[] TYPES = {RecordBatch.ColumnType.INT,
+      RecordBatch.ColumnType.LONG};
+
+  private static final int ROWS = 1000;
+
+  private static final int BATCHES = 20;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private RecordBatch createBatch(int block) {
+    RecordBatch batch = new RecordBatch(TYPES, ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      batch.getIntColumn(0)[i] = block * ROWS + i;
+      batch.getLongColumn(1)[i] = i % 7;
+    }
+    batch.setSize(ROWS);
+    return batch;
+  }
+
+  /**
+   * A scan of a persisted tset returns only the projected columns of the blocks matching the
+   * predicate, the data is given to the source the same way the executor gives it
+   */
+  @Test
+  public void testScanPersistedTSet() {
+    Config config = Config.newBuilder()
+        .put("twister2.data.fs.root", folder.getRoot().getAbsolutePath())
+        .build();
+    BufferedCollectionPartition<RecordBatch> partition = new DiskBackedCollectionPartition<>(
+        MessageTypes.OBJECT, 40000, config);
+    for (int b = 0; b < BATCHES; b++) {
+      partition.add(createBatch(b));
+    }
+
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    PersistedTSet<RecordBatch> persisted = new PersistedTSet<>(env, null, 1,
+        PrimitiveSchemas.NULL);
+    SourceTSet<RecordBatch> source = persisted.scan(new ColumnarScan().project(0)
+        .filter(ColumnPredicate.atLeast(0, 15L * ROWS)));
+
+    SourceOp<RecordBatch> op = (SourceOp<RecordBatch>) source.getINode();
+    Assert.assertTrue(op.getReceivableNames().contains(persisted.getId()));
+    op.add(persisted.getId(), partition);
+    op.source.prepare(op.gettSetContext());
+
+    int batches = 0;
+    while (op.source.hasNext()) {
+      RecordBatch batch = op.source.next();
+      Assert.assertEquals(1, batch.getColumnCount());
+      Assert.assertEquals(RecordBatch.ColumnType.INT, batch.getType(0));
+      Assert.assertEquals(ROWS, batch.getSize());
+      for (int i = 0; i < ROWS; i++) {
+        Assert.assertEquals((15 + batches) * ROWS + i, batch.getIntColumn(0)[i]);
+      }
+      batches++;
+    }
+    // the first 15 blocks can't match and are not returned
+    Assert.assertEquals(BATCHES - 15, batches);
+    partition.close();
+  }
+}
@@ -11,60 +11,505 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.tset.test.graph;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.graph.ComputeGraph;
+import edu.iu.dsc.tws.api.compute.graph.DirectedEdge;
+import edu.iu.dsc.tws.api.compute.graph.Edge;
+import edu.iu.dsc.tws.api.compute.graph.OperationMode;
+import edu.iu.dsc.tws.api.compute.graph.Vertex;
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
+import edu.iu.dsc.tws.api.compute.nodes.INode;
+import edu.iu.dsc.tws.api.compute.nodes.ISource;
+import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerSchedulePlan;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.TBase;
+import edu.iu.dsc.tws.api.tset.fn.SourceFunc;
+import edu.iu.dsc.tws.tset.FusionPlan;
+import edu.iu.dsc.tws.tset.env.BatchTSetEnvironment;
+import edu.iu.dsc.tws.tset.env.BuildContext;
+import edu.iu.dsc.tws.tset.fn.HashingPartitioner;
 import edu.iu.dsc.tws.tset.graph.DAGMutableGraph;
 import edu.iu.dsc.tws.tset.graph.MutableGraph;
+import edu.iu.dsc.tws.tset.sets.batch.ComputeTSet;
+import edu.iu.dsc.tws.tset.sets.batch.SourceTSet;
 
 import static org.junit.Assert.*;
 
 public class BasicGraphTests {
 
-  MutableGraph<String> graph;
+  MutableGraph<Node> graph;
+
+  private Map<Integer, Node> nodes;
 
   @Before
   public void setUp() {
+    nodes = new HashMap<>();
+  }
+
+  private Node n(int id) {
+    return nodes.computeIfAbsent(id, i -> new Node(String.valueOf(i)));
   }
 
   @Test
   public void addNode() {
     graph = new DAGMutableGraph<>();
-    graph.addNode("1");
+    graph.addNode(n(1));
     assertEquals(1, graph.nodes().size());
-    graph.addNode("2");
+    graph.addNode(n(2));
     assertEquals(2, graph.nodes().size());
-    graph.addNode("2");
+    graph.addNode(n(2));
     assertEquals(2, graph.nodes().size());
   }
 
   @Test
   public void addEdge(){
     graph = new DAGMutableGraph<>();
-    assertTrue(graph.putEdge("1","2"));
-    assertFalse(graph.putEdge("1","2"));
+    assertTrue(graph.putEdge(n(1),n(2)));
+    assertFalse(graph.putEdge(n(1),n(2)));
 
-    assertTrue(graph.successors("1").contains("2"));
-    assertTrue(graph.predecessors("2").contains("1"));
-    assertFalse(graph.successors("2").contains("1"));
-    assertFalse(graph.predecessors("1").contains("2"));
+    assertTrue(graph.successors(n(1)).contains(n(2)));
+    assertTrue(graph.predecessors(n(2)).contains(n(1)));
+    assertFalse(graph.successors(n(2)).contains(n(1)));
+    assertFalse(graph.predecessors(n(1)).contains(n(2)));
   }
 
   @Test(expected = IllegalStateException.class)
   public void checkSelfCycle(){
     graph = new DAGMutableGraph<>();
-    graph.addNode("1");
-    graph.putEdge("1","2");
-    graph.putEdge("1","1");
+    graph.addNode(n(1));
+    graph.putEdge(n(1),n(2));
+    graph.putEdge(n(1),n(1));
   }
 
   @Test(expected = IllegalStateException.class)
   public void checkCycle(){
     graph = new DAGMutableGraph<>();
-    graph.putEdge("0","2");
-    graph.putEdge("0", "1");
-    graph.putEdge("1", "3");
-    graph.putEdge("3", "4");
-    graph.putEdge("3", "1");
+    graph.putEdge(n(0),n(2));
+    graph.putEdge(n(0), n(1));
+    graph.putEdge(n(1), n(3));
+    graph.putEdge(n(3), n(4));
+    graph.putEdge(n(3), n(1));
+  }
+
+  @Test
+  public void fuseDirectChain() {
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    SourceTSet<Integer> source = env.createSource(new RangeSource(10), 2);
+    ComputeTSet<Integer, ?> map = source.direct().map(i -> i * 2);
+    ComputeTSet<Integer, ?> flatMap = map.direct().flatmap((i, c) -> c.collect(i));
+    ComputeTSet<Object, ?> forEach = flatMap.direct().lazyForEach(i -> { });
+
+    BuildContext ctx = env.getTSetGraph().build(forEach);
+    FusionPlan plan = ctx.getFusionPlan();
+    assertTrue(plan.isChainHead(source));
+    assertTrue(plan.isFused(map));
+    assertTrue(plan.isFused(flatMap));
+    assertTrue(plan.isFused(forEach));
+    assertEquals(source.getId(), plan.vertexId(forEach));
+
+    ComputeGraph graph = ctx.buildComputeGraph();
+    assertEquals(Collections.singleton(source.getId()), vertexNames(graph));
+    assertTrue(graph.getDirectedEdgesSet().isEmpty());
+  }
+
+  @Test
+  public void chainBoundaryAtShuffle() {
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    SourceTSet<Integer> source = env.createSource(new RangeSource(10), 2);
+    ComputeTSet<Integer, ?> map = source.direct().map(i -> i + 1);
+    ComputeTSet<Integer, ?> afterShuffle = map.partition(new HashingPartitioner<>())
+        .map(i -> i * 3);
+    ComputeTSet<Object, ?> forEach = afterShuffle.direct().lazyForEach(i -> { });
+
+    BuildContext ctx = env.getTSetGraph().build(forEach);
+    FusionPlan plan = ctx.getFusionPlan();
+    assertTrue(plan.isChainHead(source));
+    assertTrue(plan.isFused(map));
+    // the partition link ends the chain, the tset after it starts a new one
+    assertFalse(plan.isFused(afterShuffle));
+    assertTrue(plan.isChainHead(afterShuffle));
+    assertTrue(plan.isFused(forEach));
+
+    ComputeGraph graph = ctx.buildComputeGraph();
+    assertEquals(new HashSet<>(Arrays.asList(source.getId(), afterShuffle.getId())),
+        vertexNames(graph));
+    assertEquals(1, graph.getDirectedEdgesSet().size());
+    DirectedEdge<Vertex, Edge> edge = graph.getDirectedEdgesSet().iterator().next();
+    assertEquals(source.getId(), edge.getSourceVertex().getName());
+    assertEquals(afterShuffle.getId(), edge.getTargetVertex().getName());
+  }
+
+  @Test
+  public void chainBoundaryAtFanOut() {
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    SourceTSet<Integer> source = env.createSource(new RangeSource(10), 2);
+    ComputeTSet<Integer, ?> map1 = source.direct().map(i -> i + 1);
+    ComputeTSet<Integer, ?> map2 = source.direct().map(i -> i + 2);
+    ComputeTSet<Object, ?> forEach1 = map1.direct().lazyForEach(i -> { });
+    ComputeTSet<Object, ?> forEach2 = map2.direct().lazyForEach(i -> { });
+
+    BuildContext ctx = env.getTSetGraph().build();
+    FusionPlan plan = ctx.getFusionPlan();
+    // the source has two outputs, so neither map is fused in to it
+    assertFalse(plan.isChainHead(source));
+    assertFalse(plan.isFused(map1));
+    assertFalse(plan.isFused(map2));
+    assertTrue(plan.isChainHead(map1));
+    assertTrue(plan.isChainHead(map2));
+    assertTrue(plan.isFused(forEach1));
+    assertTrue(plan.isFused(forEach2));
+
+    ComputeGraph graph = ctx.buildComputeGraph();
+    assertEquals(new HashSet<>(Arrays.asList(source.getId(), map1.getId(),
+        map2.getId())), vertexNames(graph));
+    assertEquals(2, graph.getDirectedEdgesSet().size());
+  }
+
+  @Test
+  public void disableChaining() {
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    SourceTSet<Integer> source = env.createSource(new RangeSource(10), 2);
+    ComputeTSet<Integer, ?> map = source.direct().map(i -> i + 1).disableChaining();
+    ComputeTSet<Object, ?> forEach = map.direct().lazyForEach(i -> { });
+
+    BuildContext ctx = env.getTSetGraph().build(forEach);
+    FusionPlan plan = ctx.getFusionPlan();
+    // the map is not fused in to the source, and nothing is fused in to the map
+    assertFalse(plan.isFused(map));
+    assertFalse(plan.isChainHead(source));
+    assertFalse(plan.isChainHead(map));
+    assertFalse(plan.isFused(forEach));
+    assertEquals(3, ctx.buildComputeGraph().getTaskVertexSet().size());
+
+    env = new BatchTSetEnvironment();
+    source = env.createSource(new RangeSource(10), 2).disableChaining();
+    map = source.direct().map(i -> i + 1);
+    forEach = map.direct().lazyForEach(i -> { });
+
+    ctx = env.getTSetGraph().build(forEach);
+    plan = ctx.getFusionPlan();
+    assertFalse(plan.isFused(map));
+    assertTrue(plan.isChainHead(map));
+    assertTrue(plan.isFused(forEach));
+    assertEquals(new HashSet<>(Arrays.asList(source.getId(), map.getId())),
+        vertexNames(ctx.buildComputeGraph()));
+  }
+
+  @Test
+  public void fusionDisabled() {
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    env.getTSetGraph().setFusionEnabled(false);
+    SourceTSet<Integer> source = env.createSource(new RangeSource(10), 2);
+    ComputeTSet<Integer, ?> map = source.direct().map(i -> i + 1);
+    ComputeTSet<Object, ?> forEach = map.direct().lazyForEach(i -> { });
+
+    BuildContext ctx = env.getTSetGraph().build(forEach);
+    assertSame(FusionPlan.NONE, ctx.getFusionPlan());
+    ComputeGraph graph = ctx.buildComputeGraph();
+    assertEquals(new HashSet<>(Arrays.asList(source.getId(), map.getId(),
+        forEach.getId())), vertexNames(graph));
+    assertEquals(2, graph.getDirectedEdgesSet().size());
+  }
+
+  @Test
+  public void fusedResultsMatch() {
+    List<Object> fused = runPipeline(true);
+    List<Object> unfused = runPipeline(false);
+    assertEquals(20, fused.size());
+    assertEquals(unfused, fused);
+  }
+
+  /**
+   * Runs source -> map -> flatmap -> filter like flatmap -> foreach with a parallelism of 1
+   * and returns the records seen by the foreach
+   */
+  private List<Object> runPipeline(boolean fusion) {
+    List<Object> results = new ArrayList<>();
+    BatchTSetEnvironment env = new BatchTSetEnvironment();
+    env.getTSetGraph().setFusionEnabled(fusion);
+    ComputeTSet<Object, ?> forEach = env.createSource(new RangeSource(20), 1)
+        .direct().map(i -> i * 3)
+        .direct().<Integer>flatmap((i, c) -> {
+          c.collect(i);
+          c.collect(-i);
+        })
+        .direct().<Integer>flatmap((i, c) -> {
+          if (i % 2 == 0) {
+            c.collect(i);
+          }
+        })
+        .direct().lazyForEach(results::add);
+
+    BuildContext ctx = env.getTSetGraph().build(forEach);
+    ComputeGraph graph = ctx.buildComputeGraph();
+    assertEquals(fusion ? 1 : 5, graph.getTaskVertexSet().size());
+    runGraph(graph);
+    return results;
+  }
+
+  private static Set<String> vertexNames(ComputeGraph graph) {
+    Set<String> names = new HashSet<>();
+    for (Vertex v : graph.getTaskVertexSet()) {
+      names.add(v.getName());
+    }
+    return names;
+  }
+
+  /**
+   * Runs a graph of tasks with a parallelism of 1 connected by direct edges, one task after the
+   * other in the dependency order
+   */
+  @SuppressWarnings("unchecked")
+  private static void runGraph(ComputeGraph graph) {
+    Map<String, List<Object>> received = new HashMap<>();
+    Set<String> done = new HashSet<>();
+    while (done.size() < graph.getTaskVertexSet().size()) {
+      for (Vertex vertex : graph.getTaskVertexSet()) {
+        if (done.contains(vertex.getName()) || !parentsDone(graph, vertex, done)) {
+          continue;
+        }
+
+        Map<String, String> outEdges = new HashMap<>();
+        for (DirectedEdge<Vertex, Edge> de : graph.getDirectedEdgesSet()) {
+          if (de.getSourceVertex() == vertex) {
+            outEdges.put(de.getTaskEdge().getName(), de.getTargetVertex().getName());
+          }
+        }
+        RecordingContext ctx = new RecordingContext(vertex.getName(), outEdges);
+
+        INode node = vertex.getTask();
+        if (node instanceof ISource) {
+          ISource source = (ISource) node;
+          source.prepare(Config.newBuilder().build(), ctx);
+          while (!ctx.ended) {
+            source.execute();
+          }
+        } else {
+          ICompute<Object> compute = (ICompute<Object>) node;
+          compute.prepare(Config.newBuilder().build(), ctx);
+          List<Object> input = received.getOrDefault(vertex.getName(), new ArrayList<>());
+          compute.execute(new TaskMessage<>(input.iterator()));
+        }
+
+        for (Map.Entry<String, List<Object>> e : ctx.written.entrySet()) {
+          received.computeIfAbsent(outEdges.get(e.getKey()), k -> new ArrayList<>())
+              .addAll(e.getValue());
+        }
+        done.add(vertex.getName());
+      }
+    }
+  }
+
+  private static boolean parentsDone(ComputeGraph graph, Vertex vertex, Set<String> done) {
+    for (DirectedEdge<Vertex, Edge> de : graph.getDirectedEdgesSet()) {
+      if (de.getTargetVertex() == vertex && !done.contains(de.getSourceVertex().getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A graph node identified by its id
+   */
+  private static final class Node implements TBase {
+    private final String id;
+
+    Node(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public String getName() {
+      return id;
+    }
+
+    @Override
+    public TBase setName(String name) {
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Node && id.equals(((Node) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+      return id.hashCode();
+    }
+  }
+
+  private static class RangeSource implements SourceFunc<Integer> {
+    private final int count;
+
+    private int next;
+
+    RangeSource(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < count;
+    }
+
+    @Override
+    public Integer next() {
+      return next++;
+    }
+  }
+
+  /**
+   * Task context of a single task, which keeps the records written to each edge
+   */
+  private static class RecordingContext implements TaskContext {
+    private final String name;
+
+    private final Map<String, String> outEdges;
+
+    private final Map<String, List<Object>> written = new HashMap<>();
+
+    private boolean ended;
+
+    RecordingContext(String name, Map<String, String> outEdges) {
+      this.name = name;
+      this.outEdges = outEdges;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public int taskIndex() {
+      return 0;
+    }
+
+    @Override
+    public int globalTaskId() {
+      return 0;
+    }
+
+    @Override
+    public int taskId() {
+      return 0;
+    }
+
+    @Override
+    public String taskName() {
+      return name;
+    }
+
+    @Override
+    public int getParallelism() {
+      return 1;
+    }
+
+    @Override
+    public int getWorkerId() {
+      return 0;
+    }
+
+    @Override
+    public Map<String, Object> getConfigurations() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Object getConfig(String config) {
+      return null;
+    }
+
+    @Override
+    public Map<String, String> getOutEdges() {
+      return outEdges;
+    }
+
+    @Override
+    public Map<String, Set<String>> getInEdges() {
+      return null;
+    }
+
+    @Override
+    public boolean write(String edge, Object key, Object message) {
+      throw new UnsupportedOperationException("Keyed writes are not used");
+    }
+
+    @Override
+    public boolean write(String edge, Object message) {
+      written.computeIfAbsent(edge, k -> new ArrayList<>()).add(message);
+      return true;
+    }
+
+    @Override
+    public boolean writeBarrier(String edge, Object message) {
+      return true;
+    }
+
+    @Override
+    public boolean writeWatermark(String edge, long timestamp) {
+      return true;
+    }
+
+    @Override
+    public boolean writeEnd(String edge, Object message) {
+      write(edge, message);
+      end(edge);
+      return true;
+    }
+
+    @Override
+    public boolean writeEnd(String edge, Object key, Object message) {
+      return write(edge, key, message);
+    }
+
+    @Override
+    public void end(String edge) {
+      ended = true;
+    }
+
+    @Override
+    public void endAll() {
+      ended = true;
+    }
+
+    @Override
+    public boolean isDone(String edge) {
+      return ended;
+    }
+
+    @Override
+    public Set<WorkerSchedulePlan> getWorkers() {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Map<Integer, WorkerSchedulePlan> getWorkersMap() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public OperationMode getOperationMode() {
+      return OperationMode.BATCH;
+    }
   }
 }